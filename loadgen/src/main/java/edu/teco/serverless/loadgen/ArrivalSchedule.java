@@ -0,0 +1,59 @@
+package edu.teco.serverless.loadgen;
+
+import java.util.Random;
+
+/**
+ * The times requests are meant to start at, for an open-loop load with a fixed rate.
+ *
+ * The times don't depend on when earlier requests finish: if the server stalls, the requests due meanwhile
+ * start late, and their latency is counted from the time they were due. So a stall shows in the latencies of
+ * all requests it delayed, not only in the one that was running (no coordinated omission).
+ */
+public class ArrivalSchedule {
+    private final long start;
+    private final double intervalNanos;
+    private final boolean poisson;
+    private final Random random;
+    private long count;
+    private double next;
+
+    /**
+     * constructor
+     * @param start the time of the first request, a value of System.nanoTime()
+     * @param rate the requests per second
+     * @param poisson true for exponentially distributed gaps, false for evenly spaced requests
+     * @param random the source of the gaps
+     */
+    public ArrivalSchedule(long start, double rate, boolean poisson, Random random) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.start = start;
+        this.intervalNanos = 1e9 / rate;
+        this.poisson = poisson;
+        this.random = random;
+    }
+
+    /**
+     * @returns the time the next request is due at, a value of System.nanoTime()
+     */
+    public synchronized long next() {
+        long due;
+        if (poisson) {
+            due = start + (long) next;
+            next += -intervalNanos * Math.log(1 - random.nextDouble());
+        } else {
+            // computed from the count, so rounding doesn't add up
+            due = start + (long) (count * intervalNanos);
+        }
+        count++;
+        return due;
+    }
+
+    /**
+     * @returns the mean time between two requests in nanoseconds
+     */
+    public long getInterval() {
+        return (long) intervalNanos;
+    }
+}
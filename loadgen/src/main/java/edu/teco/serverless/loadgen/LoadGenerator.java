@@ -0,0 +1,370 @@
+package edu.teco.serverless.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the REST API of a running server with a mix of uploads, subtoken requests and executions,
+ * and reports throughput, error rates and latency percentiles per operation.
+ *
+ * Without a rate every thread sends its next request as soon as the previous one is answered (closed loop).
+ * With a rate the requests start at the times of an ArrivalSchedule, no matter how fast the server answers
+ * (open loop), and the response times are corrected for coordinated omission.
+ */
+public class LoadGenerator {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadOptions options;
+    private final ServerlessClient client;
+    private final PrintStream out;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final Operation[] operations;
+    private final int[] weights;
+    private final List<Lambda> lambdas = new ArrayList<>();
+    private final Queue<Lambda> uploaded = new ConcurrentLinkedQueue<>();
+    private final String prefix = "loadgen" + Long.toString(System.currentTimeMillis() % 100000000L, 36);
+    private final AtomicLong uploads = new AtomicLong();
+    private final AtomicBoolean failureReported = new AtomicBoolean();
+    private long measuredNanos;
+
+    /**
+     * constructor
+     * @param options the options of the load test
+     * @param out receives the progress and the report
+     */
+    public LoadGenerator(LoadOptions options, PrintStream out) {
+        this.options = options;
+        this.client = new ServerlessClient(options.getUrl(), options.getTimeout());
+        this.out = out;
+        operations = options.getMix().keySet().toArray(new Operation[0]);
+        weights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.getMix().get(operations[i]);
+            weights[i] = total;
+            stats.put(operations[i], new OperationStats(operations[i]));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.println(LoadOptions.USAGE);
+            return;
+        }
+        LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        LoadGenerator generator = new LoadGenerator(options, System.out);
+        try {
+            generator.run();
+        } catch (IOException e) {
+            System.err.println("Load test failed: " + e.getMessage());
+            System.exit(1);
+        }
+        generator.report();
+        if (options.getOutput() != null) {
+            generator.write(new File(options.getOutput()));
+        }
+    }
+
+    /**
+     * uploads the lambdas, sends the requests and deletes the lambdas again
+     * @throws IOException if the lambdas can't be uploaded
+     * @throws InterruptedException if the thread is interrupted
+     */
+    public void run() throws IOException, InterruptedException {
+        try {
+            setUp();
+            measure();
+        } finally {
+            cleanUp();
+        }
+    }
+
+    private void setUp() throws IOException {
+        out.println(String.format("Uploading %d lambdas to %s ...", options.getLambdas(), options.getUrl()));
+        for (int i = 0; i < options.getLambdas(); i++) {
+            String name = prefix + "-" + i;
+            ServerlessClient.Response upload = client.upload(name, options.getCode());
+            if (!upload.isSuccessful()) {
+                throw new IOException(String.format("upload of %s failed with %d: %s", name, upload.getStatus(),
+                        upload.getBody()));
+            }
+            Lambda lambda = new Lambda(name, client.token(upload));
+            lambdas.add(lambda);
+            ServerlessClient.Response subtoken = client.subtoken(name, lambda.masterToken);
+            if (!subtoken.isSuccessful()) {
+                throw new IOException(String.format("subtoken of %s failed with %d: %s", name, subtoken.getStatus(),
+                        subtoken.getBody()));
+            }
+            lambda.subtoken = subtoken.getBody().trim();
+        }
+    }
+
+    private void measure() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureStart = start + options.getWarmup();
+        long end = measureStart + options.getDuration();
+        ArrivalSchedule schedule = options.getRate() > 0
+                ? new ArrivalSchedule(start, options.getRate(), options.isPoisson(), new Random()) : null;
+
+        out.println(String.format("Sending requests with %d threads%s for %ds after a warmup of %ds ...",
+                options.getThreads(), schedule == null ? "" : String.format(" at %.1f/s", options.getRate()),
+                TimeUnit.NANOSECONDS.toSeconds(options.getDuration()),
+                TimeUnit.NANOSECONDS.toSeconds(options.getWarmup())));
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < options.getThreads(); i++) {
+            Thread thread = new Thread(() -> send(schedule, end), "loadgen-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+
+        if (options.getWarmup() > 0) {
+            sleepUntil(measureStart);
+            for (OperationStats operation : stats.values()) {
+                operation.interval(false);
+            }
+        }
+        for (long tick = measureStart + options.getInterval(); tick < end; tick += options.getInterval()) {
+            sleepUntil(tick);
+            progress(tick - measureStart, options.getInterval());
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long done = System.nanoTime();
+        measuredNanos = done - measureStart;
+        for (OperationStats operation : stats.values()) {
+            operation.interval(true);
+        }
+    }
+
+    private void send(ArrivalSchedule schedule, long end) {
+        while (true) {
+            long due;
+            if (schedule != null) {
+                due = schedule.next();
+                if (due >= end) {
+                    return;
+                }
+                sleepUntil(due);
+            } else {
+                due = System.nanoTime();
+                if (due >= end) {
+                    return;
+                }
+            }
+            Operation operation = pick();
+            long sent = System.nanoTime();
+            int status = send(operation);
+            stats.get(operation).record(due, sent, System.nanoTime(), status);
+        }
+    }
+
+    private int send(Operation operation) {
+        try {
+            Lambda lambda = lambdas.get(ThreadLocalRandom.current().nextInt(lambdas.size()));
+            switch (operation) {
+                case UPLOAD:
+                    String name = prefix + "-u" + uploads.incrementAndGet();
+                    ServerlessClient.Response upload = client.upload(name, options.getCode());
+                    if (upload.isSuccessful()) {
+                        uploaded.add(new Lambda(name, client.token(upload)));
+                    }
+                    return upload.getStatus();
+                case SUBTOKEN:
+                    return client.subtoken(lambda.name, lambda.masterToken).getStatus();
+                case EXECUTE:
+                default:
+                    return client.execute(lambda.name, lambda.subtoken, options.getParameters()).getStatus();
+            }
+        } catch (IOException e) {
+            if (failureReported.compareAndSet(false, true)) {
+                System.err.println("Request failed, further failures are only counted: " + e);
+            }
+            return OperationStats.NO_RESPONSE;
+        }
+    }
+
+    private Operation pick() {
+        int value = ThreadLocalRandom.current().nextInt(weights[weights.length - 1]);
+        for (int i = 0; i < weights.length; i++) {
+            if (value < weights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private void cleanUp() {
+        if (options.isKeep()) {
+            return;
+        }
+        List<Lambda> created = new ArrayList<>(lambdas);
+        created.addAll(uploaded);
+        for (Lambda lambda : created) {
+            try {
+                ServerlessClient.Response response = client.delete(lambda.name, lambda.masterToken);
+                if (!response.isSuccessful()) {
+                    System.err.println(String.format("Deleting %s failed with %d.", lambda.name, response.getStatus()));
+                }
+            } catch (IOException e) {
+                System.err.println(String.format("Deleting %s failed: %s", lambda.name, e.getMessage()));
+            }
+        }
+    }
+
+    private void progress(long elapsed, long interval) {
+        StringBuilder sb = new StringBuilder(String.format("%6ds", TimeUnit.NANOSECONDS.toSeconds(elapsed)));
+        for (OperationStats operation : stats.values()) {
+            Histogram histogram = operation.interval(true);
+            sb.append(String.format("  %s %.1f/s p99 %.1fms", operation.getOperation(),
+                    histogram.getTotalCount() * 1e9 / interval, histogram.getValueAtPercentile(99) / 1000.0));
+        }
+        out.println(sb);
+    }
+
+    /**
+     * prints the results of the measured requests
+     */
+    public void report() {
+        double seconds = measuredNanos / 1e9;
+        out.println();
+        out.println(String.format("Results of %.1fs, latencies in ms%s:", seconds,
+                options.getRate() > 0 ? ", response times corrected for coordinated omission" : ""));
+        out.println(String.format("%-10s %-9s %9s %9s %8s %7s %9s %9s %9s %9s %9s", "operation", "latency", "count",
+                "rate/s", "errors", "error%", "p50", "p90", "p99", "p99.9", "max"));
+        for (OperationStats operation : stats.values()) {
+            printRow(operation, "response", operation.getResponseTimes(), seconds);
+            if (options.getRate() > 0) {
+                printRow(operation, "service", operation.getServiceTimes(), seconds);
+            }
+        }
+        for (OperationStats operation : stats.values()) {
+            out.println(String.format("%s by status: %s", operation.getOperation(), operation.getStatuses()));
+        }
+    }
+
+    private void printRow(OperationStats operation, String latency, Histogram histogram, double seconds) {
+        long count = operation.getCount();
+        StringBuilder sb = new StringBuilder(String.format("%-10s %-9s %9d %9.1f %8d %6.2f%%", operation.getOperation(),
+                latency, count, count / seconds, operation.getErrors(),
+                count == 0 ? 0 : 100.0 * operation.getErrors() / count));
+        for (double percentile : PERCENTILES) {
+            sb.append(String.format(" %9.2f", histogram.getValueAtPercentile(percentile) / 1000.0));
+        }
+        sb.append(String.format(" %9.2f", histogram.getMaxValue() / 1000.0));
+        out.println(sb);
+    }
+
+    /**
+     * writes summary.json and the percentile distributions of every operation, e.g. execute-response.hgrm,
+     * which can be compared between releases with the HdrHistogram plotter
+     * @param directory the directory for the files, it is created if needed
+     * @throws IOException if a file can't be written
+     */
+    public void write(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("can't create " + directory);
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode summary = mapper.createObjectNode();
+        summary.put("url", options.getUrl());
+        summary.put("threads", options.getThreads());
+        summary.put("rate", options.getRate());
+        summary.put("arrival", options.isPoisson() ? "poisson" : "fixed");
+        summary.put("seconds", measuredNanos / 1e9);
+        ObjectNode results = summary.putObject("operations");
+        for (OperationStats operation : stats.values()) {
+            ObjectNode result = results.putObject(operation.getOperation().toString());
+            result.put("count", operation.getCount());
+            result.put("throughput", operation.getCount() * 1e9 / measuredNanos);
+            result.put("errors", operation.getErrors());
+            ObjectNode statuses = result.putObject("statuses");
+            for (Map.Entry<Integer, Long> status : operation.getStatuses().entrySet()) {
+                statuses.put(status.getKey().toString(), status.getValue());
+            }
+            putLatencies(result.putObject("responseMillis"), operation.getResponseTimes());
+            putLatencies(result.putObject("serviceMillis"), operation.getServiceTimes());
+
+            writeDistribution(new File(directory, operation.getOperation() + "-response.hgrm"),
+                    operation.getResponseTimes());
+            writeDistribution(new File(directory, operation.getOperation() + "-service.hgrm"),
+                    operation.getServiceTimes());
+        }
+        mapper.writerWithDefaultPrettyPrinter().writeValue(new File(directory, "summary.json"), summary);
+        out.println("Results written to " + directory);
+    }
+
+    private static void putLatencies(ObjectNode node, Histogram histogram) {
+        for (double percentile : PERCENTILES) {
+            node.put("p" + (percentile % 1 == 0 ? Integer.toString((int) percentile) : Double.toString(percentile)),
+                    histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        node.put("max", histogram.getMaxValue() / 1000.0);
+        node.put("mean", histogram.getMean() / 1000.0);
+    }
+
+    private static void writeDistribution(File file, Histogram histogram) throws IOException {
+        try (PrintStream stream = new PrintStream(new FileOutputStream(file), false, "UTF-8")) {
+            // the histograms count microseconds, the distribution is written in milliseconds
+            histogram.outputPercentileDistribution(stream, 1000.0);
+        }
+    }
+
+    /**
+     * @param operation the operation
+     * @return the results of the operation, or null if it isn't in the mix
+     */
+    public OperationStats getStats(Operation operation) {
+        return stats.get(operation);
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * A lambda uploaded by the load generator.
+     */
+    private static class Lambda {
+        final String name;
+        final String masterToken;
+        volatile String subtoken;
+
+        Lambda(String name, String masterToken) {
+            this.name = name;
+            this.masterToken = masterToken;
+            this.subtoken = masterToken;
+        }
+    }
+}
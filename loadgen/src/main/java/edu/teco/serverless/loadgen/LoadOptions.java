@@ -0,0 +1,280 @@
+package edu.teco.serverless.loadgen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The options of a load test, given on the command line as "--name value" or "--name=value".
+ *
+ * Durations are given in seconds or with a unit, e.g. "500ms", "30s" or "5m".
+ */
+public class LoadOptions {
+    static final String USAGE = String.join("\n",
+            "usage: java -jar loadgen.jar [options]",
+            "  --url URL            address of the server (http://localhost:8080)",
+            "  --lambdas N          lambdas uploaded before the run, executed and sent subtokens for (4)",
+            "  --threads N          threads sending requests, the maximum concurrency (16)",
+            "  --rate R             requests per second started, 0 sends them back to back (0)",
+            "  --arrival TYPE       gaps between the requests of a rate: fixed or poisson (fixed)",
+            "  --mix MIX            weights of the operations, e.g. execute=90,subtoken=8,upload=2 (execute=100)",
+            "  --duration D         time the requests are measured (60s)",
+            "  --warmup D           time requests are sent before the measurement (10s)",
+            "  --interval D         time between progress reports (5s)",
+            "  --timeout D          time limit of a single request (60s)",
+            "  --code CODE          Python 3 code of the lambdas (print(\"hello\"))",
+            "  --parameters A,B     parameters of the executions (none)",
+            "  --output DIR         directory for summary.json and the histograms (none)",
+            "  --keep               don't delete the uploaded lambdas after the run");
+
+    private String url = "http://localhost:8080";
+    private int lambdas = 4;
+    private int threads = 16;
+    private double rate = 0;
+    private boolean poisson;
+    private Map<Operation, Integer> mix = parseMix("execute=100");
+    private long duration = TimeUnit.SECONDS.toNanos(60);
+    private long warmup = TimeUnit.SECONDS.toNanos(10);
+    private long interval = TimeUnit.SECONDS.toNanos(5);
+    private long timeout = TimeUnit.SECONDS.toNanos(60);
+    private String code = "print(\"hello\")";
+    private List<String> parameters = Collections.emptyList();
+    private String output;
+    private boolean keep;
+
+    /**
+     * @param args the command line
+     * @return the options
+     * @throws IllegalArgumentException if an option is unknown or has an invalid value
+     */
+    public static LoadOptions parse(String... args) {
+        LoadOptions options = new LoadOptions();
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if (!name.startsWith("--")) {
+                throw new IllegalArgumentException("unexpected argument: " + name);
+            }
+            name = name.substring(2);
+            String value = null;
+            int equals = name.indexOf('=');
+            if (equals >= 0) {
+                value = name.substring(equals + 1);
+                name = name.substring(0, equals);
+            }
+            if (name.equals("keep")) {
+                options.keep = value == null || Boolean.parseBoolean(value);
+                continue;
+            }
+            if (value == null) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("missing value of --" + name);
+                }
+                value = args[++i];
+            }
+            options.set(name, value);
+        }
+        if (options.lambdas < 1 || options.threads < 1 || options.rate < 0 || options.duration <= 0
+                || options.warmup < 0 || options.interval <= 0 || options.timeout <= 0) {
+            throw new IllegalArgumentException("lambdas, threads, duration, interval and timeout must be positive");
+        }
+        return options;
+    }
+
+    private void set(String name, String value) {
+        try {
+            switch (name) {
+                case "url":
+                    url = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                    break;
+                case "lambdas":
+                    lambdas = Integer.parseInt(value);
+                    break;
+                case "threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "rate":
+                    rate = Double.parseDouble(value);
+                    break;
+                case "arrival":
+                    if (!value.equals("fixed") && !value.equals("poisson")) {
+                        throw new IllegalArgumentException("arrival must be fixed or poisson");
+                    }
+                    poisson = value.equals("poisson");
+                    break;
+                case "mix":
+                    mix = parseMix(value);
+                    break;
+                case "duration":
+                    duration = parseDuration(value);
+                    break;
+                case "warmup":
+                    warmup = parseDuration(value);
+                    break;
+                case "interval":
+                    interval = parseDuration(value);
+                    break;
+                case "timeout":
+                    timeout = parseDuration(value);
+                    break;
+                case "code":
+                    code = value;
+                    break;
+                case "parameters":
+                    parameters = value.isEmpty() ? Collections.emptyList() : new ArrayList<>(Arrays.asList(value.split(",")));
+                    break;
+                case "output":
+                    output = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option --" + name);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid value of --" + name + ": " + value);
+        }
+    }
+
+    /**
+     * @param mix the weights, e.g. "execute=90,upload=10"
+     * @return the weight of every operation with a weight > 0
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] weight = part.split("=");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("invalid mix: " + mix);
+            }
+            int value = Integer.parseInt(weight[1].trim());
+            if (value < 0) {
+                throw new IllegalArgumentException("invalid mix: " + mix);
+            }
+            if (value > 0) {
+                weights.put(Operation.parse(weight[0]), value);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("the mix contains no operation");
+        }
+        return weights;
+    }
+
+    /**
+     * @param duration e.g. "500ms", "30s", "5m" or "30"
+     * @return the duration in nanoseconds
+     */
+    static long parseDuration(String duration) {
+        String value = duration.trim();
+        if (value.endsWith("ms")) {
+            return TimeUnit.MILLISECONDS.toNanos(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return TimeUnit.SECONDS.toNanos(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return TimeUnit.MINUTES.toNanos(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return TimeUnit.SECONDS.toNanos(Long.parseLong(value));
+    }
+
+    /**
+     * @returns the address of the server, without a trailing slash
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @returns the number of lambdas uploaded before the run
+     */
+    public int getLambdas() {
+        return lambdas;
+    }
+
+    /**
+     * @returns the number of threads sending requests
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @returns the requests started per second, 0 if they are sent back to back
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * @returns true if the requests of a rate arrive as a Poisson process, false if they are evenly spaced
+     */
+    public boolean isPoisson() {
+        return poisson;
+    }
+
+    /**
+     * @returns the weights of the operations
+     */
+    public Map<Operation, Integer> getMix() {
+        return mix;
+    }
+
+    /**
+     * @returns the measured time in nanoseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * @returns the time before the measurement in nanoseconds
+     */
+    public long getWarmup() {
+        return warmup;
+    }
+
+    /**
+     * @returns the time between progress reports in nanoseconds
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * @returns the time limit of a single request in nanoseconds
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @returns the code of the lambdas
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * @returns the parameters of the executions
+     */
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * @returns the directory for the results, or null
+     */
+    public String getOutput() {
+        return output;
+    }
+
+    /**
+     * @returns true if the uploaded lambdas are kept after the run
+     */
+    public boolean isKeep() {
+        return keep;
+    }
+}
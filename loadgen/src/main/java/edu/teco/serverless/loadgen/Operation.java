@@ -0,0 +1,37 @@
+package edu.teco.serverless.loadgen;
+
+/**
+ * The requests the load generator sends, weighted by the mix of the LoadOptions.
+ */
+public enum Operation {
+    /**
+     * uploads a new lambda and waits for its image, the lambda is deleted after the run
+     */
+    UPLOAD,
+    /**
+     * mints a subtoken for one of the lambdas
+     */
+    SUBTOKEN,
+    /**
+     * executes one of the lambdas with its subtoken
+     */
+    EXECUTE;
+
+    /**
+     * @param name the name of the operation, in any case
+     * @return the operation
+     * @throws IllegalArgumentException if there is no such operation
+     */
+    public static Operation parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown operation: " + name);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,131 @@
+package edu.teco.serverless.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The results of one operation: latencies in microseconds, successes and failures by status.
+ *
+ * The service time is counted from the moment a request was sent, the response time from the moment it was
+ * due by the ArrivalSchedule. With a rate the response time is corrected for coordinated omission;
+ * without one both are the same.
+ */
+public class OperationStats {
+    /**
+     * the status counted for requests that got no response, e.g. refused connections or timeouts
+     */
+    public static final int NO_RESPONSE = 0;
+    private static final long HIGHEST = TimeUnit.HOURS.toMicros(1);
+
+    private final Operation operation;
+    private final Recorder serviceRecorder = new Recorder(HIGHEST, 3);
+    private final Recorder responseRecorder = new Recorder(HIGHEST, 3);
+    private final ConcurrentMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final Histogram service = new Histogram(HIGHEST, 3);
+    private final Histogram response = new Histogram(HIGHEST, 3);
+    private final Map<Integer, Long> totalStatuses = new TreeMap<>();
+
+    /**
+     * constructor
+     * @param operation the measured operation
+     */
+    public OperationStats(Operation operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * counts a request, it can be called by any number of threads at once
+     * @param due the time the request was due at
+     * @param sent the time the request was sent at
+     * @param done the time the response was received at
+     * @param status the HTTP status of the response, NO_RESPONSE if there was none
+     */
+    public void record(long due, long sent, long done, int status) {
+        serviceRecorder.recordValue(Math.min(HIGHEST, TimeUnit.NANOSECONDS.toMicros(done - sent)));
+        responseRecorder.recordValue(Math.min(HIGHEST, TimeUnit.NANOSECONDS.toMicros(done - due)));
+        LongAdder count = statuses.get(status);
+        if (count == null) {
+            count = statuses.computeIfAbsent(status, s -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    /**
+     * takes the requests counted since the last call and adds them to the totals
+     * @param measured false to drop them, e.g. during the warmup
+     * @return the response times of the interval
+     */
+    public synchronized Histogram interval(boolean measured) {
+        Histogram intervalService = serviceRecorder.getIntervalHistogram();
+        Histogram intervalResponse = responseRecorder.getIntervalHistogram();
+        Map<Integer, Long> intervalStatuses = new TreeMap<>();
+        for (Map.Entry<Integer, LongAdder> entry : statuses.entrySet()) {
+            intervalStatuses.put(entry.getKey(), entry.getValue().sumThenReset());
+        }
+        if (measured) {
+            service.add(intervalService);
+            response.add(intervalResponse);
+            for (Map.Entry<Integer, Long> entry : intervalStatuses.entrySet()) {
+                if (entry.getValue() > 0) {
+                    totalStatuses.merge(entry.getKey(), entry.getValue(), Long::sum);
+                }
+            }
+        }
+        return intervalResponse;
+    }
+
+    /**
+     * @returns the measured operation
+     */
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * @returns the service times of all measured requests in microseconds
+     */
+    public synchronized Histogram getServiceTimes() {
+        return service.copy();
+    }
+
+    /**
+     * @returns the response times of all measured requests in microseconds
+     */
+    public synchronized Histogram getResponseTimes() {
+        return response.copy();
+    }
+
+    /**
+     * @returns the number of measured requests by status
+     */
+    public synchronized Map<Integer, Long> getStatuses() {
+        return new TreeMap<>(totalStatuses);
+    }
+
+    /**
+     * @returns the number of measured requests
+     */
+    public synchronized long getCount() {
+        return response.getTotalCount();
+    }
+
+    /**
+     * @returns the number of measured requests without a 2xx response
+     */
+    public synchronized long getErrors() {
+        long errors = 0;
+        for (Map.Entry<Integer, Long> entry : totalStatuses.entrySet()) {
+            if (entry.getKey() < 200 || entry.getKey() >= 300) {
+                errors += entry.getValue();
+            }
+        }
+        return errors;
+    }
+}
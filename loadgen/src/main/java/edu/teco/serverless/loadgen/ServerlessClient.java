@@ -0,0 +1,181 @@
+package edu.teco.serverless.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the requests of the REST API, see the README of the server.
+ *
+ * Connections are kept alive by HttpURLConnection, so every thread reuses its connection.
+ */
+public class ServerlessClient {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String url;
+    private final int timeout;
+
+    /**
+     * constructor
+     * @param url the address of the server, without a trailing slash
+     * @param timeout the time limit of a request in nanoseconds
+     */
+    public ServerlessClient(String url, long timeout) {
+        this.url = url;
+        this.timeout = (int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMillis(timeout));
+    }
+
+    /**
+     * uploads a Python 3 lambda and waits until its image is built
+     * @param name the name of the lambda
+     * @param code the code of the lambda
+     * @return the response, its body contains the master token
+     * @throws IOException if the server can't be reached
+     */
+    public Response upload(String name, String code) throws IOException {
+        ObjectNode body = mapper.createObjectNode();
+        body.put("name", name);
+        ObjectNode runtime = body.putObject("runtimeAttributes");
+        runtime.put("language", "Python3");
+        runtime.putArray("libraries");
+        runtime.put("code", code);
+        return send("POST", "/lambdas?async=false", null, mapper.writeValueAsBytes(body));
+    }
+
+    /**
+     * @param response the response of an upload
+     * @return the master token of the lambda
+     * @throws IOException if the response contains no token
+     */
+    public String token(Response response) throws IOException {
+        String token = mapper.readTree(response.getBody()).path("token").asText(null);
+        if (token == null) {
+            throw new IOException("upload response contains no token: " + response.getBody());
+        }
+        return token;
+    }
+
+    /**
+     * mints a subtoken, that is valid for a day
+     * @param name the name of the lambda
+     * @param masterToken the master token of the lambda
+     * @return the response, its body is the subtoken
+     * @throws IOException if the server can't be reached
+     */
+    public Response subtoken(String name, String masterToken) throws IOException {
+        String expiryDate = new SimpleDateFormat("yyyy-MM-dd hh-mm-ss")
+                .format(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)));
+        return send("GET", "/lambdas/" + name + "/token?expiryDate=" + URLEncoder.encode(expiryDate, "UTF-8"),
+                masterToken, null);
+    }
+
+    /**
+     * executes a lambda once
+     * @param name the name of the lambda
+     * @param token a master or subtoken of the lambda
+     * @param parameters the parameters of the call
+     * @return the response
+     * @throws IOException if the server can't be reached
+     */
+    public Response execute(String name, String token, List<String> parameters) throws IOException {
+        ObjectNode body = mapper.createObjectNode();
+        body.put("times", 1);
+        ArrayNode array = body.putArray("parameters");
+        for (String parameter : parameters) {
+            array.add(parameter);
+        }
+        return send("POST", "/lambdas/" + name + "/execute", token, mapper.writeValueAsBytes(body));
+    }
+
+    /**
+     * deletes a lambda
+     * @param name the name of the lambda
+     * @param masterToken the master token of the lambda
+     * @return the response
+     * @throws IOException if the server can't be reached
+     */
+    public Response delete(String name, String masterToken) throws IOException {
+        return send("DELETE", "/lambdas/" + name, masterToken, null);
+    }
+
+    private Response send(String method, String path, String token, byte[] body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(timeout);
+        connection.setReadTimeout(timeout);
+        connection.setRequestProperty("Accept", "application/json");
+        if (token != null) {
+            connection.setRequestProperty("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setFixedLengthStreamingMode(body.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        // the body is always read to the end, otherwise the connection can't be reused
+        return new Response(status, in == null ? "" : readFully(in));
+    }
+
+    private static String readFully(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] chunk = new byte[4096];
+            int read;
+            while ((read = stream.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+            return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Status and body of a response.
+     */
+    public static class Response {
+        private final int status;
+        private final String body;
+
+        public Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        /**
+         * @returns the HTTP status
+         */
+        public int getStatus() {
+            return status;
+        }
+
+        /**
+         * @returns the body
+         */
+        public String getBody() {
+            return body;
+        }
+
+        /**
+         * @returns true for a 2xx status
+         */
+        public boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
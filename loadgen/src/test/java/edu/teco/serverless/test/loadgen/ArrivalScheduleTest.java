@@ -0,0 +1,78 @@
+package edu.teco.serverless.test.loadgen;
+
+import edu.teco.serverless.loadgen.ArrivalSchedule;
+import edu.teco.serverless.loadgen.Operation;
+import edu.teco.serverless.loadgen.OperationStats;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests the open-loop schedule and the correction of the response times for coordinated omission
+ */
+public class ArrivalScheduleTest {
+
+    @Test
+    public void fixedRate() {
+        ArrivalSchedule schedule = new ArrivalSchedule(1000, 3, false, new Random());
+        assertEquals(1000, schedule.next());
+        assertEquals(1000 + 333333333, schedule.next());
+        assertEquals(1000 + 666666666, schedule.next());
+        for (int i = 3; i < 3000; i++) {
+            schedule.next();
+        }
+        // rounding doesn't add up over many requests
+        assertEquals(1000 + TimeUnit.SECONDS.toNanos(1000), schedule.next());
+    }
+
+    @Test
+    public void poissonRate() {
+        ArrivalSchedule schedule = new ArrivalSchedule(0, 100, true, new Random(42));
+        long previous = schedule.next();
+        assertEquals(0, previous);
+        long last = 0;
+        for (int i = 0; i < 100000; i++) {
+            last = schedule.next();
+            assertTrue(last >= previous);
+            previous = last;
+        }
+        // 100000 requests at 100/s take about 1000s
+        assertEquals(1000, TimeUnit.NANOSECONDS.toSeconds(last), 20);
+    }
+
+    @Test
+    public void stallIsCountedForAllDelayedRequests() {
+        // the server stalls for 1s, the requests due meanwhile are sent when it answers again
+        OperationStats stats = new OperationStats(Operation.EXECUTE);
+        long stall = TimeUnit.SECONDS.toNanos(1);
+        long interval = TimeUnit.MILLISECONDS.toNanos(10);
+        stats.record(0, 0, stall, 200);
+        for (long due = interval; due < stall; due += interval) {
+            stats.record(due, stall, stall + TimeUnit.MILLISECONDS.toNanos(1), 200);
+        }
+        stats.interval(true);
+
+        assertEquals(100, stats.getCount());
+        assertEquals(0, stats.getErrors());
+        // only one request took long to serve, but half of them were answered more than 0.5s late
+        assertTrue(stats.getServiceTimes().getValueAtPercentile(50) < 2000);
+        assertTrue(stats.getResponseTimes().getValueAtPercentile(50) > 490000);
+    }
+
+    @Test
+    public void warmupIsDropped() {
+        OperationStats stats = new OperationStats(Operation.UPLOAD);
+        stats.record(0, 0, 1000, 503);
+        stats.interval(false);
+        stats.record(0, 0, 1000, 201);
+        stats.record(0, 0, 1000, OperationStats.NO_RESPONSE);
+        stats.interval(true);
+
+        assertEquals(2, stats.getCount());
+        assertEquals(1, stats.getErrors());
+        assertFalse(stats.getStatuses().containsKey(503));
+    }
+}
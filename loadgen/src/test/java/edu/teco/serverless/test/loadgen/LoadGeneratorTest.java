@@ -0,0 +1,164 @@
+package edu.teco.serverless.test.loadgen;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.teco.serverless.loadgen.LoadGenerator;
+import edu.teco.serverless.loadgen.LoadOptions;
+import edu.teco.serverless.loadgen.Operation;
+import edu.teco.serverless.loadgen.OperationStats;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * runs the load generator against a fake server, that answers like the REST API
+ */
+public class LoadGeneratorTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private final Map<String, String> lambdas = new ConcurrentHashMap<>();
+    private final AtomicInteger executions = new AtomicInteger();
+    private final AtomicInteger deletions = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/lambdas", this::handle);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void openLoopMix() throws Exception {
+        LoadGenerator generator = run("--rate", "200", "--mix", "execute=80,subtoken=10,upload=10");
+
+        OperationStats execute = generator.getStats(Operation.EXECUTE);
+        long total = 0;
+        for (Operation operation : Operation.values()) {
+            total += generator.getStats(operation).getCount();
+            assertEquals(0, generator.getStats(operation).getErrors());
+        }
+        // 1s at 200/s
+        assertEquals(200, total, 10);
+        assertEquals(executions.get(), execute.getCount());
+        assertTrue(execute.getResponseTimes().getValueAtPercentile(50) >= 5000);
+        // the uploaded lambdas are deleted again
+        assertEquals(2 + generator.getStats(Operation.UPLOAD).getCount(), deletions.get());
+        assertTrue(lambdas.isEmpty());
+
+        File output = folder.newFolder();
+        generator.write(output);
+        assertTrue(new File(output, "summary.json").length() > 0);
+        assertTrue(new File(output, "execute-response.hgrm").length() > 0);
+    }
+
+    @Test
+    public void errorsAreCounted() throws Exception {
+        LoadGenerator generator = run("--threads", "2", "--parameters", "fail");
+
+        OperationStats execute = generator.getStats(Operation.EXECUTE);
+        assertTrue(execute.getCount() > 0);
+        assertEquals(execute.getCount(), execute.getErrors());
+        assertEquals(execute.getCount(), (long) execute.getStatuses().get(500));
+        assertNull(generator.getStats(Operation.UPLOAD));
+    }
+
+    private LoadGenerator run(String... args) throws Exception {
+        String[] common = {"--url", "http://127.0.0.1:" + server.getAddress().getPort(), "--lambdas", "2",
+                "--duration", "1s", "--warmup", "0", "--interval", "500ms"};
+        String[] all = new String[common.length + args.length];
+        System.arraycopy(common, 0, all, 0, common.length);
+        System.arraycopy(args, 0, all, common.length, args.length);
+
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        LoadGenerator generator = new LoadGenerator(LoadOptions.parse(all), new PrintStream(report, true, "UTF-8"));
+        generator.run();
+        generator.report();
+        assertTrue(new String(report.toByteArray(), StandardCharsets.UTF_8).contains("Results of"));
+        return generator;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        String body = read(exchange.getRequestBody());
+        String[] parts = path.split("/");
+        String token = exchange.getRequestHeaders().getFirst("Authorization");
+
+        if (method.equals("POST") && path.equals("/lambdas")) {
+            String name = body.replaceAll(".*\"name\":\"([^\"]+)\".*", "$1");
+            lambdas.put(name, "master-" + name);
+            respond(exchange, 201, "{\"token\":\"master-" + name + "\"}");
+        } else if (method.equals("GET") && parts.length == 4 && parts[3].equals("token")) {
+            respond(exchange, authorized(token, parts[2]) ? 200 : 401, "sub-" + parts[2]);
+        } else if (method.equals("POST") && parts.length == 4 && parts[3].equals("execute")) {
+            if (!("Bearer sub-" + parts[2]).equals(token)) {
+                respond(exchange, 401, "");
+                return;
+            }
+            sleep(5);
+            executions.incrementAndGet();
+            respond(exchange, body.contains("fail") ? 500 : 200, "{\"message\":\"hello\"}");
+        } else if (method.equals("DELETE") && parts.length == 3 && authorized(token, parts[2])) {
+            lambdas.remove(parts[2]);
+            deletions.incrementAndGet();
+            respond(exchange, 200, "");
+        } else {
+            respond(exchange, 404, "");
+        }
+    }
+
+    private boolean authorized(String token, String name) {
+        return ("Bearer " + lambdas.get(name)).equals(token);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[4096];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            buffer.write(chunk, 0, read);
+        }
+        return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
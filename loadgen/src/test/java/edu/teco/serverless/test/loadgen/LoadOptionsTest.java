@@ -0,0 +1,58 @@
+package edu.teco.serverless.test.loadgen;
+
+import edu.teco.serverless.loadgen.LoadOptions;
+import edu.teco.serverless.loadgen.Operation;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests the parsing of the command line of the load generator
+ */
+public class LoadOptionsTest {
+
+    @Test
+    public void defaults() {
+        LoadOptions options = LoadOptions.parse();
+        assertEquals("http://localhost:8080", options.getUrl());
+        assertEquals(0, options.getRate(), 0);
+        assertEquals(1, options.getMix().size());
+        assertEquals(100, (int) options.getMix().get(Operation.EXECUTE));
+        assertFalse(options.isKeep());
+    }
+
+    @Test
+    public void options() {
+        LoadOptions options = LoadOptions.parse("--url=http://server:9090/", "--rate", "250.5", "--arrival", "poisson",
+                "--mix", "execute=90,subtoken=10,upload=0", "--duration", "2m", "--warmup", "500ms", "--timeout=5",
+                "--parameters", "a,b", "--keep");
+        assertEquals("http://server:9090", options.getUrl());
+        assertEquals(250.5, options.getRate(), 0);
+        assertTrue(options.isPoisson());
+        assertEquals(2, options.getMix().size());
+        assertEquals(10, (int) options.getMix().get(Operation.SUBTOKEN));
+        assertFalse(options.getMix().containsKey(Operation.UPLOAD));
+        assertEquals(TimeUnit.MINUTES.toNanos(2), options.getDuration());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), options.getWarmup());
+        assertEquals(TimeUnit.SECONDS.toNanos(5), options.getTimeout());
+        assertEquals(Arrays.asList("a", "b"), options.getParameters());
+        assertTrue(options.isKeep());
+    }
+
+    @Test
+    public void invalidOptions() {
+        String[][] invalid = {{"--unknown", "1"}, {"--rate"}, {"--threads", "0"}, {"--mix", "execute=0"},
+                {"--mix", "deploy=1"}, {"--arrival", "bursty"}, {"--duration", "soon"}, {"url"}};
+        for (String[] args : invalid) {
+            try {
+                LoadOptions.parse(args);
+                fail(Arrays.toString(args));
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package edu.teco.serverless.benchmark;
+
+import edu.teco.serverless.auth.jwtCreation.TokenCreator;
+import edu.teco.serverless.auth.jwtSpringExtention.AccessRights;
+import edu.teco.serverless.auth.jwtSpringExtention.JwtAuthProvider;
+import edu.teco.serverless.auth.jwtSpringExtention.JwtAuthTokenStringWrapper;
+import edu.teco.serverless.auth.jwtSpringExtention.TokenCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.lang.reflect.Field;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of the authentication of JWTs with and without the cache of verified tokens.
+ *
+ * The requests use a fixed set of master and subtokens, like the clients of a few lambdas do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class AuthBenchmark {
+    /**
+     * number of different tokens sent
+     */
+    @Param({"16", "1024"})
+    private int tokens;
+
+    private String[] jwts;
+    private JwtAuthProvider uncached;
+    private JwtAuthProvider cached;
+
+    @Setup
+    public void setUp() throws Exception {
+        TokenCreator tokenCreator = new TokenCreator();
+        setField(tokenCreator, "secret", "benchmark-secret");
+        jwts = new String[tokens];
+        for (int i = 0; i < tokens; i++) {
+            // every second token is a subtoken
+            Date expiryDate = i % 2 == 0 ? null : new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+            String role = i % 2 == 0 ? "ROLE_MASTER" : "ROLE_SUB";
+            jwts[i] = tokenCreator.generateToken(new AccessRights("lambda" + i, expiryDate,
+                    AuthorityUtils.createAuthorityList(role), "authkey" + i));
+        }
+
+        // the runtime isn't started, so the providers are set up without init()
+        uncached = new JwtAuthProvider();
+        setField(uncached, "tokenCreator", tokenCreator);
+        cached = new JwtAuthProvider();
+        setField(cached, "tokenCreator", tokenCreator);
+        setField(cached, "tokenCache", new TokenCache(10000));
+    }
+
+    @Benchmark
+    public Authentication uncached() {
+        return uncached.authenticate(new JwtAuthTokenStringWrapper(nextToken()));
+    }
+
+    @Benchmark
+    public Authentication cached() {
+        return cached.authenticate(new JwtAuthTokenStringWrapper(nextToken()));
+    }
+
+    private String nextToken() {
+        return jwts[ThreadLocalRandom.current().nextInt(tokens)];
+    }
+
+    private static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,76 @@
+package edu.teco.serverless.benchmark;
+
+import edu.teco.serverless.model.converter.RequestServerConverter;
+import edu.teco.serverless.model.lambda.ExecuteConfig;
+import edu.teco.serverless.model.lambda.Lambda;
+import edu.teco.serverless.model.messages.ExecuteLambdaRequest;
+import edu.teco.serverless.model.messages.RuntimeAttributesRequest;
+import edu.teco.serverless.model.messages.UploadLambdaRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion of upload and execute requests into the model.
+ *
+ * The converter keeps its validation state in static fields, so it is measured with a single thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+    /**
+     * number of parameters of an execution
+     */
+    @Param({"1", "100"})
+    private int parameters;
+
+    private UploadLambdaRequest uploadRequest;
+    private ExecuteLambdaRequest executeRequest;
+
+    @Setup
+    public void setUp() {
+        uploadRequest = UploadLambdaRequest.newUploadLambdaRequest()
+                .name("lambda")
+                .runtimeAttributes(RuntimeAttributesRequest.newRuntimeAttributesRequest()
+                        .language("Python3")
+                        .libraries(Arrays.asList("numpy", "requests"))
+                        .code("import sys\nprint(sys.argv[1:])\n")
+                        .build())
+                .build();
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < parameters; i++) {
+            values.add("parameter" + i);
+        }
+        executeRequest = ExecuteLambdaRequest.newExecuteLambdaRequest()
+                .times(1)
+                .parameters(values)
+                .build();
+    }
+
+    @Benchmark
+    public Lambda uploadRequestToLambda() {
+        return RequestServerConverter.uploadRequestToLambda(uploadRequest);
+    }
+
+    @Benchmark
+    public ExecuteConfig executeRequestToExecuteConfig() {
+        return RequestServerConverter.executeRequestToExecuteConfig(executeRequest);
+    }
+}
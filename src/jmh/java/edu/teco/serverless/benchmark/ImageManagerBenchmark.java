@@ -0,0 +1,80 @@
+package edu.teco.serverless.benchmark;
+
+import edu.teco.serverless.model.lambda.AuthKey;
+import edu.teco.serverless.model.lambda.Identifier;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.LambdaRegistry;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.images.ImageManager;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.images.Python3LambdaImage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookups of lambdas in the ImageManager, that every call of a lambda makes, at various numbers
+ * of registered lambdas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ImageManagerBenchmark {
+    /**
+     * number of registered lambdas
+     */
+    @Param({"100", "10000", "100000"})
+    private int lambdas;
+
+    private ImageManager imageManager;
+    private Identifier[] identifiers;
+
+    @Setup
+    public void setUp() throws Exception {
+        // the runtime isn't started, so the images are registered without building them
+        LambdaRegistry registry = new LambdaRegistry();
+        identifiers = new Identifier[lambdas];
+        for (int i = 0; i < lambdas; i++) {
+            identifiers[i] = new Identifier("lambda" + i);
+            registry.register(new Python3LambdaImage(identifiers[i], new AuthKey("authkey" + i), "image" + i));
+        }
+        imageManager = ImageManager.getInstance();
+        Field images = ImageManager.class.getDeclaredField("images");
+        images.setAccessible(true);
+        images.set(imageManager, registry);
+    }
+
+    @Benchmark
+    public boolean lambdaExists() {
+        return imageManager.lambdaExists(nextIdentifier());
+    }
+
+    @Benchmark
+    public AuthKey getAuthKey() {
+        return imageManager.getAuthKey(nextIdentifier());
+    }
+
+    @Benchmark
+    public boolean unknownLambda() {
+        return imageManager.lambdaExists(new Identifier("unknown"));
+    }
+
+    private Identifier nextIdentifier() {
+        // a new identifier, like the one created for every request
+        return new Identifier(identifiers[ThreadLocalRandom.current().nextInt(lambdas)].getIdentifier());
+    }
+}
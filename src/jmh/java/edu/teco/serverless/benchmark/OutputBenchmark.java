@@ -0,0 +1,125 @@
+package edu.teco.serverless.benchmark;
+
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.LogDemultiplexer;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.ProcessDrainer;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the transports of the RuntimeCommunicator handle the output of a lambda: the CLI transport
+ * drains stdout and stderr of the docker process with the ProcessDrainer, the socket transport splits
+ * the multiplexed log stream with the LogDemultiplexer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutputBenchmark {
+    /**
+     * size of the output in bytes
+     */
+    @Param({"1024", "1048576", "16777216"})
+    private int size;
+
+    private byte[] output;
+    private byte[] frames;
+
+    @Setup
+    public void setUp() throws Exception {
+        // lines of 79 characters, like the print output of a lambda
+        StringBuilder sb = new StringBuilder(size);
+        while (sb.length() < size) {
+            sb.append(sb.length() % 80 == 79 ? '\n' : (char) ('a' + sb.length() % 26));
+        }
+        output = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+        // the log stream of the daemon sends the output in frames of at most 16 KiB
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (int pos = 0; pos < output.length; pos += 16384) {
+            int length = Math.min(16384, output.length - pos);
+            stream.write(new byte[]{1, 0, 0, 0, (byte) (length >>> 24), (byte) (length >>> 16),
+                    (byte) (length >>> 8), (byte) length});
+            stream.write(output, pos, length);
+        }
+        frames = stream.toByteArray();
+    }
+
+    @Benchmark
+    public String cliOutput() throws RuntimeConnectException, TimeExceededException {
+        ProcessDrainer.Output drained = ProcessDrainer.getInstance().drain(new FinishedProcess(output), 0,
+                TimeUnit.MILLISECONDS);
+        if (drained.hasErrors()) {
+            throw new RuntimeConnectException(drained.getErrors());
+        }
+        return drained.getOutput();
+    }
+
+    @Benchmark
+    public String socketOutput() throws IOException, RuntimeConnectException {
+        LogDemultiplexer logs = new LogDemultiplexer(Integer.MAX_VALUE);
+        logs.write(frames);
+        return logs.getOutput();
+    }
+
+    /**
+     * A process, that already wrote its output and exited.
+     */
+    private static final class FinishedProcess extends Process {
+        private final InputStream stdout;
+        private final InputStream stderr = new ByteArrayInputStream(new byte[0]);
+
+        FinishedProcess(byte[] output) {
+            this.stdout = new ByteArrayInputStream(output);
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return new ByteArrayOutputStream();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return stdout;
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return stderr;
+        }
+
+        @Override
+        public int waitFor() {
+            return 0;
+        }
+
+        @Override
+        public int exitValue() {
+            return 0;
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package edu.teco.serverless.benchmark;
+
+import edu.teco.serverless.auth.jwtCreation.SubtokenCreator;
+import edu.teco.serverless.auth.jwtCreation.TokenCreator;
+import edu.teco.serverless.auth.jwtSpringExtention.AccessRights;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the creation and parsing of master and subtokens, that every request to a lambda goes through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenBenchmark {
+    private TokenCreator tokenCreator;
+    private SubtokenCreator subtokenCreator;
+    private AccessRights masterRights;
+    private String masterToken;
+    private String subtoken;
+
+    @Setup
+    public void setUp() throws Exception {
+        tokenCreator = new TokenCreator();
+        Field secret = TokenCreator.class.getDeclaredField("secret");
+        secret.setAccessible(true);
+        secret.set(tokenCreator, "benchmark-secret");
+        subtokenCreator = new SubtokenCreator(tokenCreator);
+        masterRights = new AccessRights("lambda", null, AuthorityUtils.createAuthorityList("ROLE_MASTER"),
+                "0123456789abcdef0123456789abcdef");
+        masterToken = tokenCreator.generateToken(masterRights);
+        subtoken = subtokenCreator.generateSubToken(masterRights, "2999-12-31 11-59-59");
+    }
+
+    @Benchmark
+    public String generateToken() throws UnsupportedEncodingException {
+        return tokenCreator.generateToken(masterRights);
+    }
+
+    @Benchmark
+    public AccessRights parseMasterToken() {
+        return tokenCreator.parseToken(masterToken);
+    }
+
+    @Benchmark
+    public AccessRights parseSubtoken() {
+        return tokenCreator.parseToken(subtoken);
+    }
+
+    @Benchmark
+    public String generateSubToken() throws UnsupportedEncodingException {
+        return subtokenCreator.generateSubToken(masterRights, "2999-12-31 11-59-59");
+    }
+}
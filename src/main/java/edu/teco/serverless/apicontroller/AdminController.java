@@ -0,0 +1,224 @@
+package edu.teco.serverless.apicontroller;
+
+import edu.teco.serverless.metrics.MetricsRegistry;
+import edu.teco.serverless.model.messages.BaseImageResponse;
+import edu.teco.serverless.model.messages.BuildStatsResponse;
+import edu.teco.serverless.model.exception.messages.SemanticRequestException;
+import edu.teco.serverless.model.messages.CacheStatsResponse;
+import edu.teco.serverless.model.messages.ConcurrencyLimitRequest;
+import edu.teco.serverless.model.messages.ConcurrencyStatsResponse;
+import edu.teco.serverless.model.messages.InstanceResponse;
+import edu.teco.serverless.model.messages.InstanceStatsResponse;
+import edu.teco.serverless.model.messages.LambdaInstancesResponse;
+import edu.teco.serverless.model.messages.LambdaConcurrencyResponse;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.BaseImages;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.BuildQueue;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.AdmissionController;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.InstanceRegistry;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.LambdaInstance;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.ResultCache;
+import edu.teco.serverless.model.servicelayer.service.AdminFacade;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Controller class for the administration of the server, it is only reachable from the local host.
+ */
+@RestController
+public class AdminController {
+    /**
+     * Service for administrating the server.
+     */
+    @Autowired
+    private AdminFacade adminFacade;
+
+    /**
+     * Lists the shared base images.
+     *
+     * @return JSON with the base images, their libraries and the number of lambdas using them.
+     */
+    @RequestMapping(value = "/admin/base-images", produces = {"application/json"}, method = RequestMethod.GET)
+    public ResponseEntity<List<BaseImageResponse>> getBaseImages() throws RuntimeConnectException, IOException,
+            IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException {
+        List<BaseImageResponse> baseImages = new ArrayList<>();
+        for (BaseImages.BaseImageInfo info : adminFacade.getBaseImages()) {
+            baseImages.add(BaseImageResponse.newBaseImageResponse()
+                    .tag(info.getTag())
+                    .libraries(info.getLibraries())
+                    .built(info.getImageId() != null)
+                    .lambdas(info.getLambdas())
+                    .build());
+        }
+        return new ResponseEntity<>(baseImages, HttpStatus.OK);
+    }
+
+    /**
+     * Shows the depth of the build queue and the durations of the builds.
+     *
+     * @return JSON with the numbers of queued, running, succeeded and failed builds and their durations.
+     */
+    @RequestMapping(value = "/admin/builds", produces = {"application/json"}, method = RequestMethod.GET)
+    public ResponseEntity<BuildStatsResponse> getBuilds() throws RuntimeConnectException, IOException,
+            IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException {
+        BuildQueue buildQueue = adminFacade.getBuildQueue();
+        long finished = buildQueue.getSucceededBuilds() + buildQueue.getFailedBuilds();
+        return new ResponseEntity<>(BuildStatsResponse.newBuildStatsResponse()
+                .queued(buildQueue.getQueuedBuilds())
+                .running(buildQueue.getRunningBuilds())
+                .succeeded(buildQueue.getSucceededBuilds())
+                .failed(buildQueue.getFailedBuilds())
+                .averageMillis(finished == 0 ? 0 : buildQueue.getTotalBuildMillis() / finished)
+                .maxMillis(buildQueue.getMaxBuildMillis())
+                .build(), HttpStatus.OK);
+    }
+
+    /**
+     * Shows the hits, misses and size of the result cache.
+     *
+     * @return JSON with the numbers of hits, misses, evicted and cached results.
+     */
+    @RequestMapping(value = "/admin/cache", produces = {"application/json"}, method = RequestMethod.GET)
+    public ResponseEntity<CacheStatsResponse> getCache() throws RuntimeConnectException, IOException,
+            IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException {
+        ResultCache resultCache = adminFacade.getResultCache();
+        return new ResponseEntity<>(CacheStatsResponse.newCacheStatsResponse()
+                .hits(resultCache.getHits())
+                .misses(resultCache.getMisses())
+                .evictions(resultCache.getEvictions())
+                .entries(resultCache.size())
+                .build(), HttpStatus.OK);
+    }
+
+    /**
+     * Shows the concurrency limits with the taken slots and waiting executions.
+     *
+     * @return JSON with the limits, the numbers of taken slots, waiting, admitted and rejected executions
+     * and the lambdas, that run or wait or have a limit set by an administrator.
+     */
+    @RequestMapping(value = "/admin/concurrency", produces = {"application/json"}, method = RequestMethod.GET)
+    public ResponseEntity<ConcurrencyStatsResponse> getConcurrency() throws RuntimeConnectException, IOException,
+            IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException {
+        AdmissionController admissionController = adminFacade.getAdmissionController();
+        List<LambdaConcurrencyResponse> lambdas = new ArrayList<>();
+        for (AdmissionController.LambdaInfo info : admissionController.getLambdas()) {
+            lambdas.add(LambdaConcurrencyResponse.newLambdaConcurrencyResponse()
+                    .name(info.getName())
+                    .limit(info.getLimit())
+                    .adminLimit(info.isAdminLimit())
+                    .active(info.getActive())
+                    .waiting(info.getWaiting())
+                    .build());
+        }
+        return new ResponseEntity<>(ConcurrencyStatsResponse.newConcurrencyStatsResponse()
+                .globalLimit(admissionController.getGlobalLimit())
+                .defaultLambdaLimit(admissionController.getDefaultLambdaLimit())
+                .active(admissionController.getActive())
+                .waiting(admissionController.getWaiting())
+                .admitted(admissionController.getAdmitted())
+                .rejected(admissionController.getRejected())
+                .lambdas(lambdas)
+                .build(), HttpStatus.OK);
+    }
+
+    /**
+     * Lists the live instances of the lambdas, so stuck calls can be found and pools can be sized.
+     *
+     * @return JSON with the instances of every lambda by state, the time its longest running call runs already
+     * and its instances with their containers and requests, the oldest first.
+     */
+    @RequestMapping(value = "/admin/instances", produces = {"application/json"}, method = RequestMethod.GET)
+    public ResponseEntity<InstanceStatsResponse> getInstances() throws RuntimeConnectException, IOException,
+            IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException {
+        long now = System.currentTimeMillis();
+        int total = 0;
+        List<LambdaInstancesResponse> lambdas = new ArrayList<>();
+        for (InstanceRegistry.LambdaInfo info : adminFacade.getInstanceRegistry().getLambdas()) {
+            List<InstanceResponse> instances = new ArrayList<>();
+            for (LambdaInstance instance : info.getInstances()) {
+                instances.add(InstanceResponse.newInstanceResponse()
+                        .id(instance.getId())
+                        .state(instance.getState().toString())
+                        .request(instance.getRequest())
+                        .container(instance.getContainerName())
+                        .startedAt(instance.getStartedAt().getTime())
+                        .stateMillis(now - instance.getStateSince())
+                        .build());
+            }
+            total += instances.size();
+            lambdas.add(LambdaInstancesResponse.newLambdaInstancesResponse()
+                    .name(info.getName())
+                    .starting(info.getInstances(LambdaInstance.State.STARTING))
+                    .running(info.getInstances(LambdaInstance.State.RUNNING))
+                    .idle(info.getInstances(LambdaInstance.State.IDLE))
+                    .killing(info.getInstances(LambdaInstance.State.KILLING))
+                    .oldestRunningMillis(info.getOldestRunningSince() == 0 ? 0 : now - info.getOldestRunningSince())
+                    .instances(instances)
+                    .build());
+        }
+        return new ResponseEntity<>(InstanceStatsResponse.newInstanceStatsResponse()
+                .instances(total)
+                .lambdas(lambdas)
+                .build(), HttpStatus.OK);
+    }
+
+    /**
+     * Changes the maximum number of containers running at once on the server.
+     *
+     * @param request JSON with the new limit, at least 1.
+     * @return HTTP-status "OK", if the limit is valid,
+     * HTTP-Status "Unprocessable Entity" otherwise.
+     */
+    @RequestMapping(value = "/admin/concurrency", method = RequestMethod.PUT)
+    public ResponseEntity setGlobalConcurrency(@RequestBody ConcurrencyLimitRequest request)
+            throws RuntimeConnectException, IOException, IllegalAccessException, InstantiationException,
+            ClassNotFoundException, TimeExceededException {
+        if (request.getLimit() < 1) {
+            throw new SemanticRequestException(" has no valid limit");
+        }
+        adminFacade.getAdmissionController().setGlobalLimit(request.getLimit());
+        return new ResponseEntity(HttpStatus.OK);
+    }
+
+    /**
+     * Changes the maximum number of containers of a lambda running at once, it takes precedence over the limit
+     * given at upload.
+     *
+     * @param name    name of the lambda.
+     * @param request JSON with the new limit, 0 to remove it.
+     * @return HTTP-status "OK", if the limit is valid,
+     * HTTP-Status "Unprocessable Entity" otherwise.
+     */
+    @RequestMapping(value = "/admin/concurrency/{name}", method = RequestMethod.PUT)
+    public ResponseEntity setLambdaConcurrency(@PathVariable("name") String name,
+                                               @RequestBody ConcurrencyLimitRequest request)
+            throws RuntimeConnectException, IOException, IllegalAccessException, InstantiationException,
+            ClassNotFoundException, TimeExceededException {
+        if (request.getLimit() < 0) {
+            throw new SemanticRequestException(" has no valid limit");
+        }
+        adminFacade.getAdmissionController().setLambdaLimit(name, request.getLimit());
+        return new ResponseEntity(HttpStatus.OK);
+    }
+
+    /**
+     * Shows the counters and latencies of the server in the Prometheus text format.
+     *
+     * @return the metrics as plain text.
+     */
+    @RequestMapping(value = "/admin/metrics", produces = {"text/plain; version=0.0.4"}, method = RequestMethod.GET)
+    public ResponseEntity<String> getMetrics() {
+        return new ResponseEntity<>(MetricsRegistry.getInstance().scrape(), HttpStatus.OK);
+    }
+}
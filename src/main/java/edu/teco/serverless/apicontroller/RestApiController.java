@@ -8,28 +8,43 @@ import edu.teco.serverless.model.exception.lambda.LambdaDuplicatedNameException;
 import edu.teco.serverless.model.exception.lambda.LambdaNotFoundException;
 import edu.teco.serverless.model.exception.messages.SemanticRequestException;
 import edu.teco.serverless.model.lambda.ExecuteConfig;
+import edu.teco.serverless.model.lambda.ExecuteResult;
 import edu.teco.serverless.model.lambda.Identifier;
 import edu.teco.serverless.model.lambda.Lambda;
 import edu.teco.serverless.model.messages.ExecuteLambdaRequest;
 import edu.teco.serverless.model.messages.ExecuteLambdaResponse;
+import edu.teco.serverless.model.messages.JobResponse;
 import edu.teco.serverless.model.messages.UploadLambdaRequest;
 import edu.teco.serverless.model.messages.UploadLambdaResponse;
 
+import edu.teco.serverless.model.servicelayer.jobs.Job;
+import edu.teco.serverless.model.servicelayer.jobs.JobManager;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.Build;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.AdmissionController;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.images.LanguageNotSupportedException;
 import edu.teco.serverless.model.servicelayer.service.LambdaManagerFacade;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptorAdapter;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.log4j.Logger;
 
@@ -39,6 +54,14 @@ import org.apache.log4j.Logger;
 @RestController
 public class RestApiController {
     final static Logger logger = Logger.getLogger(RestApiController.class);
+    /**
+     * Response header showing whether the result of an execution was served from the result cache.
+     */
+    private static final String CACHE_HEADER = "X-Cache";
+    /**
+     * Key of the interceptor, that gives the slots of a streamed execution back.
+     */
+    private static final String STREAM_PERMIT = RestApiController.class.getName() + ".streamPermit";
     /**
      * Service for managing Lambda-functions.
      */
@@ -49,6 +72,11 @@ public class RestApiController {
      */
     @Autowired
     private AuthFacade authFacade;
+    /**
+     * Service for asynchronous executions.
+     */
+    @Autowired
+    private JobManager jobManager;
 
     /**
      * Uploads lambda into system.
@@ -57,22 +85,35 @@ public class RestApiController {
      * Postcondition : uploaded lambda can be executed, deleted, showed, can be produced appropriate subtoken
      * for this lambda.
      *
+     * The image of the lambda is built in the background, unless @param async is false.
+     *
      * @param config JSON with description of function to be uploaded.
-     * @return JSON with link and token and HTTP-status "CREATED", if @param config is valid and upload proceed well,
+     * @param async false to wait until the image is built.
+     * @return JSON with link, token and the link of the build and HTTP-status "ACCEPTED", if @param config is valid
+     * and the build is queued,
+     * JSON with link and token and HTTP-status "CREATED", if @param async is false and upload proceed well,
      * HTTP-Status "BAD REQUEST" if @param config is NOT valid,
      * HTTP-Status "Unprocessable Entity" if @param config has semantic errors
      * HTTP-Status "FORBIDDEN", if lambda with input name already exists in system.
+     * HTTP-Status "SERVICE UNAVAILABLE", if too many builds are waiting.
      * HTTP-Status "CONFLICT", if  unexpected error occurred.
      */
     @RequestMapping(value = "/lambdas", produces = {"application/json"}, method = RequestMethod.POST)
-    public ResponseEntity<UploadLambdaResponse> postLambda(@RequestBody UploadLambdaRequest config) throws RuntimeConnectException, IOException, LanguageNotSupportedException, InstantiationException, ClassNotFoundException, IllegalAccessException, TimeExceededException {
+    public ResponseEntity<UploadLambdaResponse> postLambda(@RequestBody UploadLambdaRequest config,
+                                                           @RequestParam(value = "async", defaultValue = "true") boolean async) throws RuntimeConnectException, IOException, LanguageNotSupportedException, InstantiationException, ClassNotFoundException, IllegalAccessException, TimeExceededException {
 
         String token = null;
         Lambda lambda = null;
+        Build build = null;
         try {
             lambda = RequestServerConverter.uploadRequestToLambda(config);
             logger.info(String.format("Get lambda : %s", lambda.toString()));
-            token = lambdaManager.addLambda(lambda);
+            if (async) {
+                build = lambdaManager.addLambdaAsync(lambda);
+                token = authFacade.generateMasterToken(build.getAuthKey(), lambda.getName());
+            } else {
+                token = lambdaManager.addLambda(lambda);
+            }
             logger.info(String.format("Get token for authorisation : %s", token));
         } catch (LambdaDuplicatedNameException e) {
             logger.error("Error, a lambda with this name already exists.", e);
@@ -110,12 +151,45 @@ public class RestApiController {
             logger.error("Error, time limit exceeded.", e);
             throw e;
         }
+        if (build != null) {
+            return new ResponseEntity<UploadLambdaResponse>(UploadLambdaResponse.newUploadLambdaResponse()
+                    .token(token)
+                    .link("/lambdas/" + lambda.getName())
+                    .build("/lambdas/" + lambda.getName() + "/builds/" + build.getId())
+                    .build(), HttpStatus.ACCEPTED);
+        }
         return new ResponseEntity<UploadLambdaResponse>(UploadLambdaResponse.newUploadLambdaResponse()
                 .token(token)
                 .link("/lambdas/" + lambda.getName())
                 .build(), HttpStatus.CREATED);
     }
 
+    /**
+     * Shows the state of the build of an uploaded lambda.
+     * <p>
+     * Precondition : the build was queued by an upload, the token was returned by this upload.
+     *
+     * @param name name of the lambda.
+     * @param id   id of the build.
+     * @return JSON with the status of the build and HTTP-status "OK", if the token is valid,
+     * HTTP-status "NOT FOUND", if the build doesn't exist (anymore).
+     */
+    @RequestMapping(value = "/lambdas/{name}/builds/{id}", produces = {"application/json"}, method = RequestMethod.GET)
+    public ResponseEntity<JobResponse> getBuild(@PathVariable("name") String name, @PathVariable("id") String id) throws RuntimeConnectException, IOException, InstantiationException, ClassNotFoundException, IllegalAccessException, TimeExceededException {
+        Build build = lambdaManager.getBuild(name, id);
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (!authFacade.validate(principal, new Identifier(name), build.getAuthKey())) {
+            logger.error("Error, the token doesn't belong to this build.");
+            throw new AuthorizationException("Unauthorized.");
+        }
+        return new ResponseEntity<>(JobResponse.newJobResponse()
+                .id(build.getId())
+                .status(build.getStatus().toString())
+                .link("/lambdas/" + name + "/builds/" + build.getId())
+                .error(describeBuildError(build.getFailure()))
+                .build(), HttpStatus.OK);
+    }
+
 
     /**
      * Executes lambda.
@@ -128,10 +202,12 @@ public class RestApiController {
      * @param config JSON with description of execution's features .
      * @return JSON with result of execution and HTTP-status "OK", if @param config and subtoken are valid, lambda with appropriate
      * name exists in system,
+     * the header "X-Cache" is "HIT" if the result was served from the result cache, "MISS" otherwise,
      * HTTP-status "NOT FOUND", if lambda with @param nameOfLambda does NOT exist,
      * HTTP-status "BAD REQUEST", if @param config is NOT valid,
      * HTTP-Status "Unprocessable Entity" if @param config has semantic errors
      * HTTP-status "UNAUTHORIZED", if user's subtoken is NOT valid.
+     * HTTP-status "TOO MANY REQUESTS", if too many executions of the lambda are running.
      * HTTP-Status "CONFLICT", if  unexpected error occurred.
      */
     @RequestMapping(value = "/lambdas/{name}/execute", produces = {"application/json"}, method = RequestMethod.POST)
@@ -145,9 +221,9 @@ public class RestApiController {
 
         ExecuteConfig runConfig = RequestServerConverter.executeRequestToExecuteConfig(config);
         logger.info(String.format("Get executeConfig : %s", runConfig.toString()));
-        String result = null;
+        ExecuteResult result = null;
         try {
-            result = lambdaManager.executeLambda(name, runConfig);
+            result = lambdaManager.runLambda(name, runConfig);
             logger.info(String.format("Get result of execution : %s", result));
         } catch (LambdaNotFoundException e) {
             logger.error("Error, this Lambda-function could not be found.", e);
@@ -171,13 +247,184 @@ public class RestApiController {
             throw e;
         }
 
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(CACHE_HEADER, result.isCached() ? "HIT" : "MISS");
         return new ResponseEntity<>(ExecuteLambdaResponse.newExecuteLambdaResponse()
-                .message(result).build(),
+                .message(result.getOutput()).build(),
+                headers,
                 HttpStatus.OK
         );
 
     }
 
+    /**
+     * Executes lambda and sends its output while it is produced.
+     * <p>
+     * Precondition : executed lambda must be in the system.
+     * Postcondition : the output of every run cycle is sent as soon as the lambda writes it, as chunked plain text
+     * or with @param format "sse" as server-sent events with one event per line and a final "done" or "error" event.
+     *
+     * @param name   name of the lambda to be executed.
+     * @param format "sse" for server-sent events, plain text otherwise.
+     * @param config JSON with description of execution's features .
+     * @param request the request, the execution is admitted for.
+     * @return the output and HTTP-status "OK", if @param config and subtoken are valid, lambda with appropriate
+     * name exists in system,
+     * HTTP-status "NOT FOUND", if lambda with @param name does NOT exist,
+     * HTTP-status "BAD REQUEST", if @param config is NOT valid,
+     * HTTP-status "UNAUTHORIZED", if user's subtoken is NOT valid,
+     * HTTP-status "TOO MANY REQUESTS", if too many executions of the lambda are running.
+     */
+    @RequestMapping(value = "/lambdas/{name}/execute/stream", method = RequestMethod.POST)
+    public ResponseEntity<StreamingResponseBody> streamLambda(@PathVariable("name") String name,
+                                                              @RequestParam(value = "format", defaultValue = "chunked") String format,
+                                                              @RequestBody ExecuteLambdaRequest config,
+                                                              HttpServletRequest request) throws RuntimeConnectException, TimeExceededException, InstantiationException, ClassNotFoundException, IOException, IllegalAccessException {
+
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (!authFacade.validate(principal, new Identifier(name))) {
+            throw new AuthorizationException("Subtoken Error.");
+        }
+
+        final ExecuteConfig runConfig = RequestServerConverter.executeRequestToExecuteConfig(config);
+        logger.info(String.format("Get executeConfig for stream : %s", runConfig.toString()));
+        if (!lambdaManager.lambdaExists(name)) {
+            logger.error("Error, this Lambda-function could not be found.");
+            throw new LambdaNotFoundException();
+        }
+
+        // admitted before the response starts, so a rejected call gets its status
+        final AdmissionController.Permit permit = lambdaManager.admitLambda(name);
+        // the body may never run, e.g. when the async task is rejected or times out before it starts;
+        // whoever claims the permit first gives it back, the body after the execution or the completion right away
+        final AtomicBoolean claimed = new AtomicBoolean();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(STREAM_PERMIT,
+                new CallableProcessingInterceptorAdapter() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        if (claimed.compareAndSet(false, true)) {
+                            permit.close();
+                        }
+                    }
+                });
+
+        // the body runs on an async thread and blocks on every write, so a slow client slows the container down
+        if ("sse".equalsIgnoreCase(format)) {
+            StreamingResponseBody events = out -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return;
+                }
+                ServerSentEventsOutputStream sse = new ServerSentEventsOutputStream(out);
+                try {
+                    lambdaManager.streamLambda(name, runConfig, sse, permit);
+                    sse.finish("done", null);
+                } catch (Exception e) {
+                    logger.error("Error while streaming the execution.", e);
+                    sse.finish("error", describeError(e));
+                }
+            };
+            return ResponseEntity.ok().contentType(MediaType.valueOf("text/event-stream")).body(events);
+        }
+
+        StreamingResponseBody chunks = out -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                lambdaManager.streamLambda(name, runConfig, out, permit);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                // the status is already sent, the client only sees the output end early
+                logger.error("Error while streaming the execution.", e);
+                throw new IOException(describeError(e), e);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body(chunks);
+    }
+
+    private static String describeBuildError(Exception e) {
+        if (e == null) {
+            return null;
+        }
+        if (e instanceof RuntimeConnectException) {
+            return "Error, the image could not be built.";
+        }
+        return describeError(e);
+    }
+
+    private static String describeError(Exception e) {
+        if (e instanceof LambdaNotFoundException) {
+            return "Error, this Lambda-function could not be found.";
+        }
+        if (e instanceof TimeExceededException) {
+            return "Error, time limit exceeded.";
+        }
+        return "Internal error.";
+    }
+
+    /**
+     * Queues an execution of a lambda and returns at once.
+     * <p>
+     * Postcondition : the result can be polled with the link of the returned job until the retention time
+     * of the job is over.
+     *
+     * @param name   name of the lambda to be executed.
+     * @param config JSON with description of execution's features .
+     * @return JSON with id and link of the job and HTTP-status "ACCEPTED", if @param config and subtoken are valid,
+     * HTTP-status "BAD REQUEST", if @param config is NOT valid,
+     * HTTP-status "UNAUTHORIZED", if user's subtoken is NOT valid.
+     * HTTP-status "SERVICE UNAVAILABLE", if too many jobs are waiting.
+     */
+    @RequestMapping(value = "/lambdas/{name}/execute", params = "async=true", produces = {"application/json"},
+            method = RequestMethod.POST)
+    public ResponseEntity<JobResponse> postLambdaAsync(@PathVariable("name") String name,
+                                                       @RequestBody ExecuteLambdaRequest config) {
+
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (!authFacade.validate(principal, new Identifier(name))) {
+            throw new AuthorizationException("Subtoken Error.");
+        }
+
+        final ExecuteConfig runConfig = RequestServerConverter.executeRequestToExecuteConfig(config);
+        logger.info(String.format("Get executeConfig for job : %s", runConfig.toString()));
+        Job job = jobManager.submit(name, () -> lambdaManager.executeLambda(name, runConfig));
+
+        return new ResponseEntity<>(toJobResponse(job), HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Shows the state of an asynchronous execution.
+     * <p>
+     * Precondition : the job must have been queued by an execution of the lambda with "async=true".
+     *
+     * @param name name of the executed lambda.
+     * @param id   id of the job.
+     * @return JSON with the state of the job and its result or error and HTTP-status "OK",
+     * HTTP-status "NOT FOUND", if there is no such job for the lambda or its result was already evicted,
+     * HTTP-status "UNAUTHORIZED", if user's subtoken is NOT valid.
+     */
+    @RequestMapping(value = "/lambdas/{name}/jobs/{id}", produces = {"application/json"}, method = RequestMethod.GET)
+    public ResponseEntity<JobResponse> getJob(@PathVariable("name") String name, @PathVariable("id") String id) {
+
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (!authFacade.validate(principal, new Identifier(name))) {
+            throw new AuthorizationException("Subtoken Error.");
+        }
+
+        return new ResponseEntity<>(toJobResponse(jobManager.getJob(name, id)), HttpStatus.OK);
+    }
+
+    private static JobResponse toJobResponse(Job job) {
+        return JobResponse.newJobResponse()
+                .id(job.getId())
+                .status(job.getStatus().name())
+                .link("/lambdas/" + job.getLambdaName() + "/jobs/" + job.getId())
+                .message(job.getResult())
+                .error(job.getError())
+                .build();
+    }
+
     /**
      * Updates lambda.
      * <p>
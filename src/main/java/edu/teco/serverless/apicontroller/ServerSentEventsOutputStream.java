@@ -0,0 +1,81 @@
+package edu.teco.serverless.apicontroller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes every line of the output as a server-sent event with the line as data.
+ *
+ * A line is held back until it is complete or longer than MAX_LINE_LENGTH bytes.
+ */
+public class ServerSentEventsOutputStream extends OutputStream {
+    static final int MAX_LINE_LENGTH = 8192;
+
+    private final OutputStream out;
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+    /**
+     * constructor
+     * @param out the response body
+     */
+    public ServerSentEventsOutputStream(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (b == '\n') {
+            writeLine();
+            return;
+        }
+        line.write(b);
+        if (line.size() >= MAX_LINE_LENGTH) {
+            writeLine();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            write(b[i]);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * writes the incomplete last line and a final event, e.g. "done" or "error"
+     * @param name the name of the event
+     * @param data the data of the event, may be null
+     */
+    public void finish(String name, String data) throws IOException {
+        if (line.size() > 0) {
+            writeLine();
+        }
+        StringBuilder event = new StringBuilder("event: ").append(name).append('\n');
+        for (String dataLine : (data == null ? "" : data).split("\n", -1)) {
+            event.append("data: ").append(dataLine).append('\n');
+        }
+        event.append('\n');
+        out.write(event.toString().getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeLine() throws IOException {
+        out.write("data: ".getBytes(StandardCharsets.UTF_8));
+        line.writeTo(out);
+        out.write('\n');
+        out.write('\n');
+        line.reset();
+    }
+}
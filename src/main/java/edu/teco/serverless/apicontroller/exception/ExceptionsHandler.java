@@ -7,6 +7,11 @@ package edu.teco.serverless.apicontroller.exception;
 import edu.teco.serverless.auth.exception.AuthorizationException;
 import edu.teco.serverless.auth.exception.JwtMalformedException;
 import edu.teco.serverless.auth.exception.NoJwtGivenException;
+import edu.teco.serverless.model.exception.build.BuildNotFoundException;
+import edu.teco.serverless.model.exception.build.BuildQueueFullException;
+import edu.teco.serverless.model.exception.execution.ConcurrencyLimitException;
+import edu.teco.serverless.model.exception.job.JobNotFoundException;
+import edu.teco.serverless.model.exception.job.JobQueueFullException;
 import edu.teco.serverless.model.exception.lambda.LambdaDuplicatedNameException;
 import edu.teco.serverless.model.exception.lambda.LambdaNotFoundException;
 import edu.teco.serverless.model.exception.messages.SemanticRequestException;
@@ -96,6 +101,33 @@ public class ExceptionsHandler {
 
     }
 
+    @ExceptionHandler(JobNotFoundException.class)
+    public ResponseEntity handleJobNotFoundException(JobNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new RestErrorInfo("Error, this job could not be found."));
+    }
+
+    @ExceptionHandler(JobQueueFullException.class)
+    public ResponseEntity handleJobQueueFullException(JobQueueFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new RestErrorInfo("Error, too many jobs are waiting."));
+    }
+
+    @ExceptionHandler(ConcurrencyLimitException.class)
+    public ResponseEntity handleConcurrencyLimitException(ConcurrencyLimitException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", Integer.toString(ex.getRetryAfter()))
+                .body(new RestErrorInfo("Error, too many executions of this lambda are running."));
+    }
+
+    @ExceptionHandler(BuildNotFoundException.class)
+    public ResponseEntity handleBuildNotFoundException(BuildNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new RestErrorInfo("Error, this build could not be found."));
+    }
+
+    @ExceptionHandler(BuildQueueFullException.class)
+    public ResponseEntity handleBuildQueueFullException(BuildQueueFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new RestErrorInfo("Error, too many builds are waiting."));
+    }
+
     @ExceptionHandler(LambdaDuplicatedNameException.class)
     public ResponseEntity handleLambdaDuplicatedNameException(LambdaDuplicatedNameException ex) {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new RestErrorInfo("Error, a lambda with this name already exists."));
@@ -4,7 +4,10 @@ import edu.teco.serverless.auth.jwtSpringExtention.JwtAuthEntryPoint;
 import edu.teco.serverless.auth.jwtSpringExtention.JwtAuthProvider;
 import edu.teco.serverless.auth.jwtSpringExtention.JwtAuthSuccessHandler;
 import edu.teco.serverless.auth.jwtSpringExtention.JwtAuthTokenFilter;
+import edu.teco.serverless.auth.jwtSpringExtention.RateLimitFilter;
+import edu.teco.serverless.auth.jwtSpringExtention.TokenBucketLimiter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -35,6 +38,27 @@ public class AuthenticationConfig extends WebSecurityConfigurerAdapter {
     @Autowired
     private JwtAuthProvider authenticationProvider;
 
+    /**
+     * Rate limits of the executions in requests per second and their bursts, a rate of 0 disables the limit
+     */
+    @Value("${ratelimit.subtoken.rate:100}")
+    private double subtokenRate;
+    @Value("${ratelimit.subtoken.burst:200}")
+    private int subtokenBurst;
+    @Value("${ratelimit.mastertoken.rate:0}")
+    private double mastertokenRate;
+    @Value("${ratelimit.mastertoken.burst:0}")
+    private int mastertokenBurst;
+    @Value("${ratelimit.lambda.rate:500}")
+    private double lambdaRate;
+    @Value("${ratelimit.lambda.burst:1000}")
+    private int lambdaBurst;
+    /**
+     * Maximum number of buckets kept in memory
+     */
+    @Value("${ratelimit.max.buckets:100000}")
+    private int maxBuckets;
+
     /**
      * Returns JwtAuthEntryPoint as ProviderManager
      * @return JwtAuthEntryPoint as ProviderManager
@@ -59,6 +83,17 @@ public class AuthenticationConfig extends WebSecurityConfigurerAdapter {
         return authenticationTokenFilter;
     }
 
+    /**
+     * Creates the rate limits of the executions from the properties ratelimit.*
+     * @return RateLimitFilter with settings
+     */
+    private RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter(new TokenBucketLimiter(maxBuckets),
+                new TokenBucketLimiter.Limit(subtokenRate, subtokenBurst),
+                new TokenBucketLimiter.Limit(mastertokenRate, mastertokenBurst),
+                new TokenBucketLimiter.Limit(lambdaRate, lambdaBurst));
+    }
+
     /**
      * Main configuration file.
      * @param httpSecurity HttpSecurity object
@@ -71,8 +106,13 @@ public class AuthenticationConfig extends WebSecurityConfigurerAdapter {
                 .authorizeRequests()
                     .antMatchers(HttpMethod.POST,"/lambdas").permitAll()
                     .antMatchers("/lambdas/*/execute").hasAnyRole("SUB", "MASTER")
+                    .antMatchers("/lambdas/*/execute/stream").hasAnyRole("SUB", "MASTER")
+                    .antMatchers("/lambdas/*/jobs/*").hasAnyRole("SUB", "MASTER")
+                    .antMatchers("/lambdas/*/builds/*").hasRole("MASTER")
                     .antMatchers("/lambdas/*/*").hasRole("MASTER")
                     .antMatchers("/lambdas/*").hasRole("MASTER")
+                    // administration only from the local host
+                    .antMatchers("/admin/**").access("hasIpAddress('127.0.0.1') or hasIpAddress('::1')")
                 .anyRequest().authenticated()
                 .and()
                 // errorHandler if authentication/authorisation fails
@@ -81,7 +121,9 @@ public class AuthenticationConfig extends WebSecurityConfigurerAdapter {
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS); //.and()
         // Custom JWT based security filter
         httpSecurity
-                .addFilterBefore(authenticationTokenFilterBean(), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(authenticationTokenFilterBean(), UsernamePasswordAuthenticationFilter.class)
+                // the rate limits need the AccessRights of the token
+                .addFilterAfter(rateLimitFilter(), JwtAuthTokenFilter.class);
         httpSecurity.headers().cacheControl();
     }
 
@@ -36,4 +36,13 @@ public interface AuthFacade {
      * @throws LambdaNotFoundException if lambda does not exist in Runtime
      */
     public boolean validate(Object principal, Identifier id) throws LambdaNotFoundException;
+
+    /**
+     * Defines the interface for validating authkeys of lambdas, that aren't built yet.
+     * @param principal Object given from Spring
+     * @param id Identifier of the lambda
+     * @param authKey AuthKey the lambda gets once it is built
+     * @return true if authkey and id of the token match, else false
+     */
+    public boolean validate(Object principal, Identifier id, AuthKey authKey);
 }
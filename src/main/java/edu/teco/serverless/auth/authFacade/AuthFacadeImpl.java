@@ -4,6 +4,7 @@ import edu.teco.serverless.auth.jwtContentValidation.ContentValidator;
 import edu.teco.serverless.auth.jwtCreation.SubtokenCreator;
 import edu.teco.serverless.auth.jwtCreation.TokenCreator;
 import edu.teco.serverless.auth.jwtSpringExtention.AccessRights;
+import edu.teco.serverless.metrics.Metrics;
 import edu.teco.serverless.model.exception.lambda.LambdaNotFoundException;
 import edu.teco.serverless.model.lambda.AuthKey;
 import edu.teco.serverless.model.lambda.Identifier;
@@ -74,6 +75,22 @@ public class AuthFacadeImpl implements AuthFacade {
     @Override
     public boolean validate(Object principal, Identifier id) throws LambdaNotFoundException {
         AccessRights accessRights = (AccessRights) principal;
-        return contentValidator.validate(accessRights, id);
+        long start = System.nanoTime();
+        boolean valid = contentValidator.validate(accessRights, id);
+        Metrics.auth("lambda").recordSince(start);
+        return valid;
+    }
+
+    /**
+     * Implementation of validate authkeys of lambdas, that aren't built yet
+     * @param principal Object given from Spring
+     * @param id Identifier of the lambda
+     * @param authKey AuthKey the lambda gets once it is built
+     * @return true if authkey and id of the token match, else false
+     */
+    @Override
+    public boolean validate(Object principal, Identifier id, AuthKey authKey) {
+        AccessRights accessRights = (AccessRights) principal;
+        return contentValidator.validate(accessRights, id, authKey);
     }
 }
@@ -76,10 +76,24 @@ public class ContentValidator {
 
         AuthKey authKey = runtimeController.getAuthKey(id);
         boolean hok = false;
-        if (authKey.getAuthKey().equals(accessRights.getAuthKey())) {
+        // the token must belong to this lambda, not only carry a matching key
+        if (authKey.getAuthKey().equals(accessRights.getAuthKey()) && id.getIdentifier().equals(accessRights.getLambdaName())) {
             hok = true;
         }
         return (lex & hok);
     }
 
+    /**
+     * Validates authkeys from mastertokens of lambdas, that aren't built yet.
+     * @param accessRights parsed token in a Object
+     * @param id Identifier of the lambda
+     * @param authKey AuthKey the lambda gets once it is built
+     * @return true, if authkey and name match, else false
+     */
+    public boolean validate(AccessRights accessRights, Identifier id, AuthKey authKey) {
+        if (accessRights.getExpiryDate() != null && accessRights.getExpiryDate().before(new Date())) {
+            return false;
+        }
+        return authKey.getAuthKey().equals(accessRights.getAuthKey()) && id.getIdentifier().equals(accessRights.getLambdaName());
+    }
 }
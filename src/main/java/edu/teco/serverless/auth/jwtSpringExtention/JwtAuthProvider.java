@@ -2,20 +2,60 @@ package edu.teco.serverless.auth.jwtSpringExtention;
 
 import edu.teco.serverless.auth.exception.JwtMalformedException;
 import edu.teco.serverless.auth.jwtCreation.TokenCreator;
+import edu.teco.serverless.metrics.Metrics;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.RuntimeController;
+import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.authentication.dao.AbstractUserDetailsAuthenticationProvider;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+
 /**
  * Provides Authentication. Checks if JWT is valid and creates a AccessRights object if so.
  */
 @Component
 public class JwtAuthProvider extends AbstractUserDetailsAuthenticationProvider {
+    final static Logger logger = Logger.getLogger(JwtAuthProvider.class);
+
     @Autowired
     private TokenCreator tokenCreator;
+    /**
+     * Maximum number of verified tokens in the cache, 0 disables the cache
+     */
+    @Value("${jwt.cache.size:10000}")
+    private int cacheSize;
+    private TokenCache tokenCache;
+
+    /**
+     * Creates the cache of verified tokens and registers it at the runtime, so the tokens of a lambda
+     * are dropped when its image is rebuilt or removed.
+     */
+    @PostConstruct
+    public void init() {
+        if (cacheSize < 1) {
+            return;
+        }
+        tokenCache = new TokenCache(cacheSize);
+        try {
+            RuntimeController.getInstance().addImageListener(tokenCache);
+        } catch (Exception e) {
+            // stale tokens are still rejected, because their AuthKey is validated against the runtime
+            logger.warn("Token cache can't be registered at the runtime.", e);
+        }
+    }
+
+    /**
+     * Getter for the cache of verified tokens
+     * @return the cache or null if it is disabled
+     */
+    public TokenCache getTokenCache() {
+        return tokenCache;
+    }
 
     /**
      * Returns support for JwtAuthTokenStringWrapper.class
@@ -39,7 +79,7 @@ public class JwtAuthProvider extends AbstractUserDetailsAuthenticationProvider {
     }
 
     /**
-     * Parses a String token to AccessRights Object, checks if valid
+     * Parses a String token to AccessRights Object, checks if valid. Tokens verified before are taken from the cache.
      *
      * @param username not used, only defined as stub, null should be passed
      * @param authentication JwtAuthTokenStringWrapper token (extends UsernamePasswordAuthenticationToken)
@@ -50,10 +90,18 @@ public class JwtAuthProvider extends AbstractUserDetailsAuthenticationProvider {
     protected UserDetails retrieveUser(String username, UsernamePasswordAuthenticationToken authentication) throws AuthenticationException {
         JwtAuthTokenStringWrapper jwtAuthenticationToken = (JwtAuthTokenStringWrapper) authentication;
         String token = jwtAuthenticationToken.getToken();
-        AccessRights rights = tokenCreator.parseToken(token);
+        long start = System.nanoTime();
+        AccessRights rights = tokenCache == null ? null : tokenCache.get(token);
         if (rights == null) {
-            throw new JwtMalformedException("Invalid JWT.");
+            rights = tokenCreator.parseToken(token);
+            if (rights == null) {
+                throw new JwtMalformedException("Invalid JWT.");
+            }
+            if (tokenCache != null) {
+                tokenCache.put(token, rights);
+            }
         }
+        Metrics.auth("token").recordSince(start);
         return rights;
     }
 }
@@ -0,0 +1,115 @@
+package edu.teco.serverless.auth.jwtSpringExtention;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.teco.serverless.metrics.Metrics;
+import edu.teco.serverless.model.messages.RestErrorInfo;
+import org.apache.log4j.Logger;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the rate of executions, runs after the JwtAuthTokenFilter so the AccessRights of the token are known.
+ *
+ * Every token has a bucket with the limit of its role - a subtoken is identified by its lambda, AuthKey and
+ * expiry date, which is all it contains - and every lambda has a bucket shared by all of its tokens.
+ * Requests without valid token are passed on and rejected by the authorization.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    final static Logger logger = Logger.getLogger(RateLimitFilter.class);
+
+    private static final RequestMatcher EXECUTIONS = new OrRequestMatcher(
+            new AntPathRequestMatcher("/lambdas/*/execute", "POST"),
+            new AntPathRequestMatcher("/lambdas/*/execute/stream", "POST"));
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final TokenBucketLimiter limiter;
+    private final TokenBucketLimiter.Limit subtokenLimit;
+    private final TokenBucketLimiter.Limit mastertokenLimit;
+    private final TokenBucketLimiter.Limit lambdaLimit;
+
+    /**
+     * constructor
+     * @param limiter the buckets
+     * @param subtokenLimit the limit of every subtoken
+     * @param mastertokenLimit the limit of every mastertoken
+     * @param lambdaLimit the limit of all tokens of a lambda together
+     */
+    public RateLimitFilter(TokenBucketLimiter limiter, TokenBucketLimiter.Limit subtokenLimit,
+                           TokenBucketLimiter.Limit mastertokenLimit, TokenBucketLimiter.Limit lambdaLimit) {
+        this.limiter = limiter;
+        this.subtokenLimit = subtokenLimit;
+        this.mastertokenLimit = mastertokenLimit;
+        this.lambdaLimit = lambdaLimit;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !EXECUTIONS.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Object principal = authentication == null ? null : authentication.getPrincipal();
+        if (!(principal instanceof AccessRights)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        AccessRights rights = (AccessRights) principal;
+        String lambda = rights.getLambdaName();
+
+        long wait;
+        String limit;
+        if (hasRole(rights, "ROLE_MASTER")) {
+            limit = "mastertoken";
+            wait = limiter.tryAcquire("master:" + lambda + ":" + rights.getAuthKey(), mastertokenLimit);
+        } else {
+            limit = "subtoken";
+            long expiry = rights.getExpiryDate() == null ? 0 : rights.getExpiryDate().getTime();
+            wait = limiter.tryAcquire("sub:" + lambda + ":" + rights.getAuthKey() + ":" + expiry, subtokenLimit);
+        }
+        if (wait == 0) {
+            limit = "lambda";
+            wait = limiter.tryAcquire("lambda:" + lambda, lambdaLimit);
+        }
+        if (wait == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Metrics.rateLimited(limit).increment();
+        logger.debug(String.format("Rate limit of the %s exceeded for lambda %s.", limit, lambda));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1)
+                / TimeUnit.SECONDS.toNanos(1))));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        mapper.writeValue(response.getOutputStream(), new RestErrorInfo("Error, too many requests for this lambda."));
+    }
+
+    private static boolean hasRole(AccessRights rights, String role) {
+        if (rights.getAuthorities() == null) {
+            return false;
+        }
+        for (GrantedAuthority authority : rights.getAuthorities()) {
+            if (role.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,169 @@
+package edu.teco.serverless.auth.jwtSpringExtention;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets in memory, keyed by strings like the name of a lambda or the identity of a token.
+ *
+ * A bucket holds up to burst tokens and is refilled with rate tokens per second, every request takes one.
+ * The buckets are split into stripes with a lock each, so requests with different keys rarely wait for each other.
+ * Every stripe keeps at most its share of maxBuckets and evicts the least recently used bucket - an evicted
+ * bucket comes back full, which is exact for keys that were idle for burst / rate seconds.
+ */
+public class TokenBucketLimiter {
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongSupplier clock;
+
+    /**
+     * constructor
+     * @param maxBuckets maximum number of buckets kept in memory
+     */
+    public TokenBucketLimiter(int maxBuckets) {
+        this(maxBuckets, System::nanoTime);
+    }
+
+    /**
+     * constructor
+     * @param maxBuckets maximum number of buckets kept in memory
+     * @param clock the time in nanoseconds
+     */
+    public TokenBucketLimiter(int maxBuckets, LongSupplier clock) {
+        if (maxBuckets < STRIPES) {
+            throw new IllegalArgumentException();
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(maxBuckets / STRIPES);
+        }
+        this.clock = clock;
+    }
+
+    /**
+     * takes a token from the bucket of the key
+     * @param key the key of the bucket
+     * @param limit the rate and burst of the bucket
+     * @return 0 if a token was taken, else the time in nanoseconds until the next token is available
+     */
+    public long tryAcquire(String key, Limit limit) {
+        if (limit == null || !limit.isEnabled()) {
+            return 0;
+        }
+        Stripe stripe = stripeOf(key);
+        long now = clock.getAsLong();
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(limit.getBurst(), now);
+                stripe.put(key, bucket);
+            }
+            bucket.refill(limit, now);
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / limit.getRate() * 1e9);
+        }
+    }
+
+    /**
+     * @returns the number of buckets kept in memory
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeOf(String key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[hash & (STRIPES - 1)];
+    }
+
+    /**
+     * Buckets of a stripe in access order, guarded by the stripe itself.
+     */
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+        private final int maxBuckets;
+
+        Stripe(int maxBuckets) {
+            super(16, 0.75f, true);
+            this.maxBuckets = maxBuckets;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > maxBuckets;
+        }
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long lastRefill;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+
+        void refill(Limit limit, long now) {
+            double added = (now - lastRefill) / 1e9 * limit.getRate();
+            tokens = Math.min(limit.getBurst(), tokens + added);
+            lastRefill = now;
+        }
+    }
+
+    /**
+     * Rate and burst of a bucket.
+     */
+    public static final class Limit {
+        private final double rate;
+        private final int burst;
+
+        /**
+         * constructor
+         * @param rate tokens added per second, 0 disables the limit
+         * @param burst maximum number of tokens, i.e. requests in a burst
+         */
+        public Limit(double rate, int burst) {
+            if (rate < 0 || (rate > 0 && burst < 1)) {
+                throw new IllegalArgumentException();
+            }
+            this.rate = rate;
+            this.burst = burst;
+        }
+
+        /**
+         * @returns the tokens added per second
+         */
+        public double getRate() {
+            return rate;
+        }
+
+        /**
+         * @returns the maximum number of tokens
+         */
+        public int getBurst() {
+            return burst;
+        }
+
+        /**
+         * @returns false if requests aren't limited
+         */
+        public boolean isEnabled() {
+            return rate > 0;
+        }
+
+        @Override
+        public String toString() {
+            return isEnabled() ? rate + "/s, burst " + burst : "unlimited";
+        }
+    }
+}
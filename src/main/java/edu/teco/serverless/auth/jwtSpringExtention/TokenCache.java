@@ -0,0 +1,184 @@
+package edu.teco.serverless.auth.jwtSpringExtention;
+
+import edu.teco.serverless.model.lambda.Identifier;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.LambdaImageListener;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.images.LambdaImage;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Caches the AccessRights of verified tokens, so a token that arrives again doesn't have to be parsed
+ * and its signature doesn't have to be computed again.
+ *
+ * Tokens are keyed by their SHA-256 digest, so the cache doesn't hold the tokens themselves. Like the
+ * TokenBucketLimiter, the cache is split into stripes with a lock each, so concurrent requests rarely wait for
+ * each other; every stripe holds at most its share of maxEntries and evicts its least recently used token.
+ * Expired subtokens are never returned, and the tokens of a lambda are dropped when its image is removed or
+ * rebuilt with a new AuthKey.
+ */
+public class TokenCache implements LambdaImageListener {
+    private static final int STRIPES = 16;
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Stripe[] stripes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * constructor
+     * @param maxEntries maximum number of cached tokens
+     */
+    public TokenCache(int maxEntries) {
+        this(maxEntries, Math.min(STRIPES, Integer.highestOneBit(Math.max(maxEntries, 1))));
+    }
+
+    /**
+     * constructor
+     * @param maxEntries maximum number of cached tokens
+     * @param stripes number of stripes, a power of two up to maxEntries
+     */
+    public TokenCache(int maxEntries, int stripes) {
+        if (maxEntries < 1 || stripes < 1 || Integer.bitCount(stripes) != 1 || stripes > maxEntries) {
+            throw new IllegalArgumentException();
+        }
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(maxEntries / stripes);
+        }
+    }
+
+    /**
+     * @param token a JWT
+     * @return the AccessRights of the token or null if it wasn't verified before, or it expired
+     */
+    public AccessRights get(String token) {
+        String key = digest(token);
+        Stripe stripe = stripeOf(key);
+        synchronized (stripe) {
+            AccessRights rights = stripe.get(key);
+            if (rights != null && isExpired(rights)) {
+                stripe.remove(key);
+                rights = null;
+            }
+            if (rights != null) {
+                hits.incrementAndGet();
+                return rights;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * caches the AccessRights of a verified token
+     * @param token the JWT
+     * @param rights the AccessRights parsed from the token
+     */
+    public void put(String token, AccessRights rights) {
+        if (token == null || rights == null || isExpired(rights)) {
+            return;
+        }
+        String key = digest(token);
+        Stripe stripe = stripeOf(key);
+        synchronized (stripe) {
+            stripe.put(key, rights);
+        }
+    }
+
+    /**
+     * removes all tokens of a lambda
+     * @param lambdaName the name of the lambda
+     */
+    public void invalidate(String lambdaName) {
+        removeIf(rights -> lambdaName.equals(rights.getLambdaName()));
+    }
+
+    /**
+     * @returns the number of cached tokens, including expired ones that weren't requested again
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public void imageBuilt(LambdaImage image) {
+        // tokens with the AuthKey of an older image can't be used anymore
+        String name = image.getIdentifier().getIdentifier();
+        String authKey = image.getAuthKey().getAuthKey();
+        removeIf(rights -> name.equals(rights.getLambdaName()) && !authKey.equals(rights.getAuthKey()));
+    }
+
+    @Override
+    public void imageRemoved(Identifier identifier) {
+        invalidate(identifier.getIdentifier());
+    }
+
+    private void removeIf(Predicate<AccessRights> filter) {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.values().removeIf(filter);
+            }
+        }
+    }
+
+    private Stripe stripeOf(String key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[hash & (stripes.length - 1)];
+    }
+
+    private static boolean isExpired(AccessRights rights) {
+        return rights.getExpiryDate() != null && rights.getExpiryDate().before(new Date());
+    }
+
+    private static String digest(String token) {
+        MessageDigest digest = DIGEST.get();
+        digest.reset();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Tokens of a stripe in access order, guarded by the stripe itself.
+     */
+    private static final class Stripe extends LinkedHashMap<String, AccessRights> {
+        private final int maxEntries;
+
+        Stripe(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, AccessRights> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
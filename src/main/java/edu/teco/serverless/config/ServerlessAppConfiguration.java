@@ -1,16 +1,52 @@
 package edu.teco.serverless.config;
 
+import edu.teco.serverless.metrics.MetricsInterceptor;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+import java.util.Locale;
+import java.util.ResourceBundle;
 
 /**
  * Created by Kristina on 29/01/2017.
  */
 
 @Configuration
-public class ServerlessAppConfiguration {
+public class ServerlessAppConfiguration extends WebMvcConfigurerAdapter {
+    private static String propertiesPath = "runtime";
+
+    /**
+     * Registers the interceptor, that measures the requests.
+     * @param registry registry of the interceptors
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new MetricsInterceptor());
+    }
 
+    /**
+     * Derives the timeout of asynchronous requests, e.g. streamed executions, from the time limits of the runtime:
+     * the last cycle of a stream may start just before the batch limit and run up to the global limit.
+     * @param configurer configurer of the asynchronous requests
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        ResourceBundle resourceBundle = ResourceBundle.getBundle(propertiesPath, Locale.ENGLISH);
+        long batchTimeLimit = Long.parseLong(getProperty(resourceBundle, "runtime.batch.time.limit", "300")) * 1000;
+        long globalTimeLimit = Long.parseLong(getProperty(resourceBundle, "runtime.global.time.limit", "60")) * 1000;
+        if (resourceBundle.containsKey("runtime.global.time.limit.ms")) {
+            globalTimeLimit = Long.parseLong(resourceBundle.getString("runtime.global.time.limit.ms").trim());
+        }
+        long grace = Long.parseLong(getProperty(resourceBundle, "runtime.async.timeout.grace", "30")) * 1000;
+        configurer.setDefaultTimeout(batchTimeLimit + globalTimeLimit + grace);
+    }
 
+    private static String getProperty(ResourceBundle resourceBundle, String key, String defaultValue) {
+        return resourceBundle.containsKey(key) ? resourceBundle.getString(key).trim() : defaultValue;
+    }
 }
@@ -0,0 +1,196 @@
+package edu.teco.serverless.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of the server, so every metric is named and described in one place.
+ */
+public final class Metrics {
+
+    private Metrics() {
+    }
+
+    /**
+     * @param method the HTTP method
+     * @param path the pattern of the path, e.g. /lambdas/{name}/execute
+     * @return the latency of the requests to the path
+     */
+    public static LatencyHistogram request(String method, String path) {
+        return registry().histogram("serverless_http_request_seconds", "Latency of the HTTP requests.",
+                "method", method, "path", path);
+    }
+
+    /**
+     * @param method the HTTP method
+     * @param path the pattern of the path, e.g. /lambdas/{name}/execute
+     * @param status the HTTP status of the response
+     * @return the number of answered requests to the path
+     */
+    public static LongAdder requests(String method, String path, int status) {
+        return registry().counter("serverless_http_requests_total", "Number of answered HTTP requests.",
+                "method", method, "path", path, "status", Integer.toString(status));
+    }
+
+    /**
+     * @param stage "token" for the verification of the JWT, "lambda" for the check of its AuthKey
+     * @return the latency of the authentication
+     */
+    public static LatencyHistogram auth(String stage) {
+        return registry().histogram("serverless_auth_seconds", "Latency of the authentication of requests.",
+                "stage", stage);
+    }
+
+    /**
+     * @param limit "subtoken", "mastertoken" or "lambda", the rate limit that was exceeded
+     * @return the number of executions rejected by the rate limits
+     */
+    public static LongAdder rateLimited(String limit) {
+        return registry().counter("serverless_rate_limited_total", "Number of executions rejected by the rate limits.",
+                "limit", limit);
+    }
+
+    /**
+     * @param operation the operation of the LambdaManagerFacade, e.g. "execute"
+     * @param lambda the name of the lambda
+     * @return the latency of the successful operations
+     */
+    public static LatencyHistogram operation(String operation, String lambda) {
+        return registry().histogram("serverless_operation_seconds", "Latency of the successful operations on lambdas.",
+                "operation", operation, "lambda", lambda);
+    }
+
+    /**
+     * @param operation the operation of the LambdaManagerFacade, that isn't measured per lambda, e.g. "delete",
+     *                  whose series would outlive the lambda
+     * @return the latency of the successful operations
+     */
+    public static LatencyHistogram operation(String operation) {
+        return registry().histogram("serverless_operation_seconds", "Latency of the successful operations on lambdas.",
+                "operation", operation);
+    }
+
+    /**
+     * @param lambda the name of the lambda
+     * @param cache "hit" or "miss" for lambdas with a result cache, "off" for the others
+     * @return the latency of the executions of the lambda, including all run cycles
+     */
+    public static LatencyHistogram invocation(String lambda, String cache) {
+        return registry().histogram("serverless_invocation_seconds", "Latency of the executions of lambdas.",
+                "lambda", lambda, "cache", cache);
+    }
+
+    /**
+     * @param lambda the name of the lambda
+     * @return the number of failed executions of the lambda
+     */
+    public static LongAdder invocationErrors(String lambda) {
+        return registry().counter("serverless_invocation_errors_total", "Number of failed executions of lambdas.",
+                "lambda", lambda);
+    }
+
+    /**
+     * @param lambda the name of the lambda
+     * @param container "pooled" if the cycle ran in a pooled container, "new" if a container was started for it
+     * @return the latency of single run cycles of the lambda
+     */
+    public static LatencyHistogram cycle(String lambda, String container) {
+        return registry().histogram("serverless_cycle_seconds", "Latency of single run cycles of lambdas.",
+                "lambda", lambda, "container", container);
+    }
+
+    /**
+     * @param lambda the name of the lambda
+     * @return the time the containers of the lambda take to start
+     */
+    public static LatencyHistogram containerStart(String lambda) {
+        return registry().histogram("serverless_container_start_seconds", "Time containers take to start.",
+                "lambda", lambda);
+    }
+
+    /**
+     * @param result "killed" or "failed", e.g. if the container exited in the meantime
+     * @return the time the runtime takes to kill a running container, e.g. after its time limit
+     */
+    public static LatencyHistogram containerKill(String result) {
+        return registry().histogram("serverless_container_kill_seconds",
+                "Time the runtime takes to kill a running container.", "result", result);
+    }
+
+    /**
+     * @param kind "container" or "image"
+     * @param result "removed" or "failed"
+     * @return the number of orphaned containers and images the OrphanReaper tried to remove
+     */
+    public static LongAdder orphans(String kind, String result) {
+        return registry().counter("serverless_orphans_total",
+                "Number of orphaned containers and images the reconciler tried to remove.", "kind", kind,
+                "result", result);
+    }
+
+    /**
+     * @param lambda the name of the lambda
+     * @return the time admitted executions of the lambda waited for a slot
+     */
+    public static LatencyHistogram admissionWait(String lambda) {
+        return registry().histogram("serverless_admission_wait_seconds",
+                "Time admitted executions waited for a slot of the concurrency limits.", "lambda", lambda);
+    }
+
+    /**
+     * @param lambda the name of the lambda
+     * @param reason "queue" if too many executions were waiting, "timeout" if no slot became free in time
+     * @return the number of executions of the lambda rejected by the concurrency limits
+     */
+    public static LongAdder admissionRejections(String lambda, String reason) {
+        return registry().counter("serverless_admission_rejections_total",
+                "Number of executions rejected by the concurrency limits.", "lambda", lambda, "reason", reason);
+    }
+
+    /**
+     * @param queue "jobs" or "builds"
+     * @return the time tasks wait in the queue for a thread
+     */
+    public static LatencyHistogram queue(String queue) {
+        return registry().histogram("serverless_queue_seconds", "Time tasks wait in a queue for a thread.",
+                "queue", queue);
+    }
+
+    /**
+     * @param lambda the name of the lambda
+     * @return the time the images of the lambda take to build
+     */
+    public static LatencyHistogram build(String lambda) {
+        return registry().histogram("serverless_build_seconds", "Time images of lambdas take to build.",
+                "lambda", lambda);
+    }
+
+    /**
+     * @param command the type of the runtime command
+     * @return the latency of the runtime commands of the type
+     */
+    public static LatencyHistogram command(String command) {
+        return registry().histogram("serverless_command_seconds", "Latency of the commands sent to the runtime.",
+                "command", command);
+    }
+
+    /**
+     * @param command the type of the runtime command
+     * @return the number of failed runtime commands of the type
+     */
+    public static LongAdder commandErrors(String command) {
+        return registry().counter("serverless_command_errors_total", "Number of failed runtime commands.",
+                "command", command);
+    }
+
+    /**
+     * removes all series of a lambda, once it is deleted
+     * @param lambda the name of the lambda
+     */
+    public static void removeLambda(String lambda) {
+        registry().remove("lambda", lambda);
+    }
+
+    private static MetricsRegistry registry() {
+        return MetricsRegistry.getInstance();
+    }
+}
@@ -0,0 +1,37 @@
+package edu.teco.serverless.metrics;
+
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the requests to the controllers and their latency, per HTTP method and path pattern.
+ */
+public class MetricsInterceptor extends HandlerInterceptorAdapter {
+    private static final String START = MetricsInterceptor.class.getName() + ".start";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // asynchronous requests are dispatched again when their result is ready, the first start counts
+        if (request.getAttribute(START) == null) {
+            request.setAttribute(START, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object start = request.getAttribute(START);
+        if (start == null) {
+            return;
+        }
+        // the pattern instead of the path, so there is one series per endpoint and not per lambda
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String path = pattern == null ? "unmatched" : pattern.toString();
+        Metrics.request(request.getMethod(), path).recordSince((Long) start);
+        Metrics.requests(request.getMethod(), path, response.getStatus()).increment();
+    }
+}
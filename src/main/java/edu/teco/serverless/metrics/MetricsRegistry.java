@@ -0,0 +1,220 @@
+package edu.teco.serverless.metrics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds the counters and latency histograms of the server and writes them in the Prometheus text format.
+ *
+ * A metric is identified by its name and its labels, given as name, value, name, value, ...
+ * Histograms are written as summaries with the quantiles 0.5, 0.9, 0.99 and 0.999 in seconds,
+ * counted since the start of the server.
+ * A metric has at most maxSeries label sets, further label sets share one series whose label values are OVERFLOW.
+ */
+public class MetricsRegistry {
+    /**
+     * the value of all labels of the series, that takes the label sets beyond the maximum
+     */
+    public static final String OVERFLOW = "__overflow__";
+    /**
+     * the default maximum number of label sets of a metric
+     */
+    public static final int DEFAULT_MAX_SERIES = 1000;
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final MetricsRegistry instance = new MetricsRegistry();
+
+    private final ConcurrentMap<String, Family> families = new ConcurrentHashMap<>();
+    private volatile int maxSeries = DEFAULT_MAX_SERIES;
+
+    /**
+     * @return the only instance of MetricsRegistry
+     */
+    public static MetricsRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * @param name the name of the metric
+     * @param help the description of the metric
+     * @param labels the labels, as name, value, name, value, ...
+     * @return the histogram with these labels, it is created on the first call
+     */
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, "summary").series(labels, maxSeries);
+    }
+
+    /**
+     * @param name the name of the metric, should end with _total
+     * @param help the description of the metric
+     * @param labels the labels, as name, value, name, value, ...
+     * @return the counter with these labels, it is created on the first call
+     */
+    public LongAdder counter(String name, String help, String... labels) {
+        return (LongAdder) family(name, help, "counter").series(labels, maxSeries);
+    }
+
+    /**
+     * writes all metrics in the Prometheus text format
+     * @param writer receives the metrics
+     * @throws IOException if the writer fails
+     */
+    public void write(Writer writer) throws IOException {
+        for (Family family : new TreeMap<>(families).values()) {
+            writer.write("# HELP " + family.name + " " + family.help + "\n");
+            writer.write("# TYPE " + family.name + " " + family.type + "\n");
+            Map<String, Object> series = new TreeMap<>();
+            for (Map.Entry<List<String>, Object> entry : family.series.entrySet()) {
+                series.put(formatLabels(entry.getKey()), entry.getValue());
+            }
+            for (Map.Entry<String, Object> entry : series.entrySet()) {
+                String labels = entry.getKey();
+                if (entry.getValue() instanceof LongAdder) {
+                    writer.write(family.name + braces(labels) + " " + ((LongAdder) entry.getValue()).sum() + "\n");
+                    continue;
+                }
+                LatencyHistogram histogram = (LatencyHistogram) entry.getValue();
+                String separator = labels.isEmpty() ? "" : ",";
+                for (double quantile : QUANTILES) {
+                    writer.write(family.name + "{" + labels + separator + "quantile=\"" + quantile + "\"} "
+                            + seconds(histogram.getValueAtQuantile(quantile)) + "\n");
+                }
+                writer.write(family.name + "_sum" + braces(labels) + " " + seconds(histogram.getSum()) + "\n");
+                writer.write(family.name + "_count" + braces(labels) + " " + histogram.getCount() + "\n");
+            }
+        }
+    }
+
+    /**
+     * @return all metrics in the Prometheus text format
+     */
+    public String scrape() {
+        StringWriter writer = new StringWriter();
+        try {
+            write(writer);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * removes the series of all metrics, that have a label with this value, e.g. the series of a removed lambda
+     * @param label the name of the label
+     * @param value the value of the label
+     */
+    public void remove(String label, String value) {
+        for (Family family : families.values()) {
+            family.series.keySet().removeIf(labels -> {
+                for (int i = 0; i + 1 < labels.size(); i += 2) {
+                    if (labels.get(i).equals(label) && labels.get(i + 1).equals(value)) {
+                        return true;
+                    }
+                }
+                return false;
+            });
+        }
+    }
+
+    /**
+     * sets the maximum number of label sets of a metric, existing series are kept
+     * @param maxSeries the maximum, at least 1
+     */
+    public void setMaxSeries(int maxSeries) {
+        if (maxSeries < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.maxSeries = maxSeries;
+    }
+
+    /**
+     * @returns the maximum number of label sets of a metric
+     */
+    public int getMaxSeries() {
+        return maxSeries;
+    }
+
+    /**
+     * removes all metrics
+     */
+    public void clear() {
+        families.clear();
+    }
+
+    private Family family(String name, String help, String type) {
+        // computeIfAbsent locks even if the family exists, most calls find it with get
+        Family family = families.get(name);
+        if (family == null) {
+            family = families.computeIfAbsent(name, n -> new Family(n, help, type));
+        }
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException(name + " is a " + family.type);
+        }
+        return family;
+    }
+
+    private static String formatLabels(List<String> labels) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i + 1 < labels.size(); i += 2) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(labels.get(i)).append("=\"").append(escape(labels.get(i + 1))).append('"');
+        }
+        return sb.toString();
+    }
+
+    private static String escape(String value) {
+        return String.valueOf(value).replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String braces(String labels) {
+        return labels.isEmpty() ? "" : "{" + labels + "}";
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+
+    /**
+     * The series of a metric with all its labels.
+     */
+    private static final class Family {
+        final String name;
+        final String help;
+        final String type;
+        final ConcurrentMap<List<String>, Object> series = new ConcurrentHashMap<>();
+
+        Family(String name, String help, String type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+
+        Object series(String[] labels, int maxSeries) {
+            if (labels.length % 2 != 0) {
+                throw new IllegalArgumentException("labels must be given as name, value pairs");
+            }
+            Object metric = series.get(Arrays.asList(labels));
+            if (metric != null) {
+                return metric;
+            }
+            List<String> key = new ArrayList<>(Arrays.asList(labels));
+            // the size is only checked before the series is added, concurrent calls may pass the maximum by a few
+            if (series.size() >= maxSeries) {
+                for (int i = 1; i < key.size(); i += 2) {
+                    key.set(i, OVERFLOW);
+                }
+            }
+            return series.computeIfAbsent(key, k -> "counter".equals(type) ? new LongAdder() : new LatencyHistogram());
+        }
+    }
+}
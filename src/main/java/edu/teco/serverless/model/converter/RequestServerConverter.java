@@ -4,6 +4,7 @@ package edu.teco.serverless.model.converter;
 import edu.teco.serverless.model.exception.messages.SemanticRequestException;
 import edu.teco.serverless.model.lambda.Code;
 import edu.teco.serverless.model.lambda.ExecuteConfig;
+import edu.teco.serverless.model.lambda.ExecutionAttributes;
 import edu.teco.serverless.model.lambda.Identifier;
 import edu.teco.serverless.model.lambda.Lambda;
 import edu.teco.serverless.model.lambda.Language;
@@ -12,6 +13,7 @@ import edu.teco.serverless.model.lambda.Parameter;
 import edu.teco.serverless.model.lambda.RunCycles;
 import edu.teco.serverless.model.lambda.RuntimeAttributes;
 import edu.teco.serverless.model.messages.ExecuteLambdaRequest;
+import edu.teco.serverless.model.messages.ExecutionAttributesRequest;
 import edu.teco.serverless.model.messages.RuntimeAttributesRequest;
 import edu.teco.serverless.model.messages.UploadLambdaRequest;
 import org.apache.log4j.Logger;
@@ -124,6 +126,19 @@ public class RequestServerConverter {
                 }
             }
 
+            if (uploadLambdaRequest.getExecutionAttributes() != null
+                    && uploadLambdaRequest.getExecutionAttributes().getCacheTtl() < 0) {
+                exceptionMessages.add("cacheTtl");
+            }
+            if (uploadLambdaRequest.getExecutionAttributes() != null
+                    && uploadLambdaRequest.getExecutionAttributes().getMaxConcurrency() < 0) {
+                exceptionMessages.add("maxConcurrency");
+            }
+            if (uploadLambdaRequest.getExecutionAttributes() != null
+                    && uploadLambdaRequest.getExecutionAttributes().getTimeLimit() < 0) {
+                exceptionMessages.add("timeLimit");
+            }
+
             if (exceptionMessages.size() != 0) {
                 setToTrue();
                 throw new SemanticRequestException(arrayToString(exceptionMessages));
@@ -131,6 +146,13 @@ public class RequestServerConverter {
 
         }
         builderLambda.runtimeAttributes(runtimeAttributes);
+        if (uploadLambdaRequest.getExecutionAttributes() != null) {
+            builderLambda.executionAttributes(ExecutionAttributes.newExecutionAttributes()
+                    .cacheTtl(uploadLambdaRequest.getExecutionAttributes().getCacheTtl())
+                    .maxConcurrency(uploadLambdaRequest.getExecutionAttributes().getMaxConcurrency())
+                    .timeLimit(uploadLambdaRequest.getExecutionAttributes().getTimeLimit())
+                    .build());
+        }
 
         return builderLambda.build();
     }
@@ -160,6 +182,7 @@ public class RequestServerConverter {
         }
         builder.parameterList(listParam);
         logger.info("parameterList is initialized.");
+        builder.parallelism(Math.max(1, executeRequest.getParallelism()));
         return builder.build();
     }
 
@@ -199,6 +222,11 @@ public class RequestServerConverter {
         if (lambda.getName() != null) {
             builder.name(lambda.getName().getIdentifier());
         }
+        if (lambda.getExecutionAttributes() != null) {
+            builder.executionAttributes(new ExecutionAttributesRequest(lambda.getExecutionAttributes().getCacheTtl(),
+                    lambda.getExecutionAttributes().getMaxConcurrency(),
+                    lambda.getExecutionAttributes().getTimeLimit()));
+        }
 
         return builder.runtimeAttributes(runtimeAttributesRequest).build();
     }
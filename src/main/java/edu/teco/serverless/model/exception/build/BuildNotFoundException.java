@@ -0,0 +1,9 @@
+package edu.teco.serverless.model.exception.build;
+
+/**
+ * Thrown if there is no build with the given id, or it was already evicted.
+ */
+public class BuildNotFoundException extends RuntimeException {
+    public BuildNotFoundException() {
+    }
+}
@@ -0,0 +1,9 @@
+package edu.teco.serverless.model.exception.build;
+
+/**
+ * Thrown if a build can't be accepted because the build queue is full.
+ */
+public class BuildQueueFullException extends RuntimeException {
+    public BuildQueueFullException() {
+    }
+}
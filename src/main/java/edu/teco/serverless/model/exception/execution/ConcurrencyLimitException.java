@@ -0,0 +1,24 @@
+package edu.teco.serverless.model.exception.execution;
+
+/**
+ * Thrown if an execution is rejected because the lambda or the server runs too many executions at once.
+ */
+public class ConcurrencyLimitException extends RuntimeException {
+    private final int retryAfter;
+
+    /**
+     * @param message the exceeded limit
+     * @param retryAfter the time in seconds after which the client should try again
+     */
+    public ConcurrencyLimitException(String message, int retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @returns the time in seconds after which the client should try again
+     */
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,9 @@
+package edu.teco.serverless.model.exception.job;
+
+/**
+ * Thrown if a job is unknown or its result was already evicted.
+ */
+public class JobNotFoundException extends RuntimeException {
+    public JobNotFoundException() {
+    }
+}
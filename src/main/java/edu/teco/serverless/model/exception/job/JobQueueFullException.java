@@ -0,0 +1,9 @@
+package edu.teco.serverless.model.exception.job;
+
+/**
+ * Thrown if a job can't be accepted because the job queue is full.
+ */
+public class JobQueueFullException extends RuntimeException {
+    public JobQueueFullException() {
+    }
+}
@@ -3,16 +3,19 @@ package edu.teco.serverless.model.lambda;
 import java.util.List;
 
 /**
- * Contains configuration of a function - parameters and how many times must be executed.
+ * Contains configuration of a function - parameters, how many times must be executed
+ * and how many of the run cycles may run at once.
  */
 public class ExecuteConfig {
 
     private RunCycles runCycles;
     private List<Parameter> parameterList;
+    private int parallelism;
 
     private ExecuteConfig(Builder builder) {
         this.runCycles = builder.runCycles;
         this.parameterList = builder.parameterList;
+        this.parallelism = builder.parallelism;
     }
 
     @Override
@@ -20,6 +23,7 @@ public class ExecuteConfig {
         return "ExecuteConfig{" +
                 "runCycles=" + runCycles +
                 ", parameterList=" + parameterList +
+                ", parallelism=" + parallelism +
                 '}';
     }
 
@@ -31,6 +35,7 @@ public class ExecuteConfig {
         ExecuteConfig that = (ExecuteConfig) o;
 
         if (!getRunCycles().equals(that.getRunCycles())) return false;
+        if (getParallelism() != that.getParallelism()) return false;
         return getParameterList().equals(that.getParameterList());
 
     }
@@ -39,6 +44,7 @@ public class ExecuteConfig {
     public int hashCode() {
         int result = getRunCycles().hashCode();
         result = 31 * result + getParameterList().hashCode();
+        result = 31 * result + getParallelism();
         return result;
     }
 
@@ -62,9 +68,18 @@ public class ExecuteConfig {
         this.parameterList = parameterList;
     }
 
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
     public static final class Builder {
         private RunCycles runCycles;
         private List<Parameter> parameterList;
+        private int parallelism = 1;
 
         private Builder() {
         }
@@ -82,5 +97,10 @@ public class ExecuteConfig {
             this.parameterList = parameterList;
             return this;
         }
+
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
     }
 }
@@ -0,0 +1,33 @@
+package edu.teco.serverless.model.lambda;
+
+/**
+ * Contains the output of an execution and whether it was served from the result cache.
+ */
+public class ExecuteResult {
+    private final String output;
+    private final boolean cached;
+
+    public ExecuteResult(String output, boolean cached) {
+        this.output = output;
+        this.cached = cached;
+    }
+
+    public String getOutput() {
+        return output;
+    }
+
+    /**
+     * @return true if the output is a cached result of an earlier execution
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecuteResult{" +
+                "output='" + output + '\'' +
+                ", cached=" + cached +
+                '}';
+    }
+}
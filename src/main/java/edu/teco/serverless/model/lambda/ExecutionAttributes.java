@@ -0,0 +1,118 @@
+package edu.teco.serverless.model.lambda;
+
+/**
+ * Describes how the results of a lambda may be used - a deterministic lambda can have its results cached -
+ * how many of its containers may run at once and how long a run may take.
+ */
+public class ExecutionAttributes {
+    private int cacheTtl;
+    private int maxConcurrency;
+    private int timeLimit;
+
+    private ExecutionAttributes(Builder builder) {
+        this.cacheTtl = builder.cacheTtl;
+        this.maxConcurrency = builder.maxConcurrency;
+        this.timeLimit = builder.timeLimit;
+    }
+
+    public static Builder newExecutionAttributes() {
+        return new Builder();
+    }
+
+    /**
+     * @return the time in seconds a result is cached, 0 if results aren't cached
+     */
+    public int getCacheTtl() {
+        return cacheTtl;
+    }
+
+    public void setCacheTtl(int cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+
+    /**
+     * @return the maximum number of containers of the lambda running at once, 0 for the default of the server
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * @return the time limit of a run cycle in milliseconds, 0 for the global limit of the server
+     */
+    public int getTimeLimit() {
+        return timeLimit;
+    }
+
+    public void setTimeLimit(int timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * @return true if the results of the lambda are cached
+     */
+    public boolean isCacheable() {
+        return cacheTtl > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionAttributes{" +
+                "cacheTtl=" + cacheTtl +
+                ", maxConcurrency=" + maxConcurrency +
+                ", timeLimit=" + timeLimit +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ExecutionAttributes)) return false;
+
+        ExecutionAttributes that = (ExecutionAttributes) o;
+
+        if (getCacheTtl() != that.getCacheTtl()) return false;
+        if (getMaxConcurrency() != that.getMaxConcurrency()) return false;
+        return getTimeLimit() == that.getTimeLimit();
+    }
+
+    @Override
+    public int hashCode() {
+        int result = getCacheTtl();
+        result = 31 * result + getMaxConcurrency();
+        result = 31 * result + getTimeLimit();
+        return result;
+    }
+
+    public static final class Builder {
+        private int cacheTtl;
+        private int maxConcurrency;
+        private int timeLimit;
+
+        private Builder() {
+        }
+
+        public ExecutionAttributes build() {
+            return new ExecutionAttributes(this);
+        }
+
+        public Builder cacheTtl(int cacheTtl) {
+            this.cacheTtl = cacheTtl;
+            return this;
+        }
+
+        public Builder maxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        public Builder timeLimit(int timeLimit) {
+            this.timeLimit = timeLimit;
+            return this;
+        }
+    }
+}
@@ -11,6 +11,7 @@ public class Lambda {
 
     private Identifier name;
     private RuntimeAttributes runtimeAttributes;
+    private ExecutionAttributes executionAttributes;
 
     public Lambda(Identifier name, RuntimeAttributes runtimeAttributes) {
         this.name = name;
@@ -20,6 +21,7 @@ public class Lambda {
     private Lambda(Builder builder) {
         this.name = builder.name;
         this.runtimeAttributes = builder.runtimeAttributes;
+        this.executionAttributes = builder.executionAttributes;
     }
 
     public static Builder newLambda() {
@@ -42,11 +44,23 @@ public class Lambda {
         this.runtimeAttributes = runtimeAttributes;
     }
 
+    /**
+     * @return the execution attributes, null if the lambda uses the defaults
+     */
+    public ExecutionAttributes getExecutionAttributes() {
+        return executionAttributes;
+    }
+
+    public void setExecutionAttributes(ExecutionAttributes executionAttributes) {
+        this.executionAttributes = executionAttributes;
+    }
+
     @Override
     public String toString() {
         return "Lambda{" +
                 "name=" + name +
                 ", runtimeAttributes=" + runtimeAttributes +
+                ", executionAttributes=" + executionAttributes +
                 '}';
     }
 
@@ -58,6 +72,8 @@ public class Lambda {
         Lambda lambda = (Lambda) o;
 
         if (!getName().equals(lambda.getName())) return false;
+        if (getExecutionAttributes() != null ? !getExecutionAttributes().equals(lambda.getExecutionAttributes()) : lambda.getExecutionAttributes() != null)
+            return false;
         return getRuntimeAttributes().equals(lambda.getRuntimeAttributes());
     }
 
@@ -65,12 +81,14 @@ public class Lambda {
     public int hashCode() {
         int result = getName().hashCode();
         result = 31 * result + getRuntimeAttributes().hashCode();
+        result = 31 * result + (getExecutionAttributes() != null ? getExecutionAttributes().hashCode() : 0);
         return result;
     }
 
     public static final class Builder {
         private Identifier name;
         private RuntimeAttributes runtimeAttributes;
+        private ExecutionAttributes executionAttributes;
 
         private Builder() {
         }
@@ -88,5 +106,10 @@ public class Lambda {
             this.runtimeAttributes = runtimeAttributes;
             return this;
         }
+
+        public Builder executionAttributes(ExecutionAttributes executionAttributes) {
+            this.executionAttributes = executionAttributes;
+            return this;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package edu.teco.serverless.model.messages;
+
+import java.util.List;
+
+/**
+ * A base image with the libraries installed in it and the number of lambdas built on it.
+ */
+public class BaseImageResponse {
+    private final String tag;
+    private final List<String> libraries;
+    private final boolean built;
+    private final int lambdas;
+
+    private BaseImageResponse(Builder builder) {
+        this.tag = builder.tag;
+        this.libraries = builder.libraries;
+        this.built = builder.built;
+        this.lambdas = builder.lambdas;
+    }
+
+    public static Builder newBaseImageResponse() {
+        return new Builder();
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public List<String> getLibraries() {
+        return libraries;
+    }
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    public int getLambdas() {
+        return lambdas;
+    }
+
+    public static final class Builder {
+        private String tag;
+        private List<String> libraries;
+        private boolean built;
+        private int lambdas;
+
+        private Builder() {
+        }
+
+        public BaseImageResponse build() {
+            return new BaseImageResponse(this);
+        }
+
+        public Builder tag(String tag) {
+            this.tag = tag;
+            return this;
+        }
+
+        public Builder libraries(List<String> libraries) {
+            this.libraries = libraries;
+            return this;
+        }
+
+        public Builder built(boolean built) {
+            this.built = built;
+            return this;
+        }
+
+        public Builder lambdas(int lambdas) {
+            this.lambdas = lambdas;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package edu.teco.serverless.model.messages;
+
+/**
+ * Depth of the build queue and durations of the builds since the start.
+ */
+public class BuildStatsResponse {
+    private final int queued;
+    private final int running;
+    private final long succeeded;
+    private final long failed;
+    private final long averageMillis;
+    private final long maxMillis;
+
+    private BuildStatsResponse(Builder builder) {
+        this.queued = builder.queued;
+        this.running = builder.running;
+        this.succeeded = builder.succeeded;
+        this.failed = builder.failed;
+        this.averageMillis = builder.averageMillis;
+        this.maxMillis = builder.maxMillis;
+    }
+
+    public static Builder newBuildStatsResponse() {
+        return new Builder();
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public int getRunning() {
+        return running;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getAverageMillis() {
+        return averageMillis;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    public static final class Builder {
+        private int queued;
+        private int running;
+        private long succeeded;
+        private long failed;
+        private long averageMillis;
+        private long maxMillis;
+
+        private Builder() {
+        }
+
+        public BuildStatsResponse build() {
+            return new BuildStatsResponse(this);
+        }
+
+        public Builder queued(int queued) {
+            this.queued = queued;
+            return this;
+        }
+
+        public Builder running(int running) {
+            this.running = running;
+            return this;
+        }
+
+        public Builder succeeded(long succeeded) {
+            this.succeeded = succeeded;
+            return this;
+        }
+
+        public Builder failed(long failed) {
+            this.failed = failed;
+            return this;
+        }
+
+        public Builder averageMillis(long averageMillis) {
+            this.averageMillis = averageMillis;
+            return this;
+        }
+
+        public Builder maxMillis(long maxMillis) {
+            this.maxMillis = maxMillis;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package edu.teco.serverless.model.messages;
+
+/**
+ * Hits, misses and size of the result cache since the start.
+ */
+public class CacheStatsResponse {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int entries;
+
+    private CacheStatsResponse(Builder builder) {
+        this.hits = builder.hits;
+        this.misses = builder.misses;
+        this.evictions = builder.evictions;
+        this.entries = builder.entries;
+    }
+
+    public static Builder newCacheStatsResponse() {
+        return new Builder();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    public static final class Builder {
+        private long hits;
+        private long misses;
+        private long evictions;
+        private int entries;
+
+        private Builder() {
+        }
+
+        public CacheStatsResponse build() {
+            return new CacheStatsResponse(this);
+        }
+
+        public Builder hits(long hits) {
+            this.hits = hits;
+            return this;
+        }
+
+        public Builder misses(long misses) {
+            this.misses = misses;
+            return this;
+        }
+
+        public Builder evictions(long evictions) {
+            this.evictions = evictions;
+            return this;
+        }
+
+        public Builder entries(int entries) {
+            this.entries = entries;
+            return this;
+        }
+    }
+}
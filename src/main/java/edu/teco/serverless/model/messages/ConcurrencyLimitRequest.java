@@ -0,0 +1,30 @@
+package edu.teco.serverless.model.messages;
+
+/**
+ * A new concurrency limit, of the server or of a lambda.
+ */
+public class ConcurrencyLimitRequest {
+    private int limit;
+
+    public ConcurrencyLimitRequest() {
+    }
+
+    public ConcurrencyLimitRequest(int limit) {
+        this.limit = limit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimitRequest{" +
+                "limit=" + limit +
+                '}';
+    }
+}
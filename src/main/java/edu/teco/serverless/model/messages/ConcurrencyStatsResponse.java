@@ -0,0 +1,110 @@
+package edu.teco.serverless.model.messages;
+
+import java.util.List;
+
+/**
+ * Concurrency limits, taken slots and waiting executions of the server and its lambdas.
+ */
+public class ConcurrencyStatsResponse {
+    private final int globalLimit;
+    private final int defaultLambdaLimit;
+    private final int active;
+    private final int waiting;
+    private final long admitted;
+    private final long rejected;
+    private final List<LambdaConcurrencyResponse> lambdas;
+
+    private ConcurrencyStatsResponse(Builder builder) {
+        this.globalLimit = builder.globalLimit;
+        this.defaultLambdaLimit = builder.defaultLambdaLimit;
+        this.active = builder.active;
+        this.waiting = builder.waiting;
+        this.admitted = builder.admitted;
+        this.rejected = builder.rejected;
+        this.lambdas = builder.lambdas;
+    }
+
+    public static Builder newConcurrencyStatsResponse() {
+        return new Builder();
+    }
+
+    public int getGlobalLimit() {
+        return globalLimit;
+    }
+
+    public int getDefaultLambdaLimit() {
+        return defaultLambdaLimit;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<LambdaConcurrencyResponse> getLambdas() {
+        return lambdas;
+    }
+
+    public static final class Builder {
+        private int globalLimit;
+        private int defaultLambdaLimit;
+        private int active;
+        private int waiting;
+        private long admitted;
+        private long rejected;
+        private List<LambdaConcurrencyResponse> lambdas;
+
+        private Builder() {
+        }
+
+        public ConcurrencyStatsResponse build() {
+            return new ConcurrencyStatsResponse(this);
+        }
+
+        public Builder globalLimit(int globalLimit) {
+            this.globalLimit = globalLimit;
+            return this;
+        }
+
+        public Builder defaultLambdaLimit(int defaultLambdaLimit) {
+            this.defaultLambdaLimit = defaultLambdaLimit;
+            return this;
+        }
+
+        public Builder active(int active) {
+            this.active = active;
+            return this;
+        }
+
+        public Builder waiting(int waiting) {
+            this.waiting = waiting;
+            return this;
+        }
+
+        public Builder admitted(long admitted) {
+            this.admitted = admitted;
+            return this;
+        }
+
+        public Builder rejected(long rejected) {
+            this.rejected = rejected;
+            return this;
+        }
+
+        public Builder lambdas(List<LambdaConcurrencyResponse> lambdas) {
+            this.lambdas = lambdas;
+            return this;
+        }
+    }
+}
@@ -9,6 +9,7 @@ public class ExecuteLambdaRequest {
 
     private int times;
     private List<String> parameters;
+    private int parallelism;
 
     public ExecuteLambdaRequest() {
     }
@@ -16,6 +17,7 @@ public class ExecuteLambdaRequest {
     private ExecuteLambdaRequest(Builder builder) {
         this.times = builder.times;
         this.parameters = builder.parameters;
+        this.parallelism = builder.parallelism;
     }
 
     public static Builder newExecuteLambdaRequest() {
@@ -38,9 +40,18 @@ public class ExecuteLambdaRequest {
         this.parameters = parameters;
     }
 
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
     public static final class Builder {
         private int times;
         private List<String> parameters;
+        private int parallelism;
 
         private Builder() {
         }
@@ -58,5 +69,10 @@ public class ExecuteLambdaRequest {
             this.parameters = parameters;
             return this;
         }
+
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
     }
 }
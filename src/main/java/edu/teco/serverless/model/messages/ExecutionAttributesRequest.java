@@ -0,0 +1,120 @@
+package edu.teco.serverless.model.messages;
+
+/**
+ * Optional execution attributes of an uploaded lambda.
+ */
+public class ExecutionAttributesRequest {
+    private int cacheTtl;
+    private int maxConcurrency;
+    private int timeLimit;
+
+    public ExecutionAttributesRequest() {
+
+    }
+
+    public ExecutionAttributesRequest(int cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+
+    public ExecutionAttributesRequest(int cacheTtl, int maxConcurrency) {
+        this.cacheTtl = cacheTtl;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public ExecutionAttributesRequest(int cacheTtl, int maxConcurrency, int timeLimit) {
+        this.cacheTtl = cacheTtl;
+        this.maxConcurrency = maxConcurrency;
+        this.timeLimit = timeLimit;
+    }
+
+    private ExecutionAttributesRequest(Builder builder) {
+        this.cacheTtl = builder.cacheTtl;
+        this.maxConcurrency = builder.maxConcurrency;
+        this.timeLimit = builder.timeLimit;
+    }
+
+    public static Builder newExecutionAttributesRequest() {
+        return new Builder();
+    }
+
+    public int getCacheTtl() {
+        return cacheTtl;
+    }
+
+    public void setCacheTtl(int cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getTimeLimit() {
+        return timeLimit;
+    }
+
+    public void setTimeLimit(int timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ExecutionAttributesRequest)) return false;
+
+        ExecutionAttributesRequest that = (ExecutionAttributesRequest) o;
+
+        if (getCacheTtl() != that.getCacheTtl()) return false;
+        if (getMaxConcurrency() != that.getMaxConcurrency()) return false;
+        return getTimeLimit() == that.getTimeLimit();
+    }
+
+    @Override
+    public int hashCode() {
+        int result = getCacheTtl();
+        result = 31 * result + getMaxConcurrency();
+        result = 31 * result + getTimeLimit();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionAttributesRequest{" +
+                "cacheTtl=" + cacheTtl +
+                ", maxConcurrency=" + maxConcurrency +
+                ", timeLimit=" + timeLimit +
+                '}';
+    }
+
+    public static final class Builder {
+        private int cacheTtl;
+        private int maxConcurrency;
+        private int timeLimit;
+
+        private Builder() {
+        }
+
+        public ExecutionAttributesRequest build() {
+            return new ExecutionAttributesRequest(this);
+        }
+
+        public Builder cacheTtl(int cacheTtl) {
+            this.cacheTtl = cacheTtl;
+            return this;
+        }
+
+        public Builder maxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        public Builder timeLimit(int timeLimit) {
+            this.timeLimit = timeLimit;
+            return this;
+        }
+    }
+}
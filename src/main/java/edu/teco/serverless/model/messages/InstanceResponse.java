@@ -0,0 +1,96 @@
+package edu.teco.serverless.model.messages;
+
+/**
+ * A live instance of a lambda: its container, its state and the request it runs for.
+ */
+public class InstanceResponse {
+    private final long id;
+    private final String state;
+    private final long request;
+    private final String container;
+    private final long startedAt;
+    private final long stateMillis;
+
+    private InstanceResponse(Builder builder) {
+        this.id = builder.id;
+        this.state = builder.state;
+        this.request = builder.request;
+        this.container = builder.container;
+        this.startedAt = builder.startedAt;
+        this.stateMillis = builder.stateMillis;
+    }
+
+    public static Builder newInstanceResponse() {
+        return new Builder();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public long getRequest() {
+        return request;
+    }
+
+    public String getContainer() {
+        return container;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public long getStateMillis() {
+        return stateMillis;
+    }
+
+    public static final class Builder {
+        private long id;
+        private String state;
+        private long request;
+        private String container;
+        private long startedAt;
+        private long stateMillis;
+
+        private Builder() {
+        }
+
+        public InstanceResponse build() {
+            return new InstanceResponse(this);
+        }
+
+        public Builder id(long id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder state(String state) {
+            this.state = state;
+            return this;
+        }
+
+        public Builder request(long request) {
+            this.request = request;
+            return this;
+        }
+
+        public Builder container(String container) {
+            this.container = container;
+            return this;
+        }
+
+        public Builder startedAt(long startedAt) {
+            this.startedAt = startedAt;
+            return this;
+        }
+
+        public Builder stateMillis(long stateMillis) {
+            this.stateMillis = stateMillis;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package edu.teco.serverless.model.messages;
+
+import java.util.List;
+
+/**
+ * Live instances of the server and its lambdas.
+ */
+public class InstanceStatsResponse {
+    private final int instances;
+    private final List<LambdaInstancesResponse> lambdas;
+
+    private InstanceStatsResponse(Builder builder) {
+        this.instances = builder.instances;
+        this.lambdas = builder.lambdas;
+    }
+
+    public static Builder newInstanceStatsResponse() {
+        return new Builder();
+    }
+
+    public int getInstances() {
+        return instances;
+    }
+
+    public List<LambdaInstancesResponse> getLambdas() {
+        return lambdas;
+    }
+
+    public static final class Builder {
+        private int instances;
+        private List<LambdaInstancesResponse> lambdas;
+
+        private Builder() {
+        }
+
+        public InstanceStatsResponse build() {
+            return new InstanceStatsResponse(this);
+        }
+
+        public Builder instances(int instances) {
+            this.instances = instances;
+            return this;
+        }
+
+        public Builder lambdas(List<LambdaInstancesResponse> lambdas) {
+            this.lambdas = lambdas;
+            return this;
+        }
+    }
+}
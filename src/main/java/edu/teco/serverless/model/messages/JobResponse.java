@@ -0,0 +1,84 @@
+package edu.teco.serverless.model.messages;
+
+/**
+ * State of an asynchronous execution, the message holds the result once the job succeeded.
+ */
+public class JobResponse {
+    private final String id;
+    private final String status;
+    private final String link;
+    private final String message;
+    private final String error;
+
+    private JobResponse(Builder builder) {
+        this.id = builder.id;
+        this.status = builder.status;
+        this.link = builder.link;
+        this.message = builder.message;
+        this.error = builder.error;
+    }
+
+    public static Builder newJobResponse() {
+        return new Builder();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getLink() {
+        return link;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public static final class Builder {
+        private String id;
+        private String status;
+        private String link;
+        private String message;
+        private String error;
+
+        private Builder() {
+        }
+
+        public JobResponse build() {
+            return new JobResponse(this);
+        }
+
+        public Builder id(String id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder status(String status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder link(String link) {
+            this.link = link;
+            return this;
+        }
+
+        public Builder message(String message) {
+            this.message = message;
+            return this;
+        }
+
+        public Builder error(String error) {
+            this.error = error;
+            return this;
+        }
+    }
+}
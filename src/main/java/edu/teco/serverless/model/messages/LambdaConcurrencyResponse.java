@@ -0,0 +1,84 @@
+package edu.teco.serverless.model.messages;
+
+/**
+ * Concurrency limit, taken slots and waiting executions of a lambda.
+ */
+public class LambdaConcurrencyResponse {
+    private final String name;
+    private final int limit;
+    private final boolean adminLimit;
+    private final int active;
+    private final int waiting;
+
+    private LambdaConcurrencyResponse(Builder builder) {
+        this.name = builder.name;
+        this.limit = builder.limit;
+        this.adminLimit = builder.adminLimit;
+        this.active = builder.active;
+        this.waiting = builder.waiting;
+    }
+
+    public static Builder newLambdaConcurrencyResponse() {
+        return new Builder();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean isAdminLimit() {
+        return adminLimit;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public static final class Builder {
+        private String name;
+        private int limit;
+        private boolean adminLimit;
+        private int active;
+        private int waiting;
+
+        private Builder() {
+        }
+
+        public LambdaConcurrencyResponse build() {
+            return new LambdaConcurrencyResponse(this);
+        }
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder limit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        public Builder adminLimit(boolean adminLimit) {
+            this.adminLimit = adminLimit;
+            return this;
+        }
+
+        public Builder active(int active) {
+            this.active = active;
+            return this;
+        }
+
+        public Builder waiting(int waiting) {
+            this.waiting = waiting;
+            return this;
+        }
+    }
+}
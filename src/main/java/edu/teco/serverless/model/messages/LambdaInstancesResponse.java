@@ -0,0 +1,110 @@
+package edu.teco.serverless.model.messages;
+
+import java.util.List;
+
+/**
+ * Live instances of a lambda by state and the time its longest running call runs already.
+ */
+public class LambdaInstancesResponse {
+    private final String name;
+    private final int starting;
+    private final int running;
+    private final int idle;
+    private final int killing;
+    private final long oldestRunningMillis;
+    private final List<InstanceResponse> instances;
+
+    private LambdaInstancesResponse(Builder builder) {
+        this.name = builder.name;
+        this.starting = builder.starting;
+        this.running = builder.running;
+        this.idle = builder.idle;
+        this.killing = builder.killing;
+        this.oldestRunningMillis = builder.oldestRunningMillis;
+        this.instances = builder.instances;
+    }
+
+    public static Builder newLambdaInstancesResponse() {
+        return new Builder();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getStarting() {
+        return starting;
+    }
+
+    public int getRunning() {
+        return running;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getKilling() {
+        return killing;
+    }
+
+    public long getOldestRunningMillis() {
+        return oldestRunningMillis;
+    }
+
+    public List<InstanceResponse> getInstances() {
+        return instances;
+    }
+
+    public static final class Builder {
+        private String name;
+        private int starting;
+        private int running;
+        private int idle;
+        private int killing;
+        private long oldestRunningMillis;
+        private List<InstanceResponse> instances;
+
+        private Builder() {
+        }
+
+        public LambdaInstancesResponse build() {
+            return new LambdaInstancesResponse(this);
+        }
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder starting(int starting) {
+            this.starting = starting;
+            return this;
+        }
+
+        public Builder running(int running) {
+            this.running = running;
+            return this;
+        }
+
+        public Builder idle(int idle) {
+            this.idle = idle;
+            return this;
+        }
+
+        public Builder killing(int killing) {
+            this.killing = killing;
+            return this;
+        }
+
+        public Builder oldestRunningMillis(long oldestRunningMillis) {
+            this.oldestRunningMillis = oldestRunningMillis;
+            return this;
+        }
+
+        public Builder instances(List<InstanceResponse> instances) {
+            this.instances = instances;
+            return this;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.util.List;
 public class UploadLambdaRequest {
     private String name;
     private RuntimeAttributesRequest runtimeAttributes;
+    private ExecutionAttributesRequest executionAttributes;
 
     public UploadLambdaRequest() {
 
@@ -21,6 +22,7 @@ public class UploadLambdaRequest {
     private UploadLambdaRequest(Builder builder) {
         this.name = builder.name;
         this.runtimeAttributes = builder.runtimeAttributes;
+        this.executionAttributes = builder.executionAttributes;
     }
 
     public static Builder newUploadLambdaRequest() {
@@ -43,6 +45,14 @@ public class UploadLambdaRequest {
         this.runtimeAttributes = runtimeAttributes;
     }
 
+    public ExecutionAttributesRequest getExecutionAttributes() {
+        return executionAttributes;
+    }
+
+    public void setExecutionAttributes(ExecutionAttributesRequest executionAttributes) {
+        this.executionAttributes = executionAttributes;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -51,6 +61,8 @@ public class UploadLambdaRequest {
         UploadLambdaRequest that = (UploadLambdaRequest) o;
 
         if (!getName().equals(that.getName())) return false;
+        if (getExecutionAttributes() != null ? !getExecutionAttributes().equals(that.getExecutionAttributes()) : that.getExecutionAttributes() != null)
+            return false;
         return getRuntimeAttributes().equals(that.getRuntimeAttributes());
     }
 
@@ -58,6 +70,7 @@ public class UploadLambdaRequest {
     public int hashCode() {
         int result = getName().hashCode();
         result = 31 * result + getRuntimeAttributes().hashCode();
+        result = 31 * result + (getExecutionAttributes() != null ? getExecutionAttributes().hashCode() : 0);
         return result;
     }
 
@@ -66,12 +79,14 @@ public class UploadLambdaRequest {
         return "UploadLambdaRequest{" +
                 "name='" + name + '\'' +
                 ", runtimeAttributes=" + runtimeAttributes +
+                ", executionAttributes=" + executionAttributes +
                 '}';
     }
 
     public static final class Builder {
         private String name;
         private RuntimeAttributesRequest runtimeAttributes;
+        private ExecutionAttributesRequest executionAttributes;
 
         private Builder() {
         }
@@ -89,5 +104,10 @@ public class UploadLambdaRequest {
             this.runtimeAttributes = runtimeAttributes;
             return this;
         }
+
+        public Builder executionAttributes(ExecutionAttributesRequest executionAttributes) {
+            this.executionAttributes = executionAttributes;
+            return this;
+        }
     }
 }
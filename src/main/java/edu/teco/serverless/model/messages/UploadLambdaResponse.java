@@ -6,15 +6,18 @@ package edu.teco.serverless.model.messages;
 public class UploadLambdaResponse {
     private final String token;
     private final String link;
+    private final String build;
 
     public UploadLambdaResponse(String token, String link) {
         this.token = token;
         this.link = link;
+        this.build = null;
     }
 
     private UploadLambdaResponse(Builder builder) {
         this.token = builder.token;
         this.link = builder.link;
+        this.build = builder.build;
     }
 
     @Override
@@ -48,9 +51,17 @@ public class UploadLambdaResponse {
         return token;
     }
 
+    /**
+     * @returns the link of the build, null if the lambda was built before the response
+     */
+    public String getBuild() {
+        return build;
+    }
+
     public static final class Builder {
         private String token;
         private String link;
+        private String build;
 
         private Builder() {
         }
@@ -68,5 +79,10 @@ public class UploadLambdaResponse {
             this.link = link;
             return this;
         }
+
+        public Builder build(String build) {
+            this.build = build;
+            return this;
+        }
     }
 }
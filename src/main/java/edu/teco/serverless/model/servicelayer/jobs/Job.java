@@ -0,0 +1,94 @@
+package edu.teco.serverless.model.servicelayer.jobs;
+
+/**
+ * An asynchronous execution of a lambda and its result.
+ */
+public class Job {
+    /**
+     * The states of a job.
+     */
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final String id;
+    private final String lambdaName;
+    private final long submitted;
+    private volatile Status status = Status.QUEUED;
+    private volatile String result;
+    private volatile String error;
+    private volatile long finished;
+
+    Job(String id, String lambdaName) {
+        this.id = id;
+        this.lambdaName = lambdaName;
+        this.submitted = System.currentTimeMillis();
+    }
+
+    void start() {
+        status = Status.RUNNING;
+    }
+
+    void succeed(String result) {
+        this.result = result;
+        this.finished = System.currentTimeMillis();
+        this.status = Status.SUCCEEDED;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        this.finished = System.currentTimeMillis();
+        this.status = Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getLambdaName() {
+        return lambdaName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @returns the result of the execution, null if the job isn't finished or failed
+     */
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * @returns the reason of the failure, null if the job didn't fail
+     */
+    public String getError() {
+        return error;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    /**
+     * @returns the time the job finished, 0 if it is still queued or running
+     */
+    public long getFinished() {
+        return finished;
+    }
+
+    public boolean isDone() {
+        Status current = status;
+        return current == Status.SUCCEEDED || current == Status.FAILED;
+    }
+
+    @Override
+    public String toString() {
+        return "Job{" +
+                "id='" + id + '\'' +
+                ", lambdaName='" + lambdaName + '\'' +
+                ", status=" + status +
+                '}';
+    }
+}
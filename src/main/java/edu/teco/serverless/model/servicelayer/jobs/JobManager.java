@@ -0,0 +1,194 @@
+package edu.teco.serverless.model.servicelayer.jobs;
+
+import edu.teco.serverless.metrics.Metrics;
+import edu.teco.serverless.model.exception.execution.ConcurrencyLimitException;
+import edu.teco.serverless.model.exception.job.JobNotFoundException;
+import edu.teco.serverless.model.exception.job.JobQueueFullException;
+import edu.teco.serverless.model.exception.lambda.LambdaNotFoundException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import org.apache.log4j.Logger;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs asynchronous executions of lambdas and keeps their results until they are fetched.
+ *
+ * Jobs wait in a bounded queue for one of the job threads, a job that doesn't fit into the queue
+ * is rejected. Finished jobs are evicted after the retention time.
+ */
+@Service
+public class JobManager {
+    final static Logger logger = Logger.getLogger(JobManager.class);
+    private static final long EVICTION_INTERVAL = 1000;
+    private static String propertiesPath = "runtime";
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService scheduler;
+    private final long retention;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * constructor, reads the limits from the runtime properties
+     */
+    public JobManager() {
+        this(getProperties());
+    }
+
+    private JobManager(ResourceBundle resourceBundle) {
+        this(Integer.parseInt(getProperty(resourceBundle, "runtime.jobs.threads", "4")),
+                Integer.parseInt(getProperty(resourceBundle, "runtime.jobs.queue.capacity", "100")),
+                Long.parseLong(getProperty(resourceBundle, "runtime.jobs.retention", "600")) * 1000);
+    }
+
+    /**
+     * constructor
+     * @param threads number of jobs running at once
+     * @param queueCapacity maximum number of waiting jobs
+     * @param retention time in milliseconds a finished job is kept
+     */
+    public JobManager(int threads, int queueCapacity, long retention) {
+        if (threads < 1 || queueCapacity < 1 || retention <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.retention = retention;
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "job-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "job-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::evictExpired, EVICTION_INTERVAL, EVICTION_INTERVAL,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * queues an execution of a lambda
+     * @param lambdaName the name of the lambda
+     * @param execution runs the lambda and returns its result
+     * @return the queued job
+     * @throws JobQueueFullException if the queue is full
+     */
+    public Job submit(String lambdaName, final Callable<String> execution) {
+        if (lambdaName == null || execution == null) {
+            throw new IllegalArgumentException();
+        }
+        final Job job = new Job(UUID.randomUUID().toString(), lambdaName);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, execution));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            logger.warn(String.format("Job queue is full, rejected job for %s.", lambdaName));
+            throw new JobQueueFullException();
+        }
+        logger.info(String.format("Queued %s.", job));
+        return job;
+    }
+
+    /**
+     * @param lambdaName the name of the lambda the job belongs to
+     * @param id the id of the job
+     * @returns the job
+     * @throws JobNotFoundException if there is no such job of the lambda
+     */
+    public Job getJob(String lambdaName, String id) {
+        Job job = id == null ? null : jobs.get(id);
+        if (job == null || !job.getLambdaName().equals(lambdaName)) {
+            throw new JobNotFoundException();
+        }
+        return job;
+    }
+
+    /**
+     * @returns the number of jobs waiting for a thread
+     */
+    public int getQueuedJobs() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @returns the number of known jobs, including finished ones
+     */
+    public int getJobs() {
+        return jobs.size();
+    }
+
+    /**
+     * removes the jobs that finished longer than the retention time ago
+     */
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        Iterator<Job> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            Job job = iterator.next();
+            if (job.isDone() && now - job.getFinished() > retention) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * stops all job threads, running jobs are interrupted
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private void run(Job job, Callable<String> execution) {
+        job.start();
+        Metrics.queue("jobs").record(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - job.getSubmitted()));
+        try {
+            job.succeed(execution.call());
+            logger.info(String.format("Finished %s.", job));
+        } catch (Exception e) {
+            logger.error(String.format("Failed %s.", job), e);
+            job.fail(describe(e));
+        }
+    }
+
+    private static String describe(Exception e) {
+        if (e instanceof LambdaNotFoundException) {
+            return "Error, this Lambda-function could not be found.";
+        }
+        if (e instanceof TimeExceededException) {
+            return "Error, time limit exceeded.";
+        }
+        // the message of the "TOO MANY REQUESTS" answer of a synchronous execution
+        if (e instanceof ConcurrencyLimitException) {
+            return "Error, too many executions of this lambda are running.";
+        }
+        return "Internal error.";
+    }
+
+    private static ResourceBundle getProperties() {
+        return ResourceBundle.getBundle(propertiesPath, Locale.ENGLISH);
+    }
+
+    private static String getProperty(ResourceBundle resourceBundle, String key, String defaultValue) {
+        return resourceBundle.containsKey(key) ? resourceBundle.getString(key).trim() : defaultValue;
+    }
+}
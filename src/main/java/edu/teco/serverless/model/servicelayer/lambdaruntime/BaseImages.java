@@ -0,0 +1,201 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime;
+
+import edu.teco.serverless.model.lambda.Identifier;
+import edu.teco.serverless.model.lambda.Library;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import org.apache.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Intermediate images of one language with the libraries of a library set installed.
+ *
+ * Lambdas with the same libraries, in any order, use the same base image, so the libraries are installed
+ * once and the image of a lambda only adds its code. A base image is built on the first use after a start;
+ * a base image built before is found in the layer cache of docker.
+ */
+public class BaseImages {
+    final static Logger logger = Logger.getLogger(BaseImages.class);
+
+    /**
+     * Builds a base image.
+     */
+    public interface Builder {
+        /**
+         * @param tag the tag of the base image
+         * @param libraries the normalized libraries
+         * @return the id of the built image
+         */
+        String build(String tag, List<String> libraries) throws RuntimeConnectException, TimeExceededException;
+    }
+
+    private final String repository;
+    private final Builder builder;
+    private final Map<String, BaseImage> images = new ConcurrentHashMap<>();
+    private final Map<Identifier, String> lambdas = new ConcurrentHashMap<>();
+
+    /**
+     * constructor
+     * @param repository the repository of the tags, e.g. "serverless-base-python3"
+     * @param builder builds the base images
+     */
+    public BaseImages(String repository, Builder builder) {
+        if (repository == null || builder == null) {
+            throw new IllegalArgumentException();
+        }
+        this.repository = repository;
+        this.builder = builder;
+    }
+
+    /**
+     * @param libraries libraries of a lambda
+     * @returns the libraries without duplicates, surrounding whitespace and empty names, sorted
+     */
+    public static List<String> normalize(List<Library> libraries) {
+        TreeSet<String> names = new TreeSet<>();
+        for (Library library : libraries) {
+            String name = library.getLibrary().trim();
+            if (!name.isEmpty()) {
+                names.add(name);
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * builds the base image for a library set, if it isn't built yet
+     * @param libraries the libraries of a lambda
+     * @return the tag of the base image, null if there are no libraries
+     */
+    public String ensure(List<Library> libraries) throws RuntimeConnectException, TimeExceededException {
+        List<String> names = normalize(libraries);
+        if (names.isEmpty()) {
+            return null;
+        }
+        BaseImage image = images.computeIfAbsent(tag(names), tag -> new BaseImage(tag, names));
+        synchronized (image) {
+            if (image.imageId == null) {
+                logger.info(String.format("Building base image %s with %s.", image.tag, names));
+                image.imageId = builder.build(image.tag, names);
+            }
+        }
+        return image.tag;
+    }
+
+    /**
+     * records that a lambda uses the base image of its libraries, instead of the one it used before
+     * @param lambda the identifier of the lambda
+     * @param libraries the libraries of the lambda
+     */
+    public void assign(Identifier lambda, List<Library> libraries) {
+        List<String> names = normalize(libraries);
+        if (names.isEmpty()) {
+            release(lambda);
+            return;
+        }
+        String tag = tag(names);
+        images.computeIfAbsent(tag, t -> new BaseImage(t, names));
+        lambdas.put(new Identifier(lambda.getIdentifier()), tag);
+    }
+
+    /**
+     * records that a lambda doesn't use a base image anymore
+     * @param lambda the identifier of the lambda
+     */
+    public void release(Identifier lambda) {
+        lambdas.remove(lambda);
+    }
+
+    /**
+     * @returns the known base images with the number of lambdas using them
+     */
+    public List<BaseImageInfo> getBaseImages() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String tag : lambdas.values()) {
+            counts.merge(tag, 1, Integer::sum);
+        }
+        List<BaseImageInfo> infos = new ArrayList<>();
+        for (BaseImage image : images.values()) {
+            Integer count = counts.get(image.tag);
+            infos.add(new BaseImageInfo(image.tag, image.libraries, image.imageId, count == null ? 0 : count));
+        }
+        return infos;
+    }
+
+    private String tag(List<String> names) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        // library names can't contain line breaks
+        byte[] hash = digest.digest(String.join("\n", names).getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder(repository).append(':');
+        for (int i = 0; i < 6; i++) {
+            sb.append(String.format("%02x", hash[i]));
+        }
+        return sb.toString();
+    }
+
+    private static class BaseImage {
+        final String tag;
+        final List<String> libraries;
+        // guarded by the image, null until it is built
+        volatile String imageId;
+
+        BaseImage(String tag, List<String> libraries) {
+            this.tag = tag;
+            this.libraries = Collections.unmodifiableList(libraries);
+        }
+    }
+
+    /**
+     * State of a base image.
+     */
+    public static class BaseImageInfo {
+        private final String tag;
+        private final List<String> libraries;
+        private final String imageId;
+        private final int lambdas;
+
+        BaseImageInfo(String tag, List<String> libraries, String imageId, int lambdas) {
+            this.tag = tag;
+            this.libraries = libraries;
+            this.imageId = imageId;
+            this.lambdas = lambdas;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+
+        public List<String> getLibraries() {
+            return libraries;
+        }
+
+        /**
+         * @returns the id of the image, null if it wasn't built since the start
+         */
+        public String getImageId() {
+            return imageId;
+        }
+
+        /**
+         * @returns the number of lambdas using the image
+         */
+        public int getLambdas() {
+            return lambdas;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime;
+
+import edu.teco.serverless.model.lambda.AuthKey;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A queued build of the image of a lambda.
+ */
+public class Build {
+    /**
+     * The states of a build.
+     */
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final String id;
+    private final String lambdaName;
+    private final AuthKey authKey;
+    private final long submitted;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile Status status = Status.QUEUED;
+    private volatile Exception failure;
+    private volatile long started;
+    private volatile long finished;
+
+    Build(String id, String lambdaName, AuthKey authKey) {
+        this.id = id;
+        this.lambdaName = lambdaName;
+        this.authKey = authKey;
+        this.submitted = System.currentTimeMillis();
+    }
+
+    void start() {
+        started = System.currentTimeMillis();
+        status = Status.RUNNING;
+    }
+
+    void succeed() {
+        finished = System.currentTimeMillis();
+        status = Status.SUCCEEDED;
+        done.countDown();
+    }
+
+    void fail(Exception failure) {
+        this.failure = failure;
+        finished = System.currentTimeMillis();
+        status = Status.FAILED;
+        done.countDown();
+    }
+
+    /**
+     * waits until the build is finished
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void await() throws InterruptedException {
+        done.await();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getLambdaName() {
+        return lambdaName;
+    }
+
+    /**
+     * @returns the auth key the lambda gets once it is built
+     */
+    public AuthKey getAuthKey() {
+        return authKey;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @returns the reason of the failure, null if the build didn't fail
+     */
+    public Exception getFailure() {
+        return failure;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    /**
+     * @returns the time the build started, 0 if it is still queued
+     */
+    public long getStarted() {
+        return started;
+    }
+
+    /**
+     * @returns the time the build finished, 0 if it is still queued or running
+     */
+    public long getFinished() {
+        return finished;
+    }
+
+    public boolean isDone() {
+        Status current = status;
+        return current == Status.SUCCEEDED || current == Status.FAILED;
+    }
+
+    @Override
+    public String toString() {
+        return "Build{" +
+                "id='" + id + '\'' +
+                ", lambdaName='" + lambdaName + '\'' +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,152 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime;
+
+import edu.teco.serverless.model.lambda.Code;
+import edu.teco.serverless.model.lambda.Language;
+import edu.teco.serverless.model.lambda.Library;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Built images by the hash of their content, so lambdas with the same language, code and libraries
+ * share one image instead of building it again.
+ *
+ * Every lambda using an image holds a reference to it; the image may be removed when the last one is released.
+ * The references are counted per image id, not per hash: docker may give the same id to different contents,
+ * e.g. to the same libraries in another order.
+ * Builds lock a fixed number of stripes by the hash, so the locks don't grow with the contents ever built.
+ */
+public class BuildCache {
+    private static final int STRIPES = 64;
+    private final Map<String, String> images = new HashMap<>();
+    private final Map<String, CachedImage> references = new HashMap<>();
+    private final Object[] locks = new Object[STRIPES];
+
+    public BuildCache() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * @param language the language of the lambda
+     * @param code the code of the lambda
+     * @param libraries the libraries of the lambda
+     * @returns the hash of the content of the image of a lambda
+     */
+    public static String hash(Language language, Code code, List<Library> libraries) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(digest, language.getLanguage());
+        update(digest, code.getCode());
+        for (Library library : libraries) {
+            update(digest, library.getLibrary());
+        }
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    // every value is prefixed with its length, so "ab" + "c" differs from "a" + "bc"
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(new byte[]{(byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16),
+                (byte) (bytes.length >>> 8), (byte) bytes.length});
+        digest.update(bytes);
+    }
+
+    /**
+     * @param hash the hash of the content
+     * @returns the lock, that is held while an image with this content is looked up and built,
+     *           builds of other contents may share it
+     */
+    public Object lock(String hash) {
+        int h = hash.hashCode();
+        h ^= h >>> 16;
+        return locks[h & (STRIPES - 1)];
+    }
+
+    /**
+     * takes a reference to an image with the given content
+     * @param hash the hash of the content
+     * @return the id of the image, null if there is none
+     */
+    public synchronized String acquire(String hash) {
+        String imageId = images.get(hash);
+        if (imageId == null) {
+            return null;
+        }
+        references.get(imageId).references++;
+        return imageId;
+    }
+
+    /**
+     * adds an image and takes a reference to it
+     * @param hash the hash of the content
+     * @param imageId the id of the image
+     * @return the id of the image to use, an image added before with the same content wins
+     */
+    public synchronized String add(String hash, String imageId) {
+        String cached = images.get(hash);
+        if (cached == null) {
+            cached = imageId;
+            images.put(hash, imageId);
+        }
+        CachedImage image = references.computeIfAbsent(cached, id -> new CachedImage());
+        image.hashes.add(hash);
+        image.references++;
+        return cached;
+    }
+
+    /**
+     * drops a reference to an image
+     * @param imageId the id of the image
+     * @return true if no lambda uses the image anymore and it can be removed, also if the image isn't cached
+     */
+    public synchronized boolean release(String imageId) {
+        CachedImage image = references.get(imageId);
+        if (image == null) {
+            return true;
+        }
+        if (--image.references > 0) {
+            return false;
+        }
+        references.remove(imageId);
+        images.keySet().removeAll(image.hashes);
+        return true;
+    }
+
+    /**
+     * @param hash the hash of the content
+     * @returns the number of lambdas using the image with this content
+     */
+    public synchronized int getReferences(String hash) {
+        String imageId = images.get(hash);
+        return imageId == null ? 0 : references.get(imageId).references;
+    }
+
+    /**
+     * @returns the number of cached images
+     */
+    public synchronized int size() {
+        return references.size();
+    }
+
+    // the hashes of the contents with this image and the number of lambdas using it
+    private static class CachedImage {
+        final Set<String> hashes = new HashSet<>();
+        int references;
+    }
+}
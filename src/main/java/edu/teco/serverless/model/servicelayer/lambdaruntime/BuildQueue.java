@@ -0,0 +1,207 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime;
+
+import edu.teco.serverless.metrics.Metrics;
+import edu.teco.serverless.model.exception.build.BuildNotFoundException;
+import edu.teco.serverless.model.exception.build.BuildQueueFullException;
+import edu.teco.serverless.model.lambda.AuthKey;
+import org.apache.log4j.Logger;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the image builds on a bounded number of threads, so a burst of uploads doesn't start
+ * an unbounded number of docker builds at once.
+ *
+ * Builds wait in a bounded queue, a build that doesn't fit into the queue is rejected.
+ * Finished builds are evicted after the retention time.
+ */
+public class BuildQueue {
+    final static Logger logger = Logger.getLogger(BuildQueue.class);
+    private static final long EVICTION_INTERVAL = 1000;
+
+    /**
+     * Builds and registers the image of a lambda.
+     */
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService scheduler;
+    private final long retention;
+    private final Map<String, Build> builds = new ConcurrentHashMap<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalDuration = new AtomicLong();
+    private final AtomicLong maxDuration = new AtomicLong();
+
+    /**
+     * constructor
+     * @param threads number of builds running at once
+     * @param queueCapacity maximum number of waiting builds
+     * @param retention time in milliseconds a finished build is kept
+     */
+    public BuildQueue(int threads, int queueCapacity, long retention) {
+        if (threads < 1 || queueCapacity < 1 || retention <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.retention = retention;
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "build-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "build-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::evictExpired, EVICTION_INTERVAL, EVICTION_INTERVAL,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * queues a build
+     * @param lambdaName the name of the lambda
+     * @param authKey the auth key the lambda gets once it is built
+     * @param task builds and registers the image
+     * @return the queued build
+     * @throws BuildQueueFullException if the queue is full
+     */
+    public Build submit(String lambdaName, AuthKey authKey, final Task task) {
+        if (lambdaName == null || authKey == null || task == null) {
+            throw new IllegalArgumentException();
+        }
+        final Build build = new Build(UUID.randomUUID().toString(), lambdaName, authKey);
+        builds.put(build.getId(), build);
+        try {
+            executor.execute(() -> run(build, task));
+        } catch (RejectedExecutionException e) {
+            builds.remove(build.getId());
+            logger.warn(String.format("Build queue is full, rejected build of %s.", lambdaName));
+            throw new BuildQueueFullException();
+        }
+        logger.info(String.format("Queued %s.", build));
+        return build;
+    }
+
+    /**
+     * @param lambdaName the name of the lambda the build belongs to
+     * @param id the id of the build
+     * @returns the build
+     * @throws BuildNotFoundException if there is no such build of the lambda
+     */
+    public Build getBuild(String lambdaName, String id) {
+        Build build = id == null ? null : builds.get(id);
+        if (build == null || !build.getLambdaName().equals(lambdaName)) {
+            throw new BuildNotFoundException();
+        }
+        return build;
+    }
+
+    /**
+     * @returns the number of builds waiting for a thread
+     */
+    public int getQueuedBuilds() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @returns the number of builds running at the moment
+     */
+    public int getRunningBuilds() {
+        return running.get();
+    }
+
+    /**
+     * @returns the number of succeeded builds since the start
+     */
+    public long getSucceededBuilds() {
+        return succeeded.get();
+    }
+
+    /**
+     * @returns the number of failed builds since the start
+     */
+    public long getFailedBuilds() {
+        return failed.get();
+    }
+
+    /**
+     * @returns the summed duration of all finished builds in milliseconds
+     */
+    public long getTotalBuildMillis() {
+        return totalDuration.get();
+    }
+
+    /**
+     * @returns the duration of the longest build in milliseconds
+     */
+    public long getMaxBuildMillis() {
+        return maxDuration.get();
+    }
+
+    /**
+     * removes the builds that finished longer than the retention time ago
+     */
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        Iterator<Build> iterator = builds.values().iterator();
+        while (iterator.hasNext()) {
+            Build build = iterator.next();
+            if (build.isDone() && now - build.getFinished() > retention) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * stops all build threads, running builds are interrupted
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private void run(Build build, Task task) {
+        build.start();
+        Metrics.queue("builds").record(TimeUnit.MILLISECONDS.toNanos(build.getStarted() - build.getSubmitted()));
+        running.incrementAndGet();
+        Exception failure = null;
+        try {
+            task.run();
+        } catch (Exception e) {
+            failure = e;
+        }
+        // the statistics are updated before the build is finished, so they include it once it is awaited
+        long duration = System.currentTimeMillis() - build.getStarted();
+        Metrics.build(build.getLambdaName()).record(TimeUnit.MILLISECONDS.toNanos(duration));
+        totalDuration.addAndGet(duration);
+        maxDuration.accumulateAndGet(duration, Math::max);
+        running.decrementAndGet();
+        if (failure == null) {
+            succeeded.incrementAndGet();
+            build.succeed();
+            logger.info(String.format("Finished %s.", build));
+        } else {
+            failed.incrementAndGet();
+            build.fail(failure);
+            logger.error(String.format("Failed %s.", build), failure);
+        }
+    }
+}
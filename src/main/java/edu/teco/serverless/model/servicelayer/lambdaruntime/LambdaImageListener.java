@@ -0,0 +1,23 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime;
+
+import edu.teco.serverless.model.lambda.Identifier;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.images.LambdaImage;
+
+/**
+ * Gets notified by the ImageManager when images of lambdas are built or removed,
+ * e.g. to drop everything that still belongs to an old image.
+ */
+public interface LambdaImageListener {
+
+    /**
+     * called after an image was built
+     * @param image the new image
+     */
+    void imageBuilt(LambdaImage image);
+
+    /**
+     * called when an image is removed, this also happens before it is rebuilt
+     * @param identifier the identifier of the lambda
+     */
+    void imageRemoved(Identifier identifier);
+}
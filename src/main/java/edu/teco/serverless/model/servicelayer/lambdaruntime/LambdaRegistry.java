@@ -0,0 +1,104 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime;
+
+import edu.teco.serverless.model.lambda.Identifier;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.images.LambdaImage;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The built lambda images, indexed by their identifier.
+ *
+ * Lookups don't lock. A name is reserved while its image is built, so two builds of the same lambda
+ * can't both succeed; a reservation ends after the image is registered, never before.
+ */
+public class LambdaRegistry {
+    private final Map<Identifier, LambdaImage> images = new ConcurrentHashMap<>();
+    private final Map<Identifier, Boolean> reserved = new ConcurrentHashMap<>();
+
+    /**
+     * @param id the identifier of a lambda
+     * @returns the image of the lambda, null if there is none
+     */
+    public LambdaImage get(Identifier id) {
+        return images.get(id);
+    }
+
+    /**
+     * @param id the identifier of a lambda
+     * @returns true if an image of the lambda is registered
+     */
+    public boolean contains(Identifier id) {
+        return images.containsKey(id);
+    }
+
+    /**
+     * reserves the name of a lambda for a build
+     * @param id the identifier of the lambda
+     * @return false if the lambda is already registered or being built
+     */
+    public boolean reserve(Identifier id) {
+        id = copy(id);
+        if (reserved.putIfAbsent(id, Boolean.TRUE) != null) {
+            return false;
+        }
+        if (images.containsKey(id)) {
+            reserved.remove(id);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * ends the reservation of a name, after the image is registered or the build failed
+     * @param id the identifier of the lambda
+     */
+    public void release(Identifier id) {
+        reserved.remove(id);
+    }
+
+    /**
+     * registers an image, a previous image of the lambda is replaced
+     * @param image the image
+     * @return the replaced image, null if there was none
+     */
+    public LambdaImage register(LambdaImage image) {
+        if (image == null) {
+            throw new IllegalArgumentException();
+        }
+        return images.put(copy(image.getIdentifier()), image);
+    }
+
+    /**
+     * removes the image of a lambda
+     * @param id the identifier of the lambda
+     * @return the removed image, null if there was none
+     */
+    public LambdaImage remove(Identifier id) {
+        return images.remove(id);
+    }
+
+    /**
+     * @returns the number of registered images
+     */
+    public int size() {
+        return images.size();
+    }
+
+    /**
+     * @returns a view of the registered images
+     */
+    public Collection<LambdaImage> getImages() {
+        return Collections.unmodifiableCollection(images.values());
+    }
+
+    // identifiers are mutable, the keys must not change
+    private static Identifier copy(Identifier id) {
+        if (id == null) {
+            throw new IllegalArgumentException();
+        }
+        return new Identifier(id.getIdentifier());
+    }
+}
@@ -0,0 +1,195 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime;
+
+import edu.teco.serverless.metrics.Metrics;
+import edu.teco.serverless.model.lambda.Parameter;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.CommandType;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeCommand;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeTransport;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Removes the containers and images with the label of the server (RuntimeCommand.LABEL), that the server
+ * doesn't know anymore, e.g. after a crash or a kill that failed.
+ *
+ * A pass lists the labeled containers and images with one command each and compares them with the tracked
+ * names and ids, which are read after the listing: a container started after the listing can't be taken for
+ * an orphan. Containers and images younger than the grace time are left alone, they may belong to a call or
+ * a build that isn't tracked yet. At most maxRemovals orphans are removed per pass, the oldest first; the
+ * rest is removed by the next passes, so a pass costs two listings and maxRemovals commands at most.
+ */
+public class OrphanReaper {
+    final static Logger logger = Logger.getLogger(OrphanReaper.class);
+    // time limit of a single command in seconds
+    static final int COMMAND_TIME_LIMIT = 30;
+
+    private final Supplier<RuntimeTransport> transport;
+    private final Supplier<Set<String>> trackedContainers;
+    private final Supplier<Set<String>> trackedImages;
+    private final long grace;
+    private final int maxRemovals;
+    // orphans by kind, that couldn't be removed, they are tried again when they are the last ones left
+    private final Map<String, Set<String>> failed = new HashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * constructor
+     * @param transport the transport the commands are sent with
+     * @param trackedContainers the names of the containers in use, see InstanceManager.getTrackedContainers()
+     * @param trackedImages the ids and tags of the images in use, see ImageManager.getTrackedImages()
+     * @param grace time in milliseconds after its creation before a container or image may be removed
+     * @param maxRemovals maximum number of containers and images removed per pass
+     */
+    public OrphanReaper(Supplier<RuntimeTransport> transport, Supplier<Set<String>> trackedContainers,
+                        Supplier<Set<String>> trackedImages, long grace, int maxRemovals) {
+        if (transport == null || trackedContainers == null || trackedImages == null || grace < 0 || maxRemovals < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.transport = transport;
+        this.trackedContainers = trackedContainers;
+        this.trackedImages = trackedImages;
+        this.grace = grace;
+        this.maxRemovals = maxRemovals;
+    }
+
+    /**
+     * runs a pass right away and then every interval in the background
+     * @param interval time in milliseconds between the end of a pass and the start of the next one
+     */
+    public synchronized void start(long interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException();
+        }
+        if (scheduler != null) {
+            throw new IllegalStateException();
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "orphan-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                reap();
+            } catch (RuntimeException e) {
+                logger.error("Orphaned containers and images can't be removed.", e);
+            }
+        }, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * stops the passes in the background
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * removes orphaned containers first, then orphaned images with the rest of the removals
+     * @return the number of removed containers and images
+     */
+    public synchronized int reap() {
+        long createdBefore = (System.currentTimeMillis() - grace) / 1000;
+        List<String> containers = orphans("container", new RuntimeCommand(CommandType.CONTAINERS,
+                new ArrayList<>()), trackedContainers, createdBefore);
+        int removed = remove("container", CommandType.REMOVE_CONTAINER, containers, maxRemovals);
+        int attempts = Math.min(containers.size(), maxRemovals);
+
+        List<Parameter> label = new ArrayList<>();
+        label.add(new Parameter(RuntimeCommand.LABEL));
+        List<String> images = orphans("image", new RuntimeCommand(CommandType.IMAGES, label), trackedImages,
+                createdBefore);
+        removed += remove("image", CommandType.REMOVE, images, maxRemovals - attempts);
+        if (removed > 0) {
+            logger.info(String.format("Removed %d orphaned containers and images.", removed));
+        }
+        return removed;
+    }
+
+    // the orphans of a listing of "name created [tag]" lines, the oldest first, those that failed before last
+    private List<String> orphans(String kind, RuntimeCommand list, Supplier<Set<String>> tracked,
+                                 long createdBefore) {
+        String output;
+        try {
+            output = transport.get().execute(list, COMMAND_TIME_LIMIT);
+        } catch (RuntimeConnectException | TimeExceededException e) {
+            logger.warn(String.format("The %ss of the runtime can't be listed: %s", kind, e.getMessage()));
+            return Collections.emptyList();
+        }
+        Set<String> inUse = tracked.get();
+
+        // an image is listed once per tag, it is in use if its id or one of its tags is
+        Map<String, Long> created = new LinkedHashMap<>();
+        Set<String> used = new HashSet<>();
+        for (String line : output.split("\n")) {
+            String[] fields = line.trim().split(" ");
+            if (fields.length < 2) {
+                continue;
+            }
+            try {
+                created.merge(fields[0], Long.parseLong(fields[1]), Math::max);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if (inUse.contains(fields[0]) || fields.length > 2 && inUse.contains(fields[2])) {
+                used.add(fields[0]);
+            }
+        }
+
+        List<Map.Entry<String, Long>> candidates = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : created.entrySet()) {
+            if (!used.contains(entry.getKey()) && entry.getValue() < createdBefore) {
+                candidates.add(entry);
+            }
+        }
+        candidates.sort(Map.Entry.comparingByValue());
+        Set<String> failures = failed.computeIfAbsent(kind, k -> new HashSet<>());
+        // forget the failures, that are gone
+        failures.retainAll(created.keySet());
+        List<String> orphans = new ArrayList<>(candidates.size());
+        List<String> retries = new ArrayList<>();
+        for (Map.Entry<String, Long> candidate : candidates) {
+            (failures.contains(candidate.getKey()) ? retries : orphans).add(candidate.getKey());
+        }
+        orphans.addAll(retries);
+        return orphans;
+    }
+
+    private int remove(String kind, CommandType type, List<String> orphans, int max) {
+        int removed = 0;
+        for (int i = 0; i < orphans.size() && i < max; i++) {
+            String orphan = orphans.get(i);
+            List<Parameter> parameters = new ArrayList<>();
+            parameters.add(new Parameter(orphan));
+            try {
+                transport.get().execute(new RuntimeCommand(type, parameters), COMMAND_TIME_LIMIT);
+                failed.get(kind).remove(orphan);
+                Metrics.orphans(kind, "removed").increment();
+                logger.info(String.format("Removed orphaned %s %s.", kind, orphan));
+                removed++;
+            } catch (RuntimeConnectException | TimeExceededException e) {
+                failed.get(kind).add(orphan);
+                Metrics.orphans(kind, "failed").increment();
+                logger.warn(String.format("Orphaned %s %s can't be removed: %s", kind, orphan, e.getMessage()));
+            }
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,347 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.teco.serverless.model.lambda.AuthKey;
+import edu.teco.serverless.model.lambda.ExecutionAttributes;
+import edu.teco.serverless.model.lambda.Identifier;
+import edu.teco.serverless.model.lambda.Language;
+import edu.teco.serverless.model.lambda.Library;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persists the registered lambdas, so they are still known after a restart.
+ *
+ * Every build and delete is appended to a log as a JSON line. After compactAfter records the current
+ * state is written to a snapshot and the log starts over. A restart reads the snapshot and the log;
+ * an incomplete last line, left by a crash while writing, is skipped.
+ */
+public class RegistryJournal {
+    final static Logger logger = Logger.getLogger(RegistryJournal.class);
+    static final String LOG_FILE = "registry.log";
+    static final String SNAPSHOT_FILE = "registry.snapshot";
+    private static final String PUT = "put";
+    private static final String REMOVE = "remove";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final File log;
+    private final File snapshot;
+    private final int compactAfter;
+    private final boolean sync;
+    private final Map<Identifier, Entry> entries = new LinkedHashMap<>();
+    private FileOutputStream logStream;
+    private Writer logWriter;
+    private int records;
+
+    /**
+     * constructor
+     * @param directory the directory of the log and the snapshot
+     * @param compactAfter number of log records after which a snapshot is written
+     * @param sync true if every record should be forced to the disk before a build or delete returns
+     */
+    public RegistryJournal(File directory, int compactAfter, boolean sync) {
+        if (directory == null || compactAfter < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.log = new File(directory, LOG_FILE);
+        this.snapshot = new File(directory, SNAPSHOT_FILE);
+        this.compactAfter = compactAfter;
+        this.sync = sync;
+    }
+
+    /**
+     * reads the snapshot and the log and opens the log for new records
+     * @return the registered lambdas in the order they were registered
+     * @throws IOException if the files can't be read or written
+     */
+    public synchronized Collection<Entry> replay() throws IOException {
+        entries.clear();
+        int snapshotRecords = read(snapshot);
+        records = read(log);
+        logger.info(String.format("Replayed %d lambdas from %d snapshot and %d log records.", entries.size(),
+                snapshotRecords, records));
+        if (records > 0) {
+            compact();
+        } else {
+            open(true);
+        }
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * records the build of a lambda
+     * @param entry the lambda
+     */
+    public synchronized void put(Entry entry) throws IOException {
+        if (entry == null) {
+            throw new IllegalArgumentException();
+        }
+        ObjectNode record = mapper.createObjectNode();
+        record.put("op", PUT);
+        write(record, entry);
+        append(record);
+        entries.put(entry.getIdentifier(), entry);
+        compactIfFull();
+    }
+
+    /**
+     * records the removal of a lambda
+     * @param identifier the identifier of the lambda
+     */
+    public synchronized void remove(Identifier identifier) throws IOException {
+        if (identifier == null) {
+            throw new IllegalArgumentException();
+        }
+        ObjectNode record = mapper.createObjectNode();
+        record.put("op", REMOVE);
+        record.put("name", identifier.getIdentifier());
+        append(record);
+        entries.remove(identifier);
+        compactIfFull();
+    }
+
+    /**
+     * writes the current state to the snapshot and empties the log
+     */
+    public synchronized void compact() throws IOException {
+        File temporary = new File(snapshot.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temporary)) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            for (Entry entry : entries.values()) {
+                ObjectNode record = mapper.createObjectNode();
+                record.put("op", PUT);
+                write(record, entry);
+                writer.write(mapper.writeValueAsString(record));
+                writer.write('\n');
+            }
+            writer.flush();
+            out.getFD().sync();
+        }
+        Files.move(temporary.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        // a crash before the log is emptied only replays records that are already in the snapshot
+        open(false);
+        records = 0;
+        logger.info(String.format("Registry snapshot with %d lambdas written.", entries.size()));
+    }
+
+    /**
+     * @returns the number of records in the log since the last snapshot
+     */
+    public synchronized int getRecords() {
+        return records;
+    }
+
+    /**
+     * closes the log
+     */
+    public synchronized void close() {
+        if (logWriter != null) {
+            try {
+                logWriter.close();
+            } catch (IOException e) {
+                logger.warn("Registry log can't be closed.", e);
+            }
+            logWriter = null;
+            logStream = null;
+        }
+    }
+
+    private void append(ObjectNode record) throws IOException {
+        if (logWriter == null) {
+            throw new IllegalStateException("registry journal is not replayed");
+        }
+        logWriter.write(mapper.writeValueAsString(record));
+        logWriter.write('\n');
+        logWriter.flush();
+        if (sync) {
+            logStream.getFD().sync();
+        }
+        records++;
+    }
+
+    private void compactIfFull() throws IOException {
+        if (records >= compactAfter) {
+            compact();
+        }
+    }
+
+    private void open(boolean append) throws IOException {
+        close();
+        logStream = new FileOutputStream(log, append);
+        logWriter = new BufferedWriter(new OutputStreamWriter(logStream, StandardCharsets.UTF_8));
+    }
+
+    private int read(File file) throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+        int count = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                JsonNode record;
+                try {
+                    record = mapper.readTree(line);
+                } catch (IOException e) {
+                    logger.warn(String.format("Skipped damaged record in %s.", file));
+                    continue;
+                }
+                Identifier identifier = new Identifier(record.path("name").asText());
+                if (PUT.equals(record.path("op").asText())) {
+                    entries.put(identifier, read(record, identifier));
+                } else {
+                    entries.remove(identifier);
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void write(ObjectNode record, Entry entry) {
+        record.put("name", entry.getIdentifier().getIdentifier());
+        record.put("authKey", entry.getAuthKey().getAuthKey());
+        record.put("imageId", entry.getImageId());
+        if (entry.getHash() != null) {
+            record.put("hash", entry.getHash());
+        }
+        record.put("language", entry.getLanguage().getLanguage());
+        ArrayNode libraries = record.putArray("libraries");
+        for (Library library : entry.getLibraries()) {
+            libraries.add(library.getLibrary());
+        }
+        if (entry.getExecutionAttributes() != null) {
+            record.put("cacheTtl", entry.getExecutionAttributes().getCacheTtl());
+            record.put("maxConcurrency", entry.getExecutionAttributes().getMaxConcurrency());
+            record.put("timeLimit", entry.getExecutionAttributes().getTimeLimit());
+        }
+    }
+
+    private static Entry read(JsonNode record, Identifier identifier) {
+        List<Library> libraries = new ArrayList<>();
+        for (JsonNode library : record.path("libraries")) {
+            libraries.add(new Library(library.asText()));
+        }
+        String authKey = record.path("authKey").asText();
+        String imageId = record.path("imageId").asText();
+        String hash = record.hasNonNull("hash") ? record.get("hash").asText() : null;
+        ExecutionAttributes executionAttributes = record.has("cacheTtl")
+                ? ExecutionAttributes.newExecutionAttributes()
+                        .cacheTtl(record.get("cacheTtl").asInt())
+                        .maxConcurrency(record.path("maxConcurrency").asInt())
+                        .timeLimit(record.path("timeLimit").asInt())
+                        .build()
+                : null;
+        return new Entry(identifier, new AuthKey(authKey), imageId, hash, new Language(record.path("language").asText()),
+                libraries, executionAttributes);
+    }
+
+    /**
+     * A registered lambda.
+     */
+    public static class Entry {
+        private final Identifier identifier;
+        private final AuthKey authKey;
+        private final String imageId;
+        private final String hash;
+        private final Language language;
+        private final List<Library> libraries;
+        private final ExecutionAttributes executionAttributes;
+
+        /**
+         * constructor
+         * @param identifier identifier of the lambda
+         * @param authKey auth key of the lambda
+         * @param imageId id of the image of the lambda
+         * @param hash hash of the content of the image, null if the image isn't shared
+         * @param language language of the lambda
+         * @param libraries libraries installed in the image
+         */
+        public Entry(Identifier identifier, AuthKey authKey, String imageId, String hash, Language language,
+                     List<Library> libraries) {
+            this(identifier, authKey, imageId, hash, language, libraries, null);
+        }
+
+        /**
+         * constructor
+         * @param identifier identifier of the lambda
+         * @param authKey auth key of the lambda
+         * @param imageId id of the image of the lambda
+         * @param hash hash of the content of the image, null if the image isn't shared
+         * @param language language of the lambda
+         * @param libraries libraries installed in the image
+         * @param executionAttributes execution attributes of the lambda, null for the defaults
+         */
+        public Entry(Identifier identifier, AuthKey authKey, String imageId, String hash, Language language,
+                     List<Library> libraries, ExecutionAttributes executionAttributes) {
+            if (identifier == null || authKey == null || imageId == null || language == null) {
+                throw new IllegalArgumentException();
+            }
+            this.identifier = new Identifier(identifier.getIdentifier());
+            this.authKey = authKey;
+            this.imageId = imageId;
+            this.hash = hash;
+            this.language = language;
+            this.libraries = libraries == null ? Collections.emptyList()
+                    : Collections.unmodifiableList(new ArrayList<>(libraries));
+            this.executionAttributes = executionAttributes;
+        }
+
+        public Identifier getIdentifier() {
+            return identifier;
+        }
+
+        public AuthKey getAuthKey() {
+            return authKey;
+        }
+
+        public String getImageId() {
+            return imageId;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public Language getLanguage() {
+            return language;
+        }
+
+        public List<Library> getLibraries() {
+            return libraries;
+        }
+
+        /**
+         * @returns the execution attributes, null if the lambda uses the defaults
+         */
+        public ExecutionAttributes getExecutionAttributes() {
+            return executionAttributes;
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package edu.teco.serverless.model.servicelayer.lambdaruntime;
 
+import edu.teco.serverless.metrics.Metrics;
+import edu.teco.serverless.metrics.MetricsRegistry;
 import edu.teco.serverless.model.exception.lambda.LambdaDuplicatedNameException;
 import edu.teco.serverless.model.exception.lambda.LambdaNotFoundException;
 import edu.teco.serverless.model.lambda.*;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeCommunicator;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.SimulatedRuntimeTransport;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.AdmissionController;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.InstanceManager;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.InstanceRegistry;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.ResultCache;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.images.ImageManager;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.images.LambdaImage;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.images.LanguageNotSupportedException;
@@ -18,6 +24,8 @@ import org.springframework.stereotype.Component;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
 
@@ -36,9 +44,11 @@ public class RuntimeController {
 	final static Logger logger = Logger.getLogger(RuntimeController.class);
     private static RuntimeController instance;
     private RuntimeCommunicator communicator;
-    private int globalTimeLimit;
+    // in milliseconds
+    private long globalTimeLimit;
     private InstanceManager instanceManager;
     private ImageManager imageManager;
+    private OrphanReaper orphanReaper;
 	private static String propertiesPath = "runtime";
 
 
@@ -48,7 +58,11 @@ public class RuntimeController {
         instanceManager = InstanceManager.getInstance();
         imageManager = ImageManager.getInstance();
 		ResourceBundle resourceBundle = ResourceBundle.getBundle(propertiesPath, Locale.ENGLISH);
-	   	globalTimeLimit = Integer.parseInt(resourceBundle.getString("runtime.global.time.limit"));
+	   	globalTimeLimit = Integer.parseInt(resourceBundle.getString("runtime.global.time.limit")) * 1000L;
+		// a limit in milliseconds takes precedence
+		if (resourceBundle.containsKey("runtime.global.time.limit.ms")) {
+			globalTimeLimit = Long.parseLong(resourceBundle.getString("runtime.global.time.limit.ms").trim());
+		}
 	    init();
     }
 
@@ -60,7 +74,48 @@ public class RuntimeController {
 		communicator.init();
 		instanceManager.init();
 		imageManager.init();
-		setGlobalTimeLimit(globalTimeLimit);
+		imageManager.addImageListener(instanceManager);
+		imageManager.addImageListener(new LambdaImageListener() {
+			@Override
+			public void imageBuilt(LambdaImage image) {
+			}
+
+			@Override
+			public void imageRemoved(Identifier identifier) {
+				// a rebuilt lambda is still registered and keeps its series
+				if (!imageManager.lambdaExists(identifier)) {
+					Metrics.removeLambda(identifier.getIdentifier());
+				}
+			}
+		});
+		ResourceBundle resourceBundle = ResourceBundle.getBundle(propertiesPath, Locale.ENGLISH);
+		MetricsRegistry.getInstance().setMaxSeries(Integer.parseInt(getProperty(resourceBundle,
+				"runtime.metrics.max.series", Integer.toString(MetricsRegistry.DEFAULT_MAX_SERIES))));
+		setGlobalTimeLimitMillis(globalTimeLimit);
+		startOrphanReaper();
+	}
+
+	// after the images are restored, so the images of the journaled lambdas are tracked
+	private void startOrphanReaper() {
+		if (orphanReaper != null) {
+			orphanReaper.shutdown();
+			orphanReaper = null;
+		}
+		ResourceBundle resourceBundle = ResourceBundle.getBundle(propertiesPath, Locale.ENGLISH);
+		// the simulated runtime leaves nothing behind
+		if (!Boolean.parseBoolean(getProperty(resourceBundle, "runtime.reaper.enabled", "true"))
+				|| communicator.getTransport() instanceof SimulatedRuntimeTransport) {
+			return;
+		}
+		orphanReaper = new OrphanReaper(() -> communicator.getTransport(), instanceManager::getTrackedContainers,
+				imageManager::getTrackedImages,
+				Long.parseLong(getProperty(resourceBundle, "runtime.reaper.grace", "600")) * 1000,
+				Integer.parseInt(getProperty(resourceBundle, "runtime.reaper.max.removals", "50")));
+		orphanReaper.start(Long.parseLong(getProperty(resourceBundle, "runtime.reaper.interval", "300")) * 1000);
+	}
+
+	private static String getProperty(ResourceBundle resourceBundle, String key, String defaultValue) {
+		return resourceBundle.containsKey(key) ? resourceBundle.getString(key).trim() : defaultValue;
 	}
 
     /**
@@ -75,6 +130,57 @@ public class RuntimeController {
 	    return instanceManager.run(lambdaImage, config);
     }
 
+    /**
+     * Calls the method execute() in the class InstanceManager
+     * @param identifier the name of the lambda to be executed
+     * @param config the configuration of the lambda needs to start
+     * @return the result of the execution of the lambda and whether it was cached
+     */
+    public ExecuteResult execute(Identifier identifier, ExecuteConfig config) throws LambdaNotFoundException, RuntimeConnectException, TimeExceededException {
+        LambdaImage lambdaImage = imageManager.getLambdaImageByIdentifier(identifier);
+        return instanceManager.execute(lambdaImage, config);
+    }
+
+    /**
+     * Calls the method stream() in the class InstanceManager
+     * @param identifier the name of the lambda to be executed
+     * @param config the configuration of the lambda needs to start
+     * @param out receives the output of the lambda while it is produced
+     */
+    public void stream(Identifier identifier, ExecuteConfig config, OutputStream out) throws LambdaNotFoundException, RuntimeConnectException, TimeExceededException {
+        LambdaImage lambdaImage = imageManager.getLambdaImageByIdentifier(identifier);
+        instanceManager.stream(lambdaImage, config, out);
+    }
+
+    /**
+     * Calls the method admit() in the class InstanceManager
+     * @param identifier the name of the lambda to be streamed
+     * @return the permit of the call, it is closed by stream()
+     */
+    public AdmissionController.Permit admit(Identifier identifier) throws LambdaNotFoundException {
+        LambdaImage lambdaImage = imageManager.getLambdaImageByIdentifier(identifier);
+        return instanceManager.admit(lambdaImage);
+    }
+
+    /**
+     * Calls the method stream() in the class InstanceManager for a call, that was already admitted
+     * @param identifier the name of the lambda to be executed
+     * @param config the configuration of the lambda needs to start
+     * @param out receives the output of the lambda while it is produced
+     * @param permit the permit from admit(), it is closed when the call is finished
+     */
+    public void stream(Identifier identifier, ExecuteConfig config, OutputStream out, AdmissionController.Permit permit)
+            throws LambdaNotFoundException, RuntimeConnectException, TimeExceededException {
+        LambdaImage lambdaImage;
+        try {
+            lambdaImage = imageManager.getLambdaImageByIdentifier(identifier);
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+        instanceManager.stream(lambdaImage, config, out, permit);
+    }
+
 	/**
 	 * Calls the method buildImage() in the class ImageManager
 	 * @param lambda function
@@ -89,6 +195,61 @@ public class RuntimeController {
 		return imageManager.buildImage(lambda);
     }
 
+	/**
+	 * Queues the build of a new lambda, see ImageManager.submitBuild
+	 * @param lambda function
+	 * @return the queued build
+	 */
+	public Build submitBuild(Lambda lambda) throws LanguageNotSupportedException {
+		if (lambdaExists(lambda.getName())) throw new LambdaDuplicatedNameException();
+		return imageManager.submitBuild(lambda);
+	}
+
+	/**
+	 * @param lambdaName the name of the lambda
+	 * @param id the id of the build
+	 * @return the build
+	 */
+	public Build getBuild(String lambdaName, String id) {
+		return imageManager.getBuild(lambdaName, id);
+	}
+
+	/**
+	 * registers a listener, that is notified when images are built or removed
+	 * @param listener the listener
+	 */
+	public void addImageListener(LambdaImageListener listener) {
+		imageManager.addImageListener(listener);
+	}
+
+	/**
+	 * @return the cache of the results of deterministic lambdas
+	 */
+	public ResultCache getResultCache() {
+		return instanceManager.getResultCache();
+	}
+
+	/**
+	 * @return the concurrency limits of the executions
+	 */
+	public AdmissionController getAdmissionController() {
+		return instanceManager.getAdmissionController();
+	}
+
+	/**
+	 * @return the live instances of the lambdas
+	 */
+	public InstanceRegistry getInstanceRegistry() {
+		return instanceManager.getInstanceRegistry();
+	}
+
+	/**
+	 * @return the queue of the builds
+	 */
+	public BuildQueue getBuildQueue() {
+		return imageManager.getBuildQueue();
+	}
+
     public AuthKey rebuildImage(Lambda lambda) throws RuntimeConnectException, LanguageNotSupportedException, IOException, TimeExceededException {
         return imageManager.rebuildImage(lambda);
     }
@@ -109,6 +270,18 @@ public class RuntimeController {
 	    return instanceManager.getGlobalTimeLimit();
     }
 
+	/**
+	 * Set how long is function execution.
+	 * @param millis time in milliseconds
+	 */
+	public void setGlobalTimeLimitMillis(long millis) {
+		instanceManager.setGlobalTimeLimitMillis(millis);
+	}
+
+	public long getGlobalTimeLimitMillis() {
+		return instanceManager.getGlobalTimeLimitMillis();
+	}
+
 	/**
 	 * Get only instance.
 	 * @return instance of unique object of the class.
@@ -144,4 +317,11 @@ public class RuntimeController {
     public Lambda getLambda(Identifier identifier) throws FileNotFoundException {
 	    return imageManager.getLambdaByIdentifier(identifier);
     }
+
+	/**
+	 * @return the base images of all languages with the number of lambdas using them
+	 */
+	public List<BaseImages.BaseImageInfo> getBaseImages() {
+		return imageManager.getBaseImages();
+	}
 }
\ No newline at end of file
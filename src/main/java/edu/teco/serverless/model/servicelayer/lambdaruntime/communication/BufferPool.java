@@ -0,0 +1,70 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.communication;
+
+import java.util.ArrayDeque;
+
+/**
+ * Byte buffers of a fixed size, that are reused instead of allocated for every process.
+ *
+ * At most maxPooled free buffers are kept, more are left to the garbage collector. A buffer is handed out as it
+ * was released, so its content is only valid up to the bytes written by the current owner.
+ */
+public class BufferPool {
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ArrayDeque<byte[]> free = new ArrayDeque<>();
+
+    /**
+     * constructor
+     * @param bufferSize the size of the buffers in bytes
+     * @param maxPooled the maximum number of free buffers kept
+     */
+    public BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize < 1 || maxPooled < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * @return a free buffer of bufferSize bytes
+     */
+    public byte[] acquire() {
+        byte[] buffer;
+        synchronized (free) {
+            buffer = free.pollFirst();
+        }
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    /**
+     * gives a buffer back, it must not be used by the caller afterwards
+     * @param buffer a buffer of this pool
+     */
+    public void release(byte[] buffer) {
+        if (buffer == null || buffer.length != bufferSize) {
+            return;
+        }
+        synchronized (free) {
+            if (free.size() < maxPooled) {
+                free.offerFirst(buffer);
+            }
+        }
+    }
+
+    /**
+     * @returns the size of the buffers in bytes
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @returns the number of free buffers kept
+     */
+    public int getPooled() {
+        synchronized (free) {
+            return free.size();
+        }
+    }
+}
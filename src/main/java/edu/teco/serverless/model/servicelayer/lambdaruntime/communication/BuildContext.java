@@ -0,0 +1,63 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.communication;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * The build context of an image: the files in the directory of its Dockerfile, streamed as a tar.
+ *
+ * Only the files directly in the directory are sent, with paths relative to it, so the context of a lambda
+ * holds its Dockerfile, code and library manifest and doesn't grow with the other lambdas on the disk.
+ */
+public class BuildContext {
+    private static final int BUFFER_SIZE = 8192;
+
+    private BuildContext() {
+    }
+
+    /**
+     * writes the context of a Dockerfile as a tar, the stream isn't closed
+     * @param dockerfile the Dockerfile
+     * @param out the stream the tar is written to
+     * @throws IOException if a file can't be read or the stream can't be written
+     */
+    public static void write(File dockerfile, OutputStream out) throws IOException {
+        TarArchiveOutputStream tar = new TarArchiveOutputStream(out);
+        tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+        File[] files = dockerfile.getAbsoluteFile().getParentFile().listFiles();
+        if (files != null) {
+            // sorted, so the same files give the same tar
+            Arrays.sort(files);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            for (File file : files) {
+                if (!file.isFile()) {
+                    continue;
+                }
+                tar.putArchiveEntry(new TarArchiveEntry(file, getPath(file)));
+                try (InputStream in = new FileInputStream(file)) {
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        tar.write(buffer, 0, read);
+                    }
+                }
+                tar.closeArchiveEntry();
+            }
+        }
+        tar.finish();
+    }
+
+    /**
+     * @param file a file in the directory of the Dockerfile
+     * @returns the path of the file in the context
+     */
+    public static String getPath(File file) {
+        return file.getName();
+    }
+}
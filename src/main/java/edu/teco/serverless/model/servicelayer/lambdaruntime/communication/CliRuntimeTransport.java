@@ -0,0 +1,195 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.communication;
+
+import edu.teco.serverless.model.lambda.Parameter;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes commands by starting a docker CLI process for every command.
+ *
+ * The process of a RUN command is attached to a named container, which is killed with "docker kill" when the
+ * command exceeds its time limit, see ContainerProcess.
+ * The creation times of the docker CLI are converted to epoch seconds, like the Docker Engine API reports them.
+ */
+public class CliRuntimeTransport implements RuntimeTransport {
+    final static Logger logger = Logger.getLogger(CliRuntimeTransport.class);
+    // e.g. "2017-03-01 12:00:00 +0100 CET", the name of the zone is ignored
+    private static final DateTimeFormatter CREATED = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss Z");
+
+    @Override
+    public String execute(RuntimeCommand cmd, long limit, TimeUnit unit) throws RuntimeConnectException,
+            TimeExceededException {
+        ProcessBuilder pb = new ProcessBuilder(generateArgsForProcess(cmd));
+        Process p;
+        try {
+            p = pb.start();
+            if (cmd.getContainerName() != null) {
+                p = new ContainerProcess(p, cmd.getContainerName(), ContainerKiller.getInstance());
+            }
+            if (cmd.getType() == CommandType.BUILD) {
+                // the build context is sent through stdin, see generateArgsForProcess
+                try (OutputStream stdin = p.getOutputStream()) {
+                    BuildContext.write(new File(cmd.getParameters().get(1).getParameter()), stdin);
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new RuntimeConnectException();
+        }
+        String output = handleProcess(p, unit.toMillis(limit));
+        return trimOutput(cmd.getType(), output);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    // method to extract relevant information out of the output of the runtime
+    private String trimOutput(CommandType type, String output) {
+        switch (type) {
+            case BUILD:
+                // extract image id
+                final String search = "Successfully built ";
+                int index = output.indexOf(search);
+                return output.substring(index + search.length(), output.indexOf("\n", index));
+
+            case CONTAINERS:
+            case IMAGES:
+                return output.indexOf('\t') < 0 ? output : convertCreated(output);
+
+            default:
+                return output;
+        }
+    }
+
+    private List<String> generateArgsForProcess(RuntimeCommand cmd) {
+        InvocationPlan plan = cmd.getPlan();
+        if (plan != null) {
+            // the options of a planned run are computed once
+            List<String> arguments = new ArrayList<>(cmd.getParameters().size());
+            copyArgs(arguments, cmd.getParameters());
+            return plan.argv(cmd.getContainerName(), arguments);
+        }
+
+        List<String> args = new ArrayList<String>();
+
+        // Support for Windows Systems
+       // if (System.getProperty("os.name").toLowerCase().contains("windows")) {
+
+
+         // args.add("C:\\Program Files\\Docker Toolbox\\docker.exe");
+      // }
+
+        // docker command and sub-command
+        args.add("docker");
+        args.add(cmd.getType().toString());
+
+        // set options for the call
+        switch (cmd.getType()) {
+            case BUILD:
+                args.add("-t");
+                args.add(cmd.getParameters().get(0).getParameter());
+                args.add("--label");
+                args.add(RuntimeCommand.LABEL + "=true");
+                args.add("-f");     // Dockerfile in the context
+                args.add(BuildContext.getPath(new File(cmd.getParameters().get(1).getParameter())));
+                args.add("-");      // context as tar from stdin
+                break;
+            case RUN:
+                args.add("--rm");   // remove container after run
+                args.add("-i");
+                args.add("--label");
+                args.add(RuntimeCommand.LABEL + "=true");
+                args.add("--name");
+                args.add(cmd.getContainerName());
+                copyArgs(args, cmd.getParameters());
+                break;
+
+            case REMOVE:
+                args.add("-f");     // force removal
+                copyArgs(args, cmd.getParameters());
+                break;
+
+            case IMAGES:
+                if (cmd.getParameters().isEmpty()) {
+                    args.add("-q");     // ids only, one per line
+                    break;
+                }
+                args.add("--filter");
+                args.add("label=" + cmd.getParameters().get(0).getParameter());
+                args.add("--format");
+                args.add("{{.ID}}\t{{.CreatedAt}}\t{{.Repository}}:{{.Tag}}");
+                break;
+
+            case CONTAINERS:
+                args.add("-a");     // exited containers as well
+                args.add("--filter");
+                args.add("label=" + RuntimeCommand.LABEL);
+                args.add("--format");
+                args.add("{{.Names}}\t{{.CreatedAt}}");
+                break;
+
+            case REMOVE_CONTAINER:
+                args.add("-f");     // a running container is killed
+                copyArgs(args, cmd.getParameters());
+                break;
+
+            case PULL:
+            case INFO:
+            case KILL:
+                copyArgs(args, cmd.getParameters());
+            default:
+                break;
+        }
+
+        return args;
+    }
+
+    // "name\tcreated" or "id\tcreated\ttag" to "name created" or "id created tag", created in epoch seconds
+    private static String convertCreated(String output) {
+        StringBuilder sb = new StringBuilder();
+        for (String line : output.split("\n")) {
+            String[] fields = line.trim().split("\t");
+            if (fields.length < 2) {
+                continue;
+            }
+            long created;
+            try {
+                created = ZonedDateTime.parse(fields[1].substring(0, Math.min(25, fields[1].length())), CREATED)
+                        .toEpochSecond();
+            } catch (DateTimeParseException e) {
+                // unknown format, taken as new, so it is never removed as an orphan
+                created = System.currentTimeMillis() / 1000;
+                logger.debug(String.format("Creation time %s can't be parsed.", fields[1]));
+            }
+            fields[1] = Long.toString(created);
+            sb.append(String.join(" ", fields)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private void copyArgs(List<String> target, List<Parameter> source) {
+        for (Parameter par : source) {
+            target.add(par.getParameter());
+        }
+    }
+
+    private String handleProcess(Process p, long limit) throws RuntimeConnectException, TimeExceededException {
+        // stdout and stderr are read at the same time, the process can't block on either pipe
+        ProcessDrainer.Output output = ProcessDrainer.getInstance().drain(p, limit, TimeUnit.MILLISECONDS);
+        if (output.hasErrors()) {
+            throw new RuntimeConnectException(output.getErrors());
+        }
+        logger.info("handleProcess succeeded.");
+        return output.getOutput();
+    }
+}
@@ -8,7 +8,11 @@ public enum CommandType {
     REMOVE,
     RUN,
     PULL,
-    INFO;
+    INFO,
+    IMAGES,
+    KILL,
+    CONTAINERS,
+    REMOVE_CONTAINER;
 
     @Override
     public String toString() {
@@ -23,6 +27,14 @@ public enum CommandType {
                 return "pull";
             case REMOVE:
                 return "rmi";
+            case IMAGES:
+                return "images";
+            case KILL:
+                return "kill";
+            case CONTAINERS:
+                return "ps";
+            case REMOVE_CONTAINER:
+                return "rm";
             default:
                 return null;
         }
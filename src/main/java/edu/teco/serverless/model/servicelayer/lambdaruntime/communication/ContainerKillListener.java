@@ -0,0 +1,19 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.communication;
+
+/**
+ * Gets notified by the ContainerKiller when a container is killed, e.g. because its call exceeded the time limit.
+ */
+public interface ContainerKillListener {
+
+    /**
+     * called when the kill of a container is issued
+     * @param containerName the name of the container
+     */
+    void killStarted(String containerName);
+
+    /**
+     * called when the kill is done, also if it failed
+     * @param containerName the name of the container
+     */
+    void killFinished(String containerName);
+}
@@ -0,0 +1,127 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.communication;
+
+import edu.teco.serverless.metrics.Metrics;
+import edu.teco.serverless.model.lambda.Parameter;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Kills containers by their name through the runtime, see ContainerNames.
+ *
+ * Destroying the docker CLI process of a container doesn't stop the container: the lambda runs as PID 1, which
+ * ignores the forwarded SIGTERM. Kills run in the background, the time they take is reported as a metric.
+ * The listeners are told when a kill is issued and when it is done, also about the forced removals of the
+ * SocketRuntimeTransport.
+ */
+public class ContainerKiller {
+    final static Logger logger = Logger.getLogger(ContainerKiller.class);
+    // time limit of a single kill in seconds
+    static final int KILL_TIME_LIMIT = 10;
+    private static ContainerKiller instance;
+
+    private final Supplier<RuntimeTransport> transport;
+    private final ExecutorService killers;
+    private final CopyOnWriteArrayList<ContainerKillListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * constructor
+     * @param transport the transport the kill commands are sent with
+     */
+    public ContainerKiller(Supplier<RuntimeTransport> transport) {
+        if (transport == null) {
+            throw new IllegalArgumentException();
+        }
+        this.transport = transport;
+        killers = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "container-killer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return the only instance of ContainerKiller, it uses the transport of the RuntimeCommunicator
+     */
+    public static synchronized ContainerKiller getInstance() {
+        if (instance == null) {
+            instance = new ContainerKiller(() -> RuntimeCommunicator.getInstance().getTransport());
+        }
+        return instance;
+    }
+
+    /**
+     * registers a listener, that is notified when containers are killed; a listener is registered once
+     * @param listener the listener
+     */
+    public void addKillListener(ContainerKillListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        listeners.addIfAbsent(listener);
+    }
+
+    /**
+     * kills a container in the background
+     * @param name the name of the container
+     * @return completes when the kill is done, also if it failed
+     */
+    public Future<?> kill(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException();
+        }
+        killStarted(name);
+        try {
+            return killers.submit(() -> killNow(name));
+        } catch (RejectedExecutionException e) {
+            killFinished(name);
+            throw e;
+        }
+    }
+
+    private void killNow(String name) {
+        List<Parameter> params = new ArrayList<>();
+        params.add(new Parameter(name));
+        long start = System.nanoTime();
+        try {
+            transport.get().execute(new RuntimeCommand(CommandType.KILL, params), KILL_TIME_LIMIT, TimeUnit.SECONDS);
+            Metrics.containerKill("killed").recordSince(start);
+            logger.info(String.format("Container %s was killed in %d ms.", name,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        } catch (RuntimeConnectException | TimeExceededException e) {
+            // the container may have exited in the meantime
+            Metrics.containerKill("failed").recordSince(start);
+            logger.debug(String.format("Container %s could not be killed.", name), e);
+        } finally {
+            killFinished(name);
+        }
+    }
+
+    // also called by the SocketRuntimeTransport around the forced removal of a container, that exceeded its limit
+    void killStarted(String name) {
+        for (ContainerKillListener listener : listeners) {
+            listener.killStarted(name);
+        }
+    }
+
+    void killFinished(String name) {
+        for (ContainerKillListener listener : listeners) {
+            listener.killFinished(name);
+        }
+    }
+
+    /**
+     * stops the threads of the kills
+     */
+    public void shutdown() {
+        killers.shutdownNow();
+    }
+}
@@ -0,0 +1,27 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.communication;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Names of the containers started by the server, so a container can be addressed while its docker CLI
+ * process or its HTTP request is still waiting for it.
+ *
+ * A name is PREFIX, a random id of the server process and a counter, e.g. serverless-3f2a9c1e-42:
+ * it is unique without asking the runtime, also next to the containers of an earlier run of the server.
+ */
+public final class ContainerNames {
+    public static final String PREFIX = "serverless-";
+    private static final String PROCESS = String.format("%08x", ThreadLocalRandom.current().nextInt());
+    private static final AtomicLong counter = new AtomicLong();
+
+    private ContainerNames() {
+    }
+
+    /**
+     * @return a new container name
+     */
+    public static String next() {
+        return PREFIX + PROCESS + "-" + counter.incrementAndGet();
+    }
+}
@@ -0,0 +1,94 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.communication;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The docker CLI process attached to a named container: destroying the process while it runs kills the
+ * container through the runtime as well, see ContainerKiller.
+ */
+public class ContainerProcess extends Process {
+    private final Process process;
+    private final String containerName;
+    private final ContainerKiller killer;
+    private final AtomicBoolean killed = new AtomicBoolean();
+
+    /**
+     * constructor
+     * @param process the docker CLI process
+     * @param containerName the name of the container, see ContainerNames
+     * @param killer kills the container
+     */
+    public ContainerProcess(Process process, String containerName, ContainerKiller killer) {
+        if (process == null || containerName == null || killer == null) {
+            throw new IllegalArgumentException();
+        }
+        this.process = process;
+        this.containerName = containerName;
+        this.killer = killer;
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return process.getOutputStream();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return process.getInputStream();
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        return process.getErrorStream();
+    }
+
+    @Override
+    public int waitFor() throws InterruptedException {
+        return process.waitFor();
+    }
+
+    @Override
+    public boolean waitFor(long timeout, TimeUnit unit) throws InterruptedException {
+        return process.waitFor(timeout, unit);
+    }
+
+    @Override
+    public int exitValue() {
+        return process.exitValue();
+    }
+
+    @Override
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    @Override
+    public void destroy() {
+        kill();
+        process.destroy();
+    }
+
+    @Override
+    public Process destroyForcibly() {
+        kill();
+        process.destroyForcibly();
+        return this;
+    }
+
+    // a container, whose process already exited, was removed by docker
+    private void kill() {
+        if (process.isAlive() && killed.compareAndSet(false, true)) {
+            killer.kill(containerName);
+        }
+    }
+
+    /**
+     * @returns the name of the container
+     */
+    public String getContainerName() {
+        return containerName;
+    }
+}
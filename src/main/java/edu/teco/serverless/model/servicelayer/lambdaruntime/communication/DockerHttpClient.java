@@ -0,0 +1,394 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.communication;
+
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * Small HTTP/1.1 client for the Docker Engine API.
+ *
+ * Connections are opened through a SocketConnector (normally the unix socket of the docker daemon)
+ * and kept alive in a pool, so consecutive commands reuse them instead of connecting every time.
+ * Request bodies are sent with chunked transfer encoding, so large bodies are streamed.
+ */
+public class DockerHttpClient {
+    final static Logger logger = Logger.getLogger(DockerHttpClient.class);
+    private static final String CRLF = "\r\n";
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Opens a new connection to the daemon.
+     */
+    public interface SocketConnector {
+        Socket connect() throws IOException;
+    }
+
+    /**
+     * Writes the body of a request.
+     */
+    public interface RequestBody {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private final SocketConnector connector;
+    private final BlockingDeque<Connection> idle;
+
+    /**
+     * constructor
+     * @param connector opens new connections to the daemon
+     * @param poolSize maximum number of idle connections kept open
+     */
+    public DockerHttpClient(SocketConnector connector, int poolSize) {
+        if (connector == null || poolSize <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.connector = connector;
+        this.idle = new LinkedBlockingDeque<>(poolSize);
+    }
+
+    /**
+     * sends a request and reads the complete response
+     * @param method the HTTP method
+     * @param path path and query of the request
+     * @param contentType content type of the body or null
+     * @param body the body or null
+     * @param timeoutMillis read timeout in milliseconds, 0 for none
+     * @return the response
+     * @throws SocketTimeoutException if the daemon doesn't answer within the timeout
+     * @throws IOException if the communication fails
+     */
+    public DockerHttpResponse execute(String method, String path, String contentType, RequestBody body,
+                                      int timeoutMillis) throws IOException {
+        return execute(method, path, contentType, body, timeoutMillis, null);
+    }
+
+    /**
+     * sends a request and writes the body of the response to a sink while it is read
+     * @param method the HTTP method
+     * @param path path and query of the request
+     * @param contentType content type of the body or null
+     * @param body the body or null
+     * @param timeoutMillis read timeout in milliseconds, 0 for none
+     * @param sink gets the body of the response, the body of the returned response is empty;
+     *             null to keep the body in the response. An IOException of the sink stops the read
+     * @return the response
+     * @throws SocketTimeoutException if the daemon doesn't answer within the timeout
+     * @throws IOException if the communication fails or the sink doesn't take the body
+     */
+    public DockerHttpResponse execute(String method, String path, String contentType, RequestBody body,
+                                      int timeoutMillis, OutputStream sink) throws IOException {
+        Connection connection = idle.pollFirst();
+        if (connection != null) {
+            try {
+                return exchange(connection, method, path, contentType, body, timeoutMillis, sink);
+            } catch (StaleConnectionException e) {
+                // the daemon closed the idle connection; a request it may have processed isn't sent again,
+                // it could build an image or start a container twice
+                if (e.sent && !isIdempotent(method)) {
+                    throw new EOFException("runtime closed the connection");
+                }
+                logger.debug("Idle connection to the runtime was closed, reconnecting.");
+            }
+        }
+        try {
+            return exchange(new Connection(connector.connect()), method, path, contentType, body, timeoutMillis,
+                    sink);
+        } catch (StaleConnectionException e) {
+            throw new EOFException("runtime closed the connection");
+        }
+    }
+
+    private static boolean isIdempotent(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "DELETE".equals(method);
+    }
+
+    /**
+     * @returns the number of idle connections in the pool
+     */
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    /**
+     * closes all idle connections
+     */
+    public void close() {
+        Connection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            connection.close();
+        }
+    }
+
+    private DockerHttpResponse exchange(Connection connection, String method, String path, String contentType,
+                                        RequestBody body, int timeoutMillis, OutputStream sink) throws IOException {
+        DockerHttpResponse response;
+        long started = System.nanoTime();
+        try {
+            connection.socket.setSoTimeout(timeoutMillis);
+            try {
+                writeRequest(connection.out, method, path, contentType, body);
+            } catch (IOException e) {
+                throw isTimeout(e, started, timeoutMillis) ? e : new StaleConnectionException(false);
+            }
+            try {
+                connection.in.mark(1);
+                if (connection.in.read() == -1) {
+                    throw new StaleConnectionException(true);
+                }
+                connection.in.reset();
+            } catch (StaleConnectionException e) {
+                throw e;
+            } catch (IOException e) {
+                throw isTimeout(e, started, timeoutMillis) ? e : new StaleConnectionException(true);
+            }
+            response = readResponse(connection.in, method, sink);
+        } catch (IOException e) {
+            connection.close();
+            if (!(e instanceof SocketTimeoutException) && isTimeout(e, started, timeoutMillis)) {
+                // unix sockets report an expired timeout as plain IOException
+                SocketTimeoutException timeout = new SocketTimeoutException(e.getMessage());
+                timeout.initCause(e);
+                throw timeout;
+            }
+            throw e;
+        }
+
+        if (!"close".equalsIgnoreCase(response.getHeader("Connection")) && connection.reusable) {
+            if (!idle.offerFirst(connection)) {
+                connection.close();
+            }
+        } else {
+            connection.close();
+        }
+        return response;
+    }
+
+    private static boolean isTimeout(IOException e, long started, int timeoutMillis) {
+        return e instanceof SocketTimeoutException
+                || (timeoutMillis > 0 && (System.nanoTime() - started) / 1000000 >= timeoutMillis);
+    }
+
+    private void writeRequest(OutputStream out, String method, String path, String contentType,
+                              RequestBody body) throws IOException {
+        StringBuilder head = new StringBuilder();
+        head.append(method).append(' ').append(path).append(" HTTP/1.1").append(CRLF);
+        head.append("Host: docker").append(CRLF);
+        if (body != null) {
+            if (contentType != null) {
+                head.append("Content-Type: ").append(contentType).append(CRLF);
+            }
+            head.append("Transfer-Encoding: chunked").append(CRLF);
+        } else if ("POST".equals(method) || "PUT".equals(method)) {
+            head.append("Content-Length: 0").append(CRLF);
+        }
+        head.append(CRLF);
+        out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+
+        if (body != null) {
+            ChunkedOutputStream chunked = new ChunkedOutputStream(out);
+            body.writeTo(chunked);
+            chunked.finish();
+        }
+        out.flush();
+    }
+
+    private DockerHttpResponse readResponse(BufferedInputStream in, String method, OutputStream sink)
+            throws IOException {
+        String statusLine = readLine(in);
+        String[] parts = statusLine.split(" ", 3);
+        if (parts.length < 2 || !parts[0].startsWith("HTTP/")) {
+            throw new IOException("malformed status line: " + statusLine);
+        }
+        int status = Integer.parseInt(parts[1]);
+
+        Map<String, String> headers = new HashMap<>();
+        String line;
+        while (!(line = readLine(in)).isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+            }
+        }
+
+        if ("HEAD".equals(method) || status == 204 || status == 304 || (status >= 100 && status < 200)) {
+            return new DockerHttpResponse(status, headers, new byte[0]);
+        }
+        // an error is always kept, it is the message of the daemon
+        ByteArrayOutputStream buffer = null;
+        OutputStream target = sink;
+        if (sink == null || status >= 300) {
+            buffer = new ByteArrayOutputStream();
+            target = buffer;
+        }
+        if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+            readChunked(in, target);
+        } else if (headers.get("content-length") != null) {
+            copy(in, target, Long.parseLong(headers.get("content-length")), new byte[BUFFER_SIZE]);
+        } else {
+            // no framing, the body ends with the connection
+            headers.put("connection", "close");
+            readToEnd(in, target);
+        }
+        return new DockerHttpResponse(status, headers, buffer == null ? new byte[0] : buffer.toByteArray());
+    }
+
+    private void readChunked(InputStream in, OutputStream body) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        while (true) {
+            String sizeLine = readLine(in);
+            int semicolon = sizeLine.indexOf(';');
+            if (semicolon >= 0) {
+                sizeLine = sizeLine.substring(0, semicolon);
+            }
+            long size = Long.parseLong(sizeLine.trim(), 16);
+            if (size == 0) {
+                // skip trailers
+                while (!readLine(in).isEmpty()) {
+                }
+                return;
+            }
+            copy(in, body, size, buffer);
+            readLine(in);
+        }
+    }
+
+    private void readToEnd(InputStream in, OutputStream body) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            body.write(buffer, 0, read);
+        }
+    }
+
+    private void copy(InputStream in, OutputStream out, long length, byte[] buffer) throws IOException {
+        long remaining = length;
+        while (remaining > 0) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read == -1) {
+                throw new EOFException("unexpected end of response");
+            }
+            out.write(buffer, 0, read);
+            remaining -= read;
+        }
+    }
+
+    private String readLine(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') {
+                int end = sb.length();
+                if (end > 0 && sb.charAt(end - 1) == '\r') {
+                    sb.setLength(end - 1);
+                }
+                return sb.toString();
+            }
+            sb.append((char) c);
+        }
+        throw new EOFException("unexpected end of response");
+    }
+
+    /**
+     * A pooled connection together with its buffered streams.
+     */
+    private static class Connection {
+        private final Socket socket;
+        private final BufferedInputStream in;
+        private final OutputStream out;
+        private boolean reusable = true;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE);
+            this.out = new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE);
+        }
+
+        void close() {
+            reusable = false;
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.debug("Closing runtime connection failed.", e);
+            }
+        }
+    }
+
+    /**
+     * Thrown if a connection was closed before the response started.
+     */
+    private static class StaleConnectionException extends IOException {
+        // true if the request was written completely, the daemon may have processed it
+        private final boolean sent;
+
+        StaleConnectionException(boolean sent) {
+            this.sent = sent;
+        }
+    }
+
+    /**
+     * Writes everything as HTTP chunks of at most BUFFER_SIZE bytes.
+     */
+    private static class ChunkedOutputStream extends OutputStream {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int count;
+
+        ChunkedOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                flushChunk();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (count == buffer.length) {
+                    flushChunk();
+                }
+                int n = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void close() {
+            // the connection is owned by the client, finish() ends the body
+        }
+
+        private void flushChunk() throws IOException {
+            if (count > 0) {
+                out.write((Integer.toHexString(count) + CRLF).getBytes(StandardCharsets.ISO_8859_1));
+                out.write(buffer, 0, count);
+                out.write(CRLF.getBytes(StandardCharsets.ISO_8859_1));
+                count = 0;
+            }
+        }
+
+        void finish() throws IOException {
+            flushChunk();
+            out.write(("0" + CRLF + CRLF).getBytes(StandardCharsets.ISO_8859_1));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.communication;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Response of the Docker Engine API to a single request.
+ */
+public class DockerHttpResponse {
+    private final int status;
+    private final Map<String, String> headers;
+    private final byte[] body;
+
+    /**
+     * constructor
+     * @param status the HTTP status code
+     * @param headers the response headers, names in lower case
+     * @param body the decoded body
+     */
+    public DockerHttpResponse(int status, Map<String, String> headers, byte[] body) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    /**
+     * @returns the HTTP status code
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @param name name of the header, case insensitive
+     * @returns the value of the header or null
+     */
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase());
+    }
+
+    /**
+     * @returns the raw body
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * @returns the body decoded as UTF-8
+     */
+    public String getBodyAsString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @returns true if the status code is 2xx
+     */
+    public boolean isSuccessful() {
+        return status >= 200 && status < 300;
+    }
+}
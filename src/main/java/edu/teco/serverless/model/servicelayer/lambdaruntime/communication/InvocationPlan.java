@@ -0,0 +1,102 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.communication;
+
+import edu.teco.serverless.model.lambda.Parameter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything about running a lambda, that is the same for all of its calls: the image, the argv of the docker CLI
+ * up to the arguments of the call and the time limit in milliseconds.
+ *
+ * A plan is immutable and computed once per image, so a call only appends its arguments and the name of its
+ * container, see command() and argv().
+ */
+public final class InvocationPlan {
+    private final String imageId;
+    private final long timeLimit;
+    private final List<String> argvPrefix;
+
+    /**
+     * constructor
+     * @param imageId the id of the docker image, containers of the lambda are started from it
+     * @param timeLimit the time limit of a run in milliseconds, 0 for none
+     */
+    public InvocationPlan(String imageId, long timeLimit) {
+        if (imageId == null || timeLimit < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.imageId = imageId;
+        this.timeLimit = timeLimit;
+        // remove the container after the run, keep stdin open, label it as a container of the server
+        this.argvPrefix = Collections.unmodifiableList(Arrays.asList("docker", "run", "--rm", "-i",
+                "--label", RuntimeCommand.LABEL + "=true", imageId));
+    }
+
+    /**
+     * @param arguments the arguments of the call, they aren't copied and must not be changed while it runs
+     * @return the RUN command of a call
+     */
+    public RuntimeCommand command(List<Parameter> arguments) {
+        return new RuntimeCommand(this, arguments);
+    }
+
+    /**
+     * @param arguments the arguments of the call
+     * @return the argv of the docker CLI for a call in a container without name
+     */
+    public List<String> argv(List<String> arguments) {
+        return argv(null, arguments);
+    }
+
+    /**
+     * @param containerName the name of the container, see ContainerNames
+     * @param arguments the arguments of the call
+     * @return the argv of the docker CLI for a call
+     */
+    public List<String> argv(String containerName, List<String> arguments) {
+        List<String> argv = new ArrayList<>(argvPrefix.size() + arguments.size() + 2);
+        if (containerName == null) {
+            argv.addAll(argvPrefix);
+        } else {
+            // the options come before the image
+            argv.addAll(argvPrefix.subList(0, argvPrefix.size() - 1));
+            argv.add("--name");
+            argv.add(containerName);
+            argv.add(imageId);
+        }
+        argv.addAll(arguments);
+        return argv;
+    }
+
+    /**
+     * @returns the id of the docker image
+     */
+    public String getImageId() {
+        return imageId;
+    }
+
+    /**
+     * @returns the time limit of a run in milliseconds, 0 for none
+     */
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    /**
+     * @returns the argv of the docker CLI up to the arguments of a call, it can't be modified
+     */
+    public List<String> getArgvPrefix() {
+        return argvPrefix;
+    }
+
+    @Override
+    public String toString() {
+        return "InvocationPlan{" +
+                "imageId='" + imageId + '\'' +
+                ", timeLimit=" + timeLimit +
+                '}';
+    }
+}
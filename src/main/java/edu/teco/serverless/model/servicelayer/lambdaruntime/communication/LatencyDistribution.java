@@ -0,0 +1,99 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.communication;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A distribution of latencies in milliseconds, used by the simulated runtime.
+ *
+ * It is given as "type:parameters":
+ * "fixed:100" always 100 ms, "uniform:50,150" between 50 and 150 ms,
+ * "lognormal:100,0.5" log-normal with a median of 100 ms and a sigma of 0.5 (a long tail),
+ * "exponential:100" exponential with a mean of 100 ms.
+ */
+public class LatencyDistribution {
+    private final String spec;
+    private final String type;
+    private final double first;
+    private final double second;
+
+    private LatencyDistribution(String spec, String type, double first, double second) {
+        this.spec = spec;
+        this.type = type;
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * @param spec the distribution, e.g. "lognormal:100,0.5"
+     * @return the distribution
+     * @throws IllegalArgumentException if the distribution is unknown or its parameters are invalid
+     */
+    public static LatencyDistribution parse(String spec) {
+        if (spec == null) {
+            throw new IllegalArgumentException("no latency distribution given");
+        }
+        String[] parts = spec.trim().split(":", 2);
+        String type = parts[0].trim().toLowerCase();
+        String[] values = parts.length > 1 ? parts[1].split(",") : new String[0];
+        try {
+            switch (type) {
+                case "fixed":
+                case "exponential":
+                    if (values.length == 1 && Double.parseDouble(values[0]) >= 0) {
+                        return new LatencyDistribution(spec, type, Double.parseDouble(values[0]), 0);
+                    }
+                    break;
+                case "uniform":
+                case "lognormal":
+                    if (values.length == 2 && Double.parseDouble(values[0]) >= 0
+                            && Double.parseDouble(values[1]) >= 0
+                            && (type.equals("lognormal") || Double.parseDouble(values[1]) >= Double.parseDouble(values[0]))) {
+                        return new LatencyDistribution(spec, type, Double.parseDouble(values[0]),
+                                Double.parseDouble(values[1]));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("invalid latency distribution: " + spec);
+    }
+
+    /**
+     * @returns a latency in milliseconds
+     */
+    public long sample() {
+        return sample(ThreadLocalRandom.current());
+    }
+
+    /**
+     * @param random the source of randomness
+     * @return a latency in milliseconds
+     */
+    public long sample(Random random) {
+        double value;
+        switch (type) {
+            case "uniform":
+                value = first + random.nextDouble() * (second - first);
+                break;
+            case "lognormal":
+                value = first * Math.exp(second * random.nextGaussian());
+                break;
+            case "exponential":
+                value = -first * Math.log(1 - random.nextDouble());
+                break;
+            default:
+                value = first;
+                break;
+        }
+        return Math.round(value);
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
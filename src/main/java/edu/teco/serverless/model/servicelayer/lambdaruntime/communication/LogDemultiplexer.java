@@ -0,0 +1,93 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.communication;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits the multiplexed log stream of a container without tty into stdout and stderr while it is read.
+ *
+ * Every frame starts with an 8 byte header: the stream (2 is stderr) and the big endian size of the payload.
+ * Like the ProcessDrainer each stream keeps at most maxOutput bytes, a write beyond fails, so the read stops.
+ */
+public class LogDemultiplexer extends OutputStream {
+    private static final int HEADER_SIZE = 8;
+    private static final byte STDERR = 2;
+
+    private final int maxOutput;
+    private final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+    private final byte[] header = new byte[HEADER_SIZE];
+    private int headerRead;
+    // payload bytes left in the current frame
+    private long remaining;
+    private boolean exceeded;
+
+    /**
+     * @param maxOutput the maximum number of bytes of each stream
+     */
+    public LogDemultiplexer(int maxOutput) {
+        this.maxOutput = maxOutput;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        int end = off + len;
+        while (off < end) {
+            if (remaining == 0) {
+                int count = Math.min(HEADER_SIZE - headerRead, end - off);
+                System.arraycopy(b, off, header, headerRead, count);
+                headerRead += count;
+                off += count;
+                if (headerRead == HEADER_SIZE) {
+                    remaining = ((header[4] & 0xffL) << 24) | ((header[5] & 0xff) << 16)
+                            | ((header[6] & 0xff) << 8) | (header[7] & 0xff);
+                    headerRead = 0;
+                }
+                continue;
+            }
+            int count = (int) Math.min(remaining, end - off);
+            ByteArrayOutputStream stream = header[0] == STDERR ? stderr : stdout;
+            if (stream.size() + count > maxOutput) {
+                exceeded = true;
+                throw new IOException(String.format("the output exceeds the maximum of %d bytes", maxOutput));
+            }
+            stream.write(b, off, count);
+            off += count;
+            remaining -= count;
+        }
+    }
+
+    /**
+     * @returns true if a stream exceeded the maximum and the output was dropped
+     */
+    public boolean isExceeded() {
+        return exceeded;
+    }
+
+    /**
+     * @returns the maximum number of bytes of each stream
+     */
+    public int getMaxOutput() {
+        return maxOutput;
+    }
+
+    /**
+     * returns stdout, if the container wrote nothing to stderr
+     * @return the output of the container
+     * @throws RuntimeConnectException with stderr as message, if the container wrote to it
+     */
+    public String getOutput() throws RuntimeConnectException {
+        String err = new String(stderr.toByteArray(), StandardCharsets.UTF_8);
+        if (!err.isEmpty() && !err.startsWith("SECURITY WARNING")) {
+            throw new RuntimeConnectException(err);
+        }
+        return new String(stdout.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,295 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.communication;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reads stdout and stderr of a process at the same time, so a process never blocks on a full pipe.
+ *
+ * stdout is read by the caller and stderr by a thread of a shared pool, both directly into buffers of a
+ * BufferPool: the output is kept byte by byte, nothing is decoded or allocated per line.
+ * Each stream keeps at most maxOutput bytes, a process writing more is destroyed and the drain fails.
+ */
+public class ProcessDrainer {
+    final static Logger logger = Logger.getLogger(ProcessDrainer.class);
+    static final int BUFFER_SIZE = 16384;
+    // 4 MiB of free buffers
+    static final int MAX_POOLED = 256;
+    public static final int DEFAULT_MAX_OUTPUT = 16 * 1024 * 1024;
+    private static ProcessDrainer instance;
+
+    private final BufferPool pool;
+    private final ExecutorService drains;
+    private final ScheduledExecutorService watchdog;
+    private volatile int maxOutput;
+
+    /**
+     * constructor
+     * @param pool the buffers the output is read into
+     * @param maxOutput the maximum number of bytes kept of stdout and of stderr
+     */
+    public ProcessDrainer(BufferPool pool, int maxOutput) {
+        if (pool == null) {
+            throw new IllegalArgumentException();
+        }
+        this.pool = pool;
+        setMaxOutput(maxOutput);
+        drains = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "process-drain");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "process-drain-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return the only instance of ProcessDrainer, its maximum output is set by the RuntimeCommunicator
+     */
+    public static synchronized ProcessDrainer getInstance() {
+        if (instance == null) {
+            instance = new ProcessDrainer(new BufferPool(BUFFER_SIZE, MAX_POOLED), DEFAULT_MAX_OUTPUT);
+        }
+        return instance;
+    }
+
+    /**
+     * reads stdout and stderr of the process until both are closed and waits for the process to exit
+     * @param process the process, its stdin is left as it is
+     * @param limit the time limit in seconds (if limit > 0), the process is destroyed when it is exceeded
+     * @return the output of the process
+     * @throws RuntimeConnectException if the output can't be read or is longer than the maximum output
+     * @throws TimeExceededException if the process runs longer than the limit
+     */
+    public Output drain(Process process, int limit) throws RuntimeConnectException, TimeExceededException {
+        return drain(process, limit, TimeUnit.SECONDS);
+    }
+
+    /**
+     * reads stdout and stderr of the process until both are closed and waits for the process to exit
+     * @param process the process, its stdin is left as it is
+     * @param limit the time limit (if limit > 0), the process is destroyed when it is exceeded
+     * @param unit the unit of the limit
+     * @return the output of the process
+     * @throws RuntimeConnectException if the output can't be read or is longer than the maximum output
+     * @throws TimeExceededException if the process runs longer than the limit
+     */
+    public Output drain(final Process process, long limit, TimeUnit unit) throws RuntimeConnectException,
+            TimeExceededException {
+        if (process == null) {
+            throw new IllegalArgumentException();
+        }
+        final AtomicBoolean exceeded = new AtomicBoolean();
+        ScheduledFuture<?> deadline = null;
+        if (limit > 0) {
+            deadline = watchdog.schedule(() -> {
+                exceeded.set(true);
+                process.destroy();
+            }, limit, unit);
+        }
+
+        final int max = maxOutput;
+        final Sink errors = new Sink(pool, max);
+        Sink output = new Sink(pool, max);
+        Future<Boolean> stderr = drains.submit(() -> drainInto(errors, process.getErrorStream(), process));
+        boolean errorsDone = false;
+        Output result = null;
+        try {
+            boolean complete = drainInto(output, process.getInputStream(), process);
+            complete &= stderr.get();
+            errorsDone = true;
+            process.waitFor();
+            if (complete && !exceeded.get()) {
+                result = new Output(output.toBytes(), errors.toBytes());
+            }
+        } catch (IOException | ExecutionException e) {
+            process.destroy();
+            if (exceeded.get()) {
+                throw new TimeExceededException();
+            }
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            throw new RuntimeConnectException("error while reading the process output: " + cause.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroy();
+            throw new RuntimeConnectException("interrupted while reading the process output");
+        } finally {
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+            output.release();
+            // the buffers of stderr may still be written, if its thread didn't finish
+            if (errorsDone) {
+                errors.release();
+            }
+        }
+
+        if (exceeded.get()) {
+            throw new TimeExceededException();
+        }
+        if (result == null) {
+            logger.debug(String.format("Output of a process exceeded the maximum of %d bytes.", max));
+            throw new RuntimeConnectException(String.format("the output exceeds the maximum of %d bytes", max));
+        }
+        return result;
+    }
+
+    private static boolean drainInto(Sink sink, InputStream in, Process process) throws IOException {
+        try (InputStream stream = in) {
+            if (sink.readFrom(stream)) {
+                return true;
+            }
+        }
+        // the rest of the output is dropped, the process must not block on the full pipe
+        process.destroy();
+        return false;
+    }
+
+    /**
+     * sets the maximum output of a process
+     * @param maxOutput the maximum number of bytes kept of stdout and of stderr
+     */
+    public void setMaxOutput(int maxOutput) {
+        if (maxOutput < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.maxOutput = maxOutput;
+    }
+
+    /**
+     * @returns the maximum number of bytes kept of stdout and of stderr
+     */
+    public int getMaxOutput() {
+        return maxOutput;
+    }
+
+    /**
+     * @returns the buffers the output is read into
+     */
+    public BufferPool getPool() {
+        return pool;
+    }
+
+    /**
+     * stops the drain threads and the watchdog
+     */
+    public void shutdown() {
+        drains.shutdownNow();
+        watchdog.shutdownNow();
+    }
+
+    /**
+     * The bytes read from a stream, in buffers of the pool.
+     */
+    private static final class Sink {
+        private final BufferPool pool;
+        private final int max;
+        private final List<byte[]> buffers = new ArrayList<>();
+        private byte[] current;
+        private int position;
+        private long size;
+
+        Sink(BufferPool pool, int max) {
+            this.pool = pool;
+            this.max = max;
+        }
+
+        // reads one byte more than max, so a stream of exactly max bytes isn't taken for a longer one
+        boolean readFrom(InputStream in) throws IOException {
+            while (true) {
+                if (current == null || position == current.length) {
+                    current = pool.acquire();
+                    buffers.add(current);
+                    position = 0;
+                }
+                int room = (int) Math.min(current.length - position, max + 1L - size);
+                int n = in.read(current, position, room);
+                if (n == -1) {
+                    return true;
+                }
+                position += n;
+                size += n;
+                if (size > max) {
+                    return false;
+                }
+            }
+        }
+
+        byte[] toBytes() {
+            byte[] bytes = new byte[(int) size];
+            int copied = 0;
+            for (byte[] buffer : buffers) {
+                int length = (int) Math.min(buffer.length, size - copied);
+                System.arraycopy(buffer, 0, bytes, copied, length);
+                copied += length;
+            }
+            return bytes;
+        }
+
+        // gives the buffers back to the pool, the bytes can't be read afterwards
+        void release() {
+            for (byte[] buffer : buffers) {
+                pool.release(buffer);
+            }
+            buffers.clear();
+            current = null;
+        }
+    }
+
+    /**
+     * stdout and stderr of a finished process.
+     */
+    public static final class Output {
+        private final byte[] output;
+        private final byte[] errors;
+
+        Output(byte[] output, byte[] errors) {
+            this.output = output;
+            this.errors = errors;
+        }
+
+        /**
+         * @returns stdout as it was written
+         */
+        public byte[] getOutputBytes() {
+            return output;
+        }
+
+        /**
+         * @returns stdout decoded as UTF-8
+         */
+        public String getOutput() {
+            return new String(output, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * @returns stderr decoded as UTF-8
+         */
+        public String getErrors() {
+            return new String(errors, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * @returns true if the process wrote to stderr, apart from the security warning of docker on windows
+         */
+        public boolean hasErrors() {
+            return errors.length != 0 && !getErrors().startsWith("SECURITY WARNING");
+        }
+    }
+}
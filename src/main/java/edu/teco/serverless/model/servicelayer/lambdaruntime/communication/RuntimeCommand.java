@@ -10,15 +10,30 @@ import java.util.List;
  *
  * Parameters needed for Types of commands:
  * BUILD: directory of runtimefile
- * RUN: name or identifier of an image, arguments for the call
+ * RUN: name or identifier of an image, arguments for the call - or only the arguments, if the command has a plan
  * INFO: none
  * PULL: name of the image to be pulled
  * DELETE: name or identifier of an image
+ * KILL: name of a container
+ * IMAGES: none for the ids of all images, one per line - or LABEL for the images with the label,
+ *         one per line as "id created tag" with the creation time in epoch seconds
+ * CONTAINERS: none, the containers with LABEL one per line as "name created"
+ * REMOVE_CONTAINER: name or identifier of a container
+ *
+ * Every RUN command gets a new container name, so the container can be killed when the command takes too long.
+ * The images built and the containers run by the server carry LABEL, so orphans of an earlier run can be found.
  *
  */
 public class RuntimeCommand {
+    /**
+     * label of all images and containers created by the server, its value is "true"
+     */
+    public static final String LABEL = "edu.teco.serverless.managed";
+
     private List<Parameter> parameters = new ArrayList<>();
     private CommandType type;
+    private InvocationPlan plan;
+    private String containerName;
 
     /**
      * constructor
@@ -28,6 +43,21 @@ public class RuntimeCommand {
     public RuntimeCommand(CommandType type, List<Parameter> parameters) {
         this.parameters = parameters;
         this.type = type;
+        if (type == CommandType.RUN) {
+            this.containerName = ContainerNames.next();
+        }
+    }
+
+    /**
+     * constructor of a RUN command, see InvocationPlan.command()
+     * @param plan the plan of the lambda
+     * @param arguments the arguments for the call
+     */
+    RuntimeCommand(InvocationPlan plan, List<Parameter> arguments) {
+        this.parameters = arguments;
+        this.type = CommandType.RUN;
+        this.plan = plan;
+        this.containerName = ContainerNames.next();
     }
 
     /**
@@ -43,4 +73,18 @@ public class RuntimeCommand {
 	public CommandType getType() {
 		return type;
 	}
+
+    /**
+     * @returns the plan of a RUN command, null if the image is the first parameter
+     */
+	public InvocationPlan getPlan() {
+		return plan;
+	}
+
+    /**
+     * @returns the name of the container of a RUN command, null for the other commands
+     */
+	public String getContainerName() {
+		return containerName;
+	}
 }
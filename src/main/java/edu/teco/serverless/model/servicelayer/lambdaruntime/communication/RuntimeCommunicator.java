@@ -1,28 +1,32 @@
 package edu.teco.serverless.model.servicelayer.lambdaruntime.communication;
 
-import edu.teco.serverless.model.lambda.Parameter;
+import edu.teco.serverless.metrics.Metrics;
 import org.apache.log4j.Logger;
 import org.springframework.stereotype.Component;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.File;
+import java.util.Locale;
+import java.util.ResourceBundle;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Manages the lambdaruntime - put, set and send command to execute.
+ *
+ * Commands are delivered by a RuntimeTransport, chosen by the property runtime.transport:
+ * "socket" talks to the Docker Engine API on runtime.socket.path, "cli" starts a docker process
+ * for every command. If the socket can't be reached, the CLI is used as fallback.
+ * "simulated" runs nothing and only waits for the configured latencies, see SimulatedRuntimeTransport.
  */
 @Component
 public class RuntimeCommunicator {
     final static Logger logger = Logger.getLogger(RuntimeCommunicator.class);
     private static RuntimeCommunicator instance;
+    private static String propertiesPath = "runtime";
 
-    private Runtime runtime;
+    private RuntimeTransport transport;
 
     private RuntimeCommunicator() {
-
+        transport = new CliRuntimeTransport();
     }
 
     /**
@@ -50,14 +54,68 @@ public class RuntimeCommunicator {
      * @throws RuntimeConnectException if the runtime service cannot be started or communication doesn't work
      */
     public void init() throws RuntimeConnectException {
-        runtime = Runtime.getRuntime();
+        ResourceBundle resourceBundle = ResourceBundle.getBundle(propertiesPath, Locale.ENGLISH);
 
         startRuntimeService();
-        sendTestRequest();
+        ProcessDrainer.getInstance().setMaxOutput(Integer.parseInt(getProperty(resourceBundle,
+                "runtime.output.max.bytes", Integer.toString(ProcessDrainer.DEFAULT_MAX_OUTPUT))));
+        setTransport(selectTransport(resourceBundle));
     }
 
-    private void sendTestRequest() {
+    private RuntimeTransport selectTransport(ResourceBundle resourceBundle) {
+        String type = getProperty(resourceBundle, "runtime.transport", "cli");
+        if ("simulated".equalsIgnoreCase(type)) {
+            SimulatedRuntimeTransport simulated = new SimulatedRuntimeTransport(
+                    LatencyDistribution.parse(getProperty(resourceBundle, "runtime.simulated.build", "fixed:1000")),
+                    LatencyDistribution.parse(getProperty(resourceBundle, "runtime.simulated.cold.start", "fixed:500")),
+                    LatencyDistribution.parse(getProperty(resourceBundle, "runtime.simulated.execution", "fixed:50")));
+            logger.warn(String.format("Using the simulated runtime, lambdas aren't run: cold start %s, execution %s.",
+                    simulated.getColdStart(), simulated.getExecution()));
+            return simulated;
+        }
+        if (!"socket".equalsIgnoreCase(type)) {
+            logger.info("Using docker CLI as runtime transport.");
+            return new CliRuntimeTransport();
+        }
+
+        String socketPath = getProperty(resourceBundle, "runtime.socket.path", "/var/run/docker.sock");
+        int poolSize = Integer.parseInt(getProperty(resourceBundle, "runtime.socket.pool.size", "8"));
+        if (new File(socketPath).exists()) {
+            SocketRuntimeTransport socketTransport = SocketRuntimeTransport.forUnixSocket(socketPath, poolSize);
+            if (socketTransport.ping()) {
+                logger.info(String.format("Using runtime socket %s as runtime transport.", socketPath));
+                return socketTransport;
+            }
+            socketTransport.close();
+        }
+        logger.warn(String.format("Runtime socket %s is not reachable, falling back to docker CLI.", socketPath));
+        return new CliRuntimeTransport();
+    }
+
+    private static String getProperty(ResourceBundle resourceBundle, String key, String defaultValue) {
+        return resourceBundle.containsKey(key) ? resourceBundle.getString(key).trim() : defaultValue;
+    }
+
+    /**
+     * sets the transport used to deliver commands, the previous one is closed
+     * @param transport the new transport
+     */
+    public void setTransport(RuntimeTransport transport) {
+        if (transport == null) {
+            throw new IllegalArgumentException();
+        }
+        RuntimeTransport old = this.transport;
+        this.transport = transport;
+        if (old != null && old != transport) {
+            old.close();
+        }
+    }
 
+    /**
+     * @returns the transport used to deliver commands
+     */
+    public RuntimeTransport getTransport() {
+        return transport;
     }
 
     /**
@@ -67,217 +125,40 @@ public class RuntimeCommunicator {
      * @throws RuntimeConnectException if the runtime service doesn't answer
      */
     public String executeCommand(RuntimeCommand cmd) throws RuntimeConnectException, TimeExceededException {
-        /*ProcessBuilder pb = new ProcessBuilder(generateArgsForProcess(cmd));
-        Process p;
-        try {
-            p = pb.start();
-        }
-        catch (IOException e) {
-            throw new RuntimeConnectException();
-        }
-        String output = handleProcess(p);
-        return trimOutput(cmd.getType(), output);*/
         return executeCommand(cmd, 0);
     }
 
     /**
      * sends a command to the runtime service
      * @param cmd the command
-     * @param limit the time limit for the command (if limit > 0)
+     * @param limit the time limit for the command in seconds (if limit > 0)
      * @return the result of the command
      * @throws RuntimeConnectException if the runtime service doesn't answer
      */
     public String executeCommand(RuntimeCommand cmd, int limit) throws RuntimeConnectException, TimeExceededException {
-        ProcessBuilder pb = new ProcessBuilder(generateArgsForProcess(cmd));
-        Process p;
-        try {
-            p = pb.start();
-
-            try {
-                if (limit > 0) {
-                    p.waitFor(limit, TimeUnit.SECONDS);
-                    if (p.isAlive()) {
-                        p.destroy();
-                        throw new TimeExceededException();
-                    }
-                }
-                else {
-                    p.waitFor();
-                }
-            }
-            catch (InterruptedException e) {}
-
-
-        }
-        catch (IOException e) {
-            throw new RuntimeConnectException();
-        }
-        String output = handleProcess(p);
-        return trimOutput(cmd.getType(), output);
-    }
-
-    // method to extract relevant information out of the output of the runtime
-    private String trimOutput(CommandType type, String output) {
-        switch (type) {
-            case BUILD:
-                // extract image id
-                final String search = "Successfully built ";
-                int index = output.indexOf(search);
-                return output.substring(index + search.length(), output.indexOf("\n", index));
-
-            default:
-                return output;
-        }
-    }
-
-    private List<String> generateArgsForProcess(RuntimeCommand cmd) {
-        List<String> args = new ArrayList<String>();
-
-        // Support for Windows Systems
-       // if (System.getProperty("os.name").toLowerCase().contains("windows")) {
-
-
-         // args.add("C:\\Program Files\\Docker Toolbox\\docker.exe");
-      // }
-
-        // docker command and sub-command
-        args.add("docker");
-        args.add(cmd.getType().toString());
-
-        // set options for the call
-        switch (cmd.getType()) {
-            case BUILD:
-                args.add("-t");
-                args.add(cmd.getParameters().get(0).getParameter());
-                args.add("-f");     // Dockerfile not in current directory
-                args.add(cmd.getParameters().get(1).getParameter());
-                args.add(".");
-                break;
-            case RUN:
-                args.add("--rm");   // remove container after run
-                args.add("-i");
-                copyArgs(args, cmd.getParameters());
-                break;
-
-            case REMOVE:
-                args.add("-f");     // force removal
-                copyArgs(args, cmd.getParameters());
-                break;
-
-            case PULL:
-            case INFO:
-                copyArgs(args, cmd.getParameters());
-            default:
-                break;
-        }
-
-        return args;
+        return executeCommand(cmd, limit, TimeUnit.SECONDS);
     }
 
-    private void copyArgs(List<String> target, List<Parameter> source) {
-        for (Parameter par : source) {
-            target.add(par.getParameter());
-        }
-    }
-
-    private String handleProcess(Process p) throws RuntimeConnectException {
-        BufferedReader stdout = new BufferedReader(new InputStreamReader(p.getInputStream()));
-        BufferedReader stderr = new BufferedReader(new InputStreamReader(p.getErrorStream()));
-        StringBuilder sbOut = new StringBuilder();
-        StringBuilder sbErr = new StringBuilder();
-        String lineStdout;
-        String lineStderr;
-
-        try {
-            /*while ((lineStdout = stdout.readLine()) != null | (lineStderr = stderr.readLine()) != null) {
-                sbOut.append(lineStdout != null ? lineStdout + "\n" : "");
-                sbErr.append(lineStderr != null ? lineStderr + "\n" : "");
-            }*/
-            while ((lineStdout = stdout.readLine()) != null) {
-                sbOut.append(lineStdout + "\n");
-            }
-            while ((lineStderr = stderr.readLine()) != null) {
-                sbErr.append(lineStderr + "\n");
-            }
-        }
-        catch (IOException e) {
-            throw new RuntimeConnectException("error while reading runtime output");
-        }
-
-        if (sbErr.length() != 0 && !sbErr.toString().startsWith("SECURITY WARNING")) {
-            throw new RuntimeConnectException(sbErr.toString());
-        }
-        logger.info("handleProcess succeeded.");
-        try {
-            p.waitFor();
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-
-        return sbOut.toString();
-    }
-
-
-
-
-
-    /*
-    This way of communicating with the socket doesn't work. The special socket /var/run/docker.sock
-    is needed, which is not natively supported by Java
-
-    private HttpURLConnection con;
-    private OutputStreamWriter runtimeWriter;
-    private BufferedReader runtimeReader;
-
-    public void init() throws RuntimeConnectException {
-        startRuntimeService();
-
-        // open the connection the docker daemon
+    /**
+     * sends a command to the runtime service
+     * @param cmd the command
+     * @param limit the time limit for the command (if limit > 0)
+     * @param unit the unit of the limit
+     * @return the result of the command
+     * @throws RuntimeConnectException if the runtime service doesn't answer
+     * @throws TimeExceededException if the command takes longer than the limit, a RUN command's container is killed
+     */
+    public String executeCommand(RuntimeCommand cmd, long limit, TimeUnit unit) throws RuntimeConnectException,
+            TimeExceededException {
+        String type = String.valueOf(cmd.getType());
+        long start = System.nanoTime();
         try {
-            URL url = new URL(RUNTIME_URL);
-            con = (HttpURLConnection) url.openConnection();
-            con.setRequestMethod("POST");
-            con.setRequestProperty("Content-Type", "application/json");
-            runtimeWriter = new OutputStreamWriter(con.getOutputStream());
-            runtimeReader = new BufferedReader(new InputStreamReader(con.getInputStream()));
-        }
-        catch (IOException e) {
-            // catch the IOException and throw a RuntimeConnectException instead
-            throw new RuntimeConnectException();
+            return transport.execute(cmd, limit, unit);
+        } catch (RuntimeConnectException | TimeExceededException e) {
+            Metrics.commandErrors(type).increment();
+            throw e;
+        } finally {
+            Metrics.command(type).recordSince(start);
         }
-
-        sendTestRequest();
-    }
-
-    private void sendTestRequest() throws RuntimeConnectException {
-        RuntimeCommand command = new RuntimeCommand(CommandType.INFO);
-        String result = executeCommand(command);
-        if (!result.startsWith("Containers")) {
-            throw new RuntimeConnectException("can't send test request to runtime");
-        }
-    }
-
-    private String convertCommand(RuntimeCommand cmd) {
-        switch (cmd.getType()) {
-            case BUILD:
-                break;
-            case RUN:
-                break;
-            default:
-        }
-
-        return "";
     }
-
-    public String executeCommand(RuntimeCommand cmd) {
-	    String result = "";
-	    try {
-		    runtimeWriter.write(convertCommand(cmd));
-		    result = runtimeReader.readLine();
-	    } catch (IOException e) {
-		    e.printStackTrace();
-	    }
-	    
-        return result;
-    }*/
 }
@@ -0,0 +1,39 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.communication;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A way of delivering commands to the runtime service, e.g. through the docker CLI or
+ * directly through the Docker Engine API.
+ */
+public interface RuntimeTransport {
+
+    /**
+     * executes a command on the runtime service
+     * @param cmd the command
+     * @param limit the time limit for the command in seconds (if limit > 0)
+     * @return the result of the command, for BUILD the id of the built image
+     * @throws RuntimeConnectException if the runtime service doesn't answer or reports an error
+     * @throws TimeExceededException if the command takes longer than the limit
+     */
+    default String execute(RuntimeCommand cmd, int limit) throws RuntimeConnectException, TimeExceededException {
+        return execute(cmd, limit, TimeUnit.SECONDS);
+    }
+
+    /**
+     * executes a command on the runtime service, the container of a RUN command is killed when it exceeds the limit
+     * @param cmd the command
+     * @param limit the time limit for the command (if limit > 0)
+     * @param unit the unit of the limit, it is enforced in milliseconds
+     * @return the result of the command, for BUILD the id of the built image
+     * @throws RuntimeConnectException if the runtime service doesn't answer or reports an error
+     * @throws TimeExceededException if the command takes longer than the limit
+     */
+    String execute(RuntimeCommand cmd, long limit, TimeUnit unit) throws RuntimeConnectException,
+            TimeExceededException;
+
+    /**
+     * releases the resources held by the transport, e.g. open connections
+     */
+    void close();
+}
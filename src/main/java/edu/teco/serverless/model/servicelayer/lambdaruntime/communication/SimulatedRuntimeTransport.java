@@ -0,0 +1,108 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.communication;
+
+import edu.teco.serverless.model.lambda.Parameter;
+import org.apache.log4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates the runtime service in the process, so the API, the authentication and the scheduling
+ * can be load tested on a machine without docker.
+ *
+ * Nothing is built or run: BUILD waits for a sample of the build latency and returns a made-up image id,
+ * RUN waits for a cold start and an execution and prints its arguments separated by spaces.
+ * REMOVE, PULL, KILL and REMOVE_CONTAINER do nothing, there are no CONTAINERS left over.
+ * IMAGES fails, so the journaled lambdas are kept on a restart and no image is taken for an orphan.
+ */
+public class SimulatedRuntimeTransport implements RuntimeTransport {
+    final static Logger logger = Logger.getLogger(SimulatedRuntimeTransport.class);
+
+    private final LatencyDistribution build;
+    private final LatencyDistribution coldStart;
+    private final LatencyDistribution execution;
+
+    /**
+     * constructor
+     * @param build the time an image takes to build
+     * @param coldStart the time a container takes to start
+     * @param execution the time a lambda takes to run in a started container
+     */
+    public SimulatedRuntimeTransport(LatencyDistribution build, LatencyDistribution coldStart,
+                                     LatencyDistribution execution) {
+        if (build == null || coldStart == null || execution == null) {
+            throw new IllegalArgumentException();
+        }
+        this.build = build;
+        this.coldStart = coldStart;
+        this.execution = execution;
+    }
+
+    @Override
+    public String execute(RuntimeCommand cmd, long limit, TimeUnit unit) throws RuntimeConnectException,
+            TimeExceededException {
+        long limitMillis = unit.toMillis(limit);
+        switch (cmd.getType()) {
+            case BUILD:
+                simulate(build.sample(), limitMillis);
+                return String.format("sim%012x", ThreadLocalRandom.current().nextLong() & 0xffffffffffffL);
+            case RUN:
+                simulate(coldStart.sample() + execution.sample(), limitMillis);
+                // the first parameter is the image, unless the command has a plan
+                return echo(cmd.getParameters(), cmd.getPlan() == null ? 1 : 0);
+            case REMOVE:
+            case PULL:
+            case KILL:
+            case REMOVE_CONTAINER:
+            case CONTAINERS:
+                return "";
+            case INFO:
+                return "simulated runtime";
+            default:
+                throw new RuntimeConnectException("the simulated runtime doesn't list " + cmd.getType());
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * @returns the time a container takes to start
+     */
+    public LatencyDistribution getColdStart() {
+        return coldStart;
+    }
+
+    /**
+     * @returns the time a lambda takes to run in a started container
+     */
+    public LatencyDistribution getExecution() {
+        return execution;
+    }
+
+    private static String echo(List<Parameter> parameters, int first) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = first; i < parameters.size(); i++) {
+            if (i > first) {
+                sb.append(' ');
+            }
+            sb.append(parameters.get(i).getParameter());
+        }
+        return sb.append('\n').toString();
+    }
+
+    private static void simulate(long millis, long limit) throws RuntimeConnectException, TimeExceededException {
+        boolean exceeded = limit > 0 && millis > limit;
+        try {
+            Thread.sleep(exceeded ? limit : millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeConnectException("interrupted while waiting for the simulated runtime");
+        }
+        if (exceeded) {
+            throw new TimeExceededException();
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.communication;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.teco.serverless.metrics.Metrics;
+import edu.teco.serverless.model.lambda.Parameter;
+import org.apache.log4j.Logger;
+import org.newsclub.net.unix.AFUNIXSocket;
+import org.newsclub.net.unix.AFUNIXSocketAddress;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.SocketTimeoutException;
+import java.net.URLEncoder;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes commands through the Docker Engine API, talking HTTP directly to the socket of the daemon
+ * instead of starting a docker CLI process for every command.
+ */
+public class SocketRuntimeTransport implements RuntimeTransport {
+    final static Logger logger = Logger.getLogger(SocketRuntimeTransport.class);
+    private static final String JSON = "application/json";
+
+    private final DockerHttpClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * constructor
+     * @param client the client used to talk to the daemon
+     */
+    public SocketRuntimeTransport(DockerHttpClient client) {
+        this.client = client;
+    }
+
+    /**
+     * creates a transport for the unix socket of a local docker daemon
+     * @param socketPath path of the socket, e.g. /var/run/docker.sock
+     * @param poolSize maximum number of idle connections kept open
+     * @return the transport
+     */
+    public static SocketRuntimeTransport forUnixSocket(String socketPath, int poolSize) {
+        final File socketFile = new File(socketPath);
+        return new SocketRuntimeTransport(new DockerHttpClient(
+                () -> AFUNIXSocket.connectTo(new AFUNIXSocketAddress(socketFile)), poolSize));
+    }
+
+    /**
+     * checks if the daemon answers
+     * @return true if the daemon could be reached
+     */
+    public boolean ping() {
+        try {
+            DockerHttpResponse response = client.execute("GET", "/_ping", null, null, 0);
+            return response.isSuccessful();
+        } catch (IOException | RuntimeException | LinkageError e) {
+            logger.debug("Ping of the runtime socket failed.", e);
+            return false;
+        }
+    }
+
+    @Override
+    public String execute(RuntimeCommand cmd, long limit, TimeUnit unit) throws RuntimeConnectException,
+            TimeExceededException {
+        List<Parameter> params = cmd.getParameters();
+        // the limit of the wait for the container, as timeout of the socket
+        int limitMillis = (int) Math.min(Integer.MAX_VALUE, unit.toMillis(limit));
+        try {
+            switch (cmd.getType()) {
+                case BUILD:
+                    return build(params.get(0).getParameter(), new File(params.get(1).getParameter()));
+                case RUN:
+                    if (cmd.getPlan() != null) {
+                        return run(cmd.getPlan().getImageId(), cmd.getContainerName(), params, limitMillis);
+                    }
+                    return run(params.get(0).getParameter(), cmd.getContainerName(), params.subList(1, params.size()),
+                            limitMillis);
+                case REMOVE:
+                    for (Parameter par : params) {
+                        expectSuccess(client.execute("DELETE", "/images/" + par.getParameter() + "?force=1",
+                                null, null, 0));
+                    }
+                    return "";
+                case PULL:
+                    return pull(params.get(0).getParameter());
+                case KILL:
+                    expectSuccess(client.execute("POST", "/containers/" + encode(params.get(0).getParameter())
+                            + "/kill", null, null, 0));
+                    return "";
+                case INFO:
+                    return expectSuccess(client.execute("GET", "/info", null, null, 0)).getBodyAsString();
+                case IMAGES:
+                    return params.isEmpty() ? images() : images(params.get(0).getParameter());
+                case CONTAINERS:
+                    return containers();
+                case REMOVE_CONTAINER:
+                    expectSuccess(client.execute("DELETE", "/containers/" + encode(params.get(0).getParameter())
+                            + "?force=1", null, null, 0));
+                    return "";
+                default:
+                    throw new IllegalArgumentException();
+            }
+        } catch (IOException e) {
+            throw new RuntimeConnectException("error while communicating with the runtime: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    private String build(String tag, File dockerfile) throws IOException, RuntimeConnectException {
+        // send only the directory of the Dockerfile
+        String labels = mapper.writeValueAsString(mapper.createObjectNode().put(RuntimeCommand.LABEL, "true"));
+        String path = "/build?rm=1&forcerm=1&t=" + encode(tag) + "&dockerfile=" + encode(BuildContext.getPath(dockerfile))
+                + "&labels=" + encode(labels);
+        DockerHttpResponse response = client.execute("POST", path, "application/x-tar",
+                out -> BuildContext.write(dockerfile, out), 0);
+        expectSuccess(response);
+
+        String imageId = null;
+        for (String line : response.getBodyAsString().split("\n")) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            JsonNode message = mapper.readTree(line);
+            if (message.has("error")) {
+                throw new RuntimeConnectException(message.get("error").asText());
+            }
+            final String search = "Successfully built ";
+            String stream = message.path("stream").asText("");
+            int index = stream.indexOf(search);
+            if (index >= 0) {
+                imageId = stream.substring(index + search.length()).trim();
+            } else if (imageId == null && message.path("aux").has("ID")) {
+                imageId = shortId(message.path("aux").get("ID").asText());
+            }
+        }
+        if (imageId == null) {
+            throw new RuntimeConnectException("runtime returned no image id");
+        }
+        return imageId;
+    }
+
+    private String run(String image, String name, List<Parameter> arguments, int limit) throws IOException,
+            RuntimeConnectException, TimeExceededException {
+        ObjectNode config = mapper.createObjectNode();
+        config.put("Image", image);
+        ArrayNode args = config.putArray("Cmd");
+        for (Parameter par : arguments) {
+            args.add(par.getParameter());
+        }
+        config.put("AttachStdout", true);
+        config.put("AttachStderr", true);
+        config.putObject("Labels").put(RuntimeCommand.LABEL, "true");
+        final byte[] body = mapper.writeValueAsBytes(config);
+
+        String path = name == null ? "/containers/create" : "/containers/create?name=" + encode(name);
+        DockerHttpResponse created = expectSuccess(client.execute("POST", path, JSON, out -> out.write(body), 0));
+        String id = mapper.readTree(created.getBody()).get("Id").asText();
+        boolean exceeded = false;
+        try {
+            expectSuccess(client.execute("POST", "/containers/" + id + "/start", null, null, 0));
+            try {
+                expectSuccess(client.execute("POST", "/containers/" + id + "/wait", null, null, limit));
+            } catch (SocketTimeoutException e) {
+                exceeded = true;
+                throw new TimeExceededException();
+            }
+            // the logs are capped like the output of the cli, the read stops at the maximum
+            LogDemultiplexer logs = new LogDemultiplexer(ProcessDrainer.getInstance().getMaxOutput());
+            try {
+                expectSuccess(client.execute("GET", "/containers/" + id + "/logs?stdout=1&stderr=1", null, null,
+                        0, logs));
+            } catch (IOException e) {
+                if (!logs.isExceeded()) {
+                    throw e;
+                }
+                logger.debug(String.format("Output of a container exceeded the maximum of %d bytes.",
+                        logs.getMaxOutput()));
+                throw new RuntimeConnectException(e.getMessage());
+            }
+            return logs.getOutput();
+        } finally {
+            // a running container is killed by the forced removal
+            ContainerKiller killer = exceeded && name != null ? ContainerKiller.getInstance() : null;
+            if (killer != null) {
+                killer.killStarted(name);
+            }
+            long start = System.nanoTime();
+            try {
+                client.execute("DELETE", "/containers/" + id + "?force=1", null, null, 0);
+                if (exceeded) {
+                    Metrics.containerKill("killed").recordSince(start);
+                }
+            } catch (IOException e) {
+                if (exceeded) {
+                    Metrics.containerKill("failed").recordSince(start);
+                }
+                logger.warn(String.format("Container %s could not be removed.", id), e);
+            } finally {
+                if (killer != null) {
+                    killer.killFinished(name);
+                }
+            }
+        }
+    }
+
+    // the short ids of all images, one per line like "docker images -q"
+    private String images() throws IOException, RuntimeConnectException {
+        DockerHttpResponse response = expectSuccess(client.execute("GET", "/images/json", null, null, 0));
+        StringBuilder sb = new StringBuilder();
+        for (JsonNode image : mapper.readTree(response.getBody())) {
+            sb.append(shortId(image.path("Id").asText())).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // the images with the label, one line per tag as "id created tag"
+    private String images(String label) throws IOException, RuntimeConnectException {
+        DockerHttpResponse response = expectSuccess(client.execute("GET", "/images/json?filters="
+                + encode(labelFilter(label)), null, null, 0));
+        StringBuilder sb = new StringBuilder();
+        for (JsonNode image : mapper.readTree(response.getBody())) {
+            String prefix = shortId(image.path("Id").asText()) + " " + image.path("Created").asLong();
+            JsonNode tags = image.path("RepoTags");
+            if (tags.size() == 0) {
+                sb.append(prefix).append(" <none>:<none>\n");
+            }
+            for (JsonNode tag : tags) {
+                sb.append(prefix).append(' ').append(tag.asText()).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    // the containers of the server, one per line as "name created"
+    private String containers() throws IOException, RuntimeConnectException {
+        DockerHttpResponse response = expectSuccess(client.execute("GET", "/containers/json?all=1&filters="
+                + encode(labelFilter(RuntimeCommand.LABEL)), null, null, 0));
+        StringBuilder sb = new StringBuilder();
+        for (JsonNode container : mapper.readTree(response.getBody())) {
+            String name = container.path("Names").path(0).asText(container.path("Id").asText());
+            // the names of the API start with a slash
+            sb.append(name.startsWith("/") ? name.substring(1) : name).append(' ')
+                    .append(container.path("Created").asLong()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private String labelFilter(String label) throws IOException {
+        ObjectNode filters = mapper.createObjectNode();
+        filters.putArray("label").add(label);
+        return mapper.writeValueAsString(filters);
+    }
+
+    private String pull(String image) throws IOException, RuntimeConnectException {
+        String name = image;
+        String tag = "latest";
+        int colon = image.lastIndexOf(':');
+        if (colon > image.lastIndexOf('/')) {
+            name = image.substring(0, colon);
+            tag = image.substring(colon + 1);
+        }
+        DockerHttpResponse response = expectSuccess(client.execute("POST",
+                "/images/create?fromImage=" + encode(name) + "&tag=" + encode(tag), null, null, 0));
+        return response.getBodyAsString();
+    }
+
+    private DockerHttpResponse expectSuccess(DockerHttpResponse response) throws RuntimeConnectException {
+        if (!response.isSuccessful()) {
+            String message = response.getBodyAsString();
+            try {
+                JsonNode error = mapper.readTree(message);
+                if (error != null && error.has("message")) {
+                    message = error.get("message").asText();
+                }
+            } catch (IOException e) {
+                // not a json error, keep the raw body
+            }
+            throw new RuntimeConnectException(message);
+        }
+        return response;
+    }
+
+    private static String shortId(String id) {
+        String hash = id.startsWith("sha256:") ? id.substring("sha256:".length()) : id;
+        return hash.length() > 12 ? hash.substring(0, 12) : hash;
+    }
+
+    private static String encode(String value) throws UnsupportedEncodingException {
+        return URLEncoder.encode(value, "UTF-8");
+    }
+}
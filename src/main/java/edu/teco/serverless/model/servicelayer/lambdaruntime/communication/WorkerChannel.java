@@ -0,0 +1,201 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.communication;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the stdin/stdout stream of a worker in a container open and sends calls over it.
+ *
+ * Requests and responses are frames of a 4 byte big-endian length followed by UTF-8 JSON, see
+ * workers/python3-worker.py. Every request carries an id and the response is matched by it,
+ * so several threads can have calls on the same channel at once.
+ */
+public class WorkerChannel {
+    final static Logger logger = Logger.getLogger(WorkerChannel.class);
+    private static final int MAX_FRAME = 64 * 1024 * 1024;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final Map<Long, CompletableFuture<Response>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * constructor, starts reading the responses
+     * @param responses stdout of the worker
+     * @param requests stdin of the worker
+     */
+    public WorkerChannel(InputStream responses, OutputStream requests) {
+        this.in = new DataInputStream(responses);
+        this.out = new DataOutputStream(new BufferedOutputStream(requests));
+        Thread reader = new Thread(this::readResponses, "worker-channel");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * runs a call in the worker
+     * @param arguments the arguments of the call
+     * @param limit the time limit in seconds (if limit > 0)
+     * @return the response of the worker
+     * @throws RuntimeConnectException if the channel is closed or broken
+     * @throws TimeExceededException if the worker doesn't answer within the limit
+     */
+    public Response call(List<String> arguments, int limit) throws RuntimeConnectException, TimeExceededException {
+        return call(arguments, limit, TimeUnit.SECONDS);
+    }
+
+    /**
+     * runs a call in the worker
+     * @param arguments the arguments of the call
+     * @param limit the time limit (if limit > 0)
+     * @param unit the unit of the limit
+     * @return the response of the worker
+     * @throws RuntimeConnectException if the channel is closed or broken
+     * @throws TimeExceededException if the worker doesn't answer within the limit
+     */
+    public Response call(List<String> arguments, long limit, TimeUnit unit) throws RuntimeConnectException,
+            TimeExceededException {
+        long id = nextId.incrementAndGet();
+        CompletableFuture<Response> response = new CompletableFuture<>();
+        pending.put(id, response);
+        try {
+            ObjectNode request = mapper.createObjectNode();
+            request.put("id", id);
+            ArrayNode args = request.putArray("args");
+            for (String argument : arguments) {
+                args.add(argument);
+            }
+            byte[] frame = mapper.writeValueAsBytes(request);
+            synchronized (out) {
+                if (closed) {
+                    throw new RuntimeConnectException("worker channel is closed");
+                }
+                out.writeInt(frame.length);
+                out.write(frame);
+                out.flush();
+            }
+
+            return limit > 0 ? response.get(limit, unit) : response.get();
+        } catch (IOException e) {
+            close();
+            throw new RuntimeConnectException("error while communicating with the worker: " + e.getMessage());
+        } catch (TimeoutException e) {
+            throw new TimeExceededException();
+        } catch (ExecutionException e) {
+            throw new RuntimeConnectException("worker failed: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeConnectException("interrupted while waiting for the worker");
+        } finally {
+            pending.remove(id);
+        }
+    }
+
+    /**
+     * @returns true if calls can be sent over the channel
+     */
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * @returns the number of calls waiting for a response
+     */
+    public int getPendingCalls() {
+        return pending.size();
+    }
+
+    /**
+     * closes the channel, the worker exits when its stdin is closed
+     */
+    public void close() {
+        closed = true;
+        synchronized (out) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                logger.debug("Closing worker channel failed.", e);
+            }
+        }
+        failPending(new EOFException("worker channel is closed"));
+    }
+
+    private void readResponses() {
+        try {
+            while (true) {
+                int length = in.readInt();
+                if (length < 0 || length > MAX_FRAME) {
+                    throw new IOException("invalid frame length " + length);
+                }
+                byte[] frame = new byte[length];
+                in.readFully(frame);
+                JsonNode message = mapper.readTree(frame);
+                CompletableFuture<Response> response = pending.get(message.path("id").asLong());
+                if (response != null) {
+                    response.complete(new Response(message.path("stdout").asText(""),
+                            message.path("stderr").asText("")));
+                }
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                logger.debug("Worker channel was closed by the worker.", e);
+            }
+            closed = true;
+            failPending(e);
+        }
+    }
+
+    private void failPending(IOException cause) {
+        for (CompletableFuture<Response> response : pending.values()) {
+            response.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Output of a call.
+     */
+    public static class Response {
+        private final String output;
+        private final String error;
+
+        public Response(String output, String error) {
+            this.output = output;
+            this.error = error;
+        }
+
+        /**
+         * @returns what the lambda wrote to stdout
+         */
+        public String getOutput() {
+            return output;
+        }
+
+        /**
+         * @returns what the lambda wrote to stderr
+         */
+        public String getError() {
+            return error;
+        }
+    }
+}
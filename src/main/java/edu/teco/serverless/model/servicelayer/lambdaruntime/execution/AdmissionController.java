@@ -0,0 +1,397 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.execution;
+
+import edu.teco.serverless.metrics.Metrics;
+import edu.teco.serverless.model.exception.execution.ConcurrencyLimitException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounds the containers running at once, for every lambda and for the whole server.
+ *
+ * An execution takes one slot per container it may run at once, i.e. its parallelism, clamped to the limits.
+ * If there are not enough free slots, it waits until others finish - but at most maxWait milliseconds and
+ * only if fewer than queueCapacity executions are already waiting; otherwise it is rejected at once, so a spike
+ * on one lambda doesn't tie up the threads of the server.
+ *
+ * The limit of a lambda is the one set by an administrator, else its ExecutionAttributes.getMaxConcurrency(),
+ * else the default. Limits can be changed at any time, waiting executions see the new limits.
+ */
+public class AdmissionController {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final Map<String, LambdaSlots> lambdas = new HashMap<>();
+    private final int queueCapacity;
+    private final long maxWait;
+    private final int retryAfter;
+    private int globalLimit;
+    private int defaultLambdaLimit;
+    private int active;
+    private int waiting;
+    private long admitted;
+    private long rejected;
+
+    /**
+     * constructor
+     * @param globalLimit maximum number of slots taken at once
+     * @param defaultLambdaLimit maximum number of slots a lambda without an own limit takes at once
+     * @param queueCapacity maximum number of waiting executions, further ones are rejected
+     * @param maxWait the time in milliseconds an execution waits for slots at most
+     * @param retryAfter the time in seconds rejected clients are told to wait
+     */
+    public AdmissionController(int globalLimit, int defaultLambdaLimit, int queueCapacity, long maxWait,
+                               int retryAfter) {
+        if (globalLimit < 1 || defaultLambdaLimit < 1 || queueCapacity < 0 || maxWait < 0 || retryAfter < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.globalLimit = globalLimit;
+        this.defaultLambdaLimit = defaultLambdaLimit;
+        this.queueCapacity = queueCapacity;
+        this.maxWait = maxWait;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * takes slots for an execution, the permit has to be closed when it is finished
+     * @param lambda the name of the lambda
+     * @param ownLimit the limit of the lambda from its execution attributes, 0 if it has none
+     * @param slots the slots the execution asks for, at least 1
+     * @return the permit, its getSlots() may be less than asked for
+     * @throws ConcurrencyLimitException if the execution can't be admitted in time
+     */
+    public Permit acquire(String lambda, int ownLimit, int slots) {
+        long start = System.nanoTime();
+        int granted;
+        lock.lock();
+        try {
+            LambdaSlots state = lambdas.get(lambda);
+            if (state == null) {
+                state = new LambdaSlots();
+                lambdas.put(lambda, state);
+            }
+            state.ownLimit = ownLimit;
+            granted = grantable(state, slots);
+            if (active + granted > globalLimit || state.active + granted > limitOf(state)) {
+                if (waiting >= queueCapacity || maxWait == 0) {
+                    removeIfIdle(lambda, state);
+                    throw reject(lambda, "queue", "too many executions are waiting");
+                }
+                waiting++;
+                state.waiting++;
+                boolean free = false;
+                try {
+                    long remaining = TimeUnit.MILLISECONDS.toNanos(maxWait);
+                    while (active + granted > globalLimit || state.active + granted > limitOf(state)) {
+                        if (remaining <= 0) {
+                            throw reject(lambda, "timeout", "no slot became free in time");
+                        }
+                        remaining = released.awaitNanos(remaining);
+                        granted = grantable(state, slots);
+                    }
+                    free = true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw reject(lambda, "interrupted", "interrupted while waiting for a slot");
+                } finally {
+                    waiting--;
+                    state.waiting--;
+                    if (!free) {
+                        removeIfIdle(lambda, state);
+                    }
+                }
+            }
+            active += granted;
+            state.active += granted;
+            admitted++;
+        } finally {
+            lock.unlock();
+        }
+        Metrics.admissionWait(lambda).recordSince(start);
+        return new Permit(lambda, granted);
+    }
+
+    private int grantable(LambdaSlots state, int slots) {
+        return Math.max(1, Math.min(slots, Math.min(limitOf(state), globalLimit)));
+    }
+
+    private ConcurrencyLimitException reject(String lambda, String reason, String message) {
+        rejected++;
+        Metrics.admissionRejections(lambda, reason).increment();
+        return new ConcurrencyLimitException(message, retryAfter);
+    }
+
+    private void release(String lambda, int slots) {
+        lock.lock();
+        try {
+            LambdaSlots state = lambdas.get(lambda);
+            active -= slots;
+            if (state != null) {
+                state.active -= slots;
+                removeIfIdle(lambda, state);
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeIfIdle(String lambda, LambdaSlots state) {
+        if (state.active == 0 && state.waiting == 0 && state.adminLimit == 0) {
+            lambdas.remove(lambda);
+        }
+    }
+
+    private int limitOf(LambdaSlots state) {
+        if (state.adminLimit > 0) {
+            return state.adminLimit;
+        }
+        return state.ownLimit > 0 ? state.ownLimit : defaultLambdaLimit;
+    }
+
+    /**
+     * @param globalLimit the new maximum number of slots taken at once
+     */
+    public void setGlobalLimit(int globalLimit) {
+        if (globalLimit < 1) {
+            throw new IllegalArgumentException();
+        }
+        lock.lock();
+        try {
+            this.globalLimit = globalLimit;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param defaultLambdaLimit the new limit of lambdas without an own limit
+     */
+    public void setDefaultLambdaLimit(int defaultLambdaLimit) {
+        if (defaultLambdaLimit < 1) {
+            throw new IllegalArgumentException();
+        }
+        lock.lock();
+        try {
+            this.defaultLambdaLimit = defaultLambdaLimit;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * sets the limit of a lambda, it takes precedence over the limit given at upload
+     * @param lambda the name of the lambda
+     * @param limit the new limit, 0 to remove it
+     */
+    public void setLambdaLimit(String lambda, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException();
+        }
+        lock.lock();
+        try {
+            LambdaSlots state = lambdas.get(lambda);
+            if (state == null) {
+                state = new LambdaSlots();
+                lambdas.put(lambda, state);
+            }
+            state.adminLimit = limit;
+            removeIfIdle(lambda, state);
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @returns the maximum number of slots taken at once
+     */
+    public int getGlobalLimit() {
+        lock.lock();
+        try {
+            return globalLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @returns the limit of lambdas without an own limit
+     */
+    public int getDefaultLambdaLimit() {
+        lock.lock();
+        try {
+            return defaultLambdaLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @returns the number of slots taken
+     */
+    public int getActive() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @returns the number of waiting executions
+     */
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @returns the number of admitted executions since the start
+     */
+    public long getAdmitted() {
+        lock.lock();
+        try {
+            return admitted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @returns the number of rejected executions since the start
+     */
+    public long getRejected() {
+        lock.lock();
+        try {
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @returns the lambdas, that run or wait for executions or have a limit set by an administrator
+     */
+    public List<LambdaInfo> getLambdas() {
+        lock.lock();
+        try {
+            List<LambdaInfo> infos = new ArrayList<>();
+            for (Map.Entry<String, LambdaSlots> entry : lambdas.entrySet()) {
+                LambdaSlots state = entry.getValue();
+                infos.add(new LambdaInfo(entry.getKey(), limitOf(state), state.adminLimit > 0, state.active,
+                        state.waiting));
+            }
+            return infos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Slots of a lambda, guarded by the lock.
+     */
+    private static final class LambdaSlots {
+        int active;
+        int waiting;
+        int ownLimit;
+        int adminLimit;
+    }
+
+    /**
+     * Slots taken by an execution, they are given back by close().
+     */
+    public final class Permit implements AutoCloseable {
+        private final String lambda;
+        private final int slots;
+        private boolean closed;
+
+        private Permit(String lambda, int slots) {
+            this.lambda = lambda;
+            this.slots = slots;
+        }
+
+        /**
+         * @returns the number of containers the execution may run at once
+         */
+        public int getSlots() {
+            return slots;
+        }
+
+        /**
+         * gives the slots back, further calls do nothing
+         */
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                release(lambda, slots);
+            }
+        }
+    }
+
+    /**
+     * Limit and slots of a lambda.
+     */
+    public static final class LambdaInfo {
+        private final String name;
+        private final int limit;
+        private final boolean adminLimit;
+        private final int active;
+        private final int waiting;
+
+        LambdaInfo(String name, int limit, boolean adminLimit, int active, int waiting) {
+            this.name = name;
+            this.limit = limit;
+            this.adminLimit = adminLimit;
+            this.active = active;
+            this.waiting = waiting;
+        }
+
+        /**
+         * @returns the name of the lambda
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @returns the limit of the lambda
+         */
+        public int getLimit() {
+            return limit;
+        }
+
+        /**
+         * @returns true if the limit was set by an administrator
+         */
+        public boolean isAdminLimit() {
+            return adminLimit;
+        }
+
+        /**
+         * @returns the number of slots taken by the lambda
+         */
+        public int getActive() {
+            return active;
+        }
+
+        /**
+         * @returns the number of waiting executions of the lambda
+         */
+        public int getWaiting() {
+            return waiting;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.execution;
+
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.InvocationPlan;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.images.LambdaImage;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Starts a container of an image with a command in place of its entrypoint,
+ * see LambdaImage.getWarmStartCommand() and LambdaImage.getWorkerCommand(), or with its own entrypoint.
+ */
+public interface ContainerLauncher {
+
+    /**
+     * starts a container, that waits for calls on its stdin
+     * @param image the image of the lambda
+     * @param command the command with the executable as first element
+     * @return the process attached to the container
+     * @throws IOException if the container can't be started
+     */
+    Process launch(LambdaImage image, List<String> command) throws IOException;
+
+    /**
+     * starts a container with the entrypoint of its image, like a RUN command
+     * @param plan the plan of the lambda
+     * @param arguments the arguments of the lambda
+     * @return the process attached to the container
+     * @throws IOException if the container can't be started
+     */
+    Process run(InvocationPlan plan, List<String> arguments) throws IOException;
+}
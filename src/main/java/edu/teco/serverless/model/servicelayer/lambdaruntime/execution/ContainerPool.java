@@ -0,0 +1,310 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.execution;
+
+import edu.teco.serverless.metrics.Metrics;
+import edu.teco.serverless.model.lambda.Identifier;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.LambdaImageListener;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.images.LambdaImage;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps started, idle containers for every lambda, so a call doesn't have to wait for a container to start.
+ *
+ * The pool of a lambda is created by its first call and then holds at least minIdle idle containers,
+ * but never more than maxContainers idle and busy containers. A pool that isn't used for idleTtl
+ * milliseconds is shut down; pools are evicted when the image of their lambda is rebuilt or removed.
+ *
+ * In worker mode the containers run the worker of their image and go back to the pool after a call,
+ * otherwise every container serves a single call. The containers are instances in an InstanceRegistry:
+ * STARTING while they are launched, IDLE in the pool, RUNNING during a call and KILLING while they are stopped.
+ */
+public class ContainerPool implements LambdaImageListener {
+    final static Logger logger = Logger.getLogger(ContainerPool.class);
+    private static final long MAINTENANCE_INTERVAL = 1000;
+
+    private final ContainerLauncher launcher;
+    private final int minIdle;
+    private final int maxContainers;
+    private final long idleTtl;
+    private final boolean workers;
+    private final Map<Identifier, LambdaPool> pools = new ConcurrentHashMap<>();
+    private final InstanceRegistry registry;
+    // launches containers and maintains the pools
+    private final ScheduledExecutorService scheduler;
+    // enforces the time limits of calls, separate so a launch can't delay a kill
+    private final ScheduledExecutorService watchdog;
+
+    /**
+     * constructor
+     * @param launcher starts the containers
+     * @param minIdle number of idle containers kept for a lambda in use
+     * @param maxContainers maximum number of containers of a lambda
+     * @param idleTtl time in milliseconds after which the containers of an unused lambda are stopped
+     * @param workers true if containers should run workers, if the image has one
+     */
+    public ContainerPool(ContainerLauncher launcher, int minIdle, int maxContainers, long idleTtl, boolean workers) {
+        this(launcher, minIdle, maxContainers, idleTtl, workers, new InstanceRegistry());
+    }
+
+    /**
+     * constructor
+     * @param launcher starts the containers
+     * @param minIdle number of idle containers kept for a lambda in use
+     * @param maxContainers maximum number of containers of a lambda
+     * @param idleTtl time in milliseconds after which the containers of an unused lambda are stopped
+     * @param workers true if containers should run workers, if the image has one
+     * @param registry the containers are registered in it as instances of their lambdas
+     */
+    public ContainerPool(ContainerLauncher launcher, int minIdle, int maxContainers, long idleTtl, boolean workers,
+                         InstanceRegistry registry) {
+        if (launcher == null || minIdle < 0 || maxContainers < 1 || minIdle > maxContainers || idleTtl <= 0
+                || registry == null) {
+            throw new IllegalArgumentException();
+        }
+        this.registry = registry;
+        this.launcher = launcher;
+        this.minIdle = minIdle;
+        this.maxContainers = maxContainers;
+        this.idleTtl = idleTtl;
+        this.workers = workers;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "container-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "container-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::maintain, MAINTENANCE_INTERVAL, MAINTENANCE_INTERVAL,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * checks out an idle container of a lambda, new containers are started in the background
+     * @param image the image of the lambda
+     * @return the container or null if there is no idle one
+     */
+    public PooledContainer acquire(LambdaImage image) {
+        return acquire(image, 0);
+    }
+
+    /**
+     * checks out an idle container of a lambda for a request, new containers are started in the background
+     * @param image the image of the lambda
+     * @param request the id of the request, see InstanceRegistry.newRequest()
+     * @return the container or null if there is no idle one
+     */
+    public PooledContainer acquire(LambdaImage image, long request) {
+        if (image == null) {
+            throw new IllegalArgumentException();
+        }
+        final boolean worker = workers && image.getWorkerCommand() != null;
+        if (!worker && image.getWarmStartCommand() == null) {
+            return null;
+        }
+
+        LambdaPool pool = pools.computeIfAbsent(image.getIdentifier(), id -> new LambdaPool(image, worker));
+        pool.lastUsed = System.currentTimeMillis();
+        PooledContainer container;
+        while ((container = pool.idle.pollFirst()) != null && !container.isAlive()) {
+            discard(container);
+        }
+        if (container != null) {
+            container.instance.setState(LambdaInstance.State.RUNNING, request);
+        }
+        scheduler.execute(() -> refill(pool));
+        return container;
+    }
+
+    /**
+     * returns a container after a call, single-use containers are stopped
+     * @param container the container
+     */
+    public void release(PooledContainer container) {
+        if (container == null) {
+            throw new IllegalArgumentException();
+        }
+        LambdaPool pool = container.pool;
+        if (container.isReusable()) {
+            synchronized (pool) {
+                if (!pool.closed && pool.idle.size() < maxContainers) {
+                    container.instance.setState(LambdaInstance.State.IDLE, 0);
+                    pool.idle.offerFirst(container);
+                    return;
+                }
+            }
+        }
+        discard(container);
+    }
+
+    /**
+     * stops all idle containers of a lambda and removes its pool
+     * @param identifier the identifier of the lambda
+     */
+    public void evict(Identifier identifier) {
+        LambdaPool pool = pools.remove(identifier);
+        if (pool != null) {
+            close(pool);
+            logger.info(String.format("Container pool of %s is evicted.", identifier));
+        }
+    }
+
+    /**
+     * @param identifier the identifier of a lambda
+     * @returns the number of idle containers of the lambda
+     */
+    public int getIdleContainers(Identifier identifier) {
+        LambdaPool pool = pools.get(identifier);
+        return pool == null ? 0 : pool.idle.size();
+    }
+
+    /**
+     * @param identifier the identifier of a lambda
+     * @returns the number of containers of the lambda, that are being started
+     */
+    public int getStartingContainers(Identifier identifier) {
+        LambdaPool pool = pools.get(identifier);
+        if (pool == null) {
+            return 0;
+        }
+        synchronized (pool) {
+            return pool.starting;
+        }
+    }
+
+    /**
+     * stops pools that weren't used for the idle ttl, removes dead containers and starts new ones;
+     * containers started by another thread at the same time may still be starting when it returns
+     */
+    public void maintain() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Identifier, LambdaPool> entry : pools.entrySet()) {
+            LambdaPool pool = entry.getValue();
+            if (now - pool.lastUsed > idleTtl) {
+                if (pools.remove(entry.getKey(), pool)) {
+                    close(pool);
+                    logger.info(String.format("Container pool of %s expired.", entry.getKey()));
+                }
+                continue;
+            }
+            for (PooledContainer container : pool.idle) {
+                if (!container.isAlive() && pool.idle.remove(container)) {
+                    discard(container);
+                }
+            }
+            refill(pool);
+        }
+    }
+
+    /**
+     * stops all containers and the maintenance of the pool
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        watchdog.shutdownNow();
+        for (Identifier identifier : pools.keySet()) {
+            evict(identifier);
+        }
+    }
+
+    @Override
+    public void imageBuilt(LambdaImage image) {
+        // pools are created by the first call of a lambda
+    }
+
+    @Override
+    public void imageRemoved(Identifier identifier) {
+        evict(identifier);
+    }
+
+    // the slot of a container is reserved under the lock of the pool, the container is launched outside of it
+    private void refill(LambdaPool pool) {
+        while (true) {
+            synchronized (pool) {
+                if (pool.closed || pool.idle.size() + pool.starting >= minIdle || pool.containers >= maxContainers) {
+                    return;
+                }
+                pool.containers++;
+                pool.starting++;
+            }
+
+            Process process;
+            long start = System.nanoTime();
+            LambdaInstance instance = registry.register(pool.image.getIdentifier().getIdentifier(), null,
+                    LambdaInstance.State.STARTING, 0);
+            try {
+                process = launcher.launch(pool.image, pool.worker ? pool.image.getWorkerCommand()
+                        : pool.image.getWarmStartCommand());
+            } catch (IOException e) {
+                registry.remove(instance);
+                synchronized (pool) {
+                    pool.containers--;
+                    pool.starting--;
+                }
+                logger.warn(String.format("Container of %s can't be started.", pool.image.getIdentifier()), e);
+                return;
+            }
+            Metrics.containerStart(pool.image.getIdentifier().getIdentifier()).recordSince(start);
+            PooledContainer container = new PooledContainer(pool.image.getIdentifier(), process, watchdog, pool,
+                    pool.worker, instance);
+            synchronized (pool) {
+                pool.starting--;
+                if (!pool.closed) {
+                    pool.idle.offerLast(container);
+                    continue;
+                }
+            }
+            // the pool was closed during the launch
+            discard(container);
+            return;
+        }
+    }
+
+    private void discard(PooledContainer container) {
+        container.instance.setState(LambdaInstance.State.KILLING, 0);
+        container.destroy();
+        registry.remove(container.instance);
+        synchronized (container.pool) {
+            container.pool.containers--;
+        }
+    }
+
+    private void close(LambdaPool pool) {
+        synchronized (pool) {
+            pool.closed = true;
+        }
+        PooledContainer container;
+        while ((container = pool.idle.pollFirst()) != null) {
+            discard(container);
+        }
+    }
+
+    /**
+     * The containers of one lambda.
+     */
+    static class LambdaPool {
+        final LambdaImage image;
+        final boolean worker;
+        final Deque<PooledContainer> idle = new ConcurrentLinkedDeque<>();
+        volatile long lastUsed = System.currentTimeMillis();
+        // idle, busy and starting containers and the starting ones alone, guarded by the pool
+        int containers;
+        int starting;
+        boolean closed;
+
+        LambdaPool(LambdaImage image, boolean worker) {
+            this.image = image;
+            this.worker = worker;
+        }
+    }
+}
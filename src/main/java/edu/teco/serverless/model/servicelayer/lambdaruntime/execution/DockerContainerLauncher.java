@@ -0,0 +1,51 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.execution;
+
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.ContainerKiller;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.ContainerNames;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.ContainerProcess;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.InvocationPlan;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeCommand;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.images.LambdaImage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts containers with the docker CLI, attached to stdin, stdout and stderr of the process.
+ *
+ * Every container gets a name, so destroying its process kills the container as well, see ContainerProcess,
+ * and the label of the server, see RuntimeCommand.LABEL.
+ */
+public class DockerContainerLauncher implements ContainerLauncher {
+
+    @Override
+    public Process launch(LambdaImage image, List<String> command) throws IOException {
+        if (command == null || command.isEmpty()) {
+            throw new IllegalArgumentException();
+        }
+
+        List<String> args = new ArrayList<>();
+        args.add("docker");
+        args.add("run");
+        args.add("--rm");   // remove container after run
+        args.add("-i");
+        args.add("--label");
+        args.add(RuntimeCommand.LABEL + "=true");
+        String name = ContainerNames.next();
+        args.add("--name");
+        args.add(name);
+        args.add("--entrypoint");
+        args.add(command.get(0));
+        args.add(image.getImageId());
+        args.addAll(command.subList(1, command.size()));
+        return new ContainerProcess(new ProcessBuilder(args).start(), name, ContainerKiller.getInstance());
+    }
+
+    @Override
+    public Process run(InvocationPlan plan, List<String> arguments) throws IOException {
+        String name = ContainerNames.next();
+        return new ContainerProcess(new ProcessBuilder(plan.argv(name, arguments)).start(), name,
+                ContainerKiller.getInstance());
+    }
+}
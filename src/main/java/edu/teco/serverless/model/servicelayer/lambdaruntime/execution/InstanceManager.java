@@ -1,26 +1,64 @@
 package edu.teco.serverless.model.servicelayer.lambdaruntime.execution;
 
+import edu.teco.serverless.metrics.Metrics;
+import edu.teco.serverless.model.exception.execution.ConcurrencyLimitException;
 import edu.teco.serverless.model.lambda.ExecuteConfig;
+import edu.teco.serverless.model.lambda.ExecuteResult;
+import edu.teco.serverless.model.lambda.ExecutionAttributes;
+import edu.teco.serverless.model.lambda.Identifier;
 import edu.teco.serverless.model.lambda.Parameter;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.LambdaImageListener;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.*;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.images.LambdaImage;
+import org.apache.log4j.Logger;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  *  Manages the creating, und deleting of container. Contains reference auf all containers.
+ *
+ *  Calls are served by idle containers of the ContainerPool if possible (runtime.pool.enabled),
+ *  otherwise a new container is run for the call. Calls with a parallelism > 1 run their cycles
+ *  on the RunCycleExecutor. Streamed calls always run in a new container, see OutputStreamer.
+ *  With the simulated runtime the containers are simulated as well, see SimulatedContainerLauncher.
+ *  Executions that run containers are admitted by the AdmissionController first, cache hits are not.
+ *  How a lambda is run is computed once per image as an InvocationPlan, a call only adds its arguments.
+ *  A run cycle may take the time limit of its lambda (in milliseconds), but never longer than the global limit;
+ *  the container of a cycle, that exceeds its limit, is killed through the runtime.
+ *  The containers of running calls and of the pool are tracked as instances in the InstanceRegistry,
+ *  so the OrphanReaper leaves them alone.
  */
 @Component
-public class InstanceManager {
+public class InstanceManager implements LambdaImageListener {
+    final static Logger logger = Logger.getLogger(InstanceManager.class);
     private static InstanceManager instance;
+    private static String propertiesPath = "runtime";
     private RuntimeCommunicator runtimeCommunicator;
-    private List<LambdaInstance> instances;
-    private int globalTimeLimit;
+    private final InstanceRegistry instances = new InstanceRegistry();
+    // in milliseconds
+    private long globalTimeLimit;
+    private ContainerPool containerPool;
+    private RunCycleExecutor cycleExecutor;
+    private int maxParallelism;
+    private int batchTimeLimit;
+    private ResultCache resultCache;
+    private AdmissionController admissionController;
+    private ContainerLauncher launcher = new DockerContainerLauncher();
+    private final OutputStreamer outputStreamer = new OutputStreamer();
+    // the plans of the images by the names of their lambdas
+    private final Map<String, InvocationPlan> plans = new ConcurrentHashMap<>();
 
     private InstanceManager() {
-        instances = new ArrayList<>();
     }
 
 
@@ -31,27 +69,212 @@ public class InstanceManager {
      * @return result of program running
      */
     public String run(LambdaImage image, ExecuteConfig config) throws RuntimeConnectException, TimeExceededException {
+        return execute(image, config).getOutput();
+    }
+
+    /**
+     * Runs a lambda, the result of a deterministic lambda is taken from the result cache if possible
+     * @param image lambda image
+     * @param config configuration of running
+     * @return result of program running and whether it was cached
+     */
+    public ExecuteResult execute(LambdaImage image, ExecuteConfig config) throws RuntimeConnectException,
+            TimeExceededException {
         if (image == null || config == null) {
             throw new IllegalArgumentException();
         }
 
-        List<Parameter> parameters = config.getParameterList();
-	    parameters.add(0, new Parameter(image.getIdentifier().getIdentifier()));
+        String lambda = image.getIdentifier().getIdentifier();
+        long start = System.nanoTime();
+        ExecutionAttributes attributes = image.getExecutionAttributes();
+        try {
+            if (resultCache == null || attributes == null || !attributes.isCacheable()) {
+                String result = runUncached(image, config);
+                Metrics.invocation(lambda, "off").recordSince(start);
+                return new ExecuteResult(result, false);
+            }
+            ResultCache.Key key = new ResultCache.Key(image.getIdentifier(), image.getAuthKey(),
+                    config.getParameterList(), config.getRunCycles().getRuncycles());
+            String result = resultCache.get(key);
+            if (result != null) {
+                Metrics.invocation(lambda, "hit").recordSince(start);
+                return new ExecuteResult(result, true);
+            }
+            result = runUncached(image, config);
+            resultCache.put(key, result, attributes.getCacheTtl() * 1000L);
+            Metrics.invocation(lambda, "miss").recordSince(start);
+            return new ExecuteResult(result, false);
+        } catch (RuntimeConnectException | TimeExceededException | RuntimeException e) {
+            Metrics.invocationErrors(lambda).increment();
+            throw e;
+        }
+    }
+
+    private String runUncached(LambdaImage image, ExecuteConfig config) throws RuntimeConnectException,
+            TimeExceededException {
+        InvocationPlan plan = planOf(image);
+        // the parameters of the caller are passed on as they are, the image is part of the plan
+        List<Parameter> arguments = config.getParameterList();
+
+        int cycles = config.getRunCycles().getRuncycles();
+        int slots = cycleExecutor != null && cycles > 1 ? Math.min(Math.min(config.getParallelism(), maxParallelism),
+                cycles) : 1;
+        long request = instances.newRequest();
+        try (AdmissionController.Permit permit = admissionController.acquire(image.getIdentifier().getIdentifier(),
+                maxConcurrencyOf(image), slots)) {
+            // the parallelism is bounded by the slots the execution was admitted with
+            int parallelism = permit.getSlots();
+            if (parallelism > 1) {
+                return cycleExecutor.runAll(index -> runCycle(image, plan, arguments, request), cycles,
+                        parallelism, batchTimeLimit * 1000L);
+            }
+            // the batch limit holds for a call with one slot as well
+            return RunCycleExecutor.runInOrder(index -> runCycle(image, plan, arguments, request), cycles,
+                    batchTimeLimit * 1000L);
+        }
+    }
+
+    /**
+     * @param image lambda image
+     * @return the plan of the image, it is computed by the first call after the image was built
+     */
+    public InvocationPlan planOf(LambdaImage image) {
+        String name = image.getIdentifier().getIdentifier();
+        InvocationPlan plan = plans.get(name);
+        long timeLimit = timeLimitOf(image);
+        if (plan == null || !plan.getImageId().equals(image.getImageId()) || plan.getTimeLimit() != timeLimit) {
+            plan = new InvocationPlan(image.getImageId(), timeLimit);
+            plans.put(name, plan);
+        }
+        return plan;
+    }
+
+    // the limit of the lambda, if it has one, bounded by the global limit
+    private long timeLimitOf(LambdaImage image) {
+        ExecutionAttributes attributes = image.getExecutionAttributes();
+        long own = attributes == null ? 0 : attributes.getTimeLimit();
+        if (own <= 0) {
+            return globalTimeLimit;
+        }
+        return globalTimeLimit > 0 ? Math.min(own, globalTimeLimit) : own;
+    }
+
+    /**
+     * takes a slot of the concurrency limits for a streamed call, see stream(LambdaImage, ExecuteConfig, OutputStream, Permit)
+     * @param image lambda image
+     * @return the permit, it has to be closed when the call is finished
+     * @throws ConcurrencyLimitException if the call can't be admitted in time
+     */
+    public AdmissionController.Permit admit(LambdaImage image) {
+        if (image == null) {
+            throw new IllegalArgumentException();
+        }
+        return admissionController.acquire(image.getIdentifier().getIdentifier(), maxConcurrencyOf(image), 1);
+    }
 
-        RuntimeCommand runtimeCommand = new RuntimeCommand(CommandType.RUN, parameters);
+    private static int maxConcurrencyOf(LambdaImage image) {
+        ExecutionAttributes attributes = image.getExecutionAttributes();
+        return attributes == null ? 0 : attributes.getMaxConcurrency();
+    }
 
-        LambdaInstance lambdaInstance = new LambdaInstance(image);
-        instances.add(lambdaInstance);
+    /**
+     * runs the cycles of a call one after another and forwards their output while it is produced
+     * @param image lambda image
+     * @param config configuration of running, the parallelism is ignored
+     * @param out receives the output of all cycles
+     * @throws TimeExceededException if a cycle takes longer than the global limit or all cycles
+     *                               longer than the batch limit
+     */
+    public void stream(LambdaImage image, ExecuteConfig config, OutputStream out) throws RuntimeConnectException,
+            TimeExceededException {
+        stream(image, config, out, admit(image));
+    }
 
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < config.getRunCycles().getRuncycles(); i++) {
-            String result = runtimeCommunicator.executeCommand(runtimeCommand, globalTimeLimit);
-            sb.append(result);
+    /**
+     * runs the cycles of a call, that was already admitted, one after another and forwards their output
+     * while it is produced
+     * @param image lambda image
+     * @param config configuration of running, the parallelism is ignored
+     * @param out receives the output of all cycles
+     * @param permit the permit of the call from admit(), it is closed when the call is finished
+     * @throws TimeExceededException if a cycle takes longer than the global limit or all cycles
+     *                               longer than the batch limit
+     */
+    public void stream(LambdaImage image, ExecuteConfig config, OutputStream out, AdmissionController.Permit permit)
+            throws RuntimeConnectException, TimeExceededException {
+        if (permit == null) {
+            throw new IllegalArgumentException();
         }
+        try {
+            if (image == null || config == null || out == null) {
+                throw new IllegalArgumentException();
+            }
 
-        instances.remove(lambdaInstance);
+            InvocationPlan plan = planOf(image);
+            List<String> arguments = new ArrayList<>(config.getParameterList().size());
+            for (Parameter par : config.getParameterList()) {
+                arguments.add(par.getParameter());
+            }
 
-        return sb.toString();
+            String lambda = image.getIdentifier().getIdentifier();
+            long request = instances.newRequest();
+            long deadline = System.currentTimeMillis() + batchTimeLimit * 1000L;
+            int cycles = config.getRunCycles().getRuncycles();
+            for (int i = 0; i < cycles; i++) {
+                if (i > 0 && System.currentTimeMillis() > deadline) {
+                    throw new TimeExceededException();
+                }
+                long start = System.nanoTime();
+                LambdaInstance instance = instances.register(lambda, null, LambdaInstance.State.STARTING, request);
+                try {
+                    Process process;
+                    try {
+                        process = launcher.run(plan, arguments);
+                    } catch (IOException e) {
+                        throw new RuntimeConnectException("container can't be started: " + e.getMessage());
+                    }
+                    Metrics.containerStart(lambda).recordSince(start);
+                    instance.started(process instanceof ContainerProcess
+                            ? ((ContainerProcess) process).getContainerName() : null, LambdaInstance.State.RUNNING);
+                    outputStreamer.stream(process, out, plan.getTimeLimit(), TimeUnit.MILLISECONDS);
+                } finally {
+                    // a container killed after the time limit stays KILLING until the kill is done
+                    instances.remove(instance);
+                }
+            }
+        } finally {
+            permit.close();
+        }
+    }
+
+    private String runCycle(LambdaImage image, InvocationPlan plan, List<Parameter> arguments, long request)
+            throws RuntimeConnectException, TimeExceededException {
+        long start = System.nanoTime();
+        String lambda = image.getIdentifier().getIdentifier();
+        PooledContainer container = containerPool == null ? null : containerPool.acquire(image, request);
+        if (container == null) {
+            // every cycle runs in a container with its own name
+            RuntimeCommand command = plan.command(arguments);
+            // the runtime starts the container and runs the call in one command, it is never seen starting
+            LambdaInstance instance = instances.register(lambda, command.getContainerName(),
+                    LambdaInstance.State.RUNNING, request);
+            try {
+                String result = runtimeCommunicator.executeCommand(command, plan.getTimeLimit(),
+                        TimeUnit.MILLISECONDS);
+                Metrics.cycle(lambda, "new").recordSince(start);
+                return result;
+            } finally {
+                // a container killed after the time limit stays KILLING until the kill is done
+                instances.remove(instance);
+            }
+        }
+        try {
+            String result = container.invoke(arguments, plan.getTimeLimit(), TimeUnit.MILLISECONDS);
+            Metrics.cycle(lambda, "pooled").recordSince(start);
+            return result;
+        } finally {
+            containerPool.release(container);
+        }
     }
 
     /**
@@ -69,7 +292,103 @@ public class InstanceManager {
      */
     public void init() {
         runtimeCommunicator = RuntimeCommunicator.getInstance();
-        instances = new ArrayList<>();
+        ContainerKiller.getInstance().addKillListener(instances);
+        if (runtimeCommunicator.getTransport() instanceof SimulatedRuntimeTransport) {
+            SimulatedRuntimeTransport simulated = (SimulatedRuntimeTransport) runtimeCommunicator.getTransport();
+            launcher = new SimulatedContainerLauncher(simulated.getColdStart(), simulated.getExecution());
+        } else {
+            launcher = new DockerContainerLauncher();
+        }
+
+        if (containerPool != null) {
+            containerPool.shutdown();
+            containerPool = null;
+        }
+        ResourceBundle resourceBundle = ResourceBundle.getBundle(propertiesPath, Locale.ENGLISH);
+        if (Boolean.parseBoolean(getProperty(resourceBundle, "runtime.pool.enabled", "false"))) {
+            int minIdle = Integer.parseInt(getProperty(resourceBundle, "runtime.pool.min.idle", "1"));
+            int maxContainers = Integer.parseInt(getProperty(resourceBundle, "runtime.pool.max.containers", "4"));
+            long idleTtl = Long.parseLong(getProperty(resourceBundle, "runtime.pool.idle.ttl", "300"));
+            boolean workers = Boolean.parseBoolean(getProperty(resourceBundle, "runtime.worker.enabled", "false"));
+            containerPool = new ContainerPool(launcher, minIdle, maxContainers, idleTtl * 1000,
+                    workers, instances);
+            logger.info(String.format("Container pool is enabled with %d to %d containers per lambda, workers: %b.",
+                    minIdle, maxContainers, workers));
+        }
+
+        if (cycleExecutor != null) {
+            cycleExecutor.shutdown();
+        }
+        int threads = Integer.parseInt(getProperty(resourceBundle, "runtime.parallel.threads", "16"));
+        cycleExecutor = new RunCycleExecutor(threads, threads * 4);
+        maxParallelism = Integer.parseInt(getProperty(resourceBundle, "runtime.parallel.max.per.request", "8"));
+        batchTimeLimit = Integer.parseInt(getProperty(resourceBundle, "runtime.batch.time.limit", "300"));
+        admissionController = new AdmissionController(
+                Integer.parseInt(getProperty(resourceBundle, "runtime.admission.global.limit", "64")),
+                Integer.parseInt(getProperty(resourceBundle, "runtime.admission.lambda.limit", "16")),
+                Integer.parseInt(getProperty(resourceBundle, "runtime.admission.queue.capacity", "100")),
+                Long.parseLong(getProperty(resourceBundle, "runtime.admission.max.wait", "1000")),
+                Integer.parseInt(getProperty(resourceBundle, "runtime.admission.retry.after", "1")));
+        resultCache = new ResultCache(Integer.parseInt(getProperty(resourceBundle, "runtime.cache.max.entries", "10000")),
+                Integer.parseInt(getProperty(resourceBundle, "runtime.cache.max.result.length", "65536")));
+    }
+
+    /**
+     * @returns the concurrency limits of the executions
+     */
+    public AdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+    /**
+     * @returns the cache of the results of deterministic lambdas
+     */
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    private static String getProperty(ResourceBundle resourceBundle, String key, String defaultValue) {
+        return resourceBundle.containsKey(key) ? resourceBundle.getString(key).trim() : defaultValue;
+    }
+
+    /**
+     * @returns the names of the containers of running calls and of the container pool
+     */
+    public Set<String> getTrackedContainers() {
+        return instances.getContainerNames();
+    }
+
+    /**
+     * @returns the live instances of the lambdas
+     */
+    public InstanceRegistry getInstanceRegistry() {
+        return instances;
+    }
+
+    /**
+     * @returns the pool of idle containers, null if it is disabled
+     */
+    public ContainerPool getContainerPool() {
+        return containerPool;
+    }
+
+    @Override
+    public void imageBuilt(LambdaImage image) {
+        plans.remove(image.getIdentifier().getIdentifier());
+        if (containerPool != null) {
+            containerPool.imageBuilt(image);
+        }
+    }
+
+    @Override
+    public void imageRemoved(Identifier identifier) {
+        plans.remove(identifier.getIdentifier());
+        if (resultCache != null) {
+            resultCache.invalidate(identifier);
+        }
+        if (containerPool != null) {
+            containerPool.imageRemoved(identifier);
+        }
     }
 
     /**
@@ -82,11 +401,36 @@ public class InstanceManager {
         if (seconds <= 0) {
             throw new IllegalArgumentException();
         }
+        setGlobalTimeLimitMillis(seconds * 1000L);
+    }
 
-        globalTimeLimit = seconds;
+    /**
+     * sets a time limit for the execution of a lambda
+     *
+     * @param millis the time limit in milliseconds
+     * @throws IllegalArgumentException if a not-positive value is passed
+     */
+    public void setGlobalTimeLimitMillis(long millis) throws IllegalArgumentException {
+        if (millis <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        globalTimeLimit = millis;
+        // the plans contain the time limit
+        plans.clear();
     }
 
+    /**
+     * @returns the global time limit in seconds, rounded up
+     */
     public int getGlobalTimeLimit() {
+        return (int) ((globalTimeLimit + 999) / 1000);
+    }
+
+    /**
+     * @returns the global time limit in milliseconds
+     */
+    public long getGlobalTimeLimitMillis() {
         return globalTimeLimit;
     }
 }
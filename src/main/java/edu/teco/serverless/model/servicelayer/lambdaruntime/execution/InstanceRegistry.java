@@ -0,0 +1,191 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.execution;
+
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.ContainerKillListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The live instances of all lambdas: the containers, that are started, run a call, wait in the ContainerPool
+ * or are stopped.
+ *
+ * Executions register and remove their instances concurrently without a common lock, the views are taken
+ * from the map while it changes. Every execution gets the id of a request, so the instances of a call can
+ * be told apart from the instances of other calls of the same lambda.
+ *
+ * As a ContainerKillListener, the registry shows an instance as KILLING from the moment its kill is issued
+ * until the kill is done.
+ */
+public class InstanceRegistry implements ContainerKillListener {
+    private final Map<Long, LambdaInstance> instances = new ConcurrentHashMap<>();
+    private final AtomicLong instanceIds = new AtomicLong();
+    private final AtomicLong requestIds = new AtomicLong();
+
+    /**
+     * @return the id of a new request, the instances of its execution are registered with it
+     */
+    public long newRequest() {
+        return requestIds.incrementAndGet();
+    }
+
+    /**
+     * registers an instance
+     * @param identifier the name of the lambda
+     * @param containerName the name of the container, null if it has none
+     * @param state the state at the start
+     * @param request the id of the request the instance runs for, 0 for none
+     * @return the instance, it has to be removed when its container is stopped
+     */
+    public LambdaInstance register(String identifier, String containerName, LambdaInstance.State state,
+                                   long request) {
+        if (identifier == null || state == null) {
+            throw new IllegalArgumentException();
+        }
+        LambdaInstance instance = new LambdaInstance(instanceIds.incrementAndGet(), identifier, containerName,
+                state, request);
+        instances.put(instance.getId(), instance);
+        return instance;
+    }
+
+    /**
+     * removes an instance, further calls do nothing; an instance, whose container is being killed, is removed
+     * when the kill is done
+     * @param instance the instance
+     */
+    public void remove(LambdaInstance instance) {
+        if (instance != null && instance.release()) {
+            instances.remove(instance.getId());
+        }
+    }
+
+    @Override
+    public void killStarted(String containerName) {
+        LambdaInstance instance = find(containerName);
+        if (instance != null) {
+            instance.killStarted();
+        }
+    }
+
+    @Override
+    public void killFinished(String containerName) {
+        LambdaInstance instance = find(containerName);
+        if (instance != null && instance.killFinished()) {
+            instances.remove(instance.getId());
+        }
+    }
+
+    // kills are rare, so the instance of a container is searched instead of indexed
+    private LambdaInstance find(String containerName) {
+        for (LambdaInstance instance : instances.values()) {
+            if (containerName.equals(instance.getContainerName())) {
+                return instance;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @returns the number of live instances
+     */
+    public int size() {
+        return instances.size();
+    }
+
+    /**
+     * @returns the live instances, the oldest first
+     */
+    public List<LambdaInstance> getInstances() {
+        List<LambdaInstance> list = new ArrayList<>(instances.values());
+        list.sort(Comparator.comparingLong(LambdaInstance::getId));
+        return list;
+    }
+
+    /**
+     * @returns the names of the containers of the live instances
+     */
+    public Set<String> getContainerNames() {
+        Set<String> names = new HashSet<>();
+        for (LambdaInstance instance : instances.values()) {
+            if (instance.getContainerName() != null) {
+                names.add(instance.getContainerName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * @returns the lambdas with live instances, with their instances by state
+     */
+    public List<LambdaInfo> getLambdas() {
+        Map<String, List<LambdaInstance>> byLambda = new HashMap<>();
+        for (LambdaInstance instance : getInstances()) {
+            byLambda.computeIfAbsent(instance.getIdentifier(), name -> new ArrayList<>()).add(instance);
+        }
+        List<LambdaInfo> infos = new ArrayList<>();
+        for (Map.Entry<String, List<LambdaInstance>> entry : byLambda.entrySet()) {
+            infos.add(new LambdaInfo(entry.getKey(), entry.getValue()));
+        }
+        infos.sort(Comparator.comparing(LambdaInfo::getName));
+        return infos;
+    }
+
+    /**
+     * Live instances of a lambda.
+     */
+    public static final class LambdaInfo {
+        private final String name;
+        private final List<LambdaInstance> instances;
+        private final int[] states = new int[LambdaInstance.State.values().length];
+        private long oldestRunningSince;
+
+        LambdaInfo(String name, List<LambdaInstance> instances) {
+            this.name = name;
+            this.instances = instances;
+            for (LambdaInstance instance : instances) {
+                // the state is read once, it may change meanwhile
+                LambdaInstance.State state = instance.getState();
+                states[state.ordinal()]++;
+                long since = instance.getStateSince();
+                if (state == LambdaInstance.State.RUNNING && (oldestRunningSince == 0 || since < oldestRunningSince)) {
+                    oldestRunningSince = since;
+                }
+            }
+        }
+
+        /**
+         * @returns the name of the lambda
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @returns the instances of the lambda, the oldest first
+         */
+        public List<LambdaInstance> getInstances() {
+            return instances;
+        }
+
+        /**
+         * @param state a state
+         * @return the number of instances of the lambda in the state
+         */
+        public int getInstances(LambdaInstance.State state) {
+            return states[state.ordinal()];
+        }
+
+        /**
+         * @returns the time in milliseconds at which the longest running call of the lambda started, 0 if none runs
+         */
+        public long getOldestRunningSince() {
+            return oldestRunningSince;
+        }
+    }
+}
@@ -1,26 +1,124 @@
 package edu.teco.serverless.model.servicelayer.lambdaruntime.execution;
 
-import edu.teco.serverless.model.servicelayer.lambdaruntime.images.LambdaImage;
-
 import java.util.Date;
 
 /**
- * Represent a running instance of image and contains reference to image, string for know and time to start.
+ * Represent a container of a lambda, that is started, runs a call, waits in the ContainerPool or is stopped,
+ * see InstanceRegistry.
+ *
+ * The state and the request change while the instance lives, the name of the container is known once it is
+ * started, everything else is fixed at the registration. An instance, whose container is being killed, stays
+ * in the registry until the kill is done, also if its execution already gave it up.
  */
 public class LambdaInstance {
-    private LambdaImage image;
-    private String identifier;
-    private Date startedAt;
+
+    /**
+     * State of an instance.
+     */
+    public enum State {
+        // the container is launched, its name isn't known yet
+        STARTING,
+        // the container runs a call
+        RUNNING,
+        // the container waits in the pool for a call
+        IDLE,
+        // the container is killed, e.g. because its call exceeded the time limit
+        KILLING
+    }
+
+    private final long id;
+    private final String identifier;
+    private volatile String containerName;
+    private final Date startedAt;
+    private volatile State state;
+    private volatile long stateSince;
+    private volatile long request;
+    // guarded by this: kills in progress and whether the execution gave the instance up
+    private int kills;
+    private boolean released;
 
     /**
      * constructor
      *
-     * @param image the image the instance is started from
+     * @param id the id of the instance in its registry
+     * @param identifier the name of the lambda
+     * @param containerName the name of the container, null if it has none
+     * @param state the state at the start
+     * @param request the id of the request the instance runs for, 0 for none
+     */
+    LambdaInstance(long id, String identifier, String containerName, State state, long request) {
+        this.id = id;
+        this.identifier = identifier;
+        this.containerName = containerName;
+        this.startedAt = new Date();
+        this.stateSince = startedAt.getTime();
+        this.state = state;
+        this.request = request;
+    }
+
+    /**
+     * changes the state of the instance
+     * @param state the new state
+     * @param request the id of the request the instance runs for from now on, 0 for none
+     */
+    void setState(State state, long request) {
+        // the time first, so an instance is never younger in its state than it appears
+        this.stateSince = System.currentTimeMillis();
+        this.request = request;
+        this.state = state;
+    }
+
+    /**
+     * records the container of a STARTING instance and changes its state
+     * @param containerName the name of the container, null if it has none
+     * @param state the new state
+     */
+    void started(String containerName, State state) {
+        this.containerName = containerName;
+        setState(state);
+    }
+
+    /**
+     * changes the state of the instance and keeps its request
+     * @param state the new state
+     */
+    void setState(State state) {
+        setState(state, request);
+    }
+
+    /**
+     * records that the kill of the container is issued
+     */
+    synchronized void killStarted() {
+        kills++;
+        setState(State.KILLING);
+    }
+
+    /**
+     * records that a kill of the container is done
+     * @return true if the instance can be removed from its registry now
      */
-    public LambdaInstance(LambdaImage image) {
-        this.image = image;
-        this.identifier = image.getIdentifier().getIdentifier();
-        startedAt = new Date();
+    synchronized boolean killFinished() {
+        if (kills > 0) {
+            kills--;
+        }
+        return released && kills == 0;
+    }
+
+    /**
+     * records that the execution gave the instance up
+     * @return true if the instance can be removed from its registry now, false while its container is killed
+     */
+    synchronized boolean release() {
+        released = true;
+        return kills == 0;
+    }
+
+    /**
+     * @returns the id of the instance in its registry
+     */
+    public long getId() {
+        return id;
     }
 
     /**
@@ -36,4 +134,32 @@ public class LambdaInstance {
     public String getIdentifier() {
         return identifier;
     }
+
+    /**
+     * @returns the name of the container, null if it has none
+     */
+    public String getContainerName() {
+        return containerName;
+    }
+
+    /**
+     * @returns the state of the instance
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @returns the time in milliseconds at which the instance entered its state
+     */
+    public long getStateSince() {
+        return stateSince;
+    }
+
+    /**
+     * @returns the id of the request the instance runs for, 0 for none
+     */
+    public long getRequest() {
+        return request;
+    }
 }
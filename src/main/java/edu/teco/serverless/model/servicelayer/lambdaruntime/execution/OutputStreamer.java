@@ -0,0 +1,163 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.execution;
+
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import org.apache.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Forwards the stdout of a running container to an output stream while it is produced.
+ *
+ * Only a buffer of BUFFER_SIZE bytes is held at a time: the next read waits until the previous chunk is
+ * written, so a slow client blocks the container on its full stdout pipe instead of filling the heap.
+ */
+public class OutputStreamer {
+    final static Logger logger = Logger.getLogger(OutputStreamer.class);
+    static final int BUFFER_SIZE = 8192;
+    // stderr is only used for the error message, more of it is dropped
+    static final int MAX_ERROR_SIZE = 65536;
+
+    private final ScheduledExecutorService watchdog;
+
+    public OutputStreamer() {
+        watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "output-streamer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * copies the stdout of the process to out, until the process exits
+     * @param process the process attached to the container
+     * @param out receives the output, it is flushed after every chunk
+     * @param limit the time limit in seconds (if limit > 0)
+     * @return the number of forwarded bytes
+     * @throws RuntimeConnectException if the container fails, writes to stderr or out can't be written
+     * @throws TimeExceededException if the container runs longer than the limit
+     */
+    public long stream(Process process, OutputStream out, int limit) throws RuntimeConnectException,
+            TimeExceededException {
+        return stream(process, out, limit, TimeUnit.SECONDS);
+    }
+
+    /**
+     * copies the stdout of the process to out, until the process exits
+     * @param process the process attached to the container
+     * @param out receives the output, it is flushed after every chunk
+     * @param limit the time limit (if limit > 0)
+     * @param unit the unit of the limit
+     * @return the number of forwarded bytes
+     * @throws RuntimeConnectException if the container fails, writes to stderr or out can't be written
+     * @throws TimeExceededException if the container runs longer than the limit
+     */
+    public long stream(final Process process, OutputStream out, long limit, TimeUnit unit)
+            throws RuntimeConnectException, TimeExceededException {
+        if (process == null || out == null) {
+            throw new IllegalArgumentException();
+        }
+        final AtomicBoolean exceeded = new AtomicBoolean();
+        ScheduledFuture<?> deadline = null;
+        if (limit > 0) {
+            deadline = watchdog.schedule(() -> {
+                exceeded.set(true);
+                process.destroy();
+            }, limit, unit);
+        }
+
+        ErrorDrain errors = new ErrorDrain(process.getErrorStream());
+        errors.start();
+        long forwarded = 0;
+        try {
+            process.getOutputStream().close();
+            InputStream stdout = process.getInputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = stdout.read(buffer)) != -1) {
+                try {
+                    out.write(buffer, 0, n);
+                    out.flush();
+                } catch (IOException e) {
+                    process.destroy();
+                    throw new RuntimeConnectException("client stopped reading the output: " + e.getMessage());
+                }
+                forwarded += n;
+            }
+            process.waitFor();
+            errors.join();
+        } catch (IOException e) {
+            if (!exceeded.get()) {
+                throw new RuntimeConnectException("error while reading the container output: " + e.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroy();
+            throw new RuntimeConnectException("interrupted while streaming the container output");
+        } finally {
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+        }
+
+        if (exceeded.get()) {
+            throw new TimeExceededException();
+        }
+        String err = errors.getOutput();
+        if (!err.isEmpty() && !err.startsWith("SECURITY WARNING")) {
+            throw new RuntimeConnectException(err);
+        }
+        return forwarded;
+    }
+
+    /**
+     * stops the watchdog
+     */
+    public void shutdown() {
+        watchdog.shutdownNow();
+    }
+
+    /**
+     * Reads stderr in parallel, so the container doesn't block on a full stderr pipe.
+     */
+    private static class ErrorDrain extends Thread {
+        private final InputStream stderr;
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        ErrorDrain(InputStream stderr) {
+            super("output-streamer-errors");
+            setDaemon(true);
+            this.stderr = stderr;
+        }
+
+        @Override
+        public void run() {
+            byte[] buffer = new byte[1024];
+            int n;
+            try {
+                while ((n = stderr.read(buffer)) != -1) {
+                    synchronized (output) {
+                        output.write(buffer, 0, Math.max(0, Math.min(n, MAX_ERROR_SIZE - output.size())));
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug("Reading stderr of container failed.", e);
+            }
+        }
+
+        String getOutput() {
+            synchronized (output) {
+                return new String(output.toByteArray(), StandardCharsets.UTF_8);
+            }
+        }
+    }
+}
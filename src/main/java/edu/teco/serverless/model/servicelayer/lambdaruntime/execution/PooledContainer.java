@@ -0,0 +1,224 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.execution;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.teco.serverless.model.lambda.Identifier;
+import edu.teco.serverless.model.lambda.Parameter;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.ContainerProcess;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.ProcessDrainer;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.WorkerChannel;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A started container of a lambda, that waits for calls on its stdin.
+ *
+ * A single-use container gets the arguments as a JSON array in a single line; it then runs the lambda,
+ * prints its output and exits. A worker container keeps running and serves any number of calls
+ * through a WorkerChannel, until it is destroyed or a call exceeds the time limit.
+ */
+public class PooledContainer {
+    final static Logger logger = Logger.getLogger(PooledContainer.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final Identifier identifier;
+    private final Process process;
+    private final ScheduledExecutorService watchdog;
+    private final WorkerChannel channel;
+    private final long startedAt;
+    final ContainerPool.LambdaPool pool;
+    // the entry of the container in the registry of the pool
+    final LambdaInstance instance;
+
+    PooledContainer(Identifier identifier, Process process, ScheduledExecutorService watchdog,
+                    ContainerPool.LambdaPool pool, boolean worker, LambdaInstance instance) {
+        this.identifier = identifier;
+        this.process = process;
+        this.watchdog = watchdog;
+        this.pool = pool;
+        this.instance = instance;
+        instance.started(getContainerName(), LambdaInstance.State.IDLE);
+        this.startedAt = System.currentTimeMillis();
+        if (worker) {
+            channel = new WorkerChannel(process.getInputStream(), process.getOutputStream());
+            drainErrors();
+        } else {
+            channel = null;
+        }
+    }
+
+    /**
+     * @returns the name of the container, null if it has none
+     */
+    public String getContainerName() {
+        return process instanceof ContainerProcess ? ((ContainerProcess) process).getContainerName() : null;
+    }
+
+    /**
+     * runs the lambda in the container
+     * @param arguments the arguments of the call
+     * @param limit the time limit in seconds (if limit > 0)
+     * @return the output of the lambda
+     * @throws RuntimeConnectException if the container fails or the lambda writes to stderr
+     * @throws TimeExceededException if the call takes longer than the limit
+     */
+    public String invoke(List<Parameter> arguments, int limit) throws RuntimeConnectException, TimeExceededException {
+        return invoke(arguments, limit, TimeUnit.SECONDS);
+    }
+
+    /**
+     * runs the lambda in the container
+     * @param arguments the arguments of the call
+     * @param limit the time limit (if limit > 0)
+     * @param unit the unit of the limit
+     * @return the output of the lambda
+     * @throws RuntimeConnectException if the container fails or the lambda writes to stderr
+     * @throws TimeExceededException if the call takes longer than the limit
+     */
+    public String invoke(List<Parameter> arguments, long limit, TimeUnit unit) throws RuntimeConnectException,
+            TimeExceededException {
+        if (channel != null) {
+            return invokeWorker(arguments, limit, unit);
+        }
+
+        final AtomicBoolean exceeded = new AtomicBoolean();
+        ScheduledFuture<?> deadline = null;
+        if (limit > 0) {
+            deadline = watchdog.schedule(() -> {
+                exceeded.set(true);
+                process.destroy();
+            }, limit, unit);
+        }
+
+        ProcessDrainer.Output output;
+        try {
+            List<String> args = new ArrayList<>();
+            for (Parameter par : arguments) {
+                args.add(par.getParameter());
+            }
+            OutputStream stdin = process.getOutputStream();
+            stdin.write(mapper.writeValueAsBytes(args));
+            stdin.write('\n');
+            stdin.close();
+
+            // the deadline is kept by the watchdog of the pool
+            output = ProcessDrainer.getInstance().drain(process, 0);
+        } catch (IOException e) {
+            if (exceeded.get()) {
+                throw new TimeExceededException();
+            }
+            throw new RuntimeConnectException("error while communicating with the container: " + e.getMessage());
+        } catch (RuntimeConnectException e) {
+            if (exceeded.get()) {
+                throw new TimeExceededException();
+            }
+            throw e;
+        } finally {
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+        }
+
+        if (exceeded.get()) {
+            throw new TimeExceededException();
+        }
+        if (output.hasErrors()) {
+            throw new RuntimeConnectException(output.getErrors());
+        }
+        return output.getOutput();
+    }
+
+    private String invokeWorker(List<Parameter> arguments, long limit, TimeUnit unit) throws RuntimeConnectException,
+            TimeExceededException {
+        List<String> args = new ArrayList<>();
+        for (Parameter par : arguments) {
+            args.add(par.getParameter());
+        }
+        WorkerChannel.Response response;
+        try {
+            response = channel.call(args, limit, unit);
+        } catch (TimeExceededException e) {
+            // the worker is still busy with the call, it can't be used anymore
+            destroy();
+            throw e;
+        }
+        String err = response.getError();
+        if (!err.isEmpty() && !err.startsWith("SECURITY WARNING")) {
+            throw new RuntimeConnectException(err);
+        }
+        return response.getOutput();
+    }
+
+    // output of the worker itself, e.g. if it can't load the lambda
+    private void drainErrors() {
+        Thread drain = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream(),
+                    StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    logger.debug(String.format("Worker of %s: %s", identifier, line));
+                }
+            } catch (IOException e) {
+                // the container was stopped
+            }
+        }, "worker-errors");
+        drain.setDaemon(true);
+        drain.start();
+    }
+
+    /**
+     * @returns true if the container can serve another call after this one
+     */
+    public boolean isReusable() {
+        return channel != null && channel.isOpen() && process.isAlive();
+    }
+
+    /**
+     * @returns the identifier of the lambda
+     */
+    public Identifier getIdentifier() {
+        return identifier;
+    }
+
+    /**
+     * @returns the time the container was started at in milliseconds
+     */
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * @returns true if the container still waits for a call or is running one
+     */
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    /**
+     * stops the container
+     */
+    public void destroy() {
+        if (channel != null) {
+            channel.close();
+        }
+        try {
+            // an idle container exits as soon as its stdin is closed
+            process.getOutputStream().close();
+        } catch (IOException e) {
+            logger.debug("Closing stdin of container failed.", e);
+        }
+        process.destroy();
+    }
+}
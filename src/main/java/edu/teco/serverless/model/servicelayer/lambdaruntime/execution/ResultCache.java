@@ -0,0 +1,188 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.execution;
+
+import edu.teco.serverless.model.lambda.AuthKey;
+import edu.teco.serverless.model.lambda.Identifier;
+import edu.teco.serverless.model.lambda.Parameter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the results of lambdas, that are declared deterministic, so repeated calls with the same
+ * arguments don't start a container.
+ *
+ * A result is keyed by the lambda, the auth key of its image, the arguments and the number of run cycles.
+ * The cache holds at most maxEntries results and evicts the least recently used one; every result expires
+ * after the ttl of its lambda. The results of a lambda are invalidated when its image is rebuilt or removed.
+ */
+public class ResultCache {
+    private final int maxEntries;
+    private final int maxResultLength;
+    // in access order, guarded by itself
+    private final LinkedHashMap<Key, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * constructor
+     * @param maxEntries maximum number of cached results
+     * @param maxResultLength maximum length of a cached result, longer results aren't cached
+     */
+    public ResultCache(final int maxEntries, int maxResultLength) {
+        if (maxEntries < 1 || maxResultLength < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.maxEntries = maxEntries;
+        this.maxResultLength = maxResultLength;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > ResultCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param key the key of a call
+     * @return the cached result or null if there is none, or it expired
+     */
+    public String get(Key key) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expires > now) {
+                hits.incrementAndGet();
+                return entry.result;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * caches a result
+     * @param key the key of the call
+     * @param result the result
+     * @param ttl time in milliseconds the result is valid
+     */
+    public void put(Key key, String result, long ttl) {
+        if (key == null || result == null || ttl <= 0 || result.length() > maxResultLength) {
+            return;
+        }
+        Entry entry = new Entry(result, System.currentTimeMillis() + ttl);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * removes all results of a lambda
+     * @param identifier the identifier of the lambda
+     */
+    public void invalidate(Identifier identifier) {
+        synchronized (entries) {
+            Iterator<Key> iterator = entries.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().identifier.equals(identifier)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * @returns the number of cached results, including expired ones that weren't requested again
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @returns the number of results removed because the cache was full
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * The key of a call.
+     */
+    public static final class Key {
+        private final Identifier identifier;
+        private final String authKey;
+        private final List<String> arguments;
+        private final int cycles;
+        private final int hashCode;
+
+        /**
+         * constructor
+         * @param identifier the identifier of the lambda
+         * @param authKey the auth key of the image of the lambda
+         * @param arguments the arguments of the call
+         * @param cycles the number of run cycles
+         */
+        public Key(Identifier identifier, AuthKey authKey, List<Parameter> arguments, int cycles) {
+            this.identifier = new Identifier(identifier.getIdentifier());
+            this.authKey = authKey.getAuthKey();
+            List<String> values = new ArrayList<>();
+            for (Parameter argument : arguments) {
+                values.add(argument.getParameter());
+            }
+            this.arguments = Collections.unmodifiableList(values);
+            this.cycles = cycles;
+            int result = this.identifier.hashCode();
+            result = 31 * result + this.authKey.hashCode();
+            result = 31 * result + this.arguments.hashCode();
+            this.hashCode = 31 * result + cycles;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            Key key = (Key) o;
+
+            return cycles == key.cycles && identifier.equals(key.identifier) && authKey.equals(key.authKey)
+                    && arguments.equals(key.arguments);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class Entry {
+        final String result;
+        final long expires;
+
+        Entry(String result, long expires) {
+            this.result = result;
+            this.expires = expires;
+        }
+    }
+}
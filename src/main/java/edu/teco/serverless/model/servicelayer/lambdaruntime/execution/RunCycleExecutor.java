@@ -0,0 +1,186 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.execution;
+
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the cycles of a call in parallel on a bounded, shared set of threads.
+ *
+ * The threads limit the number of cycles running at once over all calls, the parallelism of a call
+ * limits how many of them a single call may use. The results are concatenated in cycle order.
+ */
+public class RunCycleExecutor {
+    final static Logger logger = Logger.getLogger(RunCycleExecutor.class);
+
+    /**
+     * A single run cycle of a call.
+     */
+    public interface Cycle {
+        String run(int index) throws RuntimeConnectException, TimeExceededException;
+    }
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * constructor
+     * @param threads maximum number of cycles running at once
+     * @param queueCapacity maximum number of waiting workers, further ones are rejected
+     */
+    public RunCycleExecutor(int threads, int queueCapacity) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException();
+        }
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "run-cycle-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * runs all cycles, at most parallelism of them at once
+     * @param cycle the cycle to run
+     * @param cycles the number of cycles
+     * @param parallelism maximum number of cycles of this call running at once
+     * @param limit time limit for all cycles in milliseconds (if limit > 0)
+     * @return the results of the cycles in cycle order
+     * @throws RuntimeConnectException if a cycle fails
+     * @throws TimeExceededException if a cycle or the whole batch takes longer than its limit
+     */
+    public String runAll(final Cycle cycle, final int cycles, int parallelism, long limit)
+            throws RuntimeConnectException, TimeExceededException {
+        if (cycle == null || cycles < 0 || parallelism < 1) {
+            throw new IllegalArgumentException();
+        }
+        final String[] results = new String[cycles];
+        final AtomicInteger next = new AtomicInteger();
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(limit);
+
+        // every worker takes the next cycle until all are done, so a rejected worker only reduces parallelism
+        List<Future<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(parallelism, cycles); i++) {
+            try {
+                workers.add(executor.submit(() -> {
+                    int index;
+                    try {
+                        while ((index = next.getAndIncrement()) < cycles && !Thread.currentThread().isInterrupted()) {
+                            results[index] = cycle.run(index);
+                        }
+                    } catch (Exception e) {
+                        // the call fails anyway, the other workers don't have to start further cycles
+                        next.set(cycles);
+                        throw e;
+                    }
+                    return null;
+                }));
+            } catch (RejectedExecutionException e) {
+                logger.debug(String.format("Run cycle executor is saturated, using %d workers.", workers.size()));
+                break;
+            }
+        }
+
+        if (workers.isEmpty()) {
+            // no thread is free, run the cycles one after another in the calling thread
+            return runInOrder(cycle, cycles, limit);
+        }
+        try {
+            for (Future<Void> worker : workers) {
+                await(worker, limit > 0, deadline);
+            }
+        } finally {
+            // stop the remaining workers if a cycle failed or the batch took too long
+            next.set(cycles);
+            for (Future<Void> worker : workers) {
+                worker.cancel(true);
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (String result : results) {
+            sb.append(result);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * runs all cycles one after another in the calling thread, e.g. for a call with one slot
+     * @param cycle the cycle to run
+     * @param cycles the number of cycles
+     * @param limit time limit for all cycles in milliseconds (if limit > 0), checked before every cycle
+     * @return the results of the cycles in cycle order
+     * @throws RuntimeConnectException if a cycle fails
+     * @throws TimeExceededException if a cycle or the whole batch takes longer than its limit
+     */
+    public static String runInOrder(Cycle cycle, int cycles, long limit) throws RuntimeConnectException,
+            TimeExceededException {
+        if (cycle == null || cycles < 0) {
+            throw new IllegalArgumentException();
+        }
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(limit);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < cycles; i++) {
+            if (limit > 0 && System.nanoTime() > deadline) {
+                throw new TimeExceededException();
+            }
+            sb.append(cycle.run(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @returns the number of cycles running at the moment
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * stops all threads
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static void await(Future<Void> worker, boolean limited, long deadline) throws RuntimeConnectException,
+            TimeExceededException {
+        try {
+            if (!limited) {
+                worker.get();
+            } else {
+                worker.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            throw new TimeExceededException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeConnectException) {
+                throw (RuntimeConnectException) cause;
+            }
+            if (cause instanceof TimeExceededException) {
+                throw (TimeExceededException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeConnectException(String.valueOf(cause));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeConnectException("interrupted while waiting for run cycles");
+        }
+    }
+}
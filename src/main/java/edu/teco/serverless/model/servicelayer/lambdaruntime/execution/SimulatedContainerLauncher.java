@@ -0,0 +1,47 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.execution;
+
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.InvocationPlan;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.LatencyDistribution;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.images.LambdaImage;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Starts simulated containers in the process, for the simulated runtime (runtime.transport=simulated).
+ *
+ * The containers speak the protocols of the real ones, so the ContainerPool, workers and streamed calls
+ * behave as with docker, but they only wait for the latencies and print the arguments of the calls.
+ */
+public class SimulatedContainerLauncher implements ContainerLauncher {
+    private final LatencyDistribution coldStart;
+    private final LatencyDistribution execution;
+
+    /**
+     * constructor
+     * @param coldStart the time a container takes to start
+     * @param execution the time a lambda takes to run in a started container
+     */
+    public SimulatedContainerLauncher(LatencyDistribution coldStart, LatencyDistribution execution) {
+        if (coldStart == null || execution == null) {
+            throw new IllegalArgumentException();
+        }
+        this.coldStart = coldStart;
+        this.execution = execution;
+    }
+
+    @Override
+    public Process launch(LambdaImage image, List<String> command) throws IOException {
+        if (command == null || command.isEmpty()) {
+            throw new IllegalArgumentException();
+        }
+        SimulatedProcess.Mode mode = command.equals(image.getWorkerCommand())
+                ? SimulatedProcess.Mode.WORKER : SimulatedProcess.Mode.CALL;
+        return new SimulatedProcess(mode, null, coldStart.sample(), execution);
+    }
+
+    @Override
+    public Process run(InvocationPlan plan, List<String> arguments) throws IOException {
+        return new SimulatedProcess(SimulatedProcess.Mode.RUN, arguments, coldStart.sample(), execution);
+    }
+}
@@ -0,0 +1,264 @@
+package edu.teco.serverless.model.servicelayer.lambdaruntime.execution;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.LatencyDistribution;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A simulated container, its "lambda" prints the arguments of a call separated by spaces.
+ *
+ * The container runs on its own thread and is attached through in-memory pipes. It first waits for
+ * the cold start; then a RUN container waits for one execution and prints its arguments, a CALL container
+ * reads the arguments of a single call from stdin like a warm started one, and a WORKER container
+ * answers the frames of a WorkerChannel until its stdin is closed.
+ */
+class SimulatedProcess extends Process {
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final int EXIT_KILLED = 137;
+
+    enum Mode { RUN, CALL, WORKER }
+
+    private final Pipe stdin = new Pipe();
+    private final Pipe stdout = new Pipe();
+    private final Pipe stderr = new Pipe();
+    private final Thread container;
+    private volatile int exitValue = -1;
+
+    SimulatedProcess(Mode mode, List<String> arguments, long coldStart, LatencyDistribution execution) {
+        container = new Thread(() -> {
+            int exit = 0;
+            try {
+                Thread.sleep(coldStart);
+                switch (mode) {
+                    case RUN:
+                        Thread.sleep(execution.sample());
+                        write(stdout.sink, echo(arguments));
+                        break;
+                    case CALL:
+                        String line = new BufferedReader(new InputStreamReader(stdin.source, StandardCharsets.UTF_8))
+                                .readLine();
+                        List<String> callArguments = new ArrayList<>();
+                        for (JsonNode argument : mapper.readTree(line == null ? "[]" : line)) {
+                            callArguments.add(argument.asText());
+                        }
+                        Thread.sleep(execution.sample());
+                        write(stdout.sink, echo(callArguments));
+                        break;
+                    case WORKER:
+                        serve(execution);
+                        break;
+                    default:
+                        break;
+                }
+            } catch (InterruptedException | InterruptedIOException e) {
+                exit = EXIT_KILLED;
+            } catch (IOException e) {
+                exit = 1;
+            } finally {
+                stdout.close();
+                stderr.close();
+                stdin.close();
+                synchronized (this) {
+                    exitValue = exitValue < 0 ? exit : exitValue;
+                }
+            }
+        }, "simulated-container");
+        container.setDaemon(true);
+        container.start();
+    }
+
+    // the worker answers the calls one after another, like workers/python3-worker.py
+    private void serve(LatencyDistribution execution) throws IOException, InterruptedException {
+        DataInputStream requests = new DataInputStream(stdin.source);
+        DataOutputStream responses = new DataOutputStream(stdout.sink);
+        while (true) {
+            int length;
+            try {
+                length = requests.readInt();
+            } catch (EOFException e) {
+                return;
+            }
+            byte[] frame = new byte[length];
+            requests.readFully(frame);
+            JsonNode request = mapper.readTree(frame);
+            List<String> arguments = new ArrayList<>();
+            for (JsonNode argument : request.path("args")) {
+                arguments.add(argument.asText());
+            }
+            Thread.sleep(execution.sample());
+
+            ObjectNode response = mapper.createObjectNode();
+            response.put("id", request.path("id").asLong());
+            response.put("stdout", echo(arguments));
+            response.put("stderr", "");
+            byte[] answer = mapper.writeValueAsBytes(response);
+            responses.writeInt(answer.length);
+            responses.write(answer);
+        }
+    }
+
+    private static String echo(List<String> arguments) {
+        return String.join(" ", arguments) + "\n";
+    }
+
+    private static void write(OutputStream out, String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return stdin.sink;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return stdout.source;
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        return stderr.source;
+    }
+
+    @Override
+    public int waitFor() throws InterruptedException {
+        container.join();
+        return exitValue;
+    }
+
+    @Override
+    public boolean waitFor(long timeout, TimeUnit unit) throws InterruptedException {
+        container.join(Math.max(1, unit.toMillis(timeout)));
+        return !container.isAlive();
+    }
+
+    @Override
+    public int exitValue() {
+        if (container.isAlive()) {
+            throw new IllegalThreadStateException("simulated container is running");
+        }
+        return exitValue;
+    }
+
+    @Override
+    public boolean isAlive() {
+        return container.isAlive();
+    }
+
+    @Override
+    public void destroy() {
+        synchronized (this) {
+            if (exitValue < 0) {
+                exitValue = EXIT_KILLED;
+            }
+        }
+        stdout.close();
+        stderr.close();
+        stdin.close();
+        container.interrupt();
+    }
+
+    /**
+     * An unbounded in-memory pipe, reads wait until data is written or the pipe is closed.
+     * Unlike PipedInputStream it doesn't care which threads read and write.
+     */
+    static final class Pipe {
+        private byte[] buffer = new byte[1024];
+        private int start;
+        private int end;
+        private boolean closed;
+
+        final InputStream source = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                byte[] b = new byte[1];
+                return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return Pipe.this.read(b, off, len);
+            }
+
+            @Override
+            public void close() {
+                Pipe.this.close();
+            }
+        };
+
+        final OutputStream sink = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                Pipe.this.write(b, off, len);
+            }
+
+            @Override
+            public void close() {
+                Pipe.this.close();
+            }
+        };
+
+        synchronized void write(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("pipe is closed");
+            }
+            if (end + len > buffer.length) {
+                int size = end - start;
+                byte[] target = size + len > buffer.length ? new byte[Math.max(buffer.length * 2, size + len)] : buffer;
+                System.arraycopy(buffer, start, target, 0, size);
+                buffer = target;
+                start = 0;
+                end = size;
+            }
+            System.arraycopy(b, off, buffer, end, len);
+            end += len;
+            notifyAll();
+        }
+
+        synchronized int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (start == end && !closed) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+            if (start == end) {
+                return -1;
+            }
+            int read = Math.min(len, end - start);
+            System.arraycopy(buffer, start, b, off, read);
+            start += read;
+            return read;
+        }
+
+        synchronized void close() {
+            closed = true;
+            notifyAll();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package edu.teco.serverless.model.servicelayer.lambdaruntime.images;
 
 import edu.teco.serverless.model.lambda.*;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.BaseImages;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.CommandType;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeCommand;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeCommunicator;
@@ -12,6 +13,7 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,10 +22,13 @@ import java.util.List;
  */
 public abstract class AbstractLambdaFactory {
     final static Logger logger = Logger.getLogger(AbstractLambdaFactory.class);
+    private static final SecureRandom random = new SecureRandom();
     protected Language language;
     protected String runtimeImageName;
     protected RuntimeCommunicator communicator;
     protected String extension;
+    // base images with the libraries installed, null if the language doesn't use them
+    protected BaseImages baseImages;
 
     protected AbstractLambdaFactory() {
         communicator = RuntimeCommunicator.getInstance();
@@ -34,11 +39,12 @@ public abstract class AbstractLambdaFactory {
      *
      * @param lambda the lambda
      * @param code the file, that contains the code for the lambda
-     * @returns a reference to the image
+     * @returns a reference to the image with a new auth key
      * @throws RuntimeConnectException if an error occurs when building the image
      */
     public LambdaImage buildImage(Lambda lambda, File code) throws RuntimeConnectException, TimeExceededException {
-        String fileContent = generateRuntimeConfigFile(lambda, code);
+        String baseImage = baseImages == null ? null : baseImages.ensure(lambda.getRuntimeAttributes().getLibraries());
+        String fileContent = generateRuntimeConfigFile(lambda, code, baseImage == null ? runtimeImageName : baseImage);
         File file = new File(code.getParent() + "/Dockerfile");
         try {
             BufferedWriter writer = new BufferedWriter(new FileWriter(file));
@@ -53,14 +59,82 @@ public abstract class AbstractLambdaFactory {
         params.add(new Parameter(lambda.getName().toString()));
         params.add(new Parameter(file.toString()));
         RuntimeCommand cmd = new RuntimeCommand(CommandType.BUILD, params);
-        AuthKey key = new AuthKey(communicator.executeCommand(cmd));
-        logger.info("Get autKey.");
-        return createImage(lambda.getName(), key);
+        String imageId = communicator.executeCommand(cmd);
+        logger.info(String.format("Built image %s.", imageId));
+        return createImage(lambda.getName(), newAuthKey(), imageId);
+    }
+
+    /**
+     * creates the reference to an image, that is already built
+     *
+     * @param name the identifier of the lambda
+     * @param key the auth key of the lambda
+     * @param imageId the id of the image
+     * @returns a reference to the image
+     */
+    protected abstract LambdaImage createImage(Identifier name, AuthKey key, String imageId);
+
+    /**
+     * @returns a random auth key, lambdas sharing an image must not share their key
+     */
+    static AuthKey newAuthKey() {
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return new AuthKey(sb.toString());
     }
 
-    protected abstract LambdaImage createImage(Identifier name, AuthKey key);
+    /**
+     * builds a base image of the runtime image with libraries installed
+     *
+     * @param tag the tag of the base image
+     * @param libraries the normalized libraries
+     * @returns the id of the image
+     * @throws RuntimeConnectException if an error occurs when building the image
+     */
+    protected String buildBaseImage(String tag, List<String> libraries) throws RuntimeConnectException, TimeExceededException {
+        File directory = new File(ImageManager.path + ".base/" + tag.replace(':', '-'));
+        directory.mkdirs();
+        File file = new File(directory, "Dockerfile");
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write(generateBaseConfigFile(libraries));
+        } catch (IOException e) {
+            throw new RuntimeConnectException("base image can't be written: " + e.getMessage());
+        }
 
-    protected abstract String generateRuntimeConfigFile(Lambda lambda, File file);
+        List<Parameter> params = new ArrayList<>();
+        params.add(new Parameter(tag));
+        params.add(new Parameter(file.toString()));
+        String imageId = communicator.executeCommand(new RuntimeCommand(CommandType.BUILD, params));
+        logger.info(String.format("Built base image %s as %s.", tag, imageId));
+        return imageId;
+    }
+
+    /**
+     * @param lambda the lambda
+     * @param file the file, that contains the code for the lambda
+     * @param baseImage the image to build on, it contains the libraries of the lambda
+     * @returns the Dockerfile of the lambda
+     */
+    protected abstract String generateRuntimeConfigFile(Lambda lambda, File file, String baseImage);
+
+    /**
+     * only called if the factory uses base images, see getBaseImages()
+     *
+     * @param libraries the normalized libraries
+     * @returns the Dockerfile of a base image
+     */
+    protected abstract String generateBaseConfigFile(List<String> libraries);
+
+    /**
+     * @returns the base images of the language, null if it doesn't use them
+     */
+    public BaseImages getBaseImages() {
+        return baseImages;
+    }
 
     /**
      * initializes the factory, pulls the base image for a specific language
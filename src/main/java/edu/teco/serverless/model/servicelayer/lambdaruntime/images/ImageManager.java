@@ -1,7 +1,15 @@
 package edu.teco.serverless.model.servicelayer.lambdaruntime.images;
 
+import edu.teco.serverless.model.exception.lambda.LambdaDuplicatedNameException;
 import edu.teco.serverless.model.exception.lambda.LambdaNotFoundException;
 import edu.teco.serverless.model.lambda.*;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.BaseImages;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.Build;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.BuildQueue;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.BuildCache;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.LambdaImageListener;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.LambdaRegistry;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.RegistryJournal;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.CommandType;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeCommand;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeCommunicator;
@@ -11,8 +19,16 @@ import org.apache.log4j.Logger;
 import org.springframework.stereotype.Component;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 @Component
 public class ImageManager {
 	final static Logger logger = Logger.getLogger(ImageManager.class);
@@ -20,9 +36,18 @@ public class ImageManager {
 
 	private RuntimeCommunicator runtimeCommunicator;
 	final static String path = "target/lambdas/";
+	// the files of a build are written here and moved to the lambda after the build succeeded
+	final static String buildsPath = path + ".builds/";
+	private static String propertiesPath = "runtime";
 	final static String factoriesReference = "edu.teco.serverless.model.servicelayer.lambdaruntime.images.";
     private List<AbstractLambdaFactory> factories;
-    private List<LambdaImage> images;
+    private LambdaRegistry images;
+    private List<LambdaImageListener> listeners;
+    private RegistryJournal journal;
+    private BuildCache buildCache;
+    private BuildQueue buildQueue;
+    // guards the journal and the registry, so a removed lambda isn't registered again by a running update
+    private final Object registryLock = new Object();
 
     private ImageManager() {
     }
@@ -49,16 +74,102 @@ public class ImageManager {
 	    File directory = new File("target/lambdas");
 	    directory.mkdir();
 	    directory.createNewFile();
+	    // files of builds, that didn't finish before a restart
+	    File builds = new File(buildsPath);
+	    deleteDirectory(builds);
+	    builds.mkdir();
 	    factories = new ArrayList<>();
-	    images = new ArrayList<>();
+	    images = new LambdaRegistry();
+	    buildCache = new BuildCache();
+	    listeners = new CopyOnWriteArrayList<>();
+	    ResourceBundle resourceBundle = ResourceBundle.getBundle(propertiesPath, Locale.ENGLISH);
+	    if (buildQueue != null) {
+		    buildQueue.shutdown();
+	    }
+	    buildQueue = new BuildQueue(Integer.parseInt(getProperty(resourceBundle, "runtime.builds.threads", "2")),
+			    Integer.parseInt(getProperty(resourceBundle, "runtime.builds.queue.capacity", "50")),
+			    Long.parseLong(getProperty(resourceBundle, "runtime.builds.retention", "600")) * 1000);
         loadImageFactories();
 	    runtimeCommunicator = RuntimeCommunicator.getInstance();
 	    for (AbstractLambdaFactory factory : factories) {
 	        factory.init();
         }
+	    restoreImages();
 		logger.info("LambdaImage is initialized.");
     }
 
+	/**
+	 * Registers the lambdas of the journal again, if their directory and docker image still exist.
+	 */
+	private void restoreImages() throws IOException {
+		ResourceBundle resourceBundle = ResourceBundle.getBundle(propertiesPath, Locale.ENGLISH);
+		int compactAfter = Integer.parseInt(getProperty(resourceBundle, "runtime.registry.compact.after", "1000"));
+		boolean sync = Boolean.parseBoolean(getProperty(resourceBundle, "runtime.registry.sync", "true"));
+		if (journal != null) {
+			journal.close();
+		}
+		journal = new RegistryJournal(new File(path), compactAfter, sync);
+		Collection<RegistryJournal.Entry> entries = journal.replay();
+		if (entries.isEmpty()) {
+			return;
+		}
+
+		Set<String> dockerImages = listDockerImages();
+		for (RegistryJournal.Entry entry : entries) {
+			AbstractLambdaFactory lambdaFactory = getFactory(entry.getLanguage());
+			boolean imageExists = dockerImages == null || dockerImages.contains(shortId(entry.getImageId()));
+			if (lambdaFactory == null || !imageExists || !new File(path + entry.getIdentifier().getIdentifier()).isDirectory()) {
+				logger.warn(String.format("Lambda %s can't be restored, its image or files are missing.", entry.getIdentifier()));
+				journal.remove(entry.getIdentifier());
+				continue;
+			}
+			String imageId = entry.getImageId();
+			if (entry.getHash() != null) {
+				imageId = buildCache.add(entry.getHash(), imageId);
+			}
+			LambdaImage lambdaImage = lambdaFactory.createImage(entry.getIdentifier(), entry.getAuthKey(), imageId);
+			lambdaImage.setExecutionAttributes(entry.getExecutionAttributes());
+			images.register(lambdaImage);
+			if (lambdaFactory.getBaseImages() != null) {
+				lambdaFactory.getBaseImages().assign(entry.getIdentifier(), entry.getLibraries());
+			}
+		}
+		logger.info(String.format("Restored %d of %d lambdas.", images.size(), entries.size()));
+	}
+
+	// short ids of the docker images, null if docker can't be asked
+	private Set<String> listDockerImages() {
+		try {
+			String output = runtimeCommunicator.executeCommand(new RuntimeCommand(CommandType.IMAGES, new ArrayList<>()));
+			Set<String> ids = new HashSet<>();
+			for (String line : output.split("\n")) {
+				if (!line.trim().isEmpty()) {
+					ids.add(shortId(line.trim()));
+				}
+			}
+			return ids;
+		} catch (RuntimeConnectException | TimeExceededException e) {
+			logger.warn("Docker images can't be listed, the registry is restored without checking them.", e);
+			return null;
+		}
+	}
+
+	private static String shortId(String id) {
+		String hash = id.startsWith("sha256:") ? id.substring("sha256:".length()) : id;
+		return hash.length() > 12 ? hash.substring(0, 12) : hash;
+	}
+
+	private static String getProperty(ResourceBundle resourceBundle, String key, String defaultValue) {
+		return resourceBundle.containsKey(key) ? resourceBundle.getString(key).trim() : defaultValue;
+	}
+
+	private AbstractLambdaFactory getFactory(Language language) {
+		for (AbstractLambdaFactory factory : factories) {
+			if (factory.language.equals(language)) return factory;
+		}
+		return null;
+	}
+
     /**
      * @returns the only instance of the ImageManager
      */
@@ -69,6 +180,48 @@ public class ImageManager {
         return instance;
     }
 
+    /**
+     * registers a listener, that is notified when images are built or removed
+     * @param listener the listener
+     */
+    public void addImageListener(LambdaImageListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * @returns the base images of all languages with the number of lambdas using them
+     */
+    public List<BaseImages.BaseImageInfo> getBaseImages() {
+        List<BaseImages.BaseImageInfo> baseImages = new ArrayList<>();
+        for (AbstractLambdaFactory factory : factories) {
+            if (factory.getBaseImages() != null) {
+                baseImages.addAll(factory.getBaseImages().getBaseImages());
+            }
+        }
+        return baseImages;
+    }
+
+    /**
+     * @returns the short ids of the images of the lambdas and the ids and tags of the base images,
+     *          the base images of restored lambdas may not be built since the start and are only known by tag
+     */
+    public Set<String> getTrackedImages() {
+        Set<String> tracked = new HashSet<>();
+        for (LambdaImage image : images.getImages()) {
+            tracked.add(shortId(image.getImageId()));
+        }
+        for (BaseImages.BaseImageInfo baseImage : getBaseImages()) {
+            tracked.add(baseImage.getTag());
+            if (baseImage.getImageId() != null) {
+                tracked.add(shortId(baseImage.getImageId()));
+            }
+        }
+        return tracked;
+    }
+
     /**
      * @returns a list of all factories
      */
@@ -87,10 +240,9 @@ public class ImageManager {
             throw new IllegalArgumentException();
         }
 
-	    for (LambdaImage lambdaImage : images) {
-		    if (lambdaImage.getIdentifier().equals(id)) return lambdaImage;
-	    }
-	    throw new LambdaNotFoundException();
+	    LambdaImage lambdaImage = images.get(id);
+	    if (lambdaImage == null) throw new LambdaNotFoundException();
+	    return lambdaImage;
     }
 
 	/**
@@ -103,10 +255,7 @@ public class ImageManager {
 		    throw new IllegalArgumentException();
         }
 
-        for (LambdaImage lambdaImage : images) {
-            if (lambdaImage.getIdentifier().equals(id)) return true;
-        }
-        return false;
+        return images.contains(id);
     }
 
 	/**
@@ -133,54 +282,197 @@ public class ImageManager {
 	        throw new IllegalArgumentException();
         }
 
-		LambdaImage lambdaImage = getLambdaImageByIdentifier(id);
-	    images.remove(lambdaImage);
-	    File lambdaFile = new File(path + id.getIdentifier());
-		logger.info(String.format("Get file to delete : %s",lambdaFile.toString()));
-		for (File file : lambdaFile.listFiles()) {
-			file.delete();
+		LambdaImage lambdaImage;
+		synchronized (registryLock) {
+			// only one of concurrent deletes of the lambda removes it
+			lambdaImage = images.remove(id);
+			if (lambdaImage == null) throw new LambdaNotFoundException();
+			try {
+				journal.remove(id);
+			} catch (IOException e) {
+				// the image is removed below, so the lambda is dropped when the registry is restored
+				logger.error(String.format("Removal of %s can't be written to the registry journal.", id), e);
+			}
+			for (AbstractLambdaFactory factory : factories) {
+				if (factory.getBaseImages() != null) {
+					factory.getBaseImages().release(id);
+				}
+			}
+			// a new lambda with the same name moves its files here under the lock
+			File lambdaFile = new File(path + id.getIdentifier());
+			logger.info(String.format("Get file to delete : %s",lambdaFile.toString()));
+			deleteDirectory(lambdaFile);
+		}
+	    for (LambdaImageListener listener : listeners) {
+		    listener.imageRemoved(id);
+	    }
+	    releaseImage(lambdaImage);
+    }
+
+	// removes the docker image, if no other lambda uses it
+	private void releaseImage(LambdaImage lambdaImage) throws RuntimeConnectException, TimeExceededException {
+		if (!buildCache.release(lambdaImage.getImageId())) {
+			logger.info(String.format("Image %s is still used by other lambdas.", lambdaImage.getImageId()));
+			return;
 		}
-	    lambdaFile.delete();
 	    ArrayList<Parameter> parameters = new ArrayList<>();
-	    parameters.add(new Parameter(id.getIdentifier()));
+	    parameters.add(new Parameter(lambdaImage.getImageId()));
 	    RuntimeCommand runtimeCommand = new RuntimeCommand(CommandType.REMOVE, parameters);
 	    runtimeCommunicator.executeCommand(runtimeCommand);
-    }
+	}
 
 	/**
-	 * Delete old lambda image and build new.
+	 * Replaces the image of a lambda, the old image is removed afterwards if no other lambda uses it.
 	 * @param lambda function
-	 * @return authorisation key
+	 * @return new authorisation key
 	 */
 	public AuthKey rebuildImage(Lambda lambda) throws RuntimeConnectException, LanguageNotSupportedException, IOException, TimeExceededException {
-	    deleteImage(lambda.getName());
-	    return buildImage(lambda);
+		if (lambda == null) {
+			throw new IllegalArgumentException();
+		}
+		AbstractLambdaFactory lambdaFactory = getFactory(lambda.getRuntimeAttributes().getLanguage());
+		if (lambdaFactory == null) throw new LanguageNotSupportedException();
+		if (!lambdaExists(lambda.getName())) throw new LambdaNotFoundException();
+
+		AuthKey authKey = AbstractLambdaFactory.newAuthKey();
+		Build build = buildQueue.submit(lambda.getName().getIdentifier(), authKey, () -> {
+			File directory = createBuildDirectory(lambda.getName());
+			try {
+				// the new image is taken before the old one is released, so an unchanged lambda keeps its image
+				LambdaImage replaced = registerImage(lambda, prepareImage(lambda, lambdaFactory, authKey, directory),
+						directory, true);
+				if (replaced != null) {
+					releaseImage(replaced);
+				}
+			} finally {
+				deleteDirectory(directory);
+			}
+		});
+		await(build);
+		return authKey;
     }
 
 	/**
 	 * Calls the method execute in the class RuntimeCommunicator.
 	 * Save the function on the hard drive.
-	 * Put a lambda image into list.
+	 * Put a lambda image into the registry.
+	 * Waits until the build is finished.
 	 * @param lambda function
 	 * @return authentication key
 	 */
 	public AuthKey buildImage(Lambda lambda) throws RuntimeConnectException, LanguageNotSupportedException, IOException, TimeExceededException {
+		Build build = submitBuild(lambda);
+		await(build);
+		return build.getAuthKey();
+    }
+
+	/**
+	 * Queues the build of the image of a new lambda. The name is reserved at once, the lambda can be executed
+	 * once the build succeeded.
+	 * @param lambda function
+	 * @return the queued build with the authentication key of the lambda
+	 * @throws LambdaDuplicatedNameException if the name is already used or reserved
+	 * @throws edu.teco.serverless.model.exception.build.BuildQueueFullException if too many builds are waiting
+	 */
+	public Build submitBuild(Lambda lambda) throws LanguageNotSupportedException {
 		if (lambda == null) {
 		    throw new IllegalArgumentException();
         }
 
-		AbstractLambdaFactory lambdaFactory = null;
-		for (AbstractLambdaFactory factory : factories) {
-			if (factory.language.equals(lambda.getRuntimeAttributes().getLanguage())) lambdaFactory = factory;
+		AbstractLambdaFactory lambdaFactory = getFactory(lambda.getRuntimeAttributes().getLanguage());
+		if (lambdaFactory == null) throw new LanguageNotSupportedException();
+
+		Identifier id = lambda.getName();
+		if (!images.reserve(id)) throw new LambdaDuplicatedNameException();
+		AuthKey authKey = AbstractLambdaFactory.newAuthKey();
+		try {
+			return buildQueue.submit(id.getIdentifier(), authKey, () -> {
+				File directory = createBuildDirectory(id);
+				try {
+					registerImage(lambda, prepareImage(lambda, lambdaFactory, authKey, directory), directory, false);
+				} finally {
+					images.release(id);
+					deleteDirectory(directory);
+				}
+			});
+		} catch (RuntimeException e) {
+			images.release(id);
+			throw e;
 		}
+    }
 
-		if (lambdaFactory == null) throw new LanguageNotSupportedException();
+	/**
+	 * @param lambdaName the name of the lambda
+	 * @param id the id of the build
+	 * @return the build
+	 * @throws edu.teco.serverless.model.exception.build.BuildNotFoundException if there is no such build
+	 */
+	public Build getBuild(String lambdaName, String id) {
+		return buildQueue.getBuild(lambdaName, id);
+	}
 
-		File directory = new File(path + lambda.getName().getIdentifier());
-		directory.mkdir();
+	/**
+	 * @return the queue of the builds
+	 */
+	public BuildQueue getBuildQueue() {
+		return buildQueue;
+	}
 
-		File lambdaFile = new File(path + lambda.getName().getIdentifier() + "/" + lambda.getName().getIdentifier() + "." + lambdaFactory.getExtension());
-		File libraries = new File(path + lambda.getName().getIdentifier() + "/libraries");
+	// waits for a build and rethrows its failure
+	private static void await(Build build) throws RuntimeConnectException, IOException, TimeExceededException {
+		try {
+			build.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeConnectException("interrupted while waiting for the build");
+		}
+		Exception failure = build.getFailure();
+		if (failure == null) {
+			return;
+		}
+		if (failure instanceof RuntimeConnectException) {
+			throw (RuntimeConnectException) failure;
+		}
+		if (failure instanceof IOException) {
+			throw (IOException) failure;
+		}
+		if (failure instanceof TimeExceededException) {
+			throw (TimeExceededException) failure;
+		}
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		}
+		throw new RuntimeConnectException(String.valueOf(failure));
+	}
+
+	// a new directory for the files of a build, the files of the lambda stay untouched until it succeeded
+	private static File createBuildDirectory(Identifier id) throws IOException {
+		File builds = new File(buildsPath);
+		builds.mkdirs();
+		return Files.createTempDirectory(builds.toPath(), id.getIdentifier() + "-").toFile();
+	}
+
+	private static void deleteDirectory(File directory) {
+		File[] files = directory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				if (file.isDirectory()) {
+					deleteDirectory(file);
+				} else {
+					file.delete();
+				}
+			}
+		}
+		directory.delete();
+	}
+
+	/**
+	 * Saves the function into the build directory and builds its image, unless an image with the same content exists.
+	 * @return the image with the auth key, that holds a reference in the build cache
+	 */
+	private LambdaImage prepareImage(Lambda lambda, AbstractLambdaFactory lambdaFactory, AuthKey authKey, File directory) throws RuntimeConnectException, IOException, TimeExceededException {
+		File lambdaFile = new File(directory, lambda.getName().getIdentifier() + "." + lambdaFactory.getExtension());
+		File libraries = new File(directory, "libraries");
 		logger.info(String.format("Get file : %s",lambdaFile.toString()));
 		lambdaFile.createNewFile();
 		FileWriter lambdaFileWriter = new FileWriter(lambdaFile);
@@ -189,16 +481,86 @@ public class ImageManager {
 
 		libraries.createNewFile();
 		FileWriter librariesFileWriter = new FileWriter(libraries);
+		// one library per line, as read by getLambdaByIdentifier
 		for (Library library : lambda.getRuntimeAttributes().getLibraries()) {
-			librariesFileWriter.write(library.getLibrary());
+			librariesFileWriter.write(library.getLibrary() + "\n");
 		}
 		librariesFileWriter.close();
 
-	    LambdaImage lambdaImage = lambdaFactory.buildImage(lambda, lambdaFile);
-		logger.info("lambdaImage is created.");
-		images.add(lambdaImage);
+		String hash = contentHash(lambda);
+		String imageId;
+		synchronized (buildCache.lock(hash)) {
+			imageId = buildCache.acquire(hash);
+			if (imageId != null) {
+				logger.info(String.format("Reusing image %s for %s.", imageId, lambda.getName()));
+			} else {
+				LambdaImage lambdaImage = lambdaFactory.buildImage(lambda, lambdaFile);
+				logger.info("lambdaImage is created.");
+				imageId = buildCache.add(hash, lambdaImage.getImageId());
+			}
+		}
+		LambdaImage lambdaImage = lambdaFactory.createImage(lambda.getName(), authKey, imageId);
+		lambdaImage.setExecutionAttributes(lambda.getExecutionAttributes());
+		return lambdaImage;
+	}
+
+	private static void moveFiles(File from, File to) throws IOException {
+		to.mkdir();
+		for (File file : from.listFiles()) {
+			Files.move(file.toPath(), new File(to, file.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static String contentHash(Lambda lambda) {
+		RuntimeAttributes attributes = lambda.getRuntimeAttributes();
+		return BuildCache.hash(attributes.getLanguage(), attributes.getCode(), attributes.getLibraries());
+	}
+
+	/**
+	 * Moves the files of the build to the lambda, journals the image and puts it into the registry.
+	 * An update is only registered, if the lambda wasn't removed while it was built.
+	 * @param update true if the image replaces the image of a registered lambda
+	 * @return the replaced image of the lambda, null if there was none
+	 * @throws LambdaNotFoundException if the lambda of an update was removed
+	 */
+	private LambdaImage registerImage(Lambda lambda, LambdaImage lambdaImage, File directory, boolean update) throws RuntimeConnectException, IOException, TimeExceededException {
+		RuntimeAttributes attributes = lambda.getRuntimeAttributes();
+		Identifier id = lambdaImage.getIdentifier();
+		LambdaImage replaced;
+		try {
+			synchronized (registryLock) {
+				if (update && !images.contains(id)) {
+					logger.info(String.format("Lambda %s was removed while it was built.", id));
+					throw new LambdaNotFoundException();
+				}
+				moveFiles(directory, new File(path + id.getIdentifier()));
+				journal.put(new RegistryJournal.Entry(id, lambdaImage.getAuthKey(),
+						lambdaImage.getImageId(), contentHash(lambda), attributes.getLanguage(), attributes.getLibraries(),
+						lambda.getExecutionAttributes()));
+				replaced = images.register(lambdaImage);
+				// the language of an update may differ, so the lambda is moved to the base image of its new libraries
+				for (AbstractLambdaFactory factory : factories) {
+					if (factory.getBaseImages() != null) {
+						if (factory.language.equals(attributes.getLanguage())) {
+							factory.getBaseImages().assign(id, attributes.getLibraries());
+						} else {
+							factory.getBaseImages().release(id);
+						}
+					}
+				}
+			}
+		} catch (IOException | LambdaNotFoundException e) {
+			releaseImage(lambdaImage);
+			throw e;
+		}
 		logger.info("lambdaImage is added to images.");
-		return lambdaImage.getAuthKey();
+		for (LambdaImageListener listener : listeners) {
+			if (replaced != null) {
+				listener.imageRemoved(lambdaImage.getIdentifier());
+			}
+			listener.imageBuilt(lambdaImage);
+		}
+		return replaced;
     }
 
     /**
@@ -249,6 +611,7 @@ public class ImageManager {
 
 		RuntimeAttributes attributes = new RuntimeAttributes(lambdaImage.getLanguage(), libraries, new Code(new String(sb)));
 		Lambda lambda = new Lambda(identifier, attributes);
+		lambda.setExecutionAttributes(lambdaImage.getExecutionAttributes());
 		return lambda;
 	}
 }
@@ -1,25 +1,41 @@
 package edu.teco.serverless.model.servicelayer.lambdaruntime.images;
 
 import edu.teco.serverless.model.lambda.AuthKey;
+import edu.teco.serverless.model.lambda.ExecutionAttributes;
 import edu.teco.serverless.model.lambda.Identifier;
 import edu.teco.serverless.model.lambda.Language;
 
+import java.util.List;
+
 /**
  * Contains information about the image.
  */
 public abstract class LambdaImage {
     private Identifier identifier;
     private AuthKey authKey;
+    private String imageId;
+    private ExecutionAttributes executionAttributes;
     Language language;
 
     /**
-     * constructor
+     * constructor, for an image tagged with the name of the lambda
       * @param identifier identifier of the lambda
      * @param authKey auth key of the lambda
      */
     public LambdaImage(Identifier identifier, AuthKey authKey) {
+        this(identifier, authKey, identifier.getIdentifier());
+    }
+
+    /**
+     * constructor
+     * @param identifier identifier of the lambda
+     * @param authKey auth key of the lambda
+     * @param imageId id of the docker image, that may be shared by lambdas with the same content
+     */
+    public LambdaImage(Identifier identifier, AuthKey authKey, String imageId) {
         this.identifier = identifier;
         this.authKey = authKey;
+        this.imageId = imageId;
     }
 
     /**
@@ -29,6 +45,8 @@ public abstract class LambdaImage {
     public LambdaImage(LambdaImage l) {
         this.identifier = l.identifier;
         this.authKey = l.authKey;
+        this.imageId = l.imageId;
+        this.executionAttributes = l.executionAttributes;
     }
 
     /**
@@ -46,10 +64,48 @@ public abstract class LambdaImage {
         return authKey;
     }
 
+    /**
+     * @returns the id of the docker image, containers of the lambda are started from it
+     */
+    public String getImageId() {
+        return imageId;
+    }
+
+    /**
+     * @returns the execution attributes of the lambda, null if it uses the defaults
+     */
+    public ExecutionAttributes getExecutionAttributes() {
+        return executionAttributes;
+    }
+
+    void setExecutionAttributes(ExecutionAttributes executionAttributes) {
+        this.executionAttributes = executionAttributes;
+    }
+
     /**
      * @returns the language of the lambda
      */
     public Language getLanguage() {
         return language;
     }
+
+    /**
+     * The command, that starts a container of the image which waits for the arguments of one call on stdin
+     * as a JSON array in a single line, then runs the lambda with them and exits.
+     *
+     * @returns the command with the executable as first element, null if the image doesn't support warm starts
+     */
+    public List<String> getWarmStartCommand() {
+        return null;
+    }
+
+    /**
+     * The command, that starts a worker in a container of the image. The worker loads the lambda once
+     * and then serves calls as frames on stdin/stdout until its stdin is closed, see WorkerChannel.
+     *
+     * @returns the command with the executable as first element, null if the image has no worker
+     */
+    public List<String> getWorkerCommand() {
+        return null;
+    }
 }
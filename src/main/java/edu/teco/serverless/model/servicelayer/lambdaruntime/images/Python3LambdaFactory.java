@@ -1,51 +1,73 @@
 package edu.teco.serverless.model.servicelayer.lambdaruntime.images;
 
 import edu.teco.serverless.model.lambda.*;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.BaseImages;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.BuildContext;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
 
 /**
  * Manages the creating, updating und deleting of python images.
  */
 public class Python3LambdaFactory extends AbstractLambdaFactory {
+	// path of the worker in the image, see Python3LambdaImage.getWorkerCommand()
+	static final String WORKER_PATH = "/serverless/worker.py";
+	// path of the code in the image, it doesn't depend on the name so lambdas with the same content can share the image
+	static final String CODE_PATH = "/src/lambda.py";
+	private static final String WORKER_RESOURCE = "/workers/python3-worker.py";
+	private static final String WORKER_FILE = "worker.py";
 
 	public Python3LambdaFactory() {
 	    language = new Language("Python3");
 	    runtimeImageName = "python:latest";
 		extension = "py";
+		baseImages = new BaseImages("serverless-base-python3", this::buildBaseImage);
 	}
 
 	@Override
 	public Python3LambdaImage buildImage(Lambda lambda, File code) throws RuntimeConnectException, TimeExceededException {
+		// the worker is copied into every image, so it can be used whenever worker mode is enabled
+		try (InputStream worker = Python3LambdaFactory.class.getResourceAsStream(WORKER_RESOURCE)) {
+			if (worker == null) {
+				throw new IOException(WORKER_RESOURCE + " not found");
+			}
+			Files.copy(worker, new File(code.getParentFile(), WORKER_FILE).toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			throw new RuntimeConnectException("worker can't be copied: " + e.getMessage());
+		}
 	    return new Python3LambdaImage(super.buildImage(lambda, code));
 	}
 
 	@Override
-	protected LambdaImage createImage(Identifier name, AuthKey key) {
-		return new Python3LambdaImage(name, key);
+	protected LambdaImage createImage(Identifier name, AuthKey key, String imageId) {
+		return new Python3LambdaImage(name, key, imageId);
 	}
 
 	@Override
-	protected String generateRuntimeConfigFile(Lambda lambda, File codeFile) {
+	protected String generateBaseConfigFile(List<String> libraries) {
+		// one layer for all libraries of the set
+		return "FROM " + runtimeImageName + "\n"
+				+ "RUN pip install " + String.join(" ", libraries) + "\n";
+	}
+
+	@Override
+	protected String generateRuntimeConfigFile(Lambda lambda, File codeFile, String baseImage) {
 	    StringBuilder sb = new StringBuilder();
 
-	    // base image
-	    sb.append("FROM " + runtimeImageName + "\n");
-
-	    // libraries
-	    for (Library l : lambda.getRuntimeAttributes().getLibraries()) {
-	        sb.append("RUN pip install " + l.getLibrary() + "\n");
-        }
-
-        // copy lambda into container
-        String filePath = codeFile.toString();
-        if (System.getProperty("os.name").toLowerCase().contains("windows")) {
-            filePath = filePath.replaceAll("\\\\", "/");
-        }
-		sb.append("COPY " + filePath + " /src/" + codeFile.getName() + "\n");
-	    sb.append("ENTRYPOINT [\"python\", " + "\"/src/" + codeFile.getName() + "\"]\n");
+	    // base image, the libraries are already installed
+	    sb.append("FROM " + baseImage + "\n");
+
+        // copy lambda into container, the paths are relative to the build context
+		sb.append("COPY " + BuildContext.getPath(codeFile) + " " + CODE_PATH + "\n");
+		sb.append("COPY " + WORKER_FILE + " " + WORKER_PATH + "\n");
+	    sb.append("ENTRYPOINT [\"python\", \"" + CODE_PATH + "\"]\n");
 
 	    return sb.toString();
 	}
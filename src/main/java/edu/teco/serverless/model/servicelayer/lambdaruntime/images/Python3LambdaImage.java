@@ -4,10 +4,21 @@ import edu.teco.serverless.model.lambda.AuthKey;
 import edu.teco.serverless.model.lambda.Identifier;
 import edu.teco.serverless.model.lambda.Language;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Contains information about the python image.
  */
 public class Python3LambdaImage extends LambdaImage {
+    // reads the arguments and runs the lambda like "python /src/<name>.py <arguments>" would
+    private static final String BOOTSTRAP = "import json, os, runpy, sys\n"
+            + "path = sys.argv[1]\n"
+            + "arguments = json.loads(sys.stdin.readline())\n"
+            + "sys.argv = [path] + arguments\n"
+            + "sys.path[0] = os.path.dirname(path)\n"
+            + "runpy.run_path(path, run_name='__main__')\n";
+
     /**
      * constructor
      *
@@ -19,6 +30,18 @@ public class Python3LambdaImage extends LambdaImage {
         language = new Language("Python3");
     }
 
+    /**
+     * constructor
+     *
+     * @param identifier identifier of the lambda
+     * @param authKey auth key of the lambda
+     * @param imageId id of the docker image
+     */
+    public Python3LambdaImage(Identifier identifier, AuthKey authKey, String imageId) {
+        super(identifier, authKey, imageId);
+        language = new Language("Python3");
+    }
+
     /**
      * copy constructor
      *
@@ -28,4 +51,14 @@ public class Python3LambdaImage extends LambdaImage {
         super(lambdaImage);
         language = new Language("Python3");
     }
+
+    @Override
+    public List<String> getWorkerCommand() {
+        return Arrays.asList("python", Python3LambdaFactory.WORKER_PATH, Python3LambdaFactory.CODE_PATH);
+    }
+
+    @Override
+    public List<String> getWarmStartCommand() {
+        return Arrays.asList("python", "-c", BOOTSTRAP, Python3LambdaFactory.CODE_PATH);
+    }
 }
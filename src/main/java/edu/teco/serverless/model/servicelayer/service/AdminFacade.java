@@ -0,0 +1,53 @@
+package edu.teco.serverless.model.servicelayer.service;
+
+import edu.teco.serverless.model.servicelayer.lambdaruntime.BaseImages;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.BuildQueue;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.AdmissionController;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.InstanceRegistry;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.ResultCache;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * This interface describes methods for administrating the server. Implemented as a Facade-pattern.
+ */
+public interface AdminFacade {
+
+    /**
+     * Lists the shared base images.
+     *
+     * @return the base images of all languages with the number of lambdas using them.
+     */
+    public List<BaseImages.BaseImageInfo> getBaseImages() throws RuntimeConnectException, IOException, IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException;
+
+    /**
+     * Shows the queue of the image builds.
+     *
+     * @return the build queue with its depth and the durations of the builds.
+     */
+    public BuildQueue getBuildQueue() throws RuntimeConnectException, IOException, IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException;
+
+    /**
+     * Shows the cache of the results of deterministic lambdas.
+     *
+     * @return the result cache with its hits, misses and size.
+     */
+    public ResultCache getResultCache() throws RuntimeConnectException, IOException, IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException;
+
+    /**
+     * Shows the concurrency limits of the executions.
+     *
+     * @return the admission controller with its limits, taken slots and waiting executions.
+     */
+    public AdmissionController getAdmissionController() throws RuntimeConnectException, IOException, IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException;
+
+    /**
+     * Shows the live instances of the lambdas.
+     *
+     * @return the registry with the starting, running, idle and killed containers.
+     */
+    public InstanceRegistry getInstanceRegistry() throws RuntimeConnectException, IOException, IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException;
+}
@@ -0,0 +1,56 @@
+package edu.teco.serverless.model.servicelayer.service;
+
+import edu.teco.serverless.model.servicelayer.lambdaruntime.BaseImages;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.BuildQueue;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.RuntimeController;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.AdmissionController;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.InstanceRegistry;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.ResultCache;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * @see edu.teco.serverless.model.servicelayer.service.AdminFacade
+ */
+@Service
+public class AdminFacadeImpl implements AdminFacade {
+
+    /**
+     * @see edu.teco.serverless.model.servicelayer.service.AdminFacade
+     */
+    public List<BaseImages.BaseImageInfo> getBaseImages() throws RuntimeConnectException, IOException, IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException {
+        return RuntimeController.getInstance().getBaseImages();
+    }
+
+    /**
+     * @see edu.teco.serverless.model.servicelayer.service.AdminFacade
+     */
+    public BuildQueue getBuildQueue() throws RuntimeConnectException, IOException, IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException {
+        return RuntimeController.getInstance().getBuildQueue();
+    }
+
+    /**
+     * @see edu.teco.serverless.model.servicelayer.service.AdminFacade
+     */
+    public ResultCache getResultCache() throws RuntimeConnectException, IOException, IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException {
+        return RuntimeController.getInstance().getResultCache();
+    }
+
+    /**
+     * @see edu.teco.serverless.model.servicelayer.service.AdminFacade
+     */
+    public AdmissionController getAdmissionController() throws RuntimeConnectException, IOException, IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException {
+        return RuntimeController.getInstance().getAdmissionController();
+    }
+
+    /**
+     * @see edu.teco.serverless.model.servicelayer.service.AdminFacade
+     */
+    public InstanceRegistry getInstanceRegistry() throws RuntimeConnectException, IOException, IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException {
+        return RuntimeController.getInstance().getInstanceRegistry();
+    }
+}
@@ -1,21 +1,27 @@
 package edu.teco.serverless.model.servicelayer.service;
 
 
+import edu.teco.serverless.model.exception.build.BuildNotFoundException;
+import edu.teco.serverless.model.exception.execution.ConcurrencyLimitException;
 import edu.teco.serverless.model.exception.lambda.LambdaDuplicatedNameException;
 
 import edu.teco.serverless.model.exception.lambda.LambdaNotFoundException;
 import edu.teco.serverless.model.lambda.AuthKey;
 import edu.teco.serverless.model.lambda.ExecuteConfig;
+import edu.teco.serverless.model.lambda.ExecuteResult;
 import edu.teco.serverless.model.lambda.Lambda;
 
 //TODO what should be done in bad cases.
 
+import edu.teco.serverless.model.servicelayer.lambdaruntime.Build;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.AdmissionController;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.images.LanguageNotSupportedException;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 
 /**
@@ -35,6 +41,29 @@ public interface LambdaManagerFacade {
      */
     public String addLambda(Lambda lambda) throws LambdaDuplicatedNameException, RuntimeConnectException, IOException, LanguageNotSupportedException, IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException;
 
+    /**
+     * Queues the build of a lambda.
+     * <p>
+     * Precondition : valid lambda.
+     * Postcondition : the name of the lambda is reserved, the lambda can be updated, deleted, extracted and executed
+     * once the build succeeded.
+     *
+     * @param lambda lambda to be added.
+     * @return the queued build with the auth key of the lambda.
+     * @throws LambdaDuplicatedNameException if lambda with the @param name already exists in the system.
+     */
+    public Build addLambdaAsync(Lambda lambda) throws LambdaDuplicatedNameException, RuntimeConnectException, IOException, LanguageNotSupportedException, IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException;
+
+    /**
+     * Obtains a build of a lambda.
+     *
+     * @param name name of the lambda.
+     * @param id   id of the build.
+     * @return the build.
+     * @throws BuildNotFoundException if there is no such build of the lambda.
+     */
+    public Build getBuild(String name, String id) throws BuildNotFoundException, RuntimeConnectException, IOException, IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException;
+
     /**
      * Updates lambda's configuration in the system.
      * <p>
@@ -75,6 +104,55 @@ public interface LambdaManagerFacade {
      */
     public String executeLambda(String name, ExecuteConfig executeConfig) throws LambdaNotFoundException, RuntimeConnectException, TimeExceededException, IllegalAccessException, InstantiationException, ClassNotFoundException, IOException;
 
+    /**
+     * Runs lambda, the result of a deterministic lambda may be taken from the result cache.
+     * <p>
+     * Precondition : lambda to be run must exist in the system, execution's configuration must be valid.
+     *
+     * @param name          name of the lambda to be executed.
+     * @param executeConfig input for the lambda if needed and number of run cycles.
+     * @return result of lambda's execution and whether it was cached.
+     * @throws LambdaNotFoundException if lambda to be executed do NOT exist in system.
+     */
+    public ExecuteResult runLambda(String name, ExecuteConfig executeConfig) throws LambdaNotFoundException, RuntimeConnectException, TimeExceededException, IllegalAccessException, InstantiationException, ClassNotFoundException, IOException;
+
+    /**
+     * Takes a slot of the concurrency limits for a streamed execution, before its response is started.
+     * <p>
+     * Precondition : lambda to be run must exist in the system.
+     * Postcondition : the permit has to be passed to streamLambda, which closes it.
+     *
+     * @param name name of the lambda to be executed.
+     * @return the permit of the execution.
+     * @throws LambdaNotFoundException if lambda to be executed do NOT exist in system.
+     * @throws ConcurrencyLimitException if too many executions of the lambda are running.
+     */
+    public AdmissionController.Permit admitLambda(String name) throws LambdaNotFoundException, ConcurrencyLimitException, RuntimeConnectException, TimeExceededException, IllegalAccessException, InstantiationException, ClassNotFoundException, IOException;
+
+    /**
+     * Runs lambda and forwards its output while it is produced.
+     * <p>
+     * Precondition : lambda to be run must exist in the system, execution's configuration must be valid,
+     * the execution was admitted by admitLambda.
+     * Postcondition : output of the lambda's execution is written to @param out, executed lambda can be updated,
+     * deleted, extracted and executed, @param permit is closed.
+     *
+     * @param name          name of the lambda to be executed.
+     * @param executeConfig input for the lambda if needed and number of run cycles.
+     * @param out           receives the output of the lambda.
+     * @param permit        the permit from admitLambda.
+     * @throws LambdaNotFoundException if lambda to be executed do NOT exist in system.
+     */
+    public void streamLambda(String name, ExecuteConfig executeConfig, OutputStream out, AdmissionController.Permit permit) throws LambdaNotFoundException, RuntimeConnectException, TimeExceededException, IllegalAccessException, InstantiationException, ClassNotFoundException, IOException;
+
+    /**
+     * Checks if lambda exists.
+     *
+     * @param name name of the lambda.
+     * @return true if lambda with @param name exists in system.
+     */
+    public boolean lambdaExists(String name) throws RuntimeConnectException, TimeExceededException, IllegalAccessException, InstantiationException, ClassNotFoundException, IOException;
+
     /**
      * Deletes lambda from the system.
      * <p>
@@ -1,22 +1,27 @@
 package edu.teco.serverless.model.servicelayer.service;
 
 import edu.teco.serverless.auth.authFacade.AuthFacade;
+import edu.teco.serverless.metrics.Metrics;
 import edu.teco.serverless.model.exception.lambda.LambdaDuplicatedNameException;
 import edu.teco.serverless.auth.authFacade.AuthFacadeImpl;
 import edu.teco.serverless.model.exception.lambda.LambdaNotFoundException;
 import edu.teco.serverless.model.lambda.AuthKey;
 import edu.teco.serverless.model.lambda.ExecuteConfig;
+import edu.teco.serverless.model.lambda.ExecuteResult;
 import edu.teco.serverless.model.lambda.Identifier;
 import edu.teco.serverless.model.lambda.Lambda;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.Build;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.RuntimeController;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.AdmissionController;
 import edu.teco.serverless.model.servicelayer.lambdaruntime.images.LanguageNotSupportedException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 
 import org.apache.log4j.Logger;
@@ -40,6 +45,7 @@ public class LambdaManagerFacadeImpl implements LambdaManagerFacade {
      */
 
     public String addLambda(Lambda lambda) throws RuntimeConnectException, IOException, LanguageNotSupportedException, IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException {
+        long start = System.nanoTime();
 
         try {
             runTime = RuntimeController.getInstance();
@@ -95,6 +101,7 @@ public class LambdaManagerFacadeImpl implements LambdaManagerFacade {
             logger.error("Error, time limit exceeded.", e);
             e.printStackTrace();
         }
+        Metrics.operation("add", lambda.getName().getIdentifier()).recordSince(start);
         return token;
 
     }
@@ -104,6 +111,14 @@ public class LambdaManagerFacadeImpl implements LambdaManagerFacade {
      */
 
     public String executeLambda(String nameOfLambda, ExecuteConfig executeConfig) throws RuntimeConnectException, TimeExceededException, IllegalAccessException, InstantiationException, ClassNotFoundException, IOException {
+        return runLambda(nameOfLambda, executeConfig).getOutput();
+    }
+
+    /**
+     * @see edu.teco.serverless.model.servicelayer.service.LambdaManagerFacade
+     */
+    public ExecuteResult runLambda(String nameOfLambda, ExecuteConfig executeConfig) throws RuntimeConnectException, TimeExceededException, IllegalAccessException, InstantiationException, ClassNotFoundException, IOException {
+        long start = System.nanoTime();
         try {
             runTime = RuntimeController.getInstance();
             logger.info("runtTime is created.");
@@ -129,15 +144,16 @@ public class LambdaManagerFacadeImpl implements LambdaManagerFacade {
 
             throw new LambdaNotFoundException();
         }
-        String result = null;
+        ExecuteResult result = null;
         try {
-            result = runTime.run(identifier, executeConfig);
+            result = runTime.execute(identifier, executeConfig);
             logger.info(String.format("Get result of execution : %s", result));
         } catch (TimeExceededException e) {
 
             logger.error("Error, time limit exceeded.", e);
             throw e;
         }
+        Metrics.operation("execute", nameOfLambda).recordSince(start);
         return result;
 
     }
@@ -146,6 +162,7 @@ public class LambdaManagerFacadeImpl implements LambdaManagerFacade {
      * @see edu.teco.serverless.model.servicelayer.service.LambdaManagerFacade
      */
     public String updateLambda(String nameOfLambda, Lambda lambda) throws RuntimeConnectException, LanguageNotSupportedException, TimeExceededException, IllegalAccessException, InstantiationException, ClassNotFoundException, IOException {
+        long start = System.nanoTime();
 
         try {
             runTime = RuntimeController.getInstance();
@@ -200,6 +217,7 @@ public class LambdaManagerFacadeImpl implements LambdaManagerFacade {
             logger.error("Error, time limit exceeded.", e);
             throw e;
         }
+        Metrics.operation("update", nameOfLambda).recordSince(start);
         return token;
     }
 
@@ -256,6 +274,7 @@ public class LambdaManagerFacadeImpl implements LambdaManagerFacade {
      * @see edu.teco.serverless.model.servicelayer.service.LambdaManagerFacade
      */
     public void deleteLambda(String nameOfLambda) throws RuntimeConnectException, TimeExceededException, IllegalAccessException, InstantiationException, ClassNotFoundException, IOException {
+        long start = System.nanoTime();
         try {
             runTime = RuntimeController.getInstance();
             logger.info("runtTime is created.");
@@ -286,9 +305,58 @@ public class LambdaManagerFacadeImpl implements LambdaManagerFacade {
             throw new LambdaNotFoundException();
         }
         runTime.deleteImage(identifier);
+        // the series of the lambda are removed with it
+        Metrics.operation("delete").recordSince(start);
     }
 
+    /**
+     * @see edu.teco.serverless.model.servicelayer.service.LambdaManagerFacade
+     */
+    public AdmissionController.Permit admitLambda(String nameOfLambda) throws RuntimeConnectException, TimeExceededException, IllegalAccessException, InstantiationException, ClassNotFoundException, IOException {
+        runTime = RuntimeController.getInstance();
+        return runTime.admit(new Identifier(nameOfLambda));
+    }
 
+    /**
+     * @see edu.teco.serverless.model.servicelayer.service.LambdaManagerFacade
+     */
+    public void streamLambda(String nameOfLambda, ExecuteConfig executeConfig, OutputStream out, AdmissionController.Permit permit) throws RuntimeConnectException, TimeExceededException, IllegalAccessException, InstantiationException, ClassNotFoundException, IOException {
+        long start = System.nanoTime();
+        runTime = RuntimeController.getInstance();
+        try {
+            runTime.stream(new Identifier(nameOfLambda), executeConfig, out, permit);
+        } catch (TimeExceededException e) {
+            logger.error("Error, time limit exceeded.", e);
+            throw e;
+        }
+        Metrics.operation("stream", nameOfLambda).recordSince(start);
+    }
+
+    /**
+     * @see edu.teco.serverless.model.servicelayer.service.LambdaManagerFacade
+     */
+    public Build addLambdaAsync(Lambda lambda) throws RuntimeConnectException, IOException, LanguageNotSupportedException, IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException {
+        runTime = RuntimeController.getInstance();
+        Build build = runTime.submitBuild(lambda);
+        logger.info(String.format("Queued build %s.", build));
+        return build;
+    }
+
+    /**
+     * @see edu.teco.serverless.model.servicelayer.service.LambdaManagerFacade
+     */
+    public Build getBuild(String name, String id) throws RuntimeConnectException, IOException, IllegalAccessException, InstantiationException, ClassNotFoundException, TimeExceededException {
+        runTime = RuntimeController.getInstance();
+        return runTime.getBuild(name, id);
+    }
+
+    /**
+     * @see edu.teco.serverless.model.servicelayer.service.LambdaManagerFacade
+     */
+    public boolean lambdaExists(String nameOfLambda) throws RuntimeConnectException, TimeExceededException, IllegalAccessException, InstantiationException, ClassNotFoundException, IOException {
+        runTime = RuntimeController.getInstance();
+        return runTime.lambdaExists(new Identifier(nameOfLambda));
+    }
 }
 
 
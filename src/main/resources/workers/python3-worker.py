@@ -0,0 +1,72 @@
+# Worker of the serverless runtime for Python3 lambdas.
+#
+# Usage: python python3-worker.py /src/<name>.py
+#
+# The lambda is compiled once and its imports stay loaded; every call runs the
+# compiled code with fresh globals, like "python /src/<name>.py <arguments>" would.
+# Requests and responses are frames on stdin/stdout: a 4 byte big-endian length,
+# followed by that many bytes of UTF-8 JSON.
+#   request:  {"id": 1, "args": ["a", "b"]}
+#   response: {"id": 1, "stdout": "...", "stderr": "..."}
+import io
+import json
+import os
+import struct
+import sys
+import traceback
+
+
+def read_exactly(stream, size):
+    data = b''
+    while len(data) < size:
+        chunk = stream.read(size - len(data))
+        if not chunk:
+            return None
+        data += chunk
+    return data
+
+
+def write_frame(stream, message):
+    payload = json.dumps(message).encode('utf-8')
+    stream.write(struct.pack('>I', len(payload)) + payload)
+    stream.flush()
+
+
+def run(code, path, args):
+    out, err = io.StringIO(), io.StringIO()
+    sys.argv = [path] + args
+    sys.stdin, sys.stdout, sys.stderr = io.StringIO(), out, err
+    try:
+        exec(code, {'__name__': '__main__', '__file__': path})
+    except SystemExit as e:
+        if e.code is not None and not isinstance(e.code, int):
+            err.write(str(e.code) + '\n')
+    except BaseException:
+        traceback.print_exc()
+    finally:
+        sys.stdin, sys.stdout, sys.stderr = sys.__stdin__, sys.__stdout__, sys.__stderr__
+    return out.getvalue(), err.getvalue()
+
+
+def main():
+    path = sys.argv[1]
+    requests = sys.stdin.buffer
+    responses = sys.stdout.buffer
+    with open(path) as source:
+        code = compile(source.read(), path, 'exec')
+    sys.path[0] = os.path.dirname(path)
+
+    while True:
+        header = read_exactly(requests, 4)
+        if header is None:
+            return
+        payload = read_exactly(requests, struct.unpack('>I', header)[0])
+        if payload is None:
+            return
+        request = json.loads(payload.decode('utf-8'))
+        stdout, stderr = run(code, path, request['args'])
+        write_frame(responses, {'id': request['id'], 'stdout': stdout, 'stderr': stderr})
+
+
+if __name__ == '__main__':
+    main()
@@ -109,7 +109,7 @@ public class RestApiControllerTest {
                 "\"code\": \"print('Hello world')\"" +
                 "}" +
                 "}";
-        RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas").then().statusCode(201);
+        RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas?async=false").then().statusCode(201);
     }
 
 
@@ -133,8 +133,8 @@ public class RestApiControllerTest {
                 "\"code\": \"print('Hello world')\"" +
                 "}" +
                 "}";
-        RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas").then().statusCode(201);
-        RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas").then().statusCode(403);
+        RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas?async=false").then().statusCode(201);
+        RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas?async=false").then().statusCode(403);
 
     }
 
@@ -156,7 +156,7 @@ public class RestApiControllerTest {
 
                 "}" +
                 "}";
-        RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas").then().statusCode(400);
+        RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas?async=false").then().statusCode(400);
 
     }
 
@@ -180,7 +180,7 @@ public class RestApiControllerTest {
                 "\"code\": \"print('Hello world')\"" +
                 "}" +
                 "}";
-       RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas").then().statusCode(201);
+       RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas?async=false").then().statusCode(201);
 
         String body1 = "{" +
 
@@ -207,7 +207,7 @@ public class RestApiControllerTest {
                 "\"code\": \"print('Hello world')\"" +
                 "}" +
                 "}";
-        RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas").then().statusCode(201);
+        RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas?async=false").then().statusCode(201);
 
         String body1 = " ";
         RestAssured.given().port(port).contentType("application/json").body(body1).when().post("/lambdas/{hello}/execute").then().statusCode(400);
@@ -234,7 +234,7 @@ public class RestApiControllerTest {
                 "\"code\": \"print('Hello world')\"" +
                 "}" +
                 "}";
-        RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas").then().statusCode(201);
+        RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas?async=false").then().statusCode(201);
 
         String body1 = "{" +
                 "\"name\":\"hello\"," +
@@ -266,7 +266,7 @@ public class RestApiControllerTest {
                 "\"code\": \"print('Hello world')\"" +
                 "}" +
                 "}";
-        RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas").then().statusCode(201);
+        RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas?async=false").then().statusCode(201);
 
 
         RestAssured.given().port(port).contentType("application/json").when().get("/lambdas/{hello}").then().statusCode(200);
@@ -292,7 +292,7 @@ public class RestApiControllerTest {
                 "\"code\": \"print('Hello world')\"" +
                 "}" +
                 "}";
-        RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas").then().statusCode(201);
+        RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas?async=false").then().statusCode(201);
 
 
         RestAssured.given().pathParameter("name", "hello").port(port).contentType("application/json").when().delete("/lambdas/{hello}").then().statusCode(200);
@@ -318,7 +318,7 @@ public class RestApiControllerTest {
                 "\"code\": \"print('Hello world')\"" +
                 "}" +
                 "}";
-        RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas").then().statusCode(201);
+        RestAssured.given().port(port).contentType("application/json").body(body).when().post("/lambdas?async=false").then().statusCode(201);
 
         RestAssured.given().port(port).contentType("application/json").parameter("expiryDate","70 minutes").when().get("/lambdas/{hello}").then().statusCode(201);
 
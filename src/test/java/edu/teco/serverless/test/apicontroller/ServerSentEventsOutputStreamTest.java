@@ -0,0 +1,39 @@
+package edu.teco.serverless.test.apicontroller;
+
+import edu.teco.serverless.apicontroller.ServerSentEventsOutputStream;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests the framing of output as server-sent events
+ */
+public class ServerSentEventsOutputStreamTest {
+
+    @Test
+    public void linesAreEvents() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ServerSentEventsOutputStream sse = new ServerSentEventsOutputStream(out);
+        sse.write("Hel".getBytes(StandardCharsets.UTF_8));
+        sse.flush();
+        assertEquals("", text(out));
+        sse.write("lo\nworld\nlast".getBytes(StandardCharsets.UTF_8));
+        assertEquals("data: Hello\n\ndata: world\n\n", text(out));
+        sse.finish("done", null);
+        assertEquals("data: Hello\n\ndata: world\n\ndata: last\n\nevent: done\ndata: \n\n", text(out));
+    }
+
+    @Test
+    public void multiLineData() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ServerSentEventsOutputStream(out).finish("error", "a\nb");
+        assertEquals("event: error\ndata: a\ndata: b\n\n", text(out));
+    }
+
+    private static String text(ByteArrayOutputStream out) {
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
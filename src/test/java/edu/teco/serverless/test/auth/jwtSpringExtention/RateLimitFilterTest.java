@@ -0,0 +1,84 @@
+package edu.teco.serverless.test.auth.jwtSpringExtention;
+
+import edu.teco.serverless.auth.jwtSpringExtention.AccessRights;
+import edu.teco.serverless.auth.jwtSpringExtention.RateLimitFilter;
+import edu.teco.serverless.auth.jwtSpringExtention.TokenBucketLimiter;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests that executions are limited per subtoken, per mastertoken and per lambda
+ */
+public class RateLimitFilterTest {
+    private final RateLimitFilter filter = new RateLimitFilter(new TokenBucketLimiter(1000),
+            new TokenBucketLimiter.Limit(0.001, 2),
+            new TokenBucketLimiter.Limit(0, 0),
+            new TokenBucketLimiter.Limit(0.001, 3));
+
+    @After
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void subtokensAndLambdaAreLimited() throws Exception {
+        Date expiry = new Date(System.currentTimeMillis() + 60000);
+        assertEquals(200, execute("/lambdas/a/execute", sub("a", expiry)).getStatus());
+        assertEquals(200, execute("/lambdas/a/execute/stream", sub("a", expiry)).getStatus());
+        MockHttpServletResponse rejected = execute("/lambdas/a/execute", sub("a", expiry));
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("too many requests"));
+
+        // another subtoken has its own bucket, but shares the one of the lambda
+        Date otherExpiry = new Date(expiry.getTime() + 1000);
+        assertEquals(200, execute("/lambdas/a/execute", sub("a", otherExpiry)).getStatus());
+        assertEquals(429, execute("/lambdas/a/execute", sub("a", otherExpiry)).getStatus());
+        assertEquals(200, execute("/lambdas/b/execute", sub("b", expiry)).getStatus());
+    }
+
+    @Test
+    public void otherRequestsAreNotLimited() throws Exception {
+        AccessRights master = new AccessRights("a", null, AuthorityUtils.createAuthorityList("ROLE_MASTER"), "key");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, execute("/lambdas/a/execute", master).getStatus());
+        }
+        // only the bucket of the lambda is left
+        assertEquals(429, execute("/lambdas/a/execute", master).getStatus());
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/lambdas/a");
+            request.setServletPath("/lambdas/a");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+        SecurityContextHolder.clearContext();
+        assertEquals(200, execute("/lambdas/a/execute", null).getStatus());
+    }
+
+    private static AccessRights sub(String lambda, Date expiry) {
+        return new AccessRights(lambda, expiry, AuthorityUtils.createAuthorityList("ROLE_SUB"), "key");
+    }
+
+    private MockHttpServletResponse execute(String path, AccessRights rights) throws Exception {
+        if (rights != null) {
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(rights, null, rights.getAuthorities()));
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setServletPath(path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,63 @@
+package edu.teco.serverless.test.auth.jwtSpringExtention;
+
+import edu.teco.serverless.auth.jwtSpringExtention.TokenBucketLimiter;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests refill, burst, eviction and the disabled limit of the token buckets
+ */
+public class TokenBucketLimiterTest {
+    private final AtomicLong now = new AtomicLong();
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(32, now::get);
+
+    @Test
+    public void burstAndRefill() {
+        TokenBucketLimiter.Limit limit = new TokenBucketLimiter.Limit(10, 3);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("a", limit));
+        }
+        // the next token comes after 1/10 s
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.tryAcquire("a", limit));
+        assertEquals(0, limiter.tryAcquire("b", limit));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(250));
+        assertEquals(0, limiter.tryAcquire("a", limit));
+        assertEquals(0, limiter.tryAcquire("a", limit));
+        assertTrue(limiter.tryAcquire("a", limit) > 0);
+
+        // not more than the burst is saved up
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("a", limit));
+        }
+        assertTrue(limiter.tryAcquire("a", limit) > 0);
+    }
+
+    @Test
+    public void disabledLimit() {
+        TokenBucketLimiter.Limit limit = new TokenBucketLimiter.Limit(0, 0);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, limiter.tryAcquire("a", limit));
+        }
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    public void bucketsAreBounded() {
+        TokenBucketLimiter.Limit limit = new TokenBucketLimiter.Limit(1, 1);
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("key" + i, limit);
+        }
+        assertTrue(limiter.size() <= 32);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void burstIsRequired() {
+        new TokenBucketLimiter.Limit(1, 0);
+    }
+}
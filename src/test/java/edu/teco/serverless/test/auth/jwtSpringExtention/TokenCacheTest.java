@@ -0,0 +1,97 @@
+package edu.teco.serverless.test.auth.jwtSpringExtention;
+
+import edu.teco.serverless.auth.jwtSpringExtention.AccessRights;
+import edu.teco.serverless.auth.jwtSpringExtention.TokenCache;
+import edu.teco.serverless.model.lambda.AuthKey;
+import edu.teco.serverless.model.lambda.Identifier;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.images.LambdaImage;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests expiry, eviction and invalidation of the cache of verified tokens
+ */
+public class TokenCacheTest {
+    private TokenCache cache;
+
+    @Before
+    public void setUp() {
+        // one stripe, so the least recently used token of the whole cache is evicted
+        cache = new TokenCache(2, 1);
+    }
+
+    @Test
+    public void hitAndMiss() {
+        AccessRights rights = rights("a", "key", null);
+        assertNull(cache.get("token"));
+        cache.put("token", rights);
+        assertSame(rights, cache.get("token"));
+        assertNull(cache.get("other token"));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void expiredSubtoken() throws Exception {
+        cache.put("token", rights("a", "key", new Date(System.currentTimeMillis() + 50)));
+        assertNotNull(cache.get("token"));
+        Thread.sleep(100);
+        assertNull(cache.get("token"));
+        assertEquals(0, cache.size());
+
+        cache.put("expired", rights("a", "key", new Date(System.currentTimeMillis() - 1000)));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedIsEvicted() {
+        cache.put("a", rights("a", "key", null));
+        cache.put("b", rights("b", "key", null));
+        cache.get("a");
+        cache.put("c", rights("c", "key", null));
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    public void stripedCacheIsBounded() {
+        TokenCache striped = new TokenCache(64);
+        for (int i = 0; i < 1000; i++) {
+            striped.put("token " + i, rights("a", "key", null));
+        }
+        assertTrue(striped.size() <= 64);
+        assertNotNull(striped.get("token 999"));
+
+        striped.imageRemoved(new Identifier("a"));
+        assertEquals(0, striped.size());
+    }
+
+    @Test
+    public void rebuildDropsOldAuthKey() {
+        cache.put("old", rights("a", "old key", null));
+        cache.put("new", rights("a", "new key", null));
+        cache.imageBuilt(new LambdaImage(new Identifier("a"), new AuthKey("new key")) {
+        });
+        assertNull(cache.get("old"));
+        assertNotNull(cache.get("new"));
+    }
+
+    @Test
+    public void removeDropsLambda() {
+        cache.put("a", rights("a", "key", null));
+        cache.put("b", rights("b", "key", null));
+        cache.imageRemoved(new Identifier("a"));
+        assertNull(cache.get("a"));
+        assertNotNull(cache.get("b"));
+    }
+
+    private static AccessRights rights(String name, String authKey, Date expiryDate) {
+        return new AccessRights(name, expiryDate, AuthorityUtils.createAuthorityList("ROLE_MASTER"), authKey);
+    }
+}
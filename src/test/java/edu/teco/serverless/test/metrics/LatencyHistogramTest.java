@@ -0,0 +1,68 @@
+package edu.teco.serverless.test.metrics;
+
+import edu.teco.serverless.metrics.LatencyHistogram;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests the quantiles and concurrent records of the latency histogram
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void empty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtQuantile(0.99));
+    }
+
+    @Test
+    public void quantiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500500), histogram.getSum());
+        assertWithin(TimeUnit.MILLISECONDS.toNanos(500), histogram.getValueAtQuantile(0.5));
+        assertWithin(TimeUnit.MILLISECONDS.toNanos(990), histogram.getValueAtQuantile(0.99));
+        assertWithin(TimeUnit.MILLISECONDS.toNanos(999), histogram.getValueAtQuantile(0.999));
+        assertWithin(TimeUnit.MILLISECONDS.toNanos(1000), histogram.getValueAtQuantile(1));
+    }
+
+    @Test
+    public void smallAndLargeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(3));
+        histogram.record(TimeUnit.DAYS.toNanos(100));
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(3), histogram.getValueAtQuantile(0.5));
+        assertTrue(histogram.getValueAtQuantile(1) >= TimeUnit.DAYS.toNanos(12));
+    }
+
+    @Test
+    public void concurrentRecords() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    histogram.record(1000);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(40000, histogram.getCount());
+        assertEquals(1000, histogram.getValueAtQuantile(0.999));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        // a bucket is at most 1/16 of its value wide
+        assertTrue(actual + " is not close to " + expected, Math.abs(actual - expected) <= expected / 16);
+    }
+}
@@ -0,0 +1,96 @@
+package edu.teco.serverless.test.metrics;
+
+import edu.teco.serverless.metrics.MetricsRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests the Prometheus text format of the metrics registry
+ */
+public class MetricsRegistryTest {
+    private final MetricsRegistry registry = MetricsRegistry.getInstance();
+
+    @After
+    public void tearDown() {
+        registry.clear();
+        registry.setMaxSeries(MetricsRegistry.DEFAULT_MAX_SERIES);
+    }
+
+    @Test
+    public void sameLabelsSameSeries() {
+        registry.counter("test_total", "help", "lambda", "a").increment();
+        registry.counter("test_total", "help", "lambda", "a").increment();
+        registry.counter("test_total", "help", "lambda", "b").increment();
+        assertEquals(2, registry.counter("test_total", "help", "lambda", "a").sum());
+    }
+
+    @Test
+    public void counter() {
+        registry.counter("test_total", "Number of tests.", "lambda", "a").add(3);
+        String text = registry.scrape();
+        assertTrue(text.contains("# HELP test_total Number of tests.\n"));
+        assertTrue(text.contains("# TYPE test_total counter\n"));
+        assertTrue(text.contains("test_total{lambda=\"a\"} 3\n"));
+    }
+
+    @Test
+    public void summary() {
+        registry.histogram("test_seconds", "Latency of tests.", "lambda", "a").record(TimeUnit.SECONDS.toNanos(2));
+        String text = registry.scrape();
+        assertTrue(text.contains("# TYPE test_seconds summary\n"));
+        assertTrue(text.contains("test_seconds{lambda=\"a\",quantile=\"0.5\"} "));
+        assertTrue(text.contains("test_seconds{lambda=\"a\",quantile=\"0.999\"} "));
+        assertTrue(text.contains("test_seconds_sum{lambda=\"a\"} 2.0\n"));
+        assertTrue(text.contains("test_seconds_count{lambda=\"a\"} 1\n"));
+    }
+
+    @Test
+    public void escapedLabels() {
+        registry.counter("test_total", "help", "lambda", "a\"b\\c\nd").increment();
+        assertTrue(registry.scrape().contains("test_total{lambda=\"a\\\"b\\\\c\\nd\"} 1\n"));
+    }
+
+    @Test
+    public void removeSeriesOfLabel() {
+        registry.counter("test_total", "help", "lambda", "a", "cache", "hit").increment();
+        registry.histogram("test_seconds", "help", "lambda", "a").record(1);
+        registry.counter("test_total", "help", "lambda", "b", "cache", "hit").increment();
+
+        registry.remove("lambda", "a");
+
+        String text = registry.scrape();
+        assertFalse(text.contains("lambda=\"a\""));
+        assertTrue(text.contains("test_total{lambda=\"b\",cache=\"hit\"} 1\n"));
+    }
+
+    @Test
+    public void overflowBeyondMaxSeries() {
+        registry.setMaxSeries(2);
+        registry.counter("test_total", "help", "lambda", "a").increment();
+        registry.counter("test_total", "help", "lambda", "b").increment();
+        registry.counter("test_total", "help", "lambda", "c").increment();
+        registry.counter("test_total", "help", "lambda", "d").increment();
+        // an existing series is still found
+        registry.counter("test_total", "help", "lambda", "a").increment();
+
+        String text = registry.scrape();
+        assertTrue(text.contains("test_total{lambda=\"a\"} 2\n"));
+        assertTrue(text.contains("test_total{lambda=\"" + MetricsRegistry.OVERFLOW + "\"} 2\n"));
+        assertFalse(text.contains("lambda=\"c\""));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void oddLabels() {
+        registry.counter("test_total", "help", "lambda");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void typeConflict() {
+        registry.counter("test_total", "help").increment();
+        registry.histogram("test_total", "help");
+    }
+}
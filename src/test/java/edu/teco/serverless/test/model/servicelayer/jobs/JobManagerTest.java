@@ -0,0 +1,114 @@
+package edu.teco.serverless.test.model.servicelayer.jobs;
+
+import edu.teco.serverless.model.exception.execution.ConcurrencyLimitException;
+import edu.teco.serverless.model.exception.job.JobNotFoundException;
+import edu.teco.serverless.model.exception.job.JobQueueFullException;
+import edu.teco.serverless.model.servicelayer.jobs.Job;
+import edu.teco.serverless.model.servicelayer.jobs.JobManager;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests queueing, results and eviction of asynchronous executions
+ */
+public class JobManagerTest {
+    private JobManager jobManager;
+
+    @Before
+    public void setUp() {
+        jobManager = new JobManager(1, 1, 200);
+    }
+
+    @After
+    public void tearDown() {
+        jobManager.shutdown();
+    }
+
+    @Test
+    public void succeeded() throws Exception {
+        Job job = jobManager.submit("hello", () -> "Hello world\n");
+        awaitDone(job);
+        assertEquals(Job.Status.SUCCEEDED, job.getStatus());
+        assertEquals("Hello world\n", job.getResult());
+        assertNull(job.getError());
+        assertSame(job, jobManager.getJob("hello", job.getId()));
+    }
+
+    @Test
+    public void failed() throws Exception {
+        Job job = jobManager.submit("hello", () -> {
+            throw new TimeExceededException();
+        });
+        awaitDone(job);
+        assertEquals(Job.Status.FAILED, job.getStatus());
+        assertEquals("Error, time limit exceeded.", job.getError());
+        assertNull(job.getResult());
+    }
+
+    @Test
+    public void rejectedByConcurrencyLimit() throws Exception {
+        Job job = jobManager.submit("hello", () -> {
+            throw new ConcurrencyLimitException("too many executions are waiting", 1);
+        });
+        awaitDone(job);
+        assertEquals(Job.Status.FAILED, job.getStatus());
+        assertEquals("Error, too many executions of this lambda are running.", job.getError());
+    }
+
+    @Test(expected = JobNotFoundException.class)
+    public void otherLambda() throws Exception {
+        Job job = jobManager.submit("hello", () -> "");
+        jobManager.getJob("bye", job.getId());
+    }
+
+    @Test
+    public void queueFull() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        Job running = jobManager.submit("hello", () -> {
+            release.await();
+            return "";
+        });
+        Job queued = jobManager.submit("hello", () -> "");
+        try {
+            jobManager.submit("hello", () -> "");
+            fail();
+        } catch (JobQueueFullException e) {
+            assertEquals(2, jobManager.getJobs());
+        }
+        release.countDown();
+        awaitDone(running);
+        awaitDone(queued);
+        assertEquals(Job.Status.SUCCEEDED, queued.getStatus());
+    }
+
+    @Test
+    public void evicted() throws Exception {
+        Job job = jobManager.submit("hello", () -> "");
+        awaitDone(job);
+        jobManager.evictExpired();
+        assertEquals(1, jobManager.getJobs());
+        Thread.sleep(300);
+        jobManager.evictExpired();
+        assertEquals(0, jobManager.getJobs());
+        try {
+            jobManager.getJob("hello", job.getId());
+            fail();
+        } catch (JobNotFoundException e) {
+            // expected
+        }
+    }
+
+    private static void awaitDone(Job job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!job.isDone() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isDone());
+    }
+}
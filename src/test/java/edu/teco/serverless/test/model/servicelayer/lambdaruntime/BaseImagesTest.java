@@ -0,0 +1,87 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime;
+
+import edu.teco.serverless.model.lambda.Identifier;
+import edu.teco.serverless.model.lambda.Library;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.BaseImages;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests normalization, building and usage counts of shared base images
+ */
+public class BaseImagesTest {
+    private List<String> builds;
+    private BaseImages baseImages;
+
+    @Before
+    public void setUp() {
+        builds = Collections.synchronizedList(new ArrayList<>());
+        baseImages = new BaseImages("base", (tag, libraries) -> {
+            builds.add(tag);
+            return "id-" + builds.size();
+        });
+    }
+
+    @Test
+    public void normalize() {
+        assertEquals(Arrays.asList("numpy", "requests"),
+                BaseImages.normalize(libraries(" requests", "numpy", "requests ", "")));
+    }
+
+    @Test
+    public void sameSetSameImage() throws Exception {
+        String tag = baseImages.ensure(libraries("numpy", "requests"));
+        assertTrue(tag.startsWith("base:"));
+        assertEquals(tag, baseImages.ensure(libraries("requests", "numpy", "numpy")));
+        assertNotEquals(tag, baseImages.ensure(libraries("numpy")));
+        assertEquals(2, builds.size());
+    }
+
+    @Test
+    public void noLibraries() throws Exception {
+        assertNull(baseImages.ensure(Collections.emptyList()));
+        assertTrue(builds.isEmpty());
+    }
+
+    @Test
+    public void counts() throws Exception {
+        String tag = baseImages.ensure(libraries("numpy"));
+        baseImages.assign(new Identifier("a"), libraries("numpy"));
+        baseImages.assign(new Identifier("b"), libraries("numpy"));
+        baseImages.assign(new Identifier("c"), libraries("scipy"));
+        assertEquals(2, lambdas(tag));
+
+        // an update moves the lambda to the image of its new libraries
+        baseImages.assign(new Identifier("b"), libraries("scipy"));
+        baseImages.release(new Identifier("a"));
+        assertEquals(0, lambdas(tag));
+        assertEquals(2, baseImages.getBaseImages().size());
+        for (BaseImages.BaseImageInfo info : baseImages.getBaseImages()) {
+            assertEquals(info.getTag().equals(tag), info.getImageId() != null);
+        }
+    }
+
+    private int lambdas(String tag) {
+        for (BaseImages.BaseImageInfo info : baseImages.getBaseImages()) {
+            if (info.getTag().equals(tag)) {
+                return info.getLambdas();
+            }
+        }
+        return -1;
+    }
+
+    private static List<Library> libraries(String... names) {
+        List<Library> libraries = new ArrayList<>();
+        for (String name : names) {
+            libraries.add(new Library(name));
+        }
+        return libraries;
+    }
+}
@@ -0,0 +1,84 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime;
+
+import edu.teco.serverless.model.lambda.Code;
+import edu.teco.serverless.model.lambda.Language;
+import edu.teco.serverless.model.lambda.Library;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.BuildCache;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests content hashes and reference counting of the build cache
+ */
+public class BuildCacheTest {
+    private static final Language PYTHON = new Language("Python3");
+
+    @Test
+    public void hash() {
+        String hash = BuildCache.hash(PYTHON, new Code("print(1)"), Collections.singletonList(new Library("numpy")));
+        assertEquals(hash, BuildCache.hash(PYTHON, new Code("print(1)"), Collections.singletonList(new Library("numpy"))));
+        assertNotEquals(hash, BuildCache.hash(PYTHON, new Code("print(2)"), Collections.singletonList(new Library("numpy"))));
+        assertNotEquals(hash, BuildCache.hash(PYTHON, new Code("print(1)"), Collections.emptyList()));
+        assertNotEquals(BuildCache.hash(PYTHON, new Code("a"), Collections.singletonList(new Library("bc"))),
+                BuildCache.hash(PYTHON, new Code("ab"), Collections.singletonList(new Library("c"))));
+        assertNotEquals(BuildCache.hash(PYTHON, new Code(""), Arrays.asList(new Library("a"), new Library("b"))),
+                BuildCache.hash(PYTHON, new Code(""), Collections.singletonList(new Library("ab"))));
+    }
+
+    @Test
+    public void references() {
+        BuildCache cache = new BuildCache();
+        assertNull(cache.acquire("hash"));
+        assertEquals("image", cache.add("hash", "image"));
+        assertEquals("image", cache.acquire("hash"));
+        assertEquals(2, cache.getReferences("hash"));
+
+        assertFalse(cache.release("image"));
+        assertTrue(cache.release("image"));
+        assertEquals(0, cache.size());
+        assertNull(cache.acquire("hash"));
+    }
+
+    @Test
+    public void firstImageWins() {
+        BuildCache cache = new BuildCache();
+        cache.add("hash", "image");
+        assertEquals("image", cache.add("hash", "other"));
+        assertEquals(2, cache.getReferences("hash"));
+    }
+
+    @Test
+    public void contentsWithTheSameImage() {
+        BuildCache cache = new BuildCache();
+        assertEquals("image", cache.add("hash", "image"));
+        assertEquals("image", cache.add("other", "image"));
+        assertEquals(2, cache.getReferences("other"));
+        assertEquals(1, cache.size());
+
+        // the image is used by the lambda of the other content until that one is released as well
+        assertFalse(cache.release("image"));
+        assertEquals("image", cache.acquire("hash"));
+        assertFalse(cache.release("image"));
+        assertTrue(cache.release("image"));
+        assertNull(cache.acquire("hash"));
+        assertNull(cache.acquire("other"));
+    }
+
+    @Test
+    public void sameContentSameLock() {
+        BuildCache cache = new BuildCache();
+        Object lock = cache.lock("hash");
+        cache.add("hash", "image");
+        cache.release("image");
+        assertSame(lock, cache.lock("hash"));
+    }
+
+    @Test
+    public void unknownImage() {
+        assertTrue(new BuildCache().release("image"));
+    }
+}
@@ -0,0 +1,125 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime;
+
+import edu.teco.serverless.model.exception.build.BuildNotFoundException;
+import edu.teco.serverless.model.exception.build.BuildQueueFullException;
+import edu.teco.serverless.model.lambda.AuthKey;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.Build;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.BuildQueue;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests states, limits and statistics of the build queue
+ */
+public class BuildQueueTest {
+    private static final AuthKey KEY = new AuthKey("key");
+
+    private BuildQueue queue;
+
+    @After
+    public void tearDown() {
+        queue.shutdown();
+    }
+
+    @Test
+    public void succeeded() throws Exception {
+        queue = new BuildQueue(1, 1, 60000);
+        Build build = queue.submit("lambda", KEY, () -> sleep(20));
+        build.await();
+        assertEquals(Build.Status.SUCCEEDED, build.getStatus());
+        assertNull(build.getFailure());
+        assertSame(build, queue.getBuild("lambda", build.getId()));
+        assertEquals(KEY, build.getAuthKey());
+        assertEquals(1, queue.getSucceededBuilds());
+        assertTrue(queue.getMaxBuildMillis() >= 20);
+        assertTrue(queue.getTotalBuildMillis() >= 20);
+    }
+
+    @Test
+    public void failed() throws Exception {
+        queue = new BuildQueue(1, 1, 60000);
+        Build build = queue.submit("lambda", KEY, () -> {
+            throw new RuntimeConnectException("build failed");
+        });
+        build.await();
+        assertEquals(Build.Status.FAILED, build.getStatus());
+        assertEquals("build failed", build.getFailure().getMessage());
+        assertEquals(1, queue.getFailedBuilds());
+    }
+
+    @Test
+    public void parallelismIsCapped() throws Exception {
+        queue = new BuildQueue(2, 10, 60000);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        Build[] builds = new Build[6];
+        for (int i = 0; i < builds.length; i++) {
+            builds[i] = queue.submit("lambda" + i, KEY, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(30);
+                running.decrementAndGet();
+            });
+        }
+        for (Build build : builds) {
+            build.await();
+        }
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    public void queueFull() throws Exception {
+        queue = new BuildQueue(1, 1, 60000);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        Build running = queue.submit("a", KEY, () -> {
+            started.countDown();
+            release.await();
+        });
+        started.await();
+        Build queued = queue.submit("b", KEY, release::await);
+        assertEquals(Build.Status.RUNNING, running.getStatus());
+        assertEquals(Build.Status.QUEUED, queued.getStatus());
+        assertEquals(1, queue.getQueuedBuilds());
+        assertEquals(1, queue.getRunningBuilds());
+        try {
+            queue.submit("c", KEY, () -> { });
+            fail();
+        } catch (BuildQueueFullException e) {
+            // expected
+        }
+        release.countDown();
+        queued.await();
+        assertEquals(Build.Status.SUCCEEDED, queued.getStatus());
+    }
+
+    @Test(expected = BuildNotFoundException.class)
+    public void otherLambda() throws Exception {
+        queue = new BuildQueue(1, 1, 60000);
+        Build build = queue.submit("lambda", KEY, () -> { });
+        queue.getBuild("other", build.getId());
+    }
+
+    @Test(expected = BuildNotFoundException.class)
+    public void evicted() throws Exception {
+        queue = new BuildQueue(1, 1, 1);
+        Build build = queue.submit("lambda", KEY, () -> { });
+        build.await();
+        Thread.sleep(10);
+        queue.evictExpired();
+        queue.getBuild("lambda", build.getId());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime;
+
+import edu.teco.serverless.model.lambda.AuthKey;
+import edu.teco.serverless.model.lambda.Identifier;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.LambdaRegistry;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.images.LambdaImage;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests lookups, reservations and the lookup cost of the lambda registry
+ */
+public class LambdaRegistryTest {
+    private LambdaRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new LambdaRegistry();
+    }
+
+    @Test
+    public void registerAndRemove() {
+        LambdaImage image = image("hello");
+        registry.register(image);
+        assertTrue(registry.contains(new Identifier("hello")));
+        assertSame(image, registry.get(new Identifier("hello")));
+        assertSame(image, registry.remove(new Identifier("hello")));
+        assertNull(registry.remove(new Identifier("hello")));
+        assertNull(registry.get(new Identifier("hello")));
+    }
+
+    @Test
+    public void keyIsCopied() {
+        LambdaImage image = image("hello");
+        registry.register(image);
+        image.getIdentifier().setIdentifier("bye");
+        assertTrue(registry.contains(new Identifier("hello")));
+    }
+
+    @Test
+    public void reserve() {
+        assertTrue(registry.reserve(new Identifier("hello")));
+        assertFalse(registry.reserve(new Identifier("hello")));
+        registry.register(image("hello"));
+        registry.release(new Identifier("hello"));
+        assertFalse(registry.reserve(new Identifier("hello")));
+        registry.remove(new Identifier("hello"));
+        assertTrue(registry.reserve(new Identifier("hello")));
+    }
+
+    @Test
+    public void concurrentReservations() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(threads.submit((Callable<Boolean>) () -> registry.reserve(new Identifier("hello"))));
+            }
+            int reserved = 0;
+            for (Future<Boolean> result : results) {
+                reserved += result.get() ? 1 : 0;
+            }
+            assertEquals(1, reserved);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void lookupCostIsFlat() {
+        List<Identifier> small = fill(1000);
+        long smallCost = lookupCost(small);
+        List<Identifier> large = fill(100000);
+        assertEquals(100000, registry.size());
+        long largeCost = lookupCost(large);
+        // cache misses make the large registry somewhat slower, a linear scan of it would take about 100 us per lookup
+        assertTrue(String.format("%d ns vs %d ns per lookup", largeCost, smallCost), largeCost < smallCost * 20 + 2000);
+    }
+
+    private List<Identifier> fill(int count) {
+        List<Identifier> ids = new ArrayList<>();
+        for (int i = registry.size(); i < count; i++) {
+            registry.register(image("lambda" + i));
+        }
+        for (int i = 0; i < count; i++) {
+            ids.add(new Identifier("lambda" + i));
+        }
+        return ids;
+    }
+
+    // time of a lookup in nanoseconds, the best average of 5 runs
+    private long lookupCost(List<Identifier> ids) {
+        final int lookups = 200000;
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 5; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                assertNotNull(registry.get(ids.get((i * 7919) % ids.size())));
+            }
+            best = Math.min(best, (System.nanoTime() - start) / lookups);
+        }
+        return best;
+    }
+
+    private static LambdaImage image(String name) {
+        return new LambdaImage(new Identifier(name), new AuthKey(name)) {
+        };
+    }
+}
@@ -0,0 +1,112 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime;
+
+import edu.teco.serverless.model.servicelayer.lambdaruntime.OrphanReaper;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.CommandType;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeCommand;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeTransport;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests that only old, untracked containers and images are removed, at most the maximum per pass
+ */
+public class OrphanReaperTest {
+    private static final long OLD = System.currentTimeMillis() / 1000 - 3600;
+    private static final long NEW = System.currentTimeMillis() / 1000;
+
+    private String containers = "";
+    private String images = "";
+    private final Set<String> failing = new HashSet<>();
+    private final List<String> removed = new ArrayList<>();
+    private final RuntimeTransport transport = new RuntimeTransport() {
+        @Override
+        public String execute(RuntimeCommand cmd, long limit, TimeUnit unit) throws RuntimeConnectException {
+            switch (cmd.getType()) {
+                case CONTAINERS:
+                    return containers;
+                case IMAGES:
+                    assertEquals(RuntimeCommand.LABEL, cmd.getParameters().get(0).getParameter());
+                    return images;
+                case REMOVE:
+                case REMOVE_CONTAINER:
+                    String name = cmd.getParameters().get(0).getParameter();
+                    if (failing.contains(name)) {
+                        throw new RuntimeConnectException("conflict");
+                    }
+                    removed.add(cmd.getType() + " " + name);
+                    return "";
+                default:
+                    throw new AssertionError(cmd.getType());
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @Test
+    public void onlyOldUntrackedAreRemoved() {
+        containers = "serverless-a-1 " + OLD + "\nserverless-a-2 " + OLD + "\nserverless-a-3 " + NEW + "\n";
+        images = "aaaaaaaaaaaa " + OLD + " lambda:latest\n"
+                + "bbbbbbbbbbbb " + OLD + " serverless-base-python3:0123456789ab\n"
+                + "cccccccccccc " + OLD + " old:latest\n"
+                + "cccccccccccc " + OLD + " <none>:<none>\n"
+                + "dddddddddddd " + NEW + " new:latest\n";
+        OrphanReaper reaper = new OrphanReaper(() -> transport, () -> new HashSet<>(Arrays.asList("serverless-a-1")),
+                () -> new HashSet<>(Arrays.asList("aaaaaaaaaaaa", "serverless-base-python3:0123456789ab")),
+                60000, 10);
+        assertEquals(2, reaper.reap());
+        assertEquals(Arrays.asList(CommandType.REMOVE_CONTAINER + " serverless-a-2",
+                CommandType.REMOVE + " cccccccccccc"), removed);
+    }
+
+    @Test
+    public void removalsPerPassAreBounded() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append("serverless-b-").append(i).append(' ').append(OLD + i).append('\n');
+        }
+        containers = sb.toString();
+        images = "eeeeeeeeeeee " + OLD + " orphan:latest\n";
+        OrphanReaper reaper = new OrphanReaper(() -> transport, HashSet::new, HashSet::new, 0, 50);
+        assertEquals(50, reaper.reap());
+        // the oldest first, the images wait for the containers
+        assertEquals(CommandType.REMOVE_CONTAINER + " serverless-b-0", removed.get(0));
+        assertEquals(CommandType.REMOVE_CONTAINER + " serverless-b-49", removed.get(49));
+    }
+
+    @Test
+    public void failedRemovalsAreTriedLast() {
+        containers = "serverless-c-1 " + OLD + "\nserverless-c-2 " + (OLD + 1) + "\n";
+        failing.add("serverless-c-1");
+        OrphanReaper reaper = new OrphanReaper(() -> transport, HashSet::new, HashSet::new, 0, 1);
+        assertEquals(0, reaper.reap());
+        assertEquals(1, reaper.reap());
+        assertEquals(Arrays.asList(CommandType.REMOVE_CONTAINER + " serverless-c-2"), removed);
+    }
+
+    @Test
+    public void failedListingIsSkipped() {
+        RuntimeTransport unavailable = new RuntimeTransport() {
+            @Override
+            public String execute(RuntimeCommand cmd, long limit, TimeUnit unit) throws RuntimeConnectException {
+                throw new RuntimeConnectException("unavailable");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        assertEquals(0, new OrphanReaper(() -> unavailable, HashSet::new, HashSet::new, 0, 10).reap());
+    }
+}
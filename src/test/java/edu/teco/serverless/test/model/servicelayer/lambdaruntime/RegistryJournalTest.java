@@ -0,0 +1,119 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime;
+
+import edu.teco.serverless.model.lambda.AuthKey;
+import edu.teco.serverless.model.lambda.Identifier;
+import edu.teco.serverless.model.lambda.Language;
+import edu.teco.serverless.model.lambda.Library;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.RegistryJournal;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests logging, snapshots and replay of the registry journal
+ */
+public class RegistryJournalTest {
+    private File directory;
+    private RegistryJournal journal;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("registry").toFile();
+        open(1000).replay();
+    }
+
+    @After
+    public void tearDown() {
+        journal.close();
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void replay() throws Exception {
+        journal.put(entry("hello", "numpy"));
+        journal.put(entry("bye"));
+        journal.remove(new Identifier("bye"));
+        journal.put(entry("again"));
+        journal.close();
+
+        List<RegistryJournal.Entry> entries = new ArrayList<>(open(1000).replay());
+        assertEquals(2, entries.size());
+        assertEquals(new Identifier("hello"), entries.get(0).getIdentifier());
+        assertEquals(new AuthKey("key-hello"), entries.get(0).getAuthKey());
+        assertEquals("image-hello", entries.get(0).getImageId());
+        assertEquals("hash-hello", entries.get(0).getHash());
+        assertEquals(new Language("Python3"), entries.get(0).getLanguage());
+        assertEquals(Collections.singletonList(new Library("numpy")), entries.get(0).getLibraries());
+        assertEquals(new Identifier("again"), entries.get(1).getIdentifier());
+    }
+
+    @Test
+    public void compact() throws Exception {
+        journal.close();
+        open(3).replay();
+        journal.put(entry("a"));
+        journal.put(entry("b"));
+        journal.remove(new Identifier("a"));
+        assertEquals(0, journal.getRecords());
+        assertEquals(0, new File(directory, "registry.log").length());
+        journal.put(entry("c"));
+        journal.close();
+
+        Collection<RegistryJournal.Entry> entries = open(3).replay();
+        assertEquals(2, entries.size());
+    }
+
+    @Test
+    public void damagedLastRecord() throws Exception {
+        journal.put(entry("hello"));
+        journal.close();
+        try (FileWriter writer = new FileWriter(new File(directory, "registry.log"), true)) {
+            writer.write("{\"op\":\"put\",\"na");
+        }
+
+        assertEquals(1, open(1000).replay().size());
+    }
+
+    @Test
+    public void fastReplay() throws Exception {
+        journal.close();
+        open(100000).replay();
+        for (int i = 0; i < 50000; i++) {
+            journal.put(entry("lambda" + i, "numpy"));
+        }
+        journal.close();
+
+        long start = System.currentTimeMillis();
+        assertEquals(50000, open(100000).replay().size());
+        assertTrue(System.currentTimeMillis() - start < 5000);
+    }
+
+    // a new journal on the directory, that is closed after the test
+    private RegistryJournal open(int compactAfter) {
+        journal = new RegistryJournal(directory, compactAfter, false);
+        return journal;
+    }
+
+    private static RegistryJournal.Entry entry(String name, String... libraries) {
+        List<Library> list = new ArrayList<>();
+        for (String library : libraries) {
+            list.add(new Library(library));
+        }
+        return new RegistryJournal.Entry(new Identifier(name), new AuthKey("key-" + name), "image-" + name,
+                "hash-" + name, new Language("Python3"), list);
+    }
+}
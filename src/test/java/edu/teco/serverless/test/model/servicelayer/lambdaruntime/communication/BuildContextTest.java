@@ -0,0 +1,114 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime.communication;
+
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.BuildContext;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests that the build context of a lambda holds only its own files, however many lambdas are on the disk
+ */
+public class BuildContextTest {
+    private File lambdas;
+
+    @Before
+    public void setUp() throws IOException {
+        lambdas = new File("target/build-context-test");
+        delete(lambdas);
+        lambdas.mkdirs();
+    }
+
+    @Test
+    public void onlyTheFilesOfTheLambda() throws IOException {
+        File dockerfile = createLambda("lambda");
+        new File(dockerfile.getParentFile(), "nested").mkdir();
+        createLambda("other");
+
+        assertEquals(Arrays.asList("Dockerfile", "lambda.py", "libraries"), entries(context(dockerfile)));
+    }
+
+    @Test
+    public void independentOfOtherLambdas() throws IOException {
+        File dockerfile = createLambda("lambda");
+        byte[] alone = context(dockerfile);
+        long aloneTime = time(dockerfile);
+
+        for (int i = 0; i < 500; i++) {
+            createLambda("other" + i);
+        }
+        byte[] among = context(dockerfile);
+        long amongTime = time(dockerfile);
+
+        assertArrayEquals(alone, among);
+        // generous bound, the context doesn't read the other lambdas at all
+        assertTrue(String.format("%d ns alone, %d ns among 500 lambdas", aloneTime, amongTime),
+                amongTime < aloneTime * 10 + 5000000);
+    }
+
+    private File createLambda(String name) throws IOException {
+        File directory = new File(lambdas, name);
+        directory.mkdirs();
+        write(new File(directory, name + ".py"), "print('" + name + "')\n");
+        write(new File(directory, "libraries"), "numpy\n");
+        File dockerfile = new File(directory, "Dockerfile");
+        write(dockerfile, "FROM python:latest\nCOPY " + name + ".py /src/lambda.py\n");
+        return dockerfile;
+    }
+
+    private static byte[] context(File dockerfile) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BuildContext.write(dockerfile, out);
+        return out.toByteArray();
+    }
+
+    // median time of writing the context
+    private static long time(File dockerfile) throws IOException {
+        long[] times = new long[21];
+        for (int i = 0; i < times.length; i++) {
+            long start = System.nanoTime();
+            context(dockerfile);
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[times.length / 2];
+    }
+
+    private static List<String> entries(byte[] tar) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (TarArchiveInputStream in = new TarArchiveInputStream(new ByteArrayInputStream(tar))) {
+            TarArchiveEntry entry;
+            while ((entry = in.getNextTarEntry()) != null) {
+                names.add(entry.getName());
+            }
+        }
+        return names;
+    }
+
+    private static void write(File file, String content) throws IOException {
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(content);
+        }
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
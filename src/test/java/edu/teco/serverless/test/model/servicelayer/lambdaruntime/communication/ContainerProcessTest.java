@@ -0,0 +1,91 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime.communication;
+
+import edu.teco.serverless.metrics.Metrics;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.CommandType;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.ContainerKiller;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.ContainerProcess;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.ProcessDrainer;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeCommand;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeTransport;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests that destroying the process of a running container kills the container through the runtime
+ */
+public class ContainerProcessTest {
+    private final List<String> killed = new CopyOnWriteArrayList<>();
+    private final ContainerKiller killer = new ContainerKiller(() -> new RuntimeTransport() {
+        @Override
+        public String execute(RuntimeCommand cmd, long limit, TimeUnit unit) {
+            assertEquals(CommandType.KILL, cmd.getType());
+            killed.add(cmd.getParameters().get(0).getParameter());
+            return "";
+        }
+
+        @Override
+        public void close() {
+        }
+    });
+
+    @After
+    public void tearDown() {
+        killer.shutdown();
+    }
+
+    @Test(timeout = 10000)
+    public void timeLimitKillsContainer() throws Exception {
+        long kills = Metrics.containerKill("killed").getCount();
+        ContainerProcess process = new ContainerProcess(sh("exec sleep 10"), "serverless-test-1", killer);
+        long start = System.currentTimeMillis();
+        try {
+            ProcessDrainer.getInstance().drain(process, 300, TimeUnit.MILLISECONDS);
+            fail();
+        } catch (TimeExceededException e) {
+            assertTrue(System.currentTimeMillis() - start < 5000);
+        }
+        awaitKills(1);
+        assertEquals("serverless-test-1", killed.get(0));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (Metrics.containerKill("killed").getCount() == kills && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(kills + 1, Metrics.containerKill("killed").getCount());
+    }
+
+    @Test(timeout = 10000)
+    public void exitedContainerIsNotKilled() throws Exception {
+        ContainerProcess process = new ContainerProcess(sh("exit 0"), "serverless-test-2", killer);
+        process.waitFor();
+        process.destroy();
+        // a kill would be done by now
+        Thread.sleep(200);
+        assertTrue(killed.isEmpty());
+
+        process = new ContainerProcess(sh("exec sleep 10"), "serverless-test-3", killer);
+        process.destroy();
+        process.destroy();
+        awaitKills(1);
+        Thread.sleep(200);
+        assertEquals(1, killed.size());
+    }
+
+    private void awaitKills(int kills) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (killed.size() < kills && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(kills, killed.size());
+    }
+
+    private static Process sh(String script) throws Exception {
+        return new ProcessBuilder("sh", "-c", script).start();
+    }
+}
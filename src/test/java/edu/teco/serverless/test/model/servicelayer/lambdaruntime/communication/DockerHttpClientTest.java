@@ -0,0 +1,78 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime.communication;
+
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.DockerHttpClient;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.newsclub.net.unix.AFUNIXSocket;
+import org.newsclub.net.unix.AFUNIXSocketAddress;
+
+import java.io.EOFException;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests that only requests, which can be sent twice, are retried after the daemon closed an idle connection
+ */
+public class DockerHttpClientTest {
+    private FakeDockerDaemon daemon;
+    private DockerHttpClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        Assume.assumeTrue(AFUNIXSocket.isSupported());
+        daemon = new FakeDockerDaemon();
+        File socketFile = new File(daemon.getSocketPath());
+        client = new DockerHttpClient(() -> AFUNIXSocket.connectTo(new AFUNIXSocketAddress(socketFile)), 2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (client != null) {
+            client.close();
+        }
+        if (daemon != null) {
+            daemon.close();
+        }
+    }
+
+    @Test
+    public void idempotentRequestIsRetried() throws Exception {
+        closeSecondRequest("GET /info");
+
+        assertEquals("OK", client.execute("GET", "/info", null, null, 0).getBodyAsString());
+        assertEquals("OK", client.execute("GET", "/info", null, null, 0).getBodyAsString());
+        assertEquals(3, daemon.getRequests().size());
+        assertEquals(2, daemon.getConnections());
+    }
+
+    @Test
+    public void processedRequestIsNotRetried() throws Exception {
+        closeSecondRequest("POST /containers/create");
+
+        client.execute("POST", "/containers/create", null, null, 0);
+        try {
+            client.execute("POST", "/containers/create", null, null, 0);
+            fail();
+        } catch (EOFException e) {
+            // the daemon may have created the container, so it isn't created again
+        }
+        assertEquals(2, daemon.getRequests().size());
+    }
+
+    // the daemon reads the second request and closes the connection without an answer
+    private void closeSecondRequest(String request) {
+        AtomicInteger calls = new AtomicInteger();
+        daemon.on(request, (query, body, out) -> {
+            if (calls.incrementAndGet() == 2) {
+                out.close();
+            } else {
+                FakeDockerDaemon.respond(out, 200, "text/plain", "OK".getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+}
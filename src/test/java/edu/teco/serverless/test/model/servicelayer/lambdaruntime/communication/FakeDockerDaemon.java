@@ -0,0 +1,179 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime.communication;
+
+import org.newsclub.net.unix.AFUNIXServerSocket;
+import org.newsclub.net.unix.AFUNIXSocketAddress;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves canned Docker Engine API responses on a unix socket, so the socket transport can be tested
+ * without a docker daemon.
+ */
+public class FakeDockerDaemon {
+
+    /**
+     * Answers a request, the key of a handler is "METHOD /path" without the query.
+     */
+    public interface Handler {
+        void handle(String query, byte[] body, OutputStream out) throws IOException;
+    }
+
+    private final File socketFile;
+    private final AFUNIXServerSocket server;
+    private final Map<String, Handler> handlers = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    public FakeDockerDaemon() throws IOException {
+        socketFile = File.createTempFile("fake-docker", ".sock");
+        socketFile.delete();
+        server = AFUNIXServerSocket.newInstance();
+        server.bind(new AFUNIXSocketAddress(socketFile));
+        Thread acceptor = new Thread(this::acceptLoop, "fake-docker-daemon");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public void on(String request, Handler handler) {
+        handlers.put(request, handler);
+    }
+
+    public String getSocketPath() {
+        return socketFile.getPath();
+    }
+
+    public List<String> getRequests() {
+        return requests;
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    public void close() throws IOException {
+        server.close();
+        socketFile.delete();
+    }
+
+    public static void respond(OutputStream out, int status, String contentType, byte[] body) throws IOException {
+        String head = "HTTP/1.1 " + status + " X\r\n"
+                + (contentType != null ? "Content-Type: " + contentType + "\r\n" : "")
+                + "Content-Length: " + body.length + "\r\n\r\n";
+        out.write(head.getBytes(StandardCharsets.ISO_8859_1));
+        out.write(body);
+        out.flush();
+    }
+
+    public static void respondChunked(OutputStream out, int status, String... chunks) throws IOException {
+        out.write(("HTTP/1.1 " + status + " X\r\nTransfer-Encoding: chunked\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        for (String chunk : chunks) {
+            byte[] data = chunk.getBytes(StandardCharsets.UTF_8);
+            out.write((Integer.toHexString(data.length) + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            out.write(data);
+            out.write("\r\n".getBytes(StandardCharsets.ISO_8859_1));
+        }
+        out.write("0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                final Socket socket = server.accept();
+                connections.incrementAndGet();
+                Thread worker = new Thread(() -> serve(socket), "fake-docker-connection");
+                worker.setDaemon(true);
+                worker.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket s = socket) {
+            InputStream in = new BufferedInputStream(s.getInputStream());
+            OutputStream out = s.getOutputStream();
+            String requestLine;
+            while ((requestLine = readLine(in)) != null) {
+                String[] parts = requestLine.split(" ");
+                String target = parts[1];
+                int question = target.indexOf('?');
+                String path = question >= 0 ? target.substring(0, question) : target;
+                String query = question >= 0 ? target.substring(question + 1) : "";
+
+                boolean chunked = false;
+                int length = 0;
+                String line;
+                while (!(line = readLine(in)).isEmpty()) {
+                    String lower = line.toLowerCase();
+                    if (lower.startsWith("transfer-encoding:") && lower.contains("chunked")) {
+                        chunked = true;
+                    } else if (lower.startsWith("content-length:")) {
+                        length = Integer.parseInt(line.substring(line.indexOf(':') + 1).trim());
+                    }
+                }
+                byte[] body = chunked ? readChunked(in) : readFixed(in, length);
+
+                String key = parts[0] + " " + path;
+                requests.add(key);
+                Handler handler = handlers.get(key);
+                if (handler == null) {
+                    respond(out, 404, "application/json", "{\"message\":\"not found\"}".getBytes(StandardCharsets.UTF_8));
+                } else {
+                    handler.handle(query, body, out);
+                }
+            }
+        } catch (IOException e) {
+            // connection closed by the client
+        }
+    }
+
+    private static byte[] readChunked(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        int size;
+        while ((size = Integer.parseInt(readLine(in).trim(), 16)) > 0) {
+            body.write(readFixed(in, size));
+            readLine(in);
+        }
+        readLine(in);
+        return body.toByteArray();
+    }
+
+    private static byte[] readFixed(InputStream in, int length) throws IOException {
+        byte[] data = new byte[length];
+        int pos = 0;
+        while (pos < length) {
+            int read = in.read(data, pos, length - pos);
+            if (read == -1) {
+                throw new IOException("eof");
+            }
+            pos += read;
+        }
+        return data;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') {
+                return sb.toString().replace("\r", "");
+            }
+            sb.append((char) c);
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+}
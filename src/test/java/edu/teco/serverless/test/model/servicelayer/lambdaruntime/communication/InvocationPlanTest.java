@@ -0,0 +1,66 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime.communication;
+
+import edu.teco.serverless.model.lambda.Parameter;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.CommandType;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.InvocationPlan;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.LatencyDistribution;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeCommand;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.SimulatedRuntimeTransport;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests that a plan only appends the arguments of a call and never changes them
+ */
+public class InvocationPlanTest {
+
+    @Test
+    public void argv() {
+        InvocationPlan plan = new InvocationPlan("image", 10);
+        String label = RuntimeCommand.LABEL + "=true";
+        assertEquals(Arrays.asList("docker", "run", "--rm", "-i", "--label", label, "image", "a", "b"),
+                plan.argv(Arrays.asList("a", "b")));
+        assertEquals(Arrays.asList("docker", "run", "--rm", "-i", "--label", label, "image"),
+                plan.argv(new ArrayList<>()));
+        assertEquals(10, plan.getTimeLimit());
+    }
+
+    @Test
+    public void everyCommandHasItsOwnContainer() {
+        InvocationPlan plan = new InvocationPlan("image", 1500);
+        assertEquals(Arrays.asList("docker", "run", "--rm", "-i", "--label", RuntimeCommand.LABEL + "=true",
+                "--name", "c1", "image", "a"),
+                plan.argv("c1", Arrays.asList("a")));
+        RuntimeCommand first = plan.command(new ArrayList<>());
+        RuntimeCommand second = plan.command(new ArrayList<>());
+        assertTrue(first.getContainerName().startsWith("serverless-"));
+        assertNotEquals(first.getContainerName(), second.getContainerName());
+        assertEquals(1500, plan.getTimeLimit());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void prefixIsImmutable() {
+        new InvocationPlan("image", 10).getArgvPrefix().add("--privileged");
+    }
+
+    @Test
+    public void repeatedRunsKeepArguments() throws Exception {
+        SimulatedRuntimeTransport transport = new SimulatedRuntimeTransport(LatencyDistribution.parse("fixed:0"),
+                LatencyDistribution.parse("fixed:0"), LatencyDistribution.parse("fixed:0"));
+        InvocationPlan plan = new InvocationPlan("image", 10);
+        List<Parameter> arguments = new ArrayList<>(Arrays.asList(new Parameter("a"), new Parameter("b")));
+        for (int i = 0; i < 3; i++) {
+            RuntimeCommand command = plan.command(arguments);
+            assertEquals(CommandType.RUN, command.getType());
+            assertSame(plan, command.getPlan());
+            assertEquals("a b\n", transport.execute(command, plan.getTimeLimit(), TimeUnit.MILLISECONDS));
+        }
+        assertEquals(2, arguments.size());
+    }
+}
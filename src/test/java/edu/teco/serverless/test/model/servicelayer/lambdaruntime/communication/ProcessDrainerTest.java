@@ -0,0 +1,161 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime.communication;
+
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.BufferPool;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.ProcessDrainer;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests that stdout and stderr are read at the same time, byte-exact and up to the maximum output
+ */
+public class ProcessDrainerTest {
+    private final BufferPool pool = new BufferPool(64, 16);
+    private final ProcessDrainer drainer = new ProcessDrainer(pool, 1 << 20);
+
+    @After
+    public void tearDown() {
+        drainer.shutdown();
+    }
+
+    @Test(timeout = 10000)
+    public void stderrIsReadWhileStdoutIsOpen() throws Exception {
+        byte[] errors = new byte[300000];
+        Arrays.fill(errors, (byte) 'e');
+        byte[] prefix = "SECURITY WARNING".getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(prefix, 0, errors, 0, prefix.length);
+        byte[] output = new byte[1000];
+        for (int i = 0; i < output.length; i++) {
+            output[i] = (byte) i;
+        }
+
+        // the process blocks on stderr before it writes stdout, reading stdout first would never end
+        PipeProcess process = new PipeProcess();
+        process.write(errors, output);
+        ProcessDrainer.Output result = drainer.drain(process, 0);
+        assertArrayEquals(output, result.getOutputBytes());
+        assertEquals(errors.length, result.getErrors().length());
+        assertFalse(result.hasErrors());
+        assertTrue(pool.getPooled() > 0);
+    }
+
+    @Test
+    public void outputIsByteExact() throws Exception {
+        PipeProcess process = new PipeProcess();
+        process.write(new byte[0], "a\r\nb\n\nc".getBytes(StandardCharsets.UTF_8));
+        assertEquals("a\r\nb\n\nc", drainer.drain(process, 0).getOutput());
+
+        process = new PipeProcess();
+        process.write("failed\n".getBytes(StandardCharsets.UTF_8), new byte[0]);
+        ProcessDrainer.Output result = drainer.drain(process, 0);
+        assertTrue(result.hasErrors());
+        assertEquals("failed\n", result.getErrors());
+    }
+
+    @Test
+    public void maximumOutput() throws Exception {
+        drainer.setMaxOutput(100);
+        PipeProcess process = new PipeProcess();
+        process.write(new byte[0], new byte[100]);
+        assertEquals(100, drainer.drain(process, 0).getOutputBytes().length);
+
+        process = new PipeProcess();
+        process.write(new byte[0], new byte[101]);
+        try {
+            drainer.drain(process, 0);
+            fail();
+        } catch (RuntimeConnectException e) {
+            assertTrue(process.destroyed);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void timeLimit() throws Exception {
+        PipeProcess process = new PipeProcess();
+        try {
+            drainer.drain(process, 1);
+            fail();
+        } catch (TimeExceededException e) {
+            assertTrue(process.destroyed);
+        }
+    }
+
+    /**
+     * A process writing through pipes with a small buffer, its streams are closed when it is destroyed.
+     */
+    private static final class PipeProcess extends Process {
+        private final PipedOutputStream stdout = new PipedOutputStream();
+        private final PipedOutputStream stderr = new PipedOutputStream();
+        private final InputStream stdoutIn;
+        private final InputStream stderrIn;
+        volatile boolean destroyed;
+
+        PipeProcess() throws IOException {
+            stdoutIn = new PipedInputStream(stdout, 1024);
+            stderrIn = new PipedInputStream(stderr, 1024);
+        }
+
+        void write(byte[] errors, byte[] output) {
+            Thread writer = new Thread(() -> {
+                try {
+                    stderr.write(errors);
+                    stderr.close();
+                    stdout.write(output);
+                    stdout.close();
+                } catch (IOException e) {
+                    // destroyed
+                }
+            });
+            writer.setDaemon(true);
+            writer.start();
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return new ByteArrayOutputStream();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return stdoutIn;
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return stderrIn;
+        }
+
+        @Override
+        public int waitFor() {
+            return 0;
+        }
+
+        @Override
+        public int exitValue() {
+            return 0;
+        }
+
+        @Override
+        public void destroy() {
+            destroyed = true;
+            try {
+                stdout.close();
+                stderr.close();
+            } catch (IOException e) {
+                // already closed
+            }
+        }
+    }
+}
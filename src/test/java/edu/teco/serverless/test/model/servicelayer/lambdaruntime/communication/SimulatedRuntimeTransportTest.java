@@ -0,0 +1,105 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime.communication;
+
+import edu.teco.serverless.model.lambda.Parameter;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.CommandType;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.LatencyDistribution;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeCommand;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.SimulatedRuntimeTransport;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests the latency distributions and the commands of the simulated runtime
+ */
+public class SimulatedRuntimeTransportTest {
+
+    @Test
+    public void distributions() {
+        Random random = new Random(42);
+        assertEquals(100, LatencyDistribution.parse("fixed:100").sample(random));
+        for (int i = 0; i < 1000; i++) {
+            long uniform = LatencyDistribution.parse("uniform:50,150").sample(random);
+            assertTrue(uniform >= 50 && uniform <= 150);
+            assertTrue(LatencyDistribution.parse("exponential:100").sample(random) >= 0);
+        }
+
+        long[] samples = new long[10001];
+        LatencyDistribution lognormal = LatencyDistribution.parse("lognormal:100,0.5");
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = lognormal.sample(random);
+        }
+        Arrays.sort(samples);
+        assertEquals(100, samples[samples.length / 2], 5);
+        assertTrue(samples[samples.length - 1] > 200);
+    }
+
+    @Test
+    public void invalidDistributions() {
+        for (String spec : new String[]{null, "", "fixed", "fixed:-1", "uniform:10", "uniform:20,10", "normal:1",
+                "exponential:x"}) {
+            try {
+                LatencyDistribution.parse(spec);
+                fail(spec);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void runEchoesArguments() throws Exception {
+        SimulatedRuntimeTransport transport = transport("fixed:0");
+        String result = transport.execute(new RuntimeCommand(CommandType.RUN,
+                new ArrayList<>(Arrays.asList(new Parameter("image"), new Parameter("a"), new Parameter("b")))), 10);
+        assertEquals("a b\n", result);
+        assertTrue(transport.execute(new RuntimeCommand(CommandType.BUILD, new ArrayList<>()), 0).startsWith("sim"));
+        assertEquals("", transport.execute(new RuntimeCommand(CommandType.REMOVE,
+                new ArrayList<>(Arrays.asList(new Parameter("image")))), 0));
+    }
+
+    @Test(expected = RuntimeConnectException.class)
+    public void imagesAreNotListed() throws Exception {
+        transport("fixed:0").execute(new RuntimeCommand(CommandType.IMAGES, new ArrayList<>()), 0);
+    }
+
+    @Test
+    public void runExceedsLimit() throws Exception {
+        SimulatedRuntimeTransport transport = transport("fixed:5000");
+        long start = System.currentTimeMillis();
+        try {
+            transport.execute(new RuntimeCommand(CommandType.RUN,
+                    new ArrayList<>(Arrays.asList(new Parameter("image")))), 1);
+            fail();
+        } catch (TimeExceededException e) {
+            long elapsed = System.currentTimeMillis() - start;
+            assertTrue(elapsed >= 1000 && elapsed < 4000);
+        }
+    }
+
+    @Test
+    public void runExceedsMillisecondLimit() throws Exception {
+        SimulatedRuntimeTransport transport = transport("fixed:5000");
+        long start = System.currentTimeMillis();
+        try {
+            transport.execute(new RuntimeCommand(CommandType.RUN,
+                    new ArrayList<>(Arrays.asList(new Parameter("image")))), 200, TimeUnit.MILLISECONDS);
+            fail();
+        } catch (TimeExceededException e) {
+            long elapsed = System.currentTimeMillis() - start;
+            assertTrue(elapsed >= 200 && elapsed < 1000);
+        }
+    }
+
+    private static SimulatedRuntimeTransport transport(String execution) {
+        LatencyDistribution zero = LatencyDistribution.parse("fixed:0");
+        return new SimulatedRuntimeTransport(zero, zero, LatencyDistribution.parse(execution));
+    }
+}
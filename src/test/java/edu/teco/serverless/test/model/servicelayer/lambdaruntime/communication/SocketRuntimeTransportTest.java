@@ -0,0 +1,200 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime.communication;
+
+import edu.teco.serverless.model.lambda.Parameter;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.CommandType;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.ProcessDrainer;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeCommand;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.SocketRuntimeTransport;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.newsclub.net.unix.AFUNIXSocket;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests the Docker Engine API transport against a fake daemon listening on a unix socket
+ */
+public class SocketRuntimeTransportTest {
+    private static final String JSON = "application/json";
+
+    private FakeDockerDaemon daemon;
+    private SocketRuntimeTransport transport;
+
+    @Before
+    public void setUp() throws Exception {
+        Assume.assumeTrue(AFUNIXSocket.isSupported());
+        daemon = new FakeDockerDaemon();
+        transport = SocketRuntimeTransport.forUnixSocket(daemon.getSocketPath(), 2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (transport != null) {
+            transport.close();
+        }
+        if (daemon != null) {
+            daemon.close();
+        }
+    }
+
+    @Test
+    public void reusesConnections() throws Exception {
+        daemon.on("GET /_ping", (query, body, out) -> FakeDockerDaemon.respond(out, 200, "text/plain", bytes("OK")));
+        daemon.on("GET /info", (query, body, out) -> FakeDockerDaemon.respondChunked(out, 200, "{\"Containers\":", "0}"));
+
+        assertTrue(transport.ping());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("{\"Containers\":0}", transport.execute(command(CommandType.INFO), 0));
+        }
+        assertEquals(1, daemon.getConnections());
+    }
+
+    @Test
+    public void build() throws Exception {
+        File directory = new File("target/socket-transport-test/lambda");
+        directory.mkdirs();
+        File dockerfile = new File(directory, "Dockerfile");
+        try (FileWriter writer = new FileWriter(dockerfile)) {
+            writer.write("FROM python:latest\n");
+        }
+
+        final List<String> queries = new ArrayList<>();
+        final ByteArrayOutputStream context = new ByteArrayOutputStream();
+        daemon.on("POST /build", (query, body, out) -> {
+            queries.add(query);
+            context.write(body);
+            FakeDockerDaemon.respondChunked(out, 200,
+                    "{\"stream\":\"Step 1/1 : FROM python:latest\\n\"}\n",
+                    "{\"stream\":\"Successfully built 4f5e6a7b8c9d\\n\"}\n");
+        });
+
+        String id = transport.execute(command(CommandType.BUILD, "lambda", dockerfile.getPath()), 0);
+
+        assertEquals("4f5e6a7b8c9d", id);
+        assertTrue(queries.get(0).contains("t=lambda"));
+        // the context holds only the directory of the Dockerfile, with relative paths
+        assertTrue(queries.get(0).contains("dockerfile=Dockerfile"));
+        String tar = new String(context.toByteArray(), StandardCharsets.ISO_8859_1);
+        assertFalse(tar.contains("target/socket-transport-test"));
+        assertTrue(tar.contains("FROM python:latest"));
+    }
+
+    @Test(expected = RuntimeConnectException.class)
+    public void buildError() throws Exception {
+        daemon.on("POST /build", (query, body, out) -> FakeDockerDaemon.respondChunked(out, 200,
+                "{\"errorDetail\":{\"message\":\"failed\"},\"error\":\"failed\"}\n"));
+        File directory = new File("target/socket-transport-test/broken");
+        directory.mkdirs();
+        transport.execute(command(CommandType.BUILD, "broken", new File(directory, "Dockerfile").getPath()), 0);
+    }
+
+    @Test
+    public void run() throws Exception {
+        final List<String> created = new ArrayList<>();
+        mockContainer(created, logFrame(1, "Hello world\n"), 0);
+
+        String result = transport.execute(command(CommandType.RUN, "hello", "arg"), 10);
+
+        assertEquals("Hello world\n", result);
+        assertTrue(created.get(0).contains("\"Image\":\"hello\""));
+        assertTrue(created.get(0).contains("\"Cmd\":[\"arg\"]"));
+        assertTrue(daemon.getRequests().contains("DELETE /containers/c1"));
+    }
+
+    @Test(expected = RuntimeConnectException.class)
+    public void runWithStderr() throws Exception {
+        mockContainer(new ArrayList<>(), logFrame(2, "Traceback\n"), 0);
+        transport.execute(command(CommandType.RUN, "hello"), 10);
+    }
+
+    @Test
+    public void runTimeExceeded() throws Exception {
+        mockContainer(new ArrayList<>(), logFrame(1, ""), 3000);
+        try {
+            transport.execute(command(CommandType.RUN, "hello"), 1);
+            fail();
+        } catch (TimeExceededException e) {
+            // expected
+        }
+        assertTrue(daemon.getRequests().contains("DELETE /containers/c1"));
+    }
+
+    @Test
+    public void runOutputExceeded() throws Exception {
+        char[] line = new char[511];
+        Arrays.fill(line, 'a');
+        ByteArrayOutputStream logs = new ByteArrayOutputStream();
+        for (int i = 0; i < 4; i++) {
+            logs.write(logFrame(1, new String(line) + "\n"));
+        }
+        mockContainer(new ArrayList<>(), logs.toByteArray(), 0);
+
+        ProcessDrainer drainer = ProcessDrainer.getInstance();
+        int max = drainer.getMaxOutput();
+        drainer.setMaxOutput(1024);
+        try {
+            transport.execute(command(CommandType.RUN, "hello"), 10);
+            fail();
+        } catch (RuntimeConnectException e) {
+            assertEquals("the output exceeds the maximum of 1024 bytes", e.getMessage());
+        } finally {
+            drainer.setMaxOutput(max);
+        }
+        assertTrue(daemon.getRequests().contains("DELETE /containers/c1"));
+    }
+
+    private void mockContainer(final List<String> created, final byte[] logs, final long waitMillis) {
+        daemon.on("POST /containers/create", (query, body, out) -> {
+            created.add(new String(body, StandardCharsets.UTF_8));
+            FakeDockerDaemon.respond(out, 201, JSON, bytes("{\"Id\":\"c1\"}"));
+        });
+        daemon.on("POST /containers/c1/start", (query, body, out) -> FakeDockerDaemon.respond(out, 204, null, new byte[0]));
+        daemon.on("POST /containers/c1/wait", (query, body, out) -> {
+            try {
+                Thread.sleep(waitMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            FakeDockerDaemon.respond(out, 200, JSON, bytes("{\"StatusCode\":0}"));
+        });
+        daemon.on("GET /containers/c1/logs", (query, body, out) -> FakeDockerDaemon.respond(out, 200, null, logs));
+        daemon.on("DELETE /containers/c1", (query, body, out) -> FakeDockerDaemon.respond(out, 204, null, new byte[0]));
+    }
+
+    private static byte[] logFrame(int stream, String payload) {
+        byte[] data = bytes(payload);
+        byte[] frame = new byte[8 + data.length];
+        frame[0] = (byte) stream;
+        frame[4] = (byte) (data.length >>> 24);
+        frame[5] = (byte) (data.length >>> 16);
+        frame[6] = (byte) (data.length >>> 8);
+        frame[7] = (byte) data.length;
+        System.arraycopy(data, 0, frame, 8, data.length);
+        return frame;
+    }
+
+    private static RuntimeCommand command(CommandType type, String... params) {
+        List<Parameter> parameters = new ArrayList<>();
+        for (String p : Arrays.asList(params)) {
+            parameters.add(new Parameter(p));
+        }
+        return new RuntimeCommand(type, parameters);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,132 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime.communication;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.WorkerChannel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests the framing and multiplexing of the worker channel against a worker simulated with pipes
+ */
+public class WorkerChannelTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private DataInputStream workerIn;
+    private DataOutputStream workerOut;
+    private WorkerChannel channel;
+    private ExecutorService callers;
+
+    @Before
+    public void setUp() throws Exception {
+        PipedOutputStream requests = new PipedOutputStream();
+        workerIn = new DataInputStream(new PipedInputStream(requests, 65536));
+        PipedInputStream responses = new PipedInputStream(65536);
+        workerOut = new DataOutputStream(new PipedOutputStream(responses));
+        channel = new WorkerChannel(responses, requests);
+        callers = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        callers.shutdownNow();
+        channel.close();
+    }
+
+    @Test
+    public void call() throws Exception {
+        Future<WorkerChannel.Response> response = callers.submit(() -> channel.call(listOf("a", "b"), 10));
+
+        JsonNode request = readRequest();
+        assertEquals("a", request.get("args").get(0).asText());
+        assertEquals("b", request.get("args").get(1).asText());
+        respond(request.get("id").asLong(), "ok\n", "");
+
+        assertEquals("ok\n", response.get().getOutput());
+        assertEquals("", response.get().getError());
+        assertEquals(0, channel.getPendingCalls());
+    }
+
+    @Test
+    public void responsesAreMatchedById() throws Exception {
+        List<Future<WorkerChannel.Response>> responses = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final String arg = "call" + i;
+            responses.add(callers.submit(() -> channel.call(listOf(arg), 10)));
+            JsonNode request = readRequest();
+            ids.add(request.get("id").asLong());
+            args.add(request.get("args").get(0).asText());
+        }
+
+        // answer in reverse order
+        for (int i = 2; i >= 0; i--) {
+            respond(ids.get(i), args.get(i), "");
+        }
+        for (int i = 0; i < 3; i++) {
+            assertEquals("call" + i, responses.get(i).get().getOutput());
+        }
+    }
+
+    @Test(expected = TimeExceededException.class)
+    public void timeExceeded() throws Exception {
+        channel.call(Collections.emptyList(), 1);
+    }
+
+    @Test
+    public void workerExits() throws Exception {
+        Future<WorkerChannel.Response> response = callers.submit(() -> channel.call(listOf("a"), 10));
+        readRequest();
+        workerOut.close();
+        try {
+            response.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RuntimeConnectException);
+        }
+        assertFalse(channel.isOpen());
+    }
+
+    private JsonNode readRequest() throws IOException {
+        byte[] frame = new byte[workerIn.readInt()];
+        workerIn.readFully(frame);
+        return mapper.readTree(frame);
+    }
+
+    private void respond(long id, String stdout, String stderr) throws IOException {
+        ObjectNode response = mapper.createObjectNode();
+        response.put("id", id);
+        response.put("stdout", stdout);
+        response.put("stderr", stderr);
+        byte[] frame = mapper.writeValueAsBytes(response);
+        workerOut.writeInt(frame.length);
+        workerOut.write(frame);
+        workerOut.flush();
+    }
+
+    private static List<String> listOf(String... values) {
+        List<String> list = new ArrayList<>();
+        Collections.addAll(list, values);
+        return list;
+    }
+}
@@ -0,0 +1,132 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime.execution;
+
+import edu.teco.serverless.model.exception.execution.ConcurrencyLimitException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.AdmissionController;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests the per-lambda and global concurrency limits, the bounded wait and the limits set by an administrator
+ */
+public class AdmissionControllerTest {
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void lambdaLimit() {
+        AdmissionController controller = new AdmissionController(10, 2, 10, 0, 1);
+        AdmissionController.Permit first = controller.acquire("a", 0, 1);
+        controller.acquire("a", 0, 1);
+        try {
+            controller.acquire("a", 0, 1);
+            fail();
+        } catch (ConcurrencyLimitException e) {
+            assertEquals(1, e.getRetryAfter());
+        }
+        // other lambdas have their own slots
+        controller.acquire("b", 0, 1);
+        first.close();
+        first.close();
+        controller.acquire("a", 0, 1);
+        assertEquals(3, controller.getActive());
+        assertEquals(4, controller.getAdmitted());
+        assertEquals(1, controller.getRejected());
+    }
+
+    @Test
+    public void ownLimitAndGlobalLimit() {
+        AdmissionController controller = new AdmissionController(3, 1, 10, 0, 1);
+        controller.acquire("a", 2, 1);
+        controller.acquire("a", 2, 1);
+        controller.acquire("b", 0, 1);
+        try {
+            controller.acquire("c", 0, 1);
+            fail();
+        } catch (ConcurrencyLimitException e) {
+            assertEquals(3, controller.getActive());
+        }
+    }
+
+    @Test
+    public void slotsAreClamped() {
+        AdmissionController controller = new AdmissionController(4, 3, 10, 0, 1);
+        AdmissionController.Permit permit = controller.acquire("a", 0, 8);
+        assertEquals(3, permit.getSlots());
+        permit.close();
+        assertEquals(2, controller.acquire("a", 2, 8).getSlots());
+        assertEquals(1, controller.acquire("b", 0, 0).getSlots());
+        assertEquals(3, controller.getActive());
+    }
+
+    @Test
+    public void waitsForReleasedSlot() throws Exception {
+        AdmissionController controller = new AdmissionController(10, 1, 10, 5000, 1);
+        AdmissionController.Permit first = controller.acquire("a", 0, 1);
+        Future<AdmissionController.Permit> second = callers.submit(() -> controller.acquire("a", 0, 1));
+        awaitWaiting(controller, 1);
+        first.close();
+        assertEquals(1, second.get(5, TimeUnit.SECONDS).getSlots());
+        assertEquals(0, controller.getWaiting());
+    }
+
+    @Test
+    public void timeoutAndFullQueueAreRejected() throws Exception {
+        AdmissionController controller = new AdmissionController(10, 1, 1, 200, 3);
+        controller.acquire("a", 0, 1);
+        Future<AdmissionController.Permit> waiting = callers.submit(() -> controller.acquire("a", 0, 1));
+        awaitWaiting(controller, 1);
+        try {
+            controller.acquire("a", 0, 1);
+            fail();
+        } catch (ConcurrencyLimitException e) {
+            assertEquals(3, e.getRetryAfter());
+        }
+        try {
+            waiting.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ConcurrencyLimitException);
+        }
+        assertEquals(0, controller.getWaiting());
+        assertEquals(2, controller.getRejected());
+    }
+
+    @Test
+    public void adminLimitWakesWaiting() throws Exception {
+        AdmissionController controller = new AdmissionController(10, 1, 10, 5000, 1);
+        controller.acquire("a", 1, 1);
+        Future<AdmissionController.Permit> second = callers.submit(() -> controller.acquire("a", 1, 1));
+        awaitWaiting(controller, 1);
+        controller.setLambdaLimit("a", 2);
+        second.get(5, TimeUnit.SECONDS);
+
+        AdmissionController.LambdaInfo info = controller.getLambdas().get(0);
+        assertEquals("a", info.getName());
+        assertEquals(2, info.getLimit());
+        assertTrue(info.isAdminLimit());
+        assertEquals(2, info.getActive());
+
+        controller.setLambdaLimit("a", 0);
+        assertEquals(1, controller.getLambdas().get(0).getLimit());
+    }
+
+    private static void awaitWaiting(AdmissionController controller, int waiting) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (controller.getWaiting() < waiting && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(waiting, controller.getWaiting());
+    }
+}
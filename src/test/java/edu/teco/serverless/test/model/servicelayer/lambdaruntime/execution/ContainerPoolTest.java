@@ -0,0 +1,319 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime.execution;
+
+import edu.teco.serverless.model.lambda.AuthKey;
+import edu.teco.serverless.model.lambda.Identifier;
+import edu.teco.serverless.model.lambda.Parameter;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.InvocationPlan;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.ContainerLauncher;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.ContainerPool;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.InstanceRegistry;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.LambdaInstance;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.PooledContainer;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.images.LambdaImage;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests the container pool with shell processes in place of docker containers
+ */
+public class ContainerPoolTest {
+    private ContainerPool pool;
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue(new File("/bin/sh").exists());
+    }
+
+    @After
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void invokeWarmContainer() throws Exception {
+        pool = createPool(2, 4, 60000);
+        LambdaImage image = new ShellImage("echo", "read args; echo \"$args\"");
+
+        assertNull(pool.acquire(image));
+        maintain(image);
+        assertEquals(2, pool.getIdleContainers(image.getIdentifier()));
+
+        PooledContainer container = pool.acquire(image);
+        assertNotNull(container);
+        try {
+            assertEquals("[\"a\",\"b c\"]\n", container.invoke(Arrays.asList(new Parameter("a"), new Parameter("b c")), 10));
+        } finally {
+            pool.release(container);
+        }
+        maintain(image);
+        assertEquals(2, pool.getIdleContainers(image.getIdentifier()));
+    }
+
+    @Test
+    public void containersAreRegisteredAsInstances() throws Exception {
+        InstanceRegistry registry = new InstanceRegistry();
+        pool = new ContainerPool(new ProcessLauncher(), 1, 2, 60000, false,
+                registry);
+        LambdaImage image = new ShellImage("instances", "read args; echo done");
+
+        pool.acquire(image);
+        maintain(image);
+        assertEquals(1, registry.getLambdas().get(0).getInstances(LambdaInstance.State.IDLE));
+
+        PooledContainer container = pool.acquire(image, 7);
+        LambdaInstance instance = registry.getInstances().get(0);
+        assertEquals(LambdaInstance.State.RUNNING, instance.getState());
+        assertEquals(7, instance.getRequest());
+        assertEquals("instances", registry.getLambdas().get(0).getName());
+        assertTrue(registry.getLambdas().get(0).getOldestRunningSince() > 0);
+
+        // a single-use container is stopped after its call
+        container.invoke(Collections.singletonList(new Parameter("a")), 10);
+        pool.release(container);
+        assertFalse(registry.getInstances().contains(instance));
+    }
+
+    @Test(timeout = 10000)
+    public void launchDoesNotBlockThePool() throws Exception {
+        CountDownLatch launching = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        InstanceRegistry registry = new InstanceRegistry();
+        pool = new ContainerPool(new ProcessLauncher() {
+            @Override
+            public Process launch(LambdaImage image, List<String> command) throws IOException {
+                launching.countDown();
+                try {
+                    proceed.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return super.launch(image, command);
+            }
+        }, 1, 2, 60000, false, registry);
+        LambdaImage image = new ShellImage("slow", "read args; echo done");
+
+        assertNull(pool.acquire(image));
+        launching.await();
+        // the launch in the background doesn't hold the lock of the pool
+        pool.evict(image.getIdentifier());
+        proceed.countDown();
+
+        // the container launched for the closed pool is stopped
+        while (registry.size() > 0) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, pool.getIdleContainers(image.getIdentifier()));
+    }
+
+    @Test
+    public void maxContainers() throws Exception {
+        pool = createPool(2, 2, 60000);
+        LambdaImage image = new ShellImage("max", "read args; echo done");
+
+        pool.acquire(image);
+        maintain(image);
+        PooledContainer first = pool.acquire(image);
+        PooledContainer second = pool.acquire(image);
+        assertNotNull(first);
+        assertNotNull(second);
+        maintain(image);
+        // both containers are busy, no new one may be started
+        assertEquals(0, pool.getIdleContainers(image.getIdentifier()));
+        assertNull(pool.acquire(image));
+
+        pool.release(first);
+        pool.release(second);
+        maintain(image);
+        assertEquals(2, pool.getIdleContainers(image.getIdentifier()));
+    }
+
+    @Test
+    public void evictOnRemove() throws Exception {
+        pool = createPool(1, 2, 60000);
+        LambdaImage image = new ShellImage("evict", "read args; echo done");
+
+        pool.acquire(image);
+        maintain(image);
+        assertEquals(1, pool.getIdleContainers(image.getIdentifier()));
+
+        pool.imageRemoved(image.getIdentifier());
+        assertEquals(0, pool.getIdleContainers(image.getIdentifier()));
+    }
+
+    @Test
+    public void expireUnusedPool() throws Exception {
+        pool = createPool(1, 2, 50);
+        LambdaImage image = new ShellImage("expire", "read args; echo done");
+
+        pool.acquire(image);
+        maintain(image);
+        assertEquals(1, pool.getIdleContainers(image.getIdentifier()));
+
+        Thread.sleep(200);
+        maintain(image);
+        assertEquals(0, pool.getIdleContainers(image.getIdentifier()));
+    }
+
+    @Test
+    public void timeExceeded() throws Exception {
+        pool = createPool(1, 1, 60000);
+        LambdaImage image = new ShellImage("sleep", "read args; exec sleep 10");
+
+        pool.acquire(image);
+        maintain(image);
+        PooledContainer container = pool.acquire(image);
+        long start = System.currentTimeMillis();
+        try {
+            container.invoke(Collections.emptyList(), 1);
+            fail();
+        } catch (TimeExceededException e) {
+            assertTrue(System.currentTimeMillis() - start < 5000);
+        } finally {
+            pool.release(container);
+        }
+    }
+
+    @Test
+    public void reuseWorker() throws Exception {
+        Assume.assumeTrue(pythonAvailable());
+        File directory = new File("target/container-pool-test");
+        directory.mkdirs();
+        File worker = new File(directory, "worker.py");
+        try (InputStream in = getClass().getResourceAsStream("/workers/python3-worker.py")) {
+            Files.copy(in, worker.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        File lambda = new File(directory, "counter.py");
+        Files.write(lambda.toPath(), ("import sys\n"
+                + "calls = globals().get('calls', 0) + 1\n"
+                + "print(' '.join(sys.argv[1:]), calls)\n").getBytes(StandardCharsets.UTF_8));
+
+        pool = createPool(1, 1, 60000, true);
+        LambdaImage image = new PythonWorkerImage("counter", worker, lambda);
+        pool.acquire(image);
+        maintain(image);
+
+        for (int i = 0; i < 3; i++) {
+            PooledContainer container = pool.acquire(image);
+            assertNotNull(container);
+            try {
+                // every call gets fresh globals
+                assertEquals("hello " + i + " 1\n", container.invoke(Arrays.asList(new Parameter("hello"),
+                        new Parameter(String.valueOf(i))), 10));
+                assertTrue(container.isReusable());
+            } finally {
+                pool.release(container);
+            }
+        }
+        assertEquals(1, pool.getIdleContainers(image.getIdentifier()));
+    }
+
+    @Test(expected = RuntimeConnectException.class)
+    public void stderr() throws Exception {
+        pool = createPool(1, 1, 60000);
+        LambdaImage image = new ShellImage("stderr", "read args; echo Traceback >&2");
+
+        pool.acquire(image);
+        maintain(image);
+        PooledContainer container = pool.acquire(image);
+        try {
+            container.invoke(Collections.emptyList(), 10);
+        } finally {
+            pool.release(container);
+        }
+    }
+
+    // maintains the pool and waits for the containers started in the background, e.g. by an acquire
+    private void maintain(LambdaImage image) throws InterruptedException {
+        pool.maintain();
+        while (pool.getStartingContainers(image.getIdentifier()) > 0) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static boolean pythonAvailable() {
+        try {
+            return new ProcessBuilder("python3", "--version").start().waitFor() == 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static ContainerPool createPool(int minIdle, int maxContainers, long idleTtl) {
+        return createPool(minIdle, maxContainers, idleTtl, false);
+    }
+
+    private static ContainerPool createPool(int minIdle, int maxContainers, long idleTtl, boolean workers) {
+        return new ContainerPool(new ProcessLauncher(),
+                minIdle, maxContainers, idleTtl, workers);
+    }
+
+    /**
+     * launcher, that starts the commands as local processes in place of containers
+     */
+    private static class ProcessLauncher implements ContainerLauncher {
+        @Override
+        public Process launch(LambdaImage image, List<String> command) throws IOException {
+            return new ProcessBuilder(command).start();
+        }
+
+        @Override
+        public Process run(InvocationPlan plan, List<String> arguments) throws IOException {
+            return new ProcessBuilder(plan.argv(arguments)).start();
+        }
+    }
+
+    /**
+     * image, whose warm start command is a shell script
+     */
+    private static class ShellImage extends LambdaImage {
+        private final String script;
+
+        ShellImage(String name, String script) {
+            super(new Identifier(name), new AuthKey(name));
+            this.script = script;
+        }
+
+        @Override
+        public List<String> getWarmStartCommand() {
+            return Arrays.asList("/bin/sh", "-c", script);
+        }
+    }
+
+    /**
+     * image, whose worker is the python worker running a lambda file
+     */
+    private static class PythonWorkerImage extends LambdaImage {
+        private final File worker;
+        private final File lambda;
+
+        PythonWorkerImage(String name, File worker, File lambda) {
+            super(new Identifier(name), new AuthKey(name));
+            this.worker = worker;
+            this.lambda = lambda;
+        }
+
+        @Override
+        public List<String> getWorkerCommand() {
+            return Arrays.asList("python3", worker.getPath(), lambda.getPath());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime.execution;
+
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.ContainerKiller;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeCommand;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeTransport;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.InstanceRegistry;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.LambdaInstance;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests that concurrent executions can register and remove instances while the registry is listed,
+ * and that killed instances are shown until the kill is done
+ */
+public class InstanceRegistryTest {
+
+    @Test
+    public void instancesByLambda() throws Exception {
+        InstanceRegistry registry = new InstanceRegistry();
+        long request = registry.newRequest();
+        LambdaInstance first = registry.register("a", "serverless-1", LambdaInstance.State.RUNNING, request);
+        Thread.sleep(5);
+        registry.register("a", "serverless-2", LambdaInstance.State.RUNNING, registry.newRequest());
+        registry.register("a", null, LambdaInstance.State.STARTING, request);
+        registry.register("b", "serverless-3", LambdaInstance.State.IDLE, 0);
+
+        List<InstanceRegistry.LambdaInfo> lambdas = registry.getLambdas();
+        assertEquals(2, lambdas.size());
+        InstanceRegistry.LambdaInfo a = lambdas.get(0);
+        assertEquals("a", a.getName());
+        assertEquals(2, a.getInstances(LambdaInstance.State.RUNNING));
+        assertEquals(1, a.getInstances(LambdaInstance.State.STARTING));
+        assertEquals(first.getStateSince(), a.getOldestRunningSince());
+        assertEquals(first, a.getInstances().get(0));
+        assertEquals(0, lambdas.get(1).getOldestRunningSince());
+        assertEquals(3, registry.getContainerNames().size());
+
+        registry.remove(first);
+        registry.remove(first);
+        assertEquals(3, registry.size());
+        assertFalse(registry.getContainerNames().contains("serverless-1"));
+    }
+
+    @Test(timeout = 10000)
+    public void killedInstanceStaysUntilKillIsDone() throws Exception {
+        InstanceRegistry registry = new InstanceRegistry();
+        CountDownLatch killing = new CountDownLatch(1);
+        ContainerKiller killer = new ContainerKiller(() -> new RuntimeTransport() {
+            @Override
+            public String execute(RuntimeCommand cmd, long limit, TimeUnit unit) {
+                try {
+                    killing.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "";
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        killer.addKillListener(registry);
+        try {
+            LambdaInstance instance = registry.register("a", "serverless-k", LambdaInstance.State.RUNNING, 1);
+            Future<?> kill = killer.kill("serverless-k");
+            // KILLING as soon as the kill is issued, and after the execution gave the instance up
+            assertEquals(LambdaInstance.State.KILLING, instance.getState());
+            registry.remove(instance);
+            assertEquals(1, registry.getLambdas().get(0).getInstances(LambdaInstance.State.KILLING));
+
+            killing.countDown();
+            kill.get();
+            assertEquals(0, registry.size());
+        } finally {
+            killer.shutdown();
+        }
+    }
+
+    @Test
+    public void killDoneBeforeRemoval() {
+        InstanceRegistry registry = new InstanceRegistry();
+        LambdaInstance instance = registry.register("a", "serverless-k", LambdaInstance.State.RUNNING, 1);
+        registry.killStarted("serverless-k");
+        registry.killFinished("serverless-k");
+        assertEquals(1, registry.size());
+        registry.remove(instance);
+        assertEquals(0, registry.size());
+        // kills of unknown containers are ignored
+        registry.killStarted("serverless-unknown");
+        registry.killFinished("serverless-unknown");
+    }
+
+    @Test(timeout = 20000)
+    public void concurrentExecutions() throws Exception {
+        final InstanceRegistry registry = new InstanceRegistry();
+        ExecutorService executions = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            final String lambda = "lambda" + (t % 4);
+            futures.add(executions.submit(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    LambdaInstance instance = registry.register(lambda, lambda + "-" + i,
+                            LambdaInstance.State.RUNNING, registry.newRequest());
+                    // listing while the others change the registry
+                    for (InstanceRegistry.LambdaInfo info : registry.getLambdas()) {
+                        assertTrue(info.getInstances().size() > 0);
+                    }
+                    registry.remove(instance);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executions.shutdown();
+        assertTrue(executions.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(0, registry.size());
+        assertEquals(Collections.emptyList(), registry.getLambdas());
+    }
+}
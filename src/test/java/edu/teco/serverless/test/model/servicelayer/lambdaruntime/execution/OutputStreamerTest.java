@@ -0,0 +1,116 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime.execution;
+
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.OutputStreamer;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests forwarding of container output with shell processes in place of docker containers
+ */
+public class OutputStreamerTest {
+    private OutputStreamer streamer;
+    private ExecutorService callers;
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue(new File("/bin/sh").exists());
+        streamer = new OutputStreamer();
+        callers = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        if (streamer != null) {
+            streamer.shutdown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void stream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(12, streamer.stream(sh("echo Hello; echo world"), out, 10));
+        assertEquals("Hello\nworld\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void outputBeforeExit() throws Exception {
+        final CountDownLatch firstChunk = new CountDownLatch(1);
+        final Process process = sh("echo first; exec sleep 2");
+        Future<Long> result = callers.submit(() -> streamer.stream(process, new OutputStream() {
+            @Override
+            public void write(int b) {
+                firstChunk.countDown();
+            }
+        }, 10));
+        assertTrue(firstChunk.await(1, TimeUnit.SECONDS));
+        assertTrue(process.isAlive());
+        assertEquals(6L, (long) result.get());
+    }
+
+    @Test
+    public void slowClientBlocksContainer() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final Process process = sh("head -c 10000000 /dev/zero");
+        Future<Long> result = callers.submit(() -> streamer.stream(process, new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+        }, 10));
+        Thread.sleep(500);
+        // the pipe is full, head can't write the rest
+        assertTrue(process.isAlive());
+        release.countDown();
+        assertEquals(10000000L, (long) result.get());
+    }
+
+    @Test(expected = RuntimeConnectException.class)
+    public void stderr() throws Exception {
+        streamer.stream(sh("echo failed >&2"), new ByteArrayOutputStream(), 10);
+    }
+
+    @Test(expected = RuntimeConnectException.class)
+    public void clientGone() throws Exception {
+        streamer.stream(sh("echo Hello"), new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("broken pipe");
+            }
+        }, 10);
+    }
+
+    @Test(expected = TimeExceededException.class)
+    public void timeExceeded() throws Exception {
+        streamer.stream(sh("exec sleep 10"), new ByteArrayOutputStream(), 1);
+    }
+
+    private static Process sh(String script) throws IOException {
+        return new ProcessBuilder("/bin/sh", "-c", script).start();
+    }
+}
@@ -0,0 +1,80 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime.execution;
+
+import edu.teco.serverless.model.lambda.AuthKey;
+import edu.teco.serverless.model.lambda.Identifier;
+import edu.teco.serverless.model.lambda.Parameter;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.ResultCache;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests hits, expiry, eviction and invalidation of the result cache
+ */
+public class ResultCacheTest {
+    private ResultCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new ResultCache(2, 10);
+    }
+
+    @Test
+    public void hitAndMiss() {
+        assertNull(cache.get(key("a", "key", 1, "x")));
+        cache.put(key("a", "key", 1, "x"), "result", 10000);
+        assertEquals("result", cache.get(key("a", "key", 1, "x")));
+        assertNull(cache.get(key("a", "key", 1, "y")));
+        assertNull(cache.get(key("a", "key", 2, "x")));
+        assertNull(cache.get(key("a", "other", 1, "x")));
+        assertEquals(1, cache.getHits());
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void expires() throws Exception {
+        cache.put(key("a", "key", 1), "result", 50);
+        Thread.sleep(100);
+        assertNull(cache.get(key("a", "key", 1)));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedIsEvicted() {
+        cache.put(key("a", "key", 1), "a", 10000);
+        cache.put(key("b", "key", 1), "b", 10000);
+        cache.get(key("a", "key", 1));
+        cache.put(key("c", "key", 1), "c", 10000);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertEquals("a", cache.get(key("a", "key", 1)));
+        assertNull(cache.get(key("b", "key", 1)));
+    }
+
+    @Test
+    public void invalidate() {
+        cache.put(key("a", "key", 1, "x"), "a", 10000);
+        cache.put(key("b", "key", 1), "b", 10000);
+        cache.invalidate(new Identifier("a"));
+        assertNull(cache.get(key("a", "key", 1, "x")));
+        assertEquals("b", cache.get(key("b", "key", 1)));
+    }
+
+    @Test
+    public void longResultIsNotCached() {
+        cache.put(key("a", "key", 1), "a result longer than 10", 10000);
+        assertEquals(0, cache.size());
+    }
+
+    private static ResultCache.Key key(String name, String authKey, int cycles, String... arguments) {
+        List<Parameter> parameters = new ArrayList<>();
+        for (String argument : arguments) {
+            parameters.add(new Parameter(argument));
+        }
+        return new ResultCache.Key(new Identifier(name), new AuthKey(authKey), parameters, cycles);
+    }
+}
@@ -0,0 +1,130 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime.execution;
+
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.RuntimeConnectException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.RunCycleExecutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests ordering, caps and time limit of parallel run cycles
+ */
+public class RunCycleExecutorTest {
+    private RunCycleExecutor executor;
+
+    @Before
+    public void setUp() {
+        executor = new RunCycleExecutor(4, 16);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void resultsInCycleOrder() throws Exception {
+        String result = executor.runAll(index -> {
+            sleep((10 - index) * 10);
+            return index + ";";
+        }, 10, 4, 0);
+        assertEquals("0;1;2;3;4;5;6;7;8;9;", result);
+    }
+
+    @Test
+    public void parallelismIsCapped() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        executor.runAll(index -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(50);
+            running.decrementAndGet();
+            return "";
+        }, 12, 2, 0);
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    public void globalCap() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        executor.runAll(index -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(50);
+            running.decrementAndGet();
+            return "";
+        }, 12, 10, 0);
+        assertTrue(maxRunning.get() <= 4);
+    }
+
+    @Test
+    public void faster() throws Exception {
+        long start = System.currentTimeMillis();
+        executor.runAll(index -> {
+            sleep(200);
+            return "";
+        }, 4, 4, 0);
+        assertTrue(System.currentTimeMillis() - start < 700);
+    }
+
+    @Test(expected = TimeExceededException.class)
+    public void batchTimeLimit() throws Exception {
+        executor.runAll(index -> {
+            sleep(300);
+            return "";
+        }, 8, 2, 500);
+    }
+
+    @Test
+    public void batchTimeLimitWithOneSlot() throws Exception {
+        final AtomicInteger started = new AtomicInteger();
+        try {
+            RunCycleExecutor.runInOrder(index -> {
+                started.incrementAndGet();
+                sleep(300);
+                return "";
+            }, 8, 500);
+            fail();
+        } catch (TimeExceededException e) {
+            // the third cycle isn't started, the first two took longer than the limit
+        }
+        assertEquals(2, started.get());
+    }
+
+    @Test
+    public void oneSlotInCycleOrder() throws Exception {
+        assertEquals("0;1;2;", RunCycleExecutor.runInOrder(index -> index + ";", 3, 500));
+    }
+
+    @Test
+    public void failedCycle() throws Exception {
+        final AtomicInteger started = new AtomicInteger();
+        try {
+            executor.runAll(index -> {
+                started.incrementAndGet();
+                if (index == 1) {
+                    throw new RuntimeConnectException("cycle failed");
+                }
+                sleep(50);
+                return "";
+            }, 20, 2, 0);
+            fail();
+        } catch (RuntimeConnectException e) {
+            assertEquals("cycle failed", e.getMessage());
+        }
+        assertTrue(started.get() < 20);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package edu.teco.serverless.test.model.servicelayer.lambdaruntime.execution;
+
+import edu.teco.serverless.model.lambda.AuthKey;
+import edu.teco.serverless.model.lambda.Identifier;
+import edu.teco.serverless.model.lambda.Parameter;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.InvocationPlan;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.LatencyDistribution;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.communication.TimeExceededException;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.ContainerPool;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.OutputStreamer;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.PooledContainer;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.execution.SimulatedContainerLauncher;
+import edu.teco.serverless.model.servicelayer.lambdaruntime.images.LambdaImage;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * tests the container pool and the output streamer with simulated containers
+ */
+public class SimulatedContainerLauncherTest {
+    private ContainerPool pool;
+
+    @After
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void warmContainer() throws Exception {
+        pool = new ContainerPool(launcher("fixed:0"), 1, 2, 60000, false);
+        LambdaImage image = new SimulatedImage("warm");
+        pool.acquire(image);
+        maintain(image);
+
+        PooledContainer container = pool.acquire(image);
+        assertNotNull(container);
+        try {
+            assertEquals("a b c\n", container.invoke(Arrays.asList(new Parameter("a"), new Parameter("b c")), 10));
+            assertFalse(container.isReusable());
+        } finally {
+            pool.release(container);
+        }
+    }
+
+    @Test
+    public void workerServesManyCalls() throws Exception {
+        pool = new ContainerPool(launcher("fixed:0"), 1, 1, 60000, true);
+        LambdaImage image = new SimulatedImage("worker");
+        pool.acquire(image);
+        maintain(image);
+
+        for (int i = 0; i < 3; i++) {
+            PooledContainer container = pool.acquire(image);
+            assertNotNull(container);
+            try {
+                assertEquals(i + "\n", container.invoke(Collections.singletonList(new Parameter(Integer.toString(i))), 10));
+                assertTrue(container.isReusable());
+            } finally {
+                pool.release(container);
+            }
+        }
+    }
+
+    @Test(expected = TimeExceededException.class)
+    public void workerExceedsLimit() throws Exception {
+        pool = new ContainerPool(launcher("fixed:5000"), 1, 1, 60000, true);
+        LambdaImage image = new SimulatedImage("slow");
+        pool.acquire(image);
+        maintain(image);
+
+        PooledContainer container = pool.acquire(image);
+        try {
+            container.invoke(Collections.emptyList(), 1);
+        } finally {
+            assertFalse(container.isReusable());
+            pool.release(container);
+        }
+    }
+
+    @Test
+    public void streamRun() throws Exception {
+        Process process = launcher("fixed:10").run(new InvocationPlan("stream", 10), Arrays.asList("x", "y"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new OutputStreamer().stream(process, out, 10);
+        assertEquals("x y\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(0, process.exitValue());
+    }
+
+    // maintains the pool and waits for the containers started in the background, e.g. by an acquire
+    private void maintain(LambdaImage image) throws InterruptedException {
+        pool.maintain();
+        while (pool.getStartingContainers(image.getIdentifier()) > 0) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static SimulatedContainerLauncher launcher(String execution) {
+        return new SimulatedContainerLauncher(LatencyDistribution.parse("fixed:0"), LatencyDistribution.parse(execution));
+    }
+
+    /**
+     * image with a warm start and a worker command, the simulated containers only compare them
+     */
+    private static class SimulatedImage extends LambdaImage {
+
+        SimulatedImage(String name) {
+            super(new Identifier(name), new AuthKey(name));
+        }
+
+        @Override
+        public List<String> getWarmStartCommand() {
+            return Collections.singletonList("warm");
+        }
+
+        @Override
+        public List<String> getWorkerCommand() {
+            return Collections.singletonList("worker");
+        }
+    }
+}